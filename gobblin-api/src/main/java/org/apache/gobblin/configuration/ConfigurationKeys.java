@@ -126,6 +126,17 @@ public class ConfigurationKeys {
   public static final int DEFAULT_TASK_EXECUTOR_THREADPOOL_SIZE = 2;
   public static final int DEFAULT_TASK_STATE_TRACKER_THREAD_POOL_CORE_SIZE = 1;
   public static final int DEFAULT_TASK_RETRY_THREAD_POOL_CORE_SIZE = 1;
+  // Alias or class name of the policy choosing the next queued task to run. Tasks run in submission order if not set.
+  public static final String TASK_EXECUTOR_SCHEDULING_POLICY_KEY = "taskexecutor.scheduling.policy";
+  // Task property by which the tasks share the task executor, e.g. the job name or a user name
+  public static final String TASK_SCHEDULING_GROUP_KEY = "taskexecutor.scheduling.group.key";
+  public static final String DEFAULT_TASK_SCHEDULING_GROUP_KEY = ConfigurationKeys.JOB_NAME_KEY;
+  // Share of the task executor of the group of a task, relative to other groups
+  public static final String TASK_SCHEDULING_WEIGHT_KEY = "taskexecutor.scheduling.weight";
+  public static final double DEFAULT_TASK_SCHEDULING_WEIGHT = 1.0;
+  // Queued tasks with a higher priority run before any task with a lower priority
+  public static final String TASK_SCHEDULING_PRIORITY_KEY = "taskexecutor.scheduling.priority";
+  public static final int DEFAULT_TASK_SCHEDULING_PRIORITY = 0;
 
   /**
    * Common flow configuration properties.
@@ -178,6 +189,12 @@ public class ConfigurationKeys {
   /** Only applicable if {@link #PARALLELIZE_DATASET_COMMIT} is true. */
   public static final String DATASET_COMMIT_THREADS = "job.commit.parallelCommits";
   public static final int DEFAULT_DATASET_COMMIT_THREADS = 20;
+  // Number of dataset states persisted together. Values above 1 persist dataset states in batches that are written
+  // while the commits of other datasets are still publishing
+  public static final String DATASET_STATE_PERSIST_BATCH_SIZE = "job.commit.datasetStatePersistBatchSize";
+  public static final int DEFAULT_DATASET_STATE_PERSIST_BATCH_SIZE = 1;
+  // Prefix of the job properties holding the total time spent in each dataset commit stage
+  public static final String DATASET_COMMIT_STAGE_TIME_PREFIX = "job.commit.stageTimeMillis";
 
   public static final String WORK_UNIT_RETRY_POLICY_KEY = "workunit.retry.policy";
   public static final String WORK_UNIT_RETRY_ENABLED_KEY = "workunit.retry.enabled";
@@ -544,6 +561,14 @@ public class ConfigurationKeys {
   public static final String SOURCE_QUERYBASED_IS_HOURLY_EXTRACT = "source.querybased.hourly.extract";
   public static final String SOURCE_QUERYBASED_EXTRACT_TYPE = "source.querybased.extract.type";
   public static final String SOURCE_QUERYBASED_PARTITION_INTERVAL = "source.querybased.partition.interval";
+  // Sample the watermark column distribution to create partitions of about the same number of records
+  public static final String SOURCE_QUERYBASED_SKEW_AWARE_PARTITIONING_ENABLED =
+      "source.querybased.skewAwarePartitioning.enabled";
+  public static final boolean DEFAULT_SOURCE_QUERYBASED_SKEW_AWARE_PARTITIONING_ENABLED = false;
+  // Maximum number of count queries issued to sample the distribution of a table
+  public static final String SOURCE_QUERYBASED_SKEW_AWARE_PARTITIONING_MAX_PROBES =
+      "source.querybased.skewAwarePartitioning.maxProbes";
+  public static final int DEFAULT_SOURCE_QUERYBASED_SKEW_AWARE_PARTITIONING_MAX_PROBES = 200;
   public static final String SOURCE_QUERYBASED_START_VALUE = "source.querybased.start.value";
   public static final String SOURCE_QUERYBASED_END_VALUE = "source.querybased.end.value";
   public static final String SOURCE_QUERYBASED_APPEND_MAX_WATERMARK_LIMIT =
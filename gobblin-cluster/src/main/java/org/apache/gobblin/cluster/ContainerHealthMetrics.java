@@ -36,4 +36,6 @@ public class ContainerHealthMetrics {
   public static final String MAJOR_GC_DURATION = CONTAINER_METRICS_PREFIX + "majorGcDuration";
   public static final String UNKNOWN_GC_COUNT = CONTAINER_METRICS_PREFIX + "unknownGcCount";
   public static final String UNKNOWN_GC_DURATION = CONTAINER_METRICS_PREFIX + "unknownGcDuration";
+  // Counter that sources which know how far behind they are may adjust by the change of their backlog in records
+  public static final String BACKLOG_RECORDS = CONTAINER_METRICS_PREFIX + "backlogRecords";
 }
@@ -26,6 +26,11 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.helix.AccessOption;
+import org.apache.helix.HelixManager;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Supplier;
 import com.google.common.util.concurrent.AbstractScheduledService;
 import com.google.common.util.concurrent.AtomicDouble;
 import com.sun.management.OperatingSystemMXBean;
@@ -33,8 +38,12 @@ import com.typesafe.config.Config;
 
 import lombok.Data;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 
+import org.apache.gobblin.metrics.ContextAwareCounter;
 import org.apache.gobblin.metrics.ContextAwareGauge;
+import org.apache.gobblin.metrics.ContextAwareMeter;
+import org.apache.gobblin.metrics.MetricNames;
 import org.apache.gobblin.metrics.RootMetricContext;
 import org.apache.gobblin.util.ConfigUtils;
 
@@ -48,11 +57,19 @@ import org.apache.gobblin.util.ConfigUtils;
  *   {@link com.google.common.util.concurrent.ServiceManager} that manages the lifecycle of
  *   a {@link ContainerHealthMetricsService}.
  * </p>
+ *
+ * <p>
+ *   If enabled and given a connected {@link HelixManager}, it also publishes a {@link ContainerWorkloadMetrics}
+ *   snapshot of the container to the Helix property store at every iteration, for workload-aware autoscaling.
+ * </p>
 */
+@Slf4j
 public class ContainerHealthMetricsService extends AbstractScheduledService {
   //Container metrics service configurations
   private static final String CONTAINER_METRICS_SERVICE_REPORTING_INTERVAL_SECONDS = "container.health.metrics.service.reportingIntervalSeconds";
   private static final Long DEFAULT_CONTAINER_METRICS_REPORTING_INTERVAL = 30L;
+  public static final String CONTAINER_METRICS_SERVICE_PUBLISH_WORKLOAD_METRICS = "container.health.metrics.service.publishWorkloadMetrics";
+  public static final boolean DEFAULT_CONTAINER_METRICS_SERVICE_PUBLISH_WORKLOAD_METRICS = false;
   private static final Set<String> YOUNG_GC_TYPES = new HashSet<>(3);
   private static final Set<String> OLD_GC_TYPES = new HashSet<String>(3);
 
@@ -72,6 +89,9 @@ public class ContainerHealthMetricsService extends AbstractScheduledService {
   private final OperatingSystemMXBean operatingSystemMXBean;
   private final MemoryMXBean memoryMXBean;
   private final List<GarbageCollectorMXBean> garbageCollectorMXBeans;
+  private final Optional<Supplier<HelixManager>> workloadMetricsHelixManager;
+  private final ContextAwareMeter recordsReadMeter;
+  private final ContextAwareCounter backlogRecordsCounter;
 
   @Getter
   private GcStats lastGcStats;
@@ -100,6 +120,15 @@ public class ContainerHealthMetricsService extends AbstractScheduledService {
   AtomicDouble unknownGcDuration = new AtomicDouble(0);
 
   public ContainerHealthMetricsService(Config config) {
+    this(config, Optional.<Supplier<HelixManager>>absent());
+  }
+
+  /**
+   * @param helixManager supplies the current {@link HelixManager} of the container, used to publish
+   *                     {@link ContainerWorkloadMetrics} if {@link #CONTAINER_METRICS_SERVICE_PUBLISH_WORKLOAD_METRICS}
+   *                     is set.
+   */
+  public ContainerHealthMetricsService(Config config, Optional<Supplier<HelixManager>> helixManager) {
     this.metricReportingInterval = ConfigUtils.getLong(config, CONTAINER_METRICS_SERVICE_REPORTING_INTERVAL_SECONDS, DEFAULT_CONTAINER_METRICS_REPORTING_INTERVAL);
     this.operatingSystemMXBean = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
     this.memoryMXBean = ManagementFactory.getMemoryMXBean();
@@ -110,6 +139,12 @@ public class ContainerHealthMetricsService extends AbstractScheduledService {
     //Build all the gauges and register them with the metrics registry.
     List<ContextAwareGauge<Double>> systemMetrics = buildGaugeList();
     systemMetrics.forEach(metric -> RootMetricContext.get().register(metric));
+
+    // Meters and counters of task metric contexts are aggregated in the root metric context
+    this.workloadMetricsHelixManager = ConfigUtils.getBoolean(config, CONTAINER_METRICS_SERVICE_PUBLISH_WORKLOAD_METRICS,
+        DEFAULT_CONTAINER_METRICS_SERVICE_PUBLISH_WORKLOAD_METRICS) ? helixManager : Optional.<Supplier<HelixManager>>absent();
+    this.recordsReadMeter = RootMetricContext.get().contextAwareMeter(MetricNames.ExtractorMetrics.RECORDS_READ_METER);
+    this.backlogRecordsCounter = RootMetricContext.get().contextAwareCounter(ContainerHealthMetrics.BACKLOG_RECORDS);
   }
 
   @Data
@@ -154,6 +189,33 @@ public class ContainerHealthMetricsService extends AbstractScheduledService {
 
     //Update last collected stats
     this.lastGcStats = this.currentGcStats;
+
+    publishWorkloadMetrics();
+  }
+
+  /**
+   * Publish a {@link ContainerWorkloadMetrics} snapshot as an ephemeral node, so that it goes away with the container.
+   * Failures are only logged, since an exception would stop this service.
+   */
+  private void publishWorkloadMetrics() {
+    if (!this.workloadMetricsHelixManager.isPresent()) {
+      return;
+    }
+    HelixManager helixManager = this.workloadMetricsHelixManager.get().get();
+    if (helixManager == null || !helixManager.isConnected()) {
+      return;
+    }
+
+    ContainerWorkloadMetrics workloadMetrics = new ContainerWorkloadMetrics(helixManager.getInstanceName(),
+        System.currentTimeMillis(), this.processCpuLoad.get(), this.recordsReadMeter.getOneMinuteRate(),
+        Math.max(0L, this.backlogRecordsCounter.getCount()));
+    try {
+      helixManager.getHelixPropertyStore().set(
+          ContainerWorkloadMetrics.getPropertyStorePath(helixManager.getInstanceName()), workloadMetrics.toZNRecord(),
+          AccessOption.EPHEMERAL);
+    } catch (RuntimeException e) {
+      log.warn("Failed to publish workload metrics of " + helixManager.getInstanceName(), e);
+    }
   }
 
   protected List<ContextAwareGauge<Double>> buildGaugeList() {
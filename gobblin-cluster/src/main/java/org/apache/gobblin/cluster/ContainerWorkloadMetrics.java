@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.cluster;
+
+import org.apache.helix.ZNRecord;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+
+/**
+ * A snapshot of the load of a container, published by {@link ContainerHealthMetricsService} to the Helix property
+ * store so that the cluster manager can size the cluster from the actual workload.
+ */
+@Data
+@AllArgsConstructor
+public class ContainerWorkloadMetrics {
+  public static final String PROPERTY_STORE_PATH = "/CONTAINER_WORKLOAD_METRICS";
+
+  private static final String TIMESTAMP_MILLIS = "timestampMillis";
+  private static final String PROCESS_CPU_LOAD = "processCpuLoad";
+  private static final String RECORDS_PER_SECOND = "recordsPerSecond";
+  private static final String BACKLOG_RECORDS = "backlogRecords";
+
+  private final String instanceName;
+  private final long timestampMillis;
+  /** CPU load of the container process, between 0 and 1 */
+  private final double processCpuLoad;
+  /** Records read per second by the tasks of the container, over the last minute */
+  private final double recordsPerSecond;
+  /** Records the tasks of the container are behind on, if the sources report it */
+  private final long backlogRecords;
+
+  public static String getPropertyStorePath(String instanceName) {
+    return PROPERTY_STORE_PATH + "/" + instanceName;
+  }
+
+  public ZNRecord toZNRecord() {
+    ZNRecord record = new ZNRecord(this.instanceName);
+    record.setSimpleField(TIMESTAMP_MILLIS, Long.toString(this.timestampMillis));
+    record.setSimpleField(PROCESS_CPU_LOAD, Double.toString(this.processCpuLoad));
+    record.setSimpleField(RECORDS_PER_SECOND, Double.toString(this.recordsPerSecond));
+    record.setSimpleField(BACKLOG_RECORDS, Long.toString(this.backlogRecords));
+    return record;
+  }
+
+  public static ContainerWorkloadMetrics fromZNRecord(ZNRecord record) {
+    return new ContainerWorkloadMetrics(record.getId(), getLong(record, TIMESTAMP_MILLIS),
+        getDouble(record, PROCESS_CPU_LOAD), getDouble(record, RECORDS_PER_SECOND), getLong(record, BACKLOG_RECORDS));
+  }
+
+  private static long getLong(ZNRecord record, String key) {
+    String value = record.getSimpleField(key);
+    return value == null ? 0L : Long.parseLong(value);
+  }
+
+  private static double getDouble(ZNRecord record, String key) {
+    String value = record.getSimpleField(key);
+    return value == null ? 0.0 : Double.parseDouble(value);
+  }
+}
@@ -67,6 +67,32 @@ public class GobblinClusterConfigurationKeys {
 
   public static final String ZK_CONNECTION_STRING_KEY = GOBBLIN_CLUSTER_PREFIX + "zk.connection.string";
   public static final String WORK_UNIT_FILE_PATH = GOBBLIN_CLUSTER_PREFIX + "work.unit.file.path";
+
+  // Pack work units into segment files written while the Helix job is already running, instead of persisting every
+  // work unit before submission. Tasks block until their segment is available.
+  public static final String WORK_UNIT_SEGMENTS_ENABLED = GOBBLIN_CLUSTER_PREFIX + "workUnitSegments.enabled";
+  public static final boolean DEFAULT_WORK_UNIT_SEGMENTS_ENABLED = false;
+  public static final String WORK_UNITS_PER_SEGMENT = GOBBLIN_CLUSTER_PREFIX + "workUnitSegments.workUnitsPerSegment";
+  public static final int DEFAULT_WORK_UNITS_PER_SEGMENT = 500;
+  public static final String WORK_UNIT_SEGMENT_WAIT_TIMEOUT_SECONDS = GOBBLIN_CLUSTER_PREFIX + "workUnitSegments.waitTimeoutSeconds";
+  public static final long DEFAULT_WORK_UNIT_SEGMENT_WAIT_TIMEOUT_SECONDS = 3600;
+
+  // Pack work units into Helix tasks of similar estimated cost, sized to the free task slots of the cluster
+  public static final String TASK_PLACEMENT_WEIGHTED_ENABLED = GOBBLIN_CLUSTER_PREFIX + "taskPlacement.weighted.enabled";
+  public static final boolean DEFAULT_TASK_PLACEMENT_WEIGHTED_ENABLED = false;
+  // Comma separated work unit properties holding a cost estimate, the first one present is used
+  public static final String TASK_PLACEMENT_WEIGHT_FIELDS = GOBBLIN_CLUSTER_PREFIX + "taskPlacement.weightFields";
+  public static final String DEFAULT_TASK_PLACEMENT_WEIGHT_FIELDS = "estimated.workunit.size,gobblin.copy.workUnitWeight";
+  // Tasks created per free slot; more than one lets participants that finish early pick up the tail
+  public static final String TASK_PLACEMENT_TASKS_PER_SLOT = GOBBLIN_CLUSTER_PREFIX + "taskPlacement.tasksPerSlot";
+  public static final int DEFAULT_TASK_PLACEMENT_TASKS_PER_SLOT = 2;
+  // Maximum number of containers of the cluster, e.g. the maximum of the Yarn autoscaler. Tasks are not packed below
+  // the task slots of the cluster at this size, so that an autoscaler still sees the demand to scale up
+  public static final String TASK_PLACEMENT_MAX_CONTAINERS = GOBBLIN_CLUSTER_PREFIX + "taskPlacement.maxContainers";
+  public static final int DEFAULT_TASK_PLACEMENT_MAX_CONTAINERS = Integer.MAX_VALUE;
+  public static final String TASK_PLACEMENT_WORKLOAD_METRICS_MAX_AGE_SECONDS = GOBBLIN_CLUSTER_PREFIX + "taskPlacement.workloadMetricsMaxAgeSeconds";
+  public static final long DEFAULT_TASK_PLACEMENT_WORKLOAD_METRICS_MAX_AGE_SECONDS = 300;
+
   public static final String HELIX_INSTANCE_NAME_OPTION_NAME = "helix_instance_name";
   public static final String HELIX_INSTANCE_NAME_KEY = GOBBLIN_CLUSTER_PREFIX + "helixInstanceName";
 
@@ -127,6 +127,9 @@ public class GobblinHelixJobLauncher extends AbstractJobLauncher {
   private final Config jobConfig;
   private final long workFlowExpiryTimeSeconds;
   private final long helixJobStopTimeoutSeconds;
+  private final boolean workUnitSegmentsEnabled;
+  private final int workUnitsPerSegment;
+  private final Optional<WeightedTaskPlacement> weightedTaskPlacement;
 
   public GobblinHelixJobLauncher (Properties jobProps,
                                   final HelixManager helixManager,
@@ -160,6 +163,17 @@ public class GobblinHelixJobLauncher extends AbstractJobLauncher {
         GobblinClusterConfigurationKeys.HELIX_JOB_STOP_TIMEOUT_SECONDS,
         GobblinClusterConfigurationKeys.DEFAULT_HELIX_JOB_STOP_TIMEOUT_SECONDS);
 
+    this.workUnitSegmentsEnabled = ConfigUtils.getBoolean(jobConfig,
+        GobblinClusterConfigurationKeys.WORK_UNIT_SEGMENTS_ENABLED,
+        GobblinClusterConfigurationKeys.DEFAULT_WORK_UNIT_SEGMENTS_ENABLED);
+    this.workUnitsPerSegment = ConfigUtils.getInt(jobConfig,
+        GobblinClusterConfigurationKeys.WORK_UNITS_PER_SEGMENT,
+        GobblinClusterConfigurationKeys.DEFAULT_WORK_UNITS_PER_SEGMENT);
+    this.weightedTaskPlacement = ConfigUtils.getBoolean(jobConfig,
+        GobblinClusterConfigurationKeys.TASK_PLACEMENT_WEIGHTED_ENABLED,
+        GobblinClusterConfigurationKeys.DEFAULT_TASK_PLACEMENT_WEIGHTED_ENABLED)
+        ? Optional.of(new WeightedTaskPlacement(jobConfig)) : Optional.empty();
+
     Config stateStoreJobConfig = ConfigUtils.propertiesToConfig(jobProps)
         .withValue(ConfigurationKeys.STATE_STORE_FS_URI_KEY, ConfigValueFactory.fromAnyRef(
             new URI(appWorkDir.toUri().getScheme(), null, appWorkDir.toUri().getHost(),
@@ -206,6 +220,10 @@ public class GobblinHelixJobLauncher extends AbstractJobLauncher {
       long workUnitStartTime = System.currentTimeMillis();
       workUnits.forEach((k) -> k.setProp(ConfigurationKeys.WORK_UNIT_CREATION_TIME_IN_MILLIS, workUnitStartTime));
 
+      if (this.weightedTaskPlacement.isPresent()) {
+        workUnits = this.weightedTaskPlacement.get().plan(workUnits, getAvailableTaskSlots(), getMaxTaskSlots());
+      }
+
       // Start the output TaskState collector service
       this.taskStateCollectorService.startAsync().awaitRunning();
 
@@ -230,6 +248,10 @@ public class GobblinHelixJobLauncher extends AbstractJobLauncher {
         }
       }
 
+      if (this.jobSubmitted && this.workUnitSegmentsEnabled) {
+        writeWorkUnitSegments(workUnits);
+      }
+
       TimingEvent jobRunTimer = this.eventSubmitter.getTimingEvent(TimingEvent.RunJobTimings.HELIX_JOB_RUN);
       long waitStart = System.currentTimeMillis();
       waitForJobCompletion();
@@ -267,11 +289,35 @@ public class GobblinHelixJobLauncher extends AbstractJobLauncher {
     }
   }
 
+  private double getAvailableTaskSlots() {
+    long metricsMaxAgeSeconds = ConfigUtils.getLong(this.jobConfig,
+        GobblinClusterConfigurationKeys.TASK_PLACEMENT_WORKLOAD_METRICS_MAX_AGE_SECONDS,
+        GobblinClusterConfigurationKeys.DEFAULT_TASK_PLACEMENT_WORKLOAD_METRICS_MAX_AGE_SECONDS);
+    return WeightedTaskPlacement.getAvailableSlots(this.helixManager, getTaskConcurrency(),
+        metricsMaxAgeSeconds * 1000);
+  }
+
+  private double getMaxTaskSlots() {
+    int maxContainers = ConfigUtils.getInt(this.jobConfig, GobblinClusterConfigurationKeys.TASK_PLACEMENT_MAX_CONTAINERS,
+        GobblinClusterConfigurationKeys.DEFAULT_TASK_PLACEMENT_MAX_CONTAINERS);
+    return (double) maxContainers * getTaskConcurrency();
+  }
+
+  private int getTaskConcurrency() {
+    return ConfigUtils.getInt(this.jobConfig, GobblinClusterConfigurationKeys.HELIX_CLUSTER_TASK_CONCURRENCY,
+        GobblinClusterConfigurationKeys.HELIX_CLUSTER_TASK_CONCURRENCY_DEFAULT);
+  }
+
   /**
    * Create a job from a given batch of {@link WorkUnit}s.
    */
   JobConfig.Builder createHelixJob(List<WorkUnit> workUnits) throws IOException {
-    Map<String, TaskConfig> taskConfigMap = Maps.newHashMap();
+    if (this.workUnitSegmentsEnabled) {
+      return createSegmentedHelixJob(workUnits);
+    }
+
+    // Keep the submission order, which puts the heaviest tasks first when weighted task placement is enabled
+    Map<String, TaskConfig> taskConfigMap = Maps.newLinkedHashMap();
 
     try (ParallelRunner stateSerDeRunner = new ParallelRunner(this.stateSerDeRunnerThreads, this.fs)) {
       int multiTaskIdSequence = 0;
@@ -282,17 +328,7 @@ public class GobblinHelixJobLauncher extends AbstractJobLauncher {
         addWorkUnit(workUnit, stateSerDeRunner, taskConfigMap);
       }
 
-      Path jobStateFilePath;
-
-      // write the job.state using the state store if present, otherwise serialize directly to the file
-      if (this.stateStores.haveJobStateStore()) {
-        jobStateFilePath = GobblinClusterUtils.getJobStateFilePath(true, this.appWorkDir, this.jobContext.getJobId());
-        this.stateStores.getJobStateStore().put(jobStateFilePath.getParent().getName(), jobStateFilePath.getName(),
-            this.jobContext.getJobState());
-      } else {
-        jobStateFilePath = GobblinClusterUtils.getJobStateFilePath(false, this.appWorkDir, this.jobContext.getJobId());
-        SerializationUtils.serializeState(this.fs, jobStateFilePath, this.jobContext.getJobState());
-      }
+      Path jobStateFilePath = persistJobState();
 
       // Block on persistence of all workunits to be finished.
       // It is necessary when underlying storage being slow and Helix activate task-execution before the workunit being persisted.
@@ -305,6 +341,86 @@ public class GobblinHelixJobLauncher extends AbstractJobLauncher {
     }
   }
 
+  /**
+   * Create a job whose tasks reference {@link WorkUnit}s packed in {@link WorkUnitSegmentFile}s. Only the job state is
+   * persisted here; the segments are written by {@link #writeWorkUnitSegments(List)} after the job is submitted, so
+   * Helix can start scheduling tasks while the work units are still being serialized.
+   */
+  private JobConfig.Builder createSegmentedHelixJob(List<WorkUnit> workUnits) throws IOException {
+    // Keep the submission order, which puts the heaviest tasks first when weighted task placement is enabled
+    Map<String, TaskConfig> taskConfigMap = Maps.newLinkedHashMap();
+    Path segmentDir = getWorkUnitSegmentDir();
+
+    int multiTaskIdSequence = 0;
+    int segmentIndex = 0;
+    for (List<WorkUnit> segment : Lists.partition(workUnits, this.workUnitsPerSegment)) {
+      Path segmentPath = WorkUnitSegmentFile.getSegmentPath(segmentDir, segmentIndex++);
+      for (int position = 0; position < segment.size(); position++) {
+        WorkUnit workUnit = segment.get(position);
+        if (workUnit instanceof MultiWorkUnit) {
+          workUnit.setId(JobLauncherUtils.newMultiTaskId(this.jobContext.getJobId(), multiTaskIdSequence++));
+        }
+        addTaskConfig(workUnit, WorkUnitSegmentFile.getWorkUnitPath(segmentPath, position).toString(), taskConfigMap);
+      }
+    }
+
+    Path jobStateFilePath = persistJobState();
+    LOGGER.debug("GobblinHelixJobLauncher.createSegmentedHelixJob: jobStateFilePath {}, {} segments in {}",
+        jobStateFilePath, segmentIndex, segmentDir);
+
+    return translateGobblinJobConfigToHelixJobConfig(this.jobContext.getJobState(), workUnits, taskConfigMap);
+  }
+
+  /**
+   * Write the segments referenced by the tasks created in {@link #createSegmentedHelixJob(List)}. Segments are
+   * submitted in task order so the earliest scheduled tasks are unblocked first.
+   */
+  private void writeWorkUnitSegments(List<WorkUnit> workUnits) throws IOException {
+    Path segmentDir = getWorkUnitSegmentDir();
+    long startTime = System.currentTimeMillis();
+
+    try (ParallelRunner segmentWriter = new ParallelRunner(this.stateSerDeRunnerThreads, this.fs)) {
+      int segmentIndex = 0;
+      for (List<WorkUnit> segment : Lists.partition(workUnits, this.workUnitsPerSegment)) {
+        Path segmentPath = WorkUnitSegmentFile.getSegmentPath(segmentDir, segmentIndex++);
+        segmentWriter.submitCallable(() -> {
+          WorkUnitSegmentFile.write(this.fs, segmentPath, segment);
+          return null;
+        }, "Write work unit segment " + segmentPath);
+      }
+    } catch (IOException e) {
+      // Tasks would otherwise block until the segment wait timeout
+      log.error("Failed to write work unit segments for job {}, stopping workflow {}", this.jobContext.getJobId(),
+          this.helixWorkFlowName, e);
+      this.helixTaskDriver.stop(this.helixWorkFlowName);
+      throw e;
+    }
+
+    LOGGER.info("Wrote {} work units to {} in {} ms", workUnits.size(), segmentDir,
+        System.currentTimeMillis() - startTime);
+  }
+
+  private Path getWorkUnitSegmentDir() {
+    return new Path(this.inputWorkUnitDir, this.jobContext.getJobId());
+  }
+
+  /**
+   * Write the job.state using the state store if present, otherwise serialize directly to the file.
+   */
+  private Path persistJobState() throws IOException {
+    Path jobStateFilePath;
+
+    if (this.stateStores.haveJobStateStore()) {
+      jobStateFilePath = GobblinClusterUtils.getJobStateFilePath(true, this.appWorkDir, this.jobContext.getJobId());
+      this.stateStores.getJobStateStore().put(jobStateFilePath.getParent().getName(), jobStateFilePath.getName(),
+          this.jobContext.getJobState());
+    } else {
+      jobStateFilePath = GobblinClusterUtils.getJobStateFilePath(false, this.appWorkDir, this.jobContext.getJobId());
+      SerializationUtils.serializeState(this.fs, jobStateFilePath, this.jobContext.getJobState());
+    }
+    return jobStateFilePath;
+  }
+
   /**
    * Populate {@link JobConfig.Builder} with relevant gobblin job-configurations.
    */
@@ -403,7 +519,10 @@ public class GobblinHelixJobLauncher extends AbstractJobLauncher {
       Map<String, TaskConfig> taskConfigMap) throws IOException {
     String workUnitFilePath = persistWorkUnit(
         new Path(this.inputWorkUnitDir, this.jobContext.getJobId()), workUnit, stateSerDeRunner);
+    addTaskConfig(workUnit, workUnitFilePath, taskConfigMap);
+  }
 
+  private void addTaskConfig(WorkUnit workUnit, String workUnitFilePath, Map<String, TaskConfig> taskConfigMap) {
     Map<String, String> rawConfigMap = Maps.newHashMap();
     rawConfigMap.put(GobblinClusterConfigurationKeys.WORK_UNIT_FILE_PATH, workUnitFilePath);
     rawConfigMap.put(ConfigurationKeys.JOB_NAME_KEY, this.jobContext.getJobName());
@@ -475,6 +594,9 @@ public class GobblinHelixJobLauncher extends AbstractJobLauncher {
   private void cleanupWorkingDirectory() throws IOException {
     LOGGER.info("Deleting persisted work units for job " + this.jobContext.getJobId());
     stateStores.getWuStateStore().delete(this.jobContext.getJobId());
+    if (this.workUnitSegmentsEnabled) {
+      this.fs.delete(getWorkUnitSegmentDir(), true);
+    }
 
     // delete the directory that stores the task state files
     stateStores.getTaskStateStore().delete(outputTaskStateDir.getName());
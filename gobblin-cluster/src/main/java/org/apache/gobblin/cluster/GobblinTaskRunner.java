@@ -69,6 +69,7 @@ import com.github.rholder.retry.StopStrategies;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import com.google.common.eventbus.EventBus;
@@ -452,7 +453,8 @@ public class GobblinTaskRunner implements StandardMetricsBridge {
     List<Service> serviceList = new ArrayList<>();
     if (ConfigUtils.getBoolean(this.clusterConfig, GobblinClusterConfigurationKeys.CONTAINER_HEALTH_METRICS_SERVICE_ENABLED,
         GobblinClusterConfigurationKeys.DEFAULT_CONTAINER_HEALTH_METRICS_SERVICE_ENABLED)) {
-      serviceList.add(new ContainerHealthMetricsService(clusterConfig));
+      serviceList.add(new ContainerHealthMetricsService(clusterConfig,
+          Optional.<Supplier<HelixManager>>of(() -> this.jobHelixManager)));
     }
     return serviceList;
   }
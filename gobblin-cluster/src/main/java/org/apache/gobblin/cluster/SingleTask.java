@@ -180,7 +180,9 @@ public class SingleTask {
     WorkUnit workUnit;
 
     try {
-      if (_workUnitFilePath.getName().endsWith(AbstractJobLauncher.MULTI_WORK_UNIT_FILE_EXTENSION)) {
+      if (WorkUnitSegmentFile.isSegmentWorkUnitPath(_workUnitFilePath)) {
+        workUnit = getWorkUnitFromSegment();
+      } else if (_workUnitFilePath.getName().endsWith(AbstractJobLauncher.MULTI_WORK_UNIT_FILE_EXTENSION)) {
         workUnit = _stateStores.getMwuStateStore().getAll(storeName, fileName).get(0);
       } else {
         workUnit = _stateStores.getWuStateStore().getAll(storeName, fileName).get(0);
@@ -204,6 +206,24 @@ public class SingleTask {
     return workUnits;
   }
 
+  /**
+   * Read the {@link WorkUnit} from a segment written by {@link GobblinHelixJobLauncher}, waiting for the segment if
+   * the launcher is still writing it.
+   */
+  private WorkUnit getWorkUnitFromSegment() throws IOException {
+    long waitTimeoutSeconds = _jobState == null ? GobblinClusterConfigurationKeys.DEFAULT_WORK_UNIT_SEGMENT_WAIT_TIMEOUT_SECONDS
+        : _jobState.getPropAsLong(GobblinClusterConfigurationKeys.WORK_UNIT_SEGMENT_WAIT_TIMEOUT_SECONDS,
+            GobblinClusterConfigurationKeys.DEFAULT_WORK_UNIT_SEGMENT_WAIT_TIMEOUT_SECONDS);
+
+    try {
+      WorkUnitSegmentFile.waitForSegment(_fs, _workUnitFilePath.getParent(), waitTimeoutSeconds, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for work unit segment " + _workUnitFilePath.getParent(), e);
+    }
+    return WorkUnitSegmentFile.read(_fs, _workUnitFilePath);
+  }
+
   public void cancel() {
     int retryCount = 0 ;
     int maxRetry = ConfigUtils.getInt(_dynamicConfig, MAX_RETRY_WAITING_FOR_INIT_KEY, DEFAULT_MAX_RETRY_WAITING_FOR_INIT);
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.cluster;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.helix.AccessOption;
+import org.apache.helix.HelixManager;
+import org.apache.helix.ZNRecord;
+import org.apache.helix.store.zk.ZkHelixPropertyStore;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.typesafe.config.Config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.gobblin.source.workunit.MultiWorkUnit;
+import org.apache.gobblin.source.workunit.WorkUnit;
+import org.apache.gobblin.source.workunit.WorkUnitWeighter;
+import org.apache.gobblin.util.ConfigUtils;
+import org.apache.gobblin.util.JobLauncherUtils;
+import org.apache.gobblin.util.binpacking.WorstFitDecreasingBinPacking;
+
+
+/**
+ * Groups {@link WorkUnit}s into Helix tasks of similar cost before {@link GobblinHelixJobLauncher} submits them.
+ *
+ * <p>
+ *   Helix assigns generic tasks to participants without looking at their cost, so a few heavy work units can keep one
+ *   participant busy long after the others went idle. This class estimates the cost of each work unit from a list of
+ *   weight fields (such as the Kafka estimated work unit size or the copy work unit weight), estimates the number of
+ *   task slots free in the cluster from the {@link ContainerWorkloadMetrics} published by the participants, and packs
+ *   the work units with {@link WorstFitDecreasingBinPacking} into {@code tasksPerSlot} tasks per slot.
+ * </p>
+ *
+ * <p>
+ *   An autoscaler such as the Yarn one sizes the cluster from the number of Helix tasks, so the tasks are never packed
+ *   below what the cluster can provide at its maximum size: the number of slots is the larger of the free slots and the
+ *   maximum slots of the cluster. When the maximum size of the cluster is unbounded, the work units are not packed.
+ * </p>
+ *
+ * <p>
+ *   Tasks are returned heaviest first. Together with the extra tasks per slot, this lets Helix hand the lighter tail
+ *   tasks to whichever participant frees a slot first, which rebalances the long tail when a participant finishes early.
+ * </p>
+ */
+@Slf4j
+public class WeightedTaskPlacement {
+
+  /** Fraction of a participant's slots that is always considered available, however loaded it reports to be */
+  private static final double MIN_CAPACITY_FRACTION = 0.1;
+
+  private final WorkUnitWeighter weighter;
+  private final int tasksPerSlot;
+
+  public WeightedTaskPlacement(List<String> weightFields, int tasksPerSlot) {
+    this.weighter = new FieldsWeighter(weightFields);
+    this.tasksPerSlot = Math.max(1, tasksPerSlot);
+  }
+
+  public WeightedTaskPlacement(Config config) {
+    this(Splitter.on(',').omitEmptyStrings().trimResults().splitToList(ConfigUtils.getString(config,
+        GobblinClusterConfigurationKeys.TASK_PLACEMENT_WEIGHT_FIELDS,
+        GobblinClusterConfigurationKeys.DEFAULT_TASK_PLACEMENT_WEIGHT_FIELDS)),
+        ConfigUtils.getInt(config, GobblinClusterConfigurationKeys.TASK_PLACEMENT_TASKS_PER_SLOT,
+            GobblinClusterConfigurationKeys.DEFAULT_TASK_PLACEMENT_TASKS_PER_SLOT));
+  }
+
+  /**
+   * Pack the work units into roughly {@code max(availableSlots, maxSlots) * tasksPerSlot} tasks of similar weight.
+   * {@link MultiWorkUnit}s are only kept as they are if the work units are not packed.
+   *
+   * @param availableSlots the free task slots of the live participants
+   * @param maxSlots the task slots of the cluster at its maximum size
+   * @return the work units to submit as Helix tasks, heaviest first
+   */
+  public List<WorkUnit> plan(List<WorkUnit> workUnits, double availableSlots, double maxSlots) {
+    double slots = Math.max(Math.max(1, availableSlots), maxSlots);
+    long numTasks = (long) Math.min(Math.ceil(slots * this.tasksPerSlot), Integer.MAX_VALUE);
+    List<WorkUnit> flattenedWorkUnits = JobLauncherUtils.flattenWorkUnits(workUnits);
+
+    List<WorkUnit> tasks;
+    if (flattenedWorkUnits.size() <= numTasks) {
+      tasks = Lists.newArrayList(workUnits);
+    } else {
+      long totalWeight = 0;
+      long maxWeight = 0;
+      for (WorkUnit workUnit : flattenedWorkUnits) {
+        long weight = this.weighter.weight(workUnit);
+        totalWeight += weight;
+        maxWeight = Math.max(maxWeight, weight);
+      }
+      long maxWeightPerTask = Math.max((totalWeight + numTasks - 1) / numTasks, maxWeight);
+      // Packed from the flattened work units, so that a MultiWorkUnit is not wrapped into another one
+      tasks = new WorstFitDecreasingBinPacking(maxWeightPerTask).pack(flattenedWorkUnits, this.weighter);
+    }
+
+    tasks.sort(Comparator.comparingLong(this.weighter::weight).reversed());
+    log.info("Packed {} work units into {} tasks for {} available slots and {} maximum slots",
+        flattenedWorkUnits.size(), tasks.size(), availableSlots, maxSlots);
+    return tasks;
+  }
+
+  /**
+   * Estimate the number of task slots available in the cluster. Each live participant contributes
+   * {@code taskConcurrency} slots, scaled down by the CPU load of its latest {@link ContainerWorkloadMetrics} if it
+   * published one within {@code metricsMaxAgeMillis}.
+   */
+  public static double getAvailableSlots(HelixManager helixManager, int taskConcurrency, long metricsMaxAgeMillis) {
+    ZkHelixPropertyStore<ZNRecord> propertyStore = helixManager.getHelixPropertyStore();
+    long now = System.currentTimeMillis();
+    double slots = 0;
+
+    for (String participant : HelixUtils.getLiveInstances(helixManager)) {
+      double capacityFraction = 1.0;
+      ZNRecord record = propertyStore.get(ContainerWorkloadMetrics.getPropertyStorePath(participant), null,
+          AccessOption.PERSISTENT);
+      if (record != null) {
+        ContainerWorkloadMetrics metrics = ContainerWorkloadMetrics.fromZNRecord(record);
+        if (now - metrics.getTimestampMillis() <= metricsMaxAgeMillis) {
+          capacityFraction = Math.max(MIN_CAPACITY_FRACTION, 1.0 - metrics.getProcessCpuLoad());
+        }
+      }
+      slots += taskConcurrency * capacityFraction;
+    }
+    return slots;
+  }
+
+  /**
+   * Weighs a {@link WorkUnit} by the first of the configured fields it contains. A {@link MultiWorkUnit} without any
+   * of the fields weighs the sum of its work units. Work units without any estimate weigh 1.
+   */
+  private static class FieldsWeighter implements WorkUnitWeighter {
+    private final List<String> fields;
+
+    FieldsWeighter(List<String> fields) {
+      this.fields = fields;
+    }
+
+    @Override
+    public long weight(WorkUnit workUnit) {
+      for (String field : this.fields) {
+        if (workUnit.contains(field)) {
+          return Math.max(1, (long) workUnit.getPropAsDouble(field));
+        }
+      }
+      if (workUnit instanceof MultiWorkUnit) {
+        long weight = 0;
+        for (WorkUnit child : ((MultiWorkUnit) workUnit).getWorkUnits()) {
+          weight += weight(child);
+        }
+        return Math.max(1, weight);
+      }
+      return 1;
+    }
+  }
+}
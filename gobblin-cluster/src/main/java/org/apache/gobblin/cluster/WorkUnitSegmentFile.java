@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.cluster;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.gobblin.compat.hadoop.TextSerializer;
+import org.apache.gobblin.source.workunit.MultiWorkUnit;
+import org.apache.gobblin.source.workunit.WorkUnit;
+
+
+/**
+ * A packed file holding many serialized {@link WorkUnit}s, used by {@link GobblinHelixJobLauncher} instead of writing
+ * one state store entry per work unit.
+ *
+ * <p>
+ *   Layout: a magic header, then one record per work unit (a type byte, the work unit id and the
+ *   {@link WorkUnit#write} output, which does not include the id),
+ *   then a footer holding the offset of each record followed by the record count. A reader only needs the file length
+ *   to locate the footer, so a single work unit can be read with two seeks without deserializing its neighbours.
+ * </p>
+ *
+ * <p>
+ *   Segments are written to a temporary file and renamed into place, so a reader either sees a complete segment or
+ *   no segment at all. Helix tasks reference a work unit in a segment through a virtual path of the form
+ *   {@code <segment file>/<position>}, see {@link #getWorkUnitPath(Path, int)}.
+ * </p>
+ */
+@Slf4j
+public class WorkUnitSegmentFile {
+
+  public static final String SEGMENT_FILE_EXTENSION = ".wus";
+
+  private static final int MAGIC = 0x47575553;
+  private static final byte WORK_UNIT_RECORD = 0;
+  private static final byte MULTI_WORK_UNIT_RECORD = 1;
+  private static final String TMP_SUFFIX = ".tmp";
+  private static final long POLL_INTERVAL_MILLIS = 1000;
+
+  private WorkUnitSegmentFile() {
+  }
+
+  /**
+   * @return the path of segment number {@code segmentIndex} under {@code segmentDir}
+   */
+  public static Path getSegmentPath(Path segmentDir, int segmentIndex) {
+    return new Path(segmentDir, String.format("segment_%05d%s", segmentIndex, SEGMENT_FILE_EXTENSION));
+  }
+
+  /**
+   * @return the virtual path that identifies the {@link WorkUnit} at {@code position} of the given segment
+   */
+  public static Path getWorkUnitPath(Path segmentPath, int position) {
+    return new Path(segmentPath, Integer.toString(position));
+  }
+
+  /**
+   * @return true if the path was created by {@link #getWorkUnitPath(Path, int)}
+   */
+  public static boolean isSegmentWorkUnitPath(Path workUnitPath) {
+    return workUnitPath.getParent() != null && workUnitPath.getParent().getName().endsWith(SEGMENT_FILE_EXTENSION);
+  }
+
+  /**
+   * Write the given {@link WorkUnit}s to a segment file. The segment becomes visible atomically once complete.
+   */
+  public static void write(FileSystem fs, Path segmentPath, List<WorkUnit> workUnits) throws IOException {
+    Path tmpPath = new Path(segmentPath.getParent(), segmentPath.getName() + TMP_SUFFIX);
+    long[] offsets = new long[workUnits.size()];
+
+    try (FSDataOutputStream out = fs.create(tmpPath, true)) {
+      out.writeInt(MAGIC);
+      for (int i = 0; i < workUnits.size(); i++) {
+        WorkUnit workUnit = workUnits.get(i);
+        offsets[i] = out.getPos();
+        out.writeByte(workUnit instanceof MultiWorkUnit ? MULTI_WORK_UNIT_RECORD : WORK_UNIT_RECORD);
+        TextSerializer.writeStringAsText(out, workUnit.getId() == null ? "" : workUnit.getId());
+        workUnit.write(out);
+      }
+      for (long offset : offsets) {
+        out.writeLong(offset);
+      }
+      out.writeInt(offsets.length);
+    }
+
+    if (!fs.rename(tmpPath, segmentPath)) {
+      throw new IOException(String.format("Failed to rename work unit segment %s to %s", tmpPath, segmentPath));
+    }
+  }
+
+  /**
+   * Read a single {@link WorkUnit} given the virtual path returned by {@link #getWorkUnitPath(Path, int)}.
+   */
+  public static WorkUnit read(FileSystem fs, Path workUnitPath) throws IOException {
+    return read(fs, workUnitPath.getParent(), Integer.parseInt(workUnitPath.getName()));
+  }
+
+  /**
+   * Read the {@link WorkUnit} at {@code position} of the given segment.
+   */
+  public static WorkUnit read(FileSystem fs, Path segmentPath, int position) throws IOException {
+    long length = fs.getFileStatus(segmentPath).getLen();
+
+    try (FSDataInputStream in = fs.open(segmentPath)) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException(segmentPath + " is not a work unit segment");
+      }
+
+      in.seek(length - Integer.BYTES);
+      int count = in.readInt();
+      if (position < 0 || position >= count) {
+        throw new IOException(String.format("Position %d out of range for segment %s with %d work units",
+            position, segmentPath, count));
+      }
+
+      in.seek(length - Integer.BYTES - (long) Long.BYTES * (count - position));
+      in.seek(in.readLong());
+
+      WorkUnit workUnit = in.readByte() == MULTI_WORK_UNIT_RECORD ? MultiWorkUnit.createEmpty() : WorkUnit.createEmpty();
+      String id = TextSerializer.readTextAsString(in);
+      if (!id.isEmpty()) {
+        workUnit.setId(id);
+      }
+      workUnit.readFields(in);
+      return workUnit;
+    }
+  }
+
+  /**
+   * Block until the segment exists, since Helix may start a task before the launcher has finished writing its segment.
+   */
+  public static void waitForSegment(FileSystem fs, Path segmentPath, long timeout, TimeUnit unit)
+      throws IOException, InterruptedException {
+    long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+
+    while (!fs.exists(segmentPath)) {
+      if (System.currentTimeMillis() >= deadline) {
+        throw new IOException(String.format("Timed out after %d %s waiting for work unit segment %s",
+            timeout, unit, segmentPath));
+      }
+      log.debug("Waiting for work unit segment {}", segmentPath);
+      Thread.sleep(POLL_INTERVAL_MILLIS);
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.cluster;
+
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import org.apache.gobblin.source.workunit.MultiWorkUnit;
+import org.apache.gobblin.source.workunit.WorkUnit;
+import org.apache.gobblin.util.JobLauncherUtils;
+
+
+/**
+ * Unit tests for {@link WeightedTaskPlacement}.
+ */
+@Test(groups = { "gobblin.cluster" })
+public class WeightedTaskPlacementTest {
+
+  private static final String WEIGHT_FIELD = "weight";
+  private static final int SLOTS = 8;
+
+  @Test
+  public void testMakespan() {
+    // A few heavy work units ahead of many light ones, which is the worst case for count based bundling
+    List<WorkUnit> workUnits = Lists.newArrayList();
+    for (int i = 0; i < 10; i++) {
+      workUnits.add(createWorkUnit(1000));
+    }
+    for (int i = 0; i < 190; i++) {
+      workUnits.add(createWorkUnit((i % 10 + 1) * 10));
+    }
+    long totalWeight = 10 * 1000 + 19 * 550;
+
+    WeightedTaskPlacement placement = new WeightedTaskPlacement(ImmutableList.of(WEIGHT_FIELD), 2);
+    List<WorkUnit> tasks = placement.plan(workUnits, SLOTS, 0);
+
+    Assert.assertEquals(JobLauncherUtils.flattenWorkUnits(tasks).size(), workUnits.size());
+    Assert.assertTrue(tasks.size() <= 2 * SLOTS + 1);
+
+    List<Long> taskWeights = Lists.newArrayList();
+    for (WorkUnit task : tasks) {
+      taskWeights.add(getWeight(task));
+    }
+    for (int i = 1; i < taskWeights.size(); i++) {
+      Assert.assertTrue(taskWeights.get(i - 1) >= taskWeights.get(i), "Tasks should be ordered heaviest first");
+    }
+
+    // Helix hands the next pending task to the first slot that frees up
+    long lowerBound = Math.max(totalWeight / SLOTS, 1000);
+    long makespan = getMakespan(taskWeights);
+    Assert.assertTrue(makespan <= lowerBound * 4 / 3, "Makespan " + makespan + " vs lower bound " + lowerBound);
+
+    List<Long> countBasedWeights = Lists.newArrayList();
+    for (List<WorkUnit> bundle : Lists.partition(workUnits, 13)) {
+      long weight = 0;
+      for (WorkUnit workUnit : bundle) {
+        weight += getWeight(workUnit);
+      }
+      countBasedWeights.add(weight);
+    }
+    Assert.assertTrue(makespan < getMakespan(countBasedWeights));
+  }
+
+  @Test
+  public void testFewerWorkUnitsThanSlots() {
+    List<WorkUnit> workUnits = Lists.newArrayList(createWorkUnit(1), createWorkUnit(5), createWorkUnit(3));
+
+    List<WorkUnit> tasks = new WeightedTaskPlacement(ImmutableList.of(WEIGHT_FIELD), 2).plan(workUnits, SLOTS, 0);
+
+    Assert.assertEquals(tasks.size(), 3);
+    Assert.assertEquals(tasks.get(0).getPropAsLong(WEIGHT_FIELD), 5);
+    Assert.assertEquals(tasks.get(2).getPropAsLong(WEIGHT_FIELD), 1);
+  }
+
+  @Test
+  public void testMultiWorkUnitWeighsItsWorkUnits() {
+    MultiWorkUnit multiWorkUnit = MultiWorkUnit.createEmpty();
+    multiWorkUnit.addWorkUnits(Lists.newArrayList(createWorkUnit(4), createWorkUnit(4)));
+    List<WorkUnit> workUnits = Lists.newArrayList(createWorkUnit(6), multiWorkUnit, WorkUnit.createEmpty());
+
+    List<WorkUnit> tasks = new WeightedTaskPlacement(ImmutableList.of(WEIGHT_FIELD), 2).plan(workUnits, SLOTS, 0);
+
+    Assert.assertSame(tasks.get(0), multiWorkUnit);
+    Assert.assertEquals(tasks.get(1).getPropAsLong(WEIGHT_FIELD), 6);
+  }
+
+  @Test
+  public void testPlanForMaximumClusterSize() {
+    List<WorkUnit> workUnits = Lists.newArrayList();
+    for (int i = 0; i < 500; i++) {
+      workUnits.add(createWorkUnit(10));
+    }
+    WeightedTaskPlacement placement = new WeightedTaskPlacement(ImmutableList.of(WEIGHT_FIELD), 2);
+
+    // A small cluster which can scale up to 100 slots gets enough tasks for the autoscaler to scale it up
+    List<WorkUnit> tasks = placement.plan(workUnits, 1, 100);
+    Assert.assertTrue(tasks.size() >= 100, "Only " + tasks.size() + " tasks");
+    Assert.assertEquals(JobLauncherUtils.flattenWorkUnits(tasks).size(), workUnits.size());
+
+    // Work units are not packed if the cluster can grow without bounds
+    Assert.assertEquals(placement.plan(workUnits, 1, Double.POSITIVE_INFINITY).size(), workUnits.size());
+  }
+
+  @Test
+  public void testMultiWorkUnitsAreFlattenedBeforePacking() {
+    MultiWorkUnit multiWorkUnit = MultiWorkUnit.createEmpty();
+    List<WorkUnit> workUnits = Lists.newArrayList();
+    for (int i = 0; i < 10; i++) {
+      multiWorkUnit.addWorkUnit(createWorkUnit(10));
+      workUnits.add(createWorkUnit(10));
+    }
+    workUnits.add(multiWorkUnit);
+
+    List<WorkUnit> tasks = new WeightedTaskPlacement(ImmutableList.of(WEIGHT_FIELD), 2).plan(workUnits, 1, 0);
+
+    Assert.assertEquals(tasks.size(), 2);
+    for (WorkUnit task : tasks) {
+      for (WorkUnit child : ((MultiWorkUnit) task).getWorkUnits()) {
+        Assert.assertFalse(child instanceof MultiWorkUnit);
+      }
+    }
+    Assert.assertEquals(JobLauncherUtils.flattenWorkUnits(tasks).size(), 20);
+  }
+
+  private static WorkUnit createWorkUnit(long weight) {
+    WorkUnit workUnit = WorkUnit.createEmpty();
+    workUnit.setProp(WEIGHT_FIELD, weight);
+    return workUnit;
+  }
+
+  private static long getWeight(WorkUnit workUnit) {
+    long weight = 0;
+    for (WorkUnit child : JobLauncherUtils.flattenWorkUnits(ImmutableList.of(workUnit))) {
+      weight += child.getPropAsLong(WEIGHT_FIELD);
+    }
+    return weight;
+  }
+
+  private static long getMakespan(List<Long> taskWeights) {
+    PriorityQueue<Long> slots = new PriorityQueue<>();
+    for (int i = 0; i < SLOTS; i++) {
+      slots.add(0L);
+    }
+    long makespan = 0;
+    for (long weight : taskWeights) {
+      long finish = slots.poll() + weight;
+      makespan = Math.max(makespan, finish);
+      slots.add(finish);
+    }
+    return makespan;
+  }
+}
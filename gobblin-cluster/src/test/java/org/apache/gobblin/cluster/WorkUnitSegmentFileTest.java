@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.cluster;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+
+import org.apache.gobblin.source.workunit.MultiWorkUnit;
+import org.apache.gobblin.source.workunit.WorkUnit;
+
+
+/**
+ * Unit tests for {@link WorkUnitSegmentFile}.
+ */
+@Test(groups = { "gobblin.cluster" })
+public class WorkUnitSegmentFileTest {
+
+  private File tmpDir;
+  private FileSystem fs;
+
+  @BeforeClass
+  public void setUp() throws IOException {
+    this.tmpDir = Files.createTempDir();
+    this.fs = FileSystem.getLocal(new Configuration());
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    List<WorkUnit> workUnits = Lists.newArrayList();
+    for (int i = 0; i < 5; i++) {
+      WorkUnit workUnit = WorkUnit.createEmpty();
+      workUnit.setId("task_" + i);
+      workUnit.setProp("key", "value" + i);
+      workUnits.add(workUnit);
+    }
+    MultiWorkUnit multiWorkUnit = MultiWorkUnit.createEmpty();
+    multiWorkUnit.setId("multitask_0");
+    multiWorkUnit.addWorkUnits(workUnits.subList(0, 2));
+    workUnits.add(multiWorkUnit);
+
+    Path segmentPath = WorkUnitSegmentFile.getSegmentPath(new Path(this.tmpDir.getAbsolutePath()), 0);
+    WorkUnitSegmentFile.write(this.fs, segmentPath, workUnits);
+    Assert.assertFalse(this.fs.exists(new Path(segmentPath.getParent(), segmentPath.getName() + ".tmp")));
+
+    // Read in reverse order to make sure each read seeks independently
+    for (int i = workUnits.size() - 1; i >= 0; i--) {
+      Path workUnitPath = WorkUnitSegmentFile.getWorkUnitPath(segmentPath, i);
+      Assert.assertTrue(WorkUnitSegmentFile.isSegmentWorkUnitPath(workUnitPath));
+
+      WorkUnit read = WorkUnitSegmentFile.read(this.fs, workUnitPath);
+      Assert.assertEquals(read.getId(), workUnits.get(i).getId());
+      Assert.assertEquals(read.getProperties(), workUnits.get(i).getProperties());
+    }
+
+    WorkUnit read = WorkUnitSegmentFile.read(this.fs, segmentPath, 5);
+    Assert.assertTrue(read instanceof MultiWorkUnit);
+    Assert.assertEquals(((MultiWorkUnit) read).getWorkUnits().size(), 2);
+    Assert.assertEquals(((MultiWorkUnit) read).getWorkUnits().get(1).getProp("key"), "value1");
+  }
+
+  @Test(expectedExceptions = IOException.class)
+  public void testPositionOutOfRange() throws IOException {
+    Path segmentPath = WorkUnitSegmentFile.getSegmentPath(new Path(this.tmpDir.getAbsolutePath()), 1);
+    WorkUnitSegmentFile.write(this.fs, segmentPath, Lists.newArrayList(WorkUnit.createEmpty()));
+    WorkUnitSegmentFile.read(this.fs, segmentPath, 1);
+  }
+
+  @Test
+  public void testNotSegmentWorkUnitPath() {
+    Assert.assertFalse(WorkUnitSegmentFile.isSegmentWorkUnitPath(new Path("/_workunits/job_1/task_1.wu")));
+  }
+
+  @Test(expectedExceptions = IOException.class)
+  public void testWaitForSegmentTimesOut() throws Exception {
+    WorkUnitSegmentFile.waitForSegment(this.fs, new Path(this.tmpDir.getAbsolutePath(), "missing.wus"), 0,
+        TimeUnit.SECONDS);
+  }
+
+  @AfterClass
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(this.tmpDir);
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.compaction.mapreduce.orc;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.orc.OrcConf;
+import org.apache.orc.TypeDescription;
+import org.apache.orc.mapred.OrcKey;
+import org.apache.orc.mapred.OrcStruct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures how many shuffle-sized batches of serialized {@link OrcKey}s can be sorted per second with
+ * {@link OrcKeyComparator}, comparing serialized keys directly against deserializing them for each comparison.
+ *
+ * The key schema mimics the dedup key of a Kafka ingested dataset: a nested header with a member id and a
+ * timestamp, followed by topic, partition and offset.
+ */
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@org.openjdk.jmh.annotations.Fork(value = 3)
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrcKeyComparatorBenchmark {
+  private static final String KEY_SCHEMA =
+      "struct<header:struct<memberId:bigint,time:bigint,guid:string>,topic:string,partition:int,offset:bigint>";
+  private static final int NUM_KEYS = 10000;
+
+  @State(value = Scope.Thread)
+  public static class SortState {
+    @Param({"true", "false"})
+    private boolean rawComparison;
+
+    private OrcKeyComparator _comparator;
+    private byte[][] _keys;
+    private byte[][] _toSort;
+
+    @Setup
+    public void setup() throws IOException {
+      Configuration conf = new Configuration();
+      conf.set(OrcConf.MAPRED_SHUFFLE_KEY_SCHEMA.getAttribute(), KEY_SCHEMA);
+      conf.setBoolean(OrcKeyComparator.ORC_KEY_RAW_COMPARISON_ENABLED, this.rawComparison);
+      _comparator = new OrcKeyComparator();
+      _comparator.setConf(conf);
+
+      TypeDescription schema = TypeDescription.fromString(KEY_SCHEMA);
+      Random random = new Random(1);
+      _keys = new byte[NUM_KEYS][];
+      for (int i = 0; i < NUM_KEYS; i++) {
+        // Few distinct members and topics so that comparisons often go past the first fields
+        OrcStruct header = new OrcStruct(schema.getChildren().get(0));
+        header.setFieldValue("memberId", new LongWritable(random.nextInt(100)));
+        header.setFieldValue("time", new LongWritable(1600000000000L + random.nextInt(1000)));
+        header.setFieldValue("guid", new Text(Long.toHexString(random.nextLong())));
+        OrcStruct record = new OrcStruct(schema);
+        record.setFieldValue("header", header);
+        record.setFieldValue("topic", new Text("PageViewEvent" + random.nextInt(3)));
+        record.setFieldValue("partition", new IntWritable(random.nextInt(64)));
+        record.setFieldValue("offset", new LongWritable(random.nextInt(Integer.MAX_VALUE)));
+        _keys[i] = serialize(record);
+      }
+      _toSort = new byte[NUM_KEYS][];
+    }
+
+    private static byte[] serialize(OrcStruct record) throws IOException {
+      OrcKey orcKey = new OrcKey();
+      orcKey.key = record;
+      DataOutputBuffer out = new DataOutputBuffer();
+      orcKey.write(out);
+      return Arrays.copyOf(out.getData(), out.getLength());
+    }
+  }
+
+  @Benchmark
+  public byte[][] sortKeys(SortState state) {
+    System.arraycopy(state._keys, 0, state._toSort, 0, NUM_KEYS);
+    Arrays.sort(state._toSort, (k1, k2) -> state._comparator.compare(k1, 0, k1.length, k2, 0, k2.length));
+    return state._toSort;
+  }
+}
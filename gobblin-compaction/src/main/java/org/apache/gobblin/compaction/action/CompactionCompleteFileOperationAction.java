@@ -20,6 +20,7 @@ package org.apache.gobblin.compaction.action;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +28,7 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.gobblin.compaction.event.CompactionSlaEventHelper;
 import org.apache.gobblin.compaction.mapreduce.CompactionJobConfigurator;
+import org.apache.gobblin.compaction.mapreduce.MRCompactionTask;
 import org.apache.gobblin.compaction.mapreduce.MRCompactor;
 import org.apache.gobblin.compaction.mapreduce.MRCompactorJobRunner;
 import org.apache.gobblin.compaction.mapreduce.RecordKeyDedupReducerBase;
@@ -109,6 +111,7 @@ public class CompactionCompleteFileOperationAction implements CompactionComplete
                 FsPermission.getDefault());
         WriterUtils.mkdirsWithRecursivePermission(this.fs, dstPath, permission);
         // append files under mr output to destination
+        Map<Path, Path> movedFiles = new HashMap<>();
         for (Path filePath : goodPaths) {
           String fileName = filePath.getName();
           log.info(String.format("Adding %s to %s", filePath.toString(), dstPath));
@@ -117,6 +120,28 @@ public class CompactionCompleteFileOperationAction implements CompactionComplete
           if (!this.fs.rename(filePath, outPath)) {
             throw new IOException(String.format("Unable to move %s to %s", filePath.toString(), outPath.toString()));
           }
+          movedFiles.put(filePath, outPath);
+        }
+
+        // Existing files that were compacted again with the deltas are now covered by the new files
+        for (Path replacedPath : this.configurator.getOutputFilesToReplace()) {
+          log.info(String.format("Removing %s which is replaced by the compaction output", replacedPath));
+          this.configurator.getOldFiles().add(this.fs.makeQualified(replacedPath).toString());
+          // A replaced file left next to its recompacted copy would publish its records twice
+          if (!this.fs.delete(replacedPath, false) && this.fs.exists(replacedPath)) {
+            throw new IOException(String.format("Unable to remove %s which is replaced by the compaction output",
+                replacedPath));
+          }
+        }
+        this.configurator.publishDedupKeyIndex(movedFiles, this.configurator.getOutputFilesToReplace());
+
+        // The job re-read the records of the replaced files, which are not new records
+        long replacedRecordCount = this.configurator.getReplacedRecordCount();
+        if (replacedRecordCount > 0 && this.state.contains(MRCompactionTask.RECORD_COUNT)) {
+          long recordCount = this.state.getPropAsLong(MRCompactionTask.RECORD_COUNT) - replacedRecordCount;
+          log.info("Excluding {} records of replaced files from the record count of {}, which is now {}",
+              replacedRecordCount, dstPath, recordCount);
+          this.state.setProp(MRCompactionTask.RECORD_COUNT, recordCount);
         }
 
         // Obtain record count from input file names.
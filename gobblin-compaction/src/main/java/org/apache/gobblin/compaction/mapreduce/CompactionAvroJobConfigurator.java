@@ -20,27 +20,37 @@ package org.apache.gobblin.compaction.mapreduce;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Enums;
 import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.Schema;
 import org.apache.avro.mapred.AvroKey;
 import org.apache.avro.mapred.AvroValue;
 import org.apache.avro.mapreduce.AvroJob;
+import org.apache.gobblin.compaction.dataset.DatasetHelper;
+import org.apache.gobblin.compaction.mapreduce.avro.AvroDedupKeyIndex;
 import org.apache.gobblin.compaction.mapreduce.avro.AvroKeyCompactorOutputFormat;
 import org.apache.gobblin.compaction.mapreduce.avro.AvroKeyDedupReducer;
 import org.apache.gobblin.compaction.mapreduce.avro.AvroKeyMapper;
 import org.apache.gobblin.compaction.mapreduce.avro.AvroKeyRecursiveCombineFileInputFormat;
 import org.apache.gobblin.compaction.mapreduce.avro.MRCompactorAvroKeyDedupJobRunner;
+import org.apache.gobblin.compaction.parser.CompactionPathParser;
 import org.apache.gobblin.configuration.State;
 import org.apache.gobblin.converter.filter.AvroSchemaFieldRemover;
 import org.apache.gobblin.dataset.FileSystemDataset;
 import org.apache.gobblin.hive.policy.HiveRegistrationPolicy;
 import org.apache.gobblin.util.AvroUtils;
 import org.apache.gobblin.util.HadoopUtils;
+import org.apache.gobblin.util.recordcount.CompactionRecordCountProvider;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 
 
 /**
@@ -50,6 +60,10 @@ import org.apache.hadoop.mapreduce.Job;
 public class CompactionAvroJobConfigurator extends CompactionJobConfigurator {
 
   private Optional<String> keyFieldBlacklist;
+  private Path dstPath;
+  private boolean emptyInput;
+  private Schema newestSchema;
+  private Schema dedupKeySchema;
 
   public static class Factory implements CompactionJobConfigurator.ConfiguratorFactory {
     @Override
@@ -138,17 +152,102 @@ public class CompactionAvroJobConfigurator extends CompactionJobConfigurator {
     return keySchema;
   }
 
+  @Override
+  protected boolean configureInputAndOutputPaths(Job job, FileSystemDataset dataset) throws IOException {
+    this.emptyInput = super.configureInputAndOutputPaths(job, dataset);
+    this.dstPath = new Path(new CompactionPathParser(this.state).parse(dataset).getDstAbsoluteDir());
+    // The colliding output files are part of the job input, so they are added before the reducers are sized
+    if (isDedupKeyIndexEnabled() && isAppendDeltaOutput() && !this.emptyInput) {
+      this.newestSchema = MRCompactorAvroKeyDedupJobRunner.getNewestSchemaFromSource(job, this.fs);
+      if (this.newestSchema != null) {
+        this.dedupKeySchema = getDedupKeySchema(this.newestSchema);
+        addCollidingOutputFiles(job);
+      }
+    }
+    return this.emptyInput;
+  }
+
   @Override
   protected void configureSchema(Job job) throws IOException {
-    Schema newestSchema = MRCompactorAvroKeyDedupJobRunner.getNewestSchemaFromSource(job, this.fs);
-    if (newestSchema != null) {
+    if (this.newestSchema == null) {
+      this.newestSchema = MRCompactorAvroKeyDedupJobRunner.getNewestSchemaFromSource(job, this.fs);
+    }
+    if (this.newestSchema != null) {
       if (this.state.getPropAsBoolean(MRCompactorAvroKeyDedupJobRunner.COMPACTION_JOB_AVRO_SINGLE_INPUT_SCHEMA, true)) {
-        AvroJob.setInputKeySchema(job, newestSchema);
+        AvroJob.setInputKeySchema(job, this.newestSchema);
+      }
+      if (this.shouldDeduplicate && this.dedupKeySchema == null) {
+        this.dedupKeySchema = getDedupKeySchema(this.newestSchema);
+      }
+      AvroJob.setMapOutputKeySchema(job, this.shouldDeduplicate ? this.dedupKeySchema : this.newestSchema);
+      AvroJob.setMapOutputValueSchema(job, this.newestSchema);
+      AvroJob.setOutputKeySchema(job, this.newestSchema);
+      if (isDedupKeyIndexEnabled() && isAppendDeltaOutput()) {
+        // The reducers index the dedup keys of the files they write
+        job.getConfiguration().setBoolean(AvroKeyCompactorOutputFormat.COMPACTION_OUTPUT_DEDUP_KEY_INDEX_ENABLED, true);
+      }
+    }
+  }
+
+  /**
+   * Add the existing output files that might contain a dedup key of the deltas to the job input,
+   * so that they are deduplicated together with the deltas and then replaced by the job output.
+   */
+  private void addCollidingOutputFiles(Job job) throws IOException {
+    AvroDedupKeyIndex index = createDedupKeyIndex();
+    Set<Long> deltaKeyHashes = index.collectKeyHashes(this.mapReduceInputPaths,
+        this.state.getPropAsInt(COMPACTION_DEDUP_KEY_INDEX_PARALLELISM, DEFAULT_COMPACTION_DEDUP_KEY_INDEX_PARALLELISM));
+    List<Path> outputFiles = DatasetHelper.getApplicableFilePaths(this.fs, this.dstPath,
+        ImmutableList.of(getFileExtension()));
+    CompactionRecordCountProvider recordCountProvider = new CompactionRecordCountProvider();
+    for (Path outputFile : outputFiles) {
+      // Only compaction output files can be replaced, since their record count is known from their name
+      if (!isCompactionOutputFile(outputFile)) {
+        continue;
+      }
+      if (index.mightContainAny(outputFile, deltaKeyHashes)) {
+        this.outputFilesToReplace.add(outputFile);
+        this.replacedRecordCount += recordCountProvider.getRecordCount(outputFile);
+        FileInputFormat.addInputPath(job, outputFile);
       }
-      AvroJob.setMapOutputKeySchema(job, this.shouldDeduplicate ? getDedupKeySchema(newestSchema) : newestSchema);
-      AvroJob.setMapOutputValueSchema(job, newestSchema);
-      AvroJob.setOutputKeySchema(job, newestSchema);
     }
+    log.info("{} of {} output files in {} with {} records will be compacted again with the deltas",
+        this.outputFilesToReplace.size(), outputFiles.size(), this.dstPath, this.replacedRecordCount);
+  }
+
+  private static boolean isCompactionOutputFile(Path path) {
+    return path.getName().startsWith(CompactionRecordCountProvider.MR_OUTPUT_FILE_PREFIX)
+        || path.getName().startsWith(CompactionRecordCountProvider.M_OUTPUT_FILE_PREFIX);
+  }
+
+  @Override
+  public void publishDedupKeyIndex(Map<Path, Path> publishedFiles, Collection<Path> replacedFiles)
+      throws IOException {
+    if (!isDedupKeyIndexEnabled() || this.dedupKeySchema == null) {
+      return;
+    }
+    AvroDedupKeyIndex index = createDedupKeyIndex();
+    for (Path replacedFile : replacedFiles) {
+      index.deleteIndex(replacedFile);
+    }
+    for (Map.Entry<Path, Path> publishedFile : publishedFiles.entrySet()) {
+      index.moveIndex(publishedFile.getKey(), publishedFile.getValue());
+    }
+  }
+
+  private AvroDedupKeyIndex createDedupKeyIndex() {
+    return new AvroDedupKeyIndex(this.fs, this.newestSchema, this.dedupKeySchema,
+        this.state.getPropAsDouble(COMPACTION_DEDUP_KEY_INDEX_FPP, DEFAULT_COMPACTION_DEDUP_KEY_INDEX_FPP));
+  }
+
+  private boolean isDedupKeyIndexEnabled() {
+    return this.shouldDeduplicate
+        && this.state.getPropAsBoolean(COMPACTION_DEDUP_KEY_INDEX_ENABLED, DEFAULT_COMPACTION_DEDUP_KEY_INDEX_ENABLED);
+  }
+
+  private boolean isAppendDeltaOutput() {
+    return this.state.getPropAsBoolean(MRCompactor.COMPACTION_RENAME_SOURCE_DIR_ENABLED,
+        MRCompactor.DEFAULT_COMPACTION_RENAME_SOURCE_DIR_ENABLED);
   }
 
   protected void configureMapper(Job job) {
@@ -17,6 +17,7 @@
 
 package org.apache.gobblin.compaction.mapreduce;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.Ints;
 import java.io.IOException;
@@ -27,6 +28,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -51,6 +53,8 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.MRConfig;
+import org.apache.hadoop.mapreduce.MRJobConfig;
 import org.apache.hadoop.mapreduce.TaskCompletionEvent;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
@@ -68,6 +72,43 @@ public abstract class CompactionJobConfigurator {
   public static final String DEFAULT_COMPACTION_JOB_CONFIGURATOR_FACTORY_CLASS =
       "org.apache.gobblin.compaction.mapreduce.CompactionAvroJobConfigurator$Factory";
 
+  /**
+   * Configurations for running small compaction jobs in-process with the local job runner instead of submitting
+   * them to the cluster. The local runner uses the same mapper, sort comparators and dedup reducer, and its
+   * map-side sort spills to local disk once the sort buffer is full.
+   */
+  public static final String COMPACTION_IN_PROCESS_PREFIX = MRCompactor.COMPACTION_PREFIX + "inProcess.";
+  public static final String COMPACTION_IN_PROCESS_ENABLED = COMPACTION_IN_PROCESS_PREFIX + "enabled";
+  public static final boolean DEFAULT_COMPACTION_IN_PROCESS_ENABLED = false;
+  // Datasets whose input is larger than this are still compacted by a map-reduce job on the cluster
+  public static final String COMPACTION_IN_PROCESS_MAX_INPUT_SIZE_BYTES =
+      COMPACTION_IN_PROCESS_PREFIX + "maxInputSizeBytes";
+  public static final long DEFAULT_COMPACTION_IN_PROCESS_MAX_INPUT_SIZE_BYTES = 512 * 1024 * 1024L;
+  // Memory budget of the in-process sort before spilling to local disk
+  public static final String COMPACTION_IN_PROCESS_SORT_BUFFER_MB = COMPACTION_IN_PROCESS_PREFIX + "sortBufferMb";
+  public static final int DEFAULT_COMPACTION_IN_PROCESS_SORT_BUFFER_MB = 100;
+  // Local directories used for spill files, defaults to the hadoop configuration
+  public static final String COMPACTION_IN_PROCESS_LOCAL_DIRS = COMPACTION_IN_PROCESS_PREFIX + "localDirs";
+  public static final String COMPACTION_IN_PROCESS_PARALLELISM = COMPACTION_IN_PROCESS_PREFIX + "parallelism";
+  public static final int DEFAULT_COMPACTION_IN_PROCESS_PARALLELISM = 1;
+  /**
+   * Whether to keep an index of the dedup keys of each compacted output file. When deltas are appended to an
+   * already compacted output, only the output files whose index might contain a key of the deltas are
+   * deduplicated again together with the deltas, instead of leaving duplicates across runs.
+   */
+  public static final String COMPACTION_DEDUP_KEY_INDEX_ENABLED =
+      MRCompactor.COMPACTION_PREFIX + "dedupKeyIndex.enabled";
+  public static final boolean DEFAULT_COMPACTION_DEDUP_KEY_INDEX_ENABLED = false;
+  public static final String COMPACTION_DEDUP_KEY_INDEX_FPP = MRCompactor.COMPACTION_PREFIX + "dedupKeyIndex.fpp";
+  public static final double DEFAULT_COMPACTION_DEDUP_KEY_INDEX_FPP = 0.01;
+  // Number of threads reading the dedup keys of the deltas when the job is created
+  public static final String COMPACTION_DEDUP_KEY_INDEX_PARALLELISM =
+      MRCompactor.COMPACTION_PREFIX + "dedupKeyIndex.parallelism";
+  public static final int DEFAULT_COMPACTION_DEDUP_KEY_INDEX_PARALLELISM = 10;
+
+  private static final String LOCAL_MAX_MAPS = "mapreduce.local.map.tasks.maximum";
+  private static final String LOCAL_MAX_REDUCES = "mapreduce.local.reduce.tasks.maximum";
+
   @Getter
   @AllArgsConstructor
   protected enum EXTENSION {
@@ -101,6 +142,13 @@ public abstract class CompactionJobConfigurator {
   protected Collection<Path> dstNewFiles = null;
   @Getter
   protected long fileNameRecordCount = 0;
+  //Existing output files which are compacted again with the deltas, and are replaced by the job output
+  @Getter
+  protected Collection<Path> outputFilesToReplace = new HashSet<>();
+  //Number of records in outputFilesToReplace, based on file names
+  @Getter
+  protected long replacedRecordCount = 0;
+  private long inputSize = -1;
 
   public interface ConfiguratorFactory {
     CompactionJobConfigurator createConfigurator(State state) throws IOException;
@@ -127,6 +175,17 @@ public abstract class CompactionJobConfigurator {
 
   public abstract String getFileExtension();
 
+  /**
+   * Publish the dedup key indexes written by the job along with its output files, and remove the indexes of
+   * the replaced files. Formats without dedup key index support do nothing.
+   *
+   * @param publishedFiles output files of the job, from their location in the job output to the destination
+   * @param replacedFiles files of the destination that were removed because the job output replaces them
+   */
+  public void publishDedupKeyIndex(Map<Path, Path> publishedFiles, Collection<Path> replacedFiles)
+      throws IOException {
+  }
+
   /**
    * Customized MR job creation for Avro.
    *
@@ -158,6 +217,10 @@ public abstract class CompactionJobConfigurator {
     if (emptyDirectoryFlag || !this.shouldDeduplicate) {
       job.setNumReduceTasks(0);
     }
+    // The input size is only computed if needed, since it lists the input recursively
+    if (isInProcessExecutionEnabled() && isEligibleForInProcessExecution(getInputSize())) {
+      configureInProcessExecution(job);
+    }
     // Configure schema at the last step because FilesInputFormat will be used internally
     this.configureSchema(job);
     this.isJobCreated = true;
@@ -198,10 +261,7 @@ public abstract class CompactionJobConfigurator {
   protected void setNumberOfReducers(Job job) throws IOException {
 
     // get input size
-    long inputSize = 0;
-    for (Path inputPath : this.mapReduceInputPaths) {
-      inputSize += this.fs.getContentSummary(inputPath).getLength();
-    }
+    long inputSize = getInputSize();
 
     // get target file size
     long targetFileSize =
@@ -225,6 +285,55 @@ public abstract class CompactionJobConfigurator {
     job.setNumReduceTasks(numReducers);
   }
 
+  /**
+   * @return total size in bytes of the input paths of the compaction job, including the output files compacted
+   * again with the deltas, computed once per job.
+   */
+  protected long getInputSize() throws IOException {
+    if (this.inputSize < 0) {
+      long size = 0;
+      for (Path inputPath : this.mapReduceInputPaths) {
+        size += this.fs.getContentSummary(inputPath).getLength();
+      }
+      for (Path outputFile : this.outputFilesToReplace) {
+        size += this.fs.getFileStatus(outputFile).getLen();
+      }
+      this.inputSize = size;
+    }
+    return this.inputSize;
+  }
+
+  private boolean isInProcessExecutionEnabled() {
+    return this.state.getPropAsBoolean(COMPACTION_IN_PROCESS_ENABLED, DEFAULT_COMPACTION_IN_PROCESS_ENABLED);
+  }
+
+  @VisibleForTesting
+  boolean isEligibleForInProcessExecution(long inputSize) {
+    return isInProcessExecutionEnabled()
+        && inputSize <= this.state.getPropAsLong(COMPACTION_IN_PROCESS_MAX_INPUT_SIZE_BYTES,
+        DEFAULT_COMPACTION_IN_PROCESS_MAX_INPUT_SIZE_BYTES);
+  }
+
+  /**
+   * Run the job with the local job runner inside the current process, which saves the cost of launching
+   * a job on the cluster for small datasets. Dedup semantics are unchanged since the same mapper and reducer are used.
+   */
+  @VisibleForTesting
+  void configureInProcessExecution(Job job) {
+    Configuration conf = job.getConfiguration();
+    conf.set(MRConfig.FRAMEWORK_NAME, MRConfig.LOCAL_FRAMEWORK_NAME);
+    conf.setInt(MRJobConfig.IO_SORT_MB,
+        this.state.getPropAsInt(COMPACTION_IN_PROCESS_SORT_BUFFER_MB, DEFAULT_COMPACTION_IN_PROCESS_SORT_BUFFER_MB));
+    if (this.state.contains(COMPACTION_IN_PROCESS_LOCAL_DIRS)) {
+      conf.set(MRConfig.LOCAL_DIR, this.state.getProp(COMPACTION_IN_PROCESS_LOCAL_DIRS));
+    }
+    int parallelism =
+        this.state.getPropAsInt(COMPACTION_IN_PROCESS_PARALLELISM, DEFAULT_COMPACTION_IN_PROCESS_PARALLELISM);
+    conf.setInt(LOCAL_MAX_MAPS, parallelism);
+    conf.setInt(LOCAL_MAX_REDUCES, parallelism);
+    log.info("Compaction job {} will run in-process", job.getJobName());
+  }
+
   protected void addJars(Configuration conf, State state, FileSystem fs) throws IOException {
     if (!state.contains(MRCompactor.COMPACTION_JARS)) {
       return;
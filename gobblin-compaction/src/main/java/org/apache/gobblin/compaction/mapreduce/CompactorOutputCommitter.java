@@ -20,6 +20,7 @@ package org.apache.gobblin.compaction.mapreduce;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.gobblin.compaction.mapreduce.avro.AvroDedupKeyIndex;
 import org.apache.gobblin.compaction.mapreduce.avro.MRCompactorAvroKeyDedupJobRunner;
 import org.apache.gobblin.util.recordcount.CompactionRecordCountProvider;
 import org.apache.hadoop.fs.FileStatus;
@@ -98,6 +99,11 @@ public class CompactorOutputCommitter extends FileOutputCommitter {
         Path newPath = new Path(status.getPath().getParent(), fileName);
         LOG.info(String.format("Renaming %s to %s", status.getPath(), newPath));
         fs.rename(status.getPath(), newPath);
+        // The dedup key index of a file is named after the file
+        Path indexPath = AvroDedupKeyIndex.getIndexPath(status.getPath());
+        if (fs.exists(indexPath)) {
+          fs.rename(indexPath, AvroDedupKeyIndex.getIndexPath(newPath));
+        }
         context.getCounter(EVENT_COUNTER.OUTPUT_FILE_COUNT).increment(1);
       }
     }
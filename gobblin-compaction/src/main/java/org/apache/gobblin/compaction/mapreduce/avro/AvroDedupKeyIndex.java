@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.compaction.mapreduce.avro;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongConsumer;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.SeekableInput;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.mapred.FsInput;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Iterators;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.gobblin.util.Either;
+import org.apache.gobblin.util.ExecutorsUtils;
+import org.apache.gobblin.util.FileListUtils;
+import org.apache.gobblin.util.executors.IteratorExecutor;
+
+
+/**
+ * A persisted index of the dedup keys contained in compacted Avro output files.
+ *
+ * For each output file, a {@link BloomFilter} of the hashes of its dedup keys is stored under
+ * {@value #INDEX_DIR_NAME} in the same directory. When late data arrives, only the output files whose index
+ * might contain one of the late keys need to be deduplicated again; all other files can be kept as they are.
+ *
+ * Dedup keys are the projection of a record on the dedup key schema, same as what {@link AvroKeyMapper} emits,
+ * so records that the compaction job considers duplicates always have the same key hash. Data files are read with
+ * the record schema of the job, which the compaction job also reads and writes records with, so that files written
+ * with an older schema are hashed the same way. The index of a compacted file is built by the task writing it, see
+ * {@link AvroKeyCompactorOutputFormat}.
+ */
+@Slf4j
+public class AvroDedupKeyIndex {
+  // Starts with an underscore so that the index files are ignored by the input formats
+  public static final String INDEX_DIR_NAME = "_dedup_key_index";
+  public static final String INDEX_FILE_EXTENSION = ".bloom";
+
+  private static final String AVRO = "avro";
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+  private static final int MAX_LOGGED_FAILURES = 10;
+
+  private final FileSystem fs;
+  private final Schema recordSchema;
+  private final Schema keySchema;
+  private final double falsePositiveProbability;
+
+  public AvroDedupKeyIndex(FileSystem fs, Schema recordSchema, Schema keySchema, double falsePositiveProbability) {
+    this.fs = fs;
+    this.recordSchema = recordSchema;
+    this.keySchema = keySchema;
+    this.falsePositiveProbability = falsePositiveProbability;
+  }
+
+  public static Path getIndexPath(Path dataFile) {
+    return new Path(new Path(dataFile.getParent(), INDEX_DIR_NAME), dataFile.getName() + INDEX_FILE_EXTENSION);
+  }
+
+  /**
+   * Collect the hashes of the dedup keys of all Avro files under the given paths. Files are read by
+   * {@code numThreads} threads, each collecting the hashes of one file, which are then merged.
+   */
+  public Set<Long> collectKeyHashes(Collection<Path> paths, int numThreads) throws IOException {
+    List<Path> dataFiles = new ArrayList<>();
+    for (Path path : paths) {
+      for (FileStatus status : FileListUtils.listFilesRecursively(this.fs, path)) {
+        if (FilenameUtils.isExtension(status.getPath().getName(), AVRO)) {
+          dataFiles.add(status.getPath());
+        }
+      }
+    }
+
+    Iterator<Callable<Set<Long>>> callables = Iterators.transform(dataFiles.iterator(),
+        dataFile -> () -> {
+          Set<Long> fileHashes = new HashSet<>();
+          forEachKeyHash(dataFile, fileHashes::add);
+          return fileHashes;
+        });
+    List<Either<Set<Long>, ExecutionException>> results;
+    try {
+      results = new IteratorExecutor<>(callables, numThreads,
+          ExecutorsUtils.newDaemonThreadFactory(Optional.of(log), Optional.of("dedup-key-index-%d")))
+          .executeAndGetResults();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while collecting dedup keys of " + paths, e);
+    }
+    IteratorExecutor.logAndThrowFailures(results, log, MAX_LOGGED_FAILURES);
+
+    Set<Long> hashes = new HashSet<>();
+    for (Either<Set<Long>, ExecutionException> result : results) {
+      hashes.addAll(((Either.Left<Set<Long>, ExecutionException>) result).getLeft());
+    }
+    return hashes;
+  }
+
+  /**
+   * Build the index of the given data file and persist it next to the file.
+   */
+  public void writeIndex(Path dataFile) throws IOException {
+    IndexBuilder builder = new IndexBuilder();
+    forEachKeyHash(dataFile, builder.hashes);
+    builder.write(getIndexPath(dataFile));
+  }
+
+  /**
+   * @return a builder of the index of a data file from the records written to it
+   */
+  public IndexBuilder newIndexBuilder() {
+    return new IndexBuilder();
+  }
+
+  /**
+   * @return true if the data file might contain any of the given key hashes. A data file without an index,
+   * e.g. written before the index was enabled, is always considered to contain them.
+   */
+  public boolean mightContainAny(Path dataFile, Set<Long> keyHashes) throws IOException {
+    Path indexPath = getIndexPath(dataFile);
+    if (!this.fs.exists(indexPath)) {
+      log.info("No dedup key index found for {}", dataFile);
+      return true;
+    }
+    BloomFilter<Long> filter;
+    try (InputStream in = this.fs.open(indexPath)) {
+      filter = BloomFilter.readFrom(in, Funnels.longFunnel());
+    }
+    for (Long hash : keyHashes) {
+      if (filter.mightContain(hash)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Move the index of a data file along with the data file, if the data file has an index.
+   */
+  public void moveIndex(Path fromDataFile, Path toDataFile) throws IOException {
+    Path fromIndexPath = getIndexPath(fromDataFile);
+    if (!this.fs.exists(fromIndexPath)) {
+      return;
+    }
+    Path toIndexPath = getIndexPath(toDataFile);
+    this.fs.mkdirs(toIndexPath.getParent());
+    if (!this.fs.rename(fromIndexPath, toIndexPath)) {
+      throw new IOException(String.format("Failed to move dedup key index %s to %s", fromIndexPath, toIndexPath));
+    }
+  }
+
+  public void deleteIndex(Path dataFile) throws IOException {
+    this.fs.delete(getIndexPath(dataFile), false);
+  }
+
+  private void forEachKeyHash(Path dataFile, LongConsumer consumer) throws IOException {
+    KeyHasher hasher = new KeyHasher(this.keySchema);
+    try (SeekableInput sin = new FsInput(dataFile, this.fs.getConf());
+        DataFileReader<GenericRecord> reader =
+            new DataFileReader<>(sin, new GenericDatumReader<GenericRecord>(this.recordSchema))) {
+      GenericRecord record = null;
+      while (reader.hasNext()) {
+        record = reader.next(record);
+        consumer.accept(hasher.hash(record));
+      }
+    }
+  }
+
+  /**
+   * Builds the index of one data file. Not thread-safe.
+   */
+  public class IndexBuilder {
+    private final KeyHasher hasher = new KeyHasher(AvroDedupKeyIndex.this.keySchema);
+    // Buffer the hashes in a primitive array so the filter can be sized by the actual number of keys
+    private final LongBuffer hashes = new LongBuffer();
+
+    public void add(GenericRecord record) throws IOException {
+      this.hashes.accept(this.hasher.hash(record));
+    }
+
+    public void write(Path indexPath) throws IOException {
+      BloomFilter<Long> filter = BloomFilter.create(Funnels.longFunnel(), Math.max(this.hashes.size, 1),
+          AvroDedupKeyIndex.this.falsePositiveProbability);
+      for (int i = 0; i < this.hashes.size; i++) {
+        filter.put(this.hashes.values[i]);
+      }
+      try (OutputStream out = AvroDedupKeyIndex.this.fs.create(indexPath, true)) {
+        filter.writeTo(out);
+      }
+    }
+  }
+
+  /**
+   * Hashes the projection of records on the dedup key schema. Not thread-safe.
+   */
+  private static class KeyHasher {
+    private final GenericRecord key;
+    private final GenericDatumWriter<GenericRecord> keyWriter;
+    private final ByteArrayOutputStream keyBytes = new ByteArrayOutputStream();
+    private BinaryEncoder encoder;
+
+    private KeyHasher(Schema keySchema) {
+      this.key = new GenericData.Record(keySchema);
+      this.keyWriter = new GenericDatumWriter<>(keySchema);
+    }
+
+    private long hash(GenericRecord record) throws IOException {
+      AvroKeyMapper.populateComparableKeyRecord(record, this.key);
+      this.keyBytes.reset();
+      this.encoder = EncoderFactory.get().binaryEncoder(this.keyBytes, this.encoder);
+      this.keyWriter.write(this.key, this.encoder);
+      this.encoder.flush();
+      byte[] bytes = this.keyBytes.toByteArray();
+      return HASH_FUNCTION.hashBytes(bytes, 0, bytes.length).asLong();
+    }
+  }
+
+  private static class LongBuffer implements LongConsumer {
+    private long[] values = new long[1024];
+    private int size = 0;
+
+    @Override
+    public void accept(long value) {
+      if (this.size == this.values.length) {
+        this.values = Arrays.copyOf(this.values, this.values.length * 2);
+      }
+      this.values[this.size++] = value;
+    }
+  }
+}
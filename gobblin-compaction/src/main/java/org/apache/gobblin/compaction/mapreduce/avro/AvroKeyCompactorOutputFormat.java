@@ -19,9 +19,18 @@ package org.apache.gobblin.compaction.mapreduce.avro;
 
 import java.io.IOException;
 
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.mapred.AvroKey;
+import org.apache.avro.mapred.AvroOutputFormat;
+import org.apache.avro.mapreduce.AvroJob;
 import org.apache.avro.mapreduce.AvroKeyOutputFormat;
+import org.apache.gobblin.compaction.mapreduce.CompactionJobConfigurator;
 import org.apache.gobblin.compaction.mapreduce.CompactorOutputCommitter;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.OutputCommitter;
+import org.apache.hadoop.mapreduce.RecordWriter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputCommitter;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
@@ -31,11 +40,30 @@ import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
  * {@link AvroKeyOutputFormat}, except that the outputted file names contain
  * a timestamp and a count of how many records the file contains in the form:
  * {recordCount}.{timestamp}.avro
+ *
+ * If {@link #COMPACTION_OUTPUT_DEDUP_KEY_INDEX_ENABLED} is set, each task also writes the {@link AvroDedupKeyIndex}
+ * of its output file, keyed on the map output key schema, which is committed along with the file.
  */
 public class AvroKeyCompactorOutputFormat<T> extends AvroKeyOutputFormat<T> {
 
+  public static final String COMPACTION_OUTPUT_DEDUP_KEY_INDEX_ENABLED = "compaction.output.dedupKeyIndex.enabled";
+
   private FileOutputCommitter committer = null;
 
+  @Override
+  public RecordWriter<AvroKey<T>, NullWritable> getRecordWriter(TaskAttemptContext context) throws IOException {
+    RecordWriter<AvroKey<T>, NullWritable> writer = super.getRecordWriter(context);
+    Configuration conf = context.getConfiguration();
+    if (!conf.getBoolean(COMPACTION_OUTPUT_DEDUP_KEY_INDEX_ENABLED, false)) {
+      return writer;
+    }
+    Path indexPath = AvroDedupKeyIndex.getIndexPath(getDefaultWorkFile(context, AvroOutputFormat.EXT));
+    AvroDedupKeyIndex index = new AvroDedupKeyIndex(indexPath.getFileSystem(conf), AvroJob.getOutputKeySchema(conf),
+        AvroJob.getMapOutputKeySchema(conf), conf.getDouble(CompactionJobConfigurator.COMPACTION_DEDUP_KEY_INDEX_FPP,
+            CompactionJobConfigurator.DEFAULT_COMPACTION_DEDUP_KEY_INDEX_FPP));
+    return new DedupKeyIndexRecordWriter<>(writer, index.newIndexBuilder(), indexPath);
+  }
+
   @Override
   public synchronized OutputCommitter getOutputCommitter(TaskAttemptContext context) throws IOException {
     if (this.committer == null) {
@@ -44,4 +72,32 @@ public class AvroKeyCompactorOutputFormat<T> extends AvroKeyOutputFormat<T> {
     return this.committer;
   }
 
+  /**
+   * Adds the records written to the output file to its {@link AvroDedupKeyIndex}, and writes the index once the
+   * output file is closed.
+   */
+  private static class DedupKeyIndexRecordWriter<T> extends RecordWriter<AvroKey<T>, NullWritable> {
+    private final RecordWriter<AvroKey<T>, NullWritable> writer;
+    private final AvroDedupKeyIndex.IndexBuilder indexBuilder;
+    private final Path indexPath;
+
+    private DedupKeyIndexRecordWriter(RecordWriter<AvroKey<T>, NullWritable> writer,
+        AvroDedupKeyIndex.IndexBuilder indexBuilder, Path indexPath) {
+      this.writer = writer;
+      this.indexBuilder = indexBuilder;
+      this.indexPath = indexPath;
+    }
+
+    @Override
+    public void write(AvroKey<T> key, NullWritable value) throws IOException, InterruptedException {
+      this.writer.write(key, value);
+      this.indexBuilder.add((GenericRecord) key.datum());
+    }
+
+    @Override
+    public void close(TaskAttemptContext context) throws IOException, InterruptedException {
+      this.writer.close(context);
+      this.indexBuilder.write(this.indexPath);
+    }
+  }
 }
@@ -23,6 +23,8 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.conf.Configured;
 import org.apache.hadoop.io.DataInputBuffer;
 import org.apache.hadoop.io.RawComparator;
+import org.apache.hadoop.io.WritableComparator;
+import org.apache.hadoop.io.WritableUtils;
 import org.apache.orc.OrcConf;
 import org.apache.orc.TypeDescription;
 import org.apache.orc.mapred.OrcKey;
@@ -31,13 +33,27 @@ import org.apache.orc.mapred.OrcStruct;
 
 /**
  * Compare {@link OrcKey} in shuffle of MapReduce.
- * Delegate byte decoding to underlying {@link OrcStruct#readFields(DataInput)} method to simplify comparison.
+ *
+ * When every field of the shuffle key schema is a primitive type with a fixed {@link org.apache.hadoop.io.Writable}
+ * layout (or a struct of such types), keys are compared directly on their serialized bytes, following the ordering
+ * of {@link OrcStruct#compareTo(OrcStruct)}. Otherwise, byte decoding is delegated to the underlying
+ * {@link OrcStruct#readFields(DataInput)} method to simplify comparison.
  */
 public class OrcKeyComparator extends Configured implements RawComparator<OrcKey> {
+  /**
+   * Whether to compare serialized keys without deserializing them when the key schema allows it.
+   */
+  public static final String ORC_KEY_RAW_COMPARISON_ENABLED = "compaction.orc.key.rawComparison.enabled";
+  public static final boolean DEFAULT_ORC_KEY_RAW_COMPARISON_ENABLED = true;
+
   private TypeDescription schema;
   private OrcKey key1;
   private OrcKey key2;
   private DataInputBuffer buffer;
+  private boolean rawComparison;
+  // Read positions in the two byte arrays during a raw comparison
+  private int pos1;
+  private int pos2;
 
   @Override
   public void setConf(Configuration conf) {
@@ -62,12 +78,21 @@ public class OrcKeyComparator extends Configured implements RawComparator<OrcKey
 
       key1.key = orcRecordModel1;
       key2.key = orcRecordModel2;
+
+      rawComparison = conf.getBoolean(ORC_KEY_RAW_COMPARISON_ENABLED, DEFAULT_ORC_KEY_RAW_COMPARISON_ENABLED)
+          && isRawComparable(schema);
     }
   }
 
   @Override
   public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
     try {
+      if (rawComparison) {
+        pos1 = s1;
+        pos2 = s2;
+        return compareRawStruct(schema, b1, b2);
+      }
+
       buffer.reset(b1, s1, l1);      // parse key1
       key1.readFields(buffer);
 
@@ -88,4 +113,142 @@ public class OrcKeyComparator extends Configured implements RawComparator<OrcKey
     }
     return ((OrcStruct) o1.key).compareTo((OrcStruct) o2.key);
   }
+
+  /**
+   * @return true if all the fields of the given struct schema can be compared in their serialized form.
+   */
+  static boolean isRawComparable(TypeDescription schema) {
+    if (schema.getCategory() != TypeDescription.Category.STRUCT) {
+      return false;
+    }
+    for (TypeDescription child : schema.getChildren()) {
+      switch (child.getCategory()) {
+        case BOOLEAN:
+        case BYTE:
+        case SHORT:
+        case INT:
+        case LONG:
+        case FLOAT:
+        case DOUBLE:
+        case STRING:
+        case CHAR:
+        case VARCHAR:
+        case BINARY:
+          break;
+        case STRUCT:
+          if (!isRawComparable(child)) {
+            return false;
+          }
+          break;
+        default:
+          return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compare two serialized {@link OrcStruct}s starting at {@link #pos1} and {@link #pos2}.
+   * {@link OrcStruct#write(java.io.DataOutput)} writes a null flag before each field, and a null field is
+   * ordered after any non-null value, same as {@link OrcStruct#compareTo(OrcStruct)}.
+   */
+  private int compareRawStruct(TypeDescription structSchema, byte[] b1, byte[] b2) throws IOException {
+    for (TypeDescription fieldSchema : structSchema.getChildren()) {
+      boolean present1 = b1[pos1++] != 0;
+      boolean present2 = b2[pos2++] != 0;
+      if (!present1) {
+        if (present2) {
+          return 1;
+        }
+      } else if (!present2) {
+        return -1;
+      } else {
+        int result = compareRawField(fieldSchema, b1, b2);
+        if (result != 0) {
+          return result;
+        }
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Compare a single non-null field, advancing both read positions past it when the values are equal.
+   * The ordering of each type matches the compareTo method of the {@link org.apache.hadoop.io.Writable}
+   * that {@link OrcStruct} uses for it.
+   */
+  private int compareRawField(TypeDescription fieldSchema, byte[] b1, byte[] b2) throws IOException {
+    int result;
+    switch (fieldSchema.getCategory()) {
+      case BOOLEAN:
+        result = Boolean.compare(b1[pos1] != 0, b2[pos2] != 0);
+        pos1 += 1;
+        pos2 += 1;
+        return result;
+      case BYTE:
+        result = Byte.compare(b1[pos1], b2[pos2]);
+        pos1 += 1;
+        pos2 += 1;
+        return result;
+      case SHORT:
+        result = Short.compare((short) WritableComparator.readUnsignedShort(b1, pos1),
+            (short) WritableComparator.readUnsignedShort(b2, pos2));
+        pos1 += Short.BYTES;
+        pos2 += Short.BYTES;
+        return result;
+      case INT:
+        result = Integer.compare(WritableComparator.readInt(b1, pos1), WritableComparator.readInt(b2, pos2));
+        pos1 += Integer.BYTES;
+        pos2 += Integer.BYTES;
+        return result;
+      case LONG:
+        result = Long.compare(WritableComparator.readLong(b1, pos1), WritableComparator.readLong(b2, pos2));
+        pos1 += Long.BYTES;
+        pos2 += Long.BYTES;
+        return result;
+      case FLOAT: {
+        float value1 = WritableComparator.readFloat(b1, pos1);
+        float value2 = WritableComparator.readFloat(b2, pos2);
+        pos1 += Float.BYTES;
+        pos2 += Float.BYTES;
+        return value1 < value2 ? -1 : (value1 == value2 ? 0 : 1);
+      }
+      case DOUBLE: {
+        double value1 = WritableComparator.readDouble(b1, pos1);
+        double value2 = WritableComparator.readDouble(b2, pos2);
+        pos1 += Double.BYTES;
+        pos2 += Double.BYTES;
+        return value1 < value2 ? -1 : (value1 == value2 ? 0 : 1);
+      }
+      case STRING:
+      case CHAR:
+      case VARCHAR: {
+        // Text is written as a vint length followed by the bytes
+        int length1 = WritableComparator.readVInt(b1, pos1);
+        int length2 = WritableComparator.readVInt(b2, pos2);
+        pos1 += WritableUtils.decodeVIntSize(b1[pos1]);
+        pos2 += WritableUtils.decodeVIntSize(b2[pos2]);
+        return compareRawBytes(b1, length1, b2, length2);
+      }
+      case BINARY: {
+        // BytesWritable is written as an int length followed by the bytes
+        int length1 = WritableComparator.readInt(b1, pos1);
+        int length2 = WritableComparator.readInt(b2, pos2);
+        pos1 += Integer.BYTES;
+        pos2 += Integer.BYTES;
+        return compareRawBytes(b1, length1, b2, length2);
+      }
+      case STRUCT:
+        return compareRawStruct(fieldSchema, b1, b2);
+      default:
+        throw new IllegalStateException("Unsupported type for raw comparison: " + fieldSchema);
+    }
+  }
+
+  private int compareRawBytes(byte[] b1, int length1, byte[] b2, int length2) {
+    int result = WritableComparator.compareBytes(b1, pos1, length1, b2, pos2, length2);
+    pos1 += length1;
+    pos2 += length2;
+    return result;
+  }
 }
@@ -17,14 +17,35 @@
 
 package org.apache.gobblin.compaction.mapreduce;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.MRConfig;
+import org.apache.hadoop.mapreduce.MRJobConfig;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import com.google.common.io.Files;
+
+import org.apache.gobblin.compaction.mapreduce.avro.AvroDedupKeyIndex;
+import org.apache.gobblin.compaction.mapreduce.avro.AvroKeyCompactorOutputFormat;
+import org.apache.gobblin.compaction.mapreduce.avro.MRCompactorAvroKeyDedupJobRunner;
 import org.apache.gobblin.configuration.State;
+import org.apache.gobblin.data.management.dataset.SimpleFileSystemDataset;
 import org.apache.gobblin.util.AvroUtils;
 
 
@@ -48,4 +69,87 @@ public class CompactionJobConfiguratorTest {
 
     }
   }
+
+  @Test
+  public void testInProcessExecution() throws IOException {
+    State state = new State();
+    CompactionAvroJobConfigurator configurator = new CompactionAvroJobConfigurator(state);
+    Assert.assertFalse(configurator.isEligibleForInProcessExecution(1L));
+
+    state.setProp(CompactionJobConfigurator.COMPACTION_IN_PROCESS_ENABLED, true);
+    state.setProp(CompactionJobConfigurator.COMPACTION_IN_PROCESS_MAX_INPUT_SIZE_BYTES, 100L);
+    state.setProp(CompactionJobConfigurator.COMPACTION_IN_PROCESS_SORT_BUFFER_MB, 20);
+    state.setProp(CompactionJobConfigurator.COMPACTION_IN_PROCESS_LOCAL_DIRS, "/tmp/compaction-spill");
+    configurator = new CompactionAvroJobConfigurator(state);
+    Assert.assertTrue(configurator.isEligibleForInProcessExecution(100L));
+    Assert.assertFalse(configurator.isEligibleForInProcessExecution(101L));
+
+    Job job = Job.getInstance(new Configuration());
+    configurator.configureInProcessExecution(job);
+    Assert.assertEquals(job.getConfiguration().get(MRConfig.FRAMEWORK_NAME), MRConfig.LOCAL_FRAMEWORK_NAME);
+    Assert.assertEquals(job.getConfiguration().getInt(MRJobConfig.IO_SORT_MB, 0), 20);
+    Assert.assertEquals(job.getConfiguration().get(MRConfig.LOCAL_DIR), "/tmp/compaction-spill");
+  }
+
+  @Test
+  public void testRecompactCollidingOutputFiles() throws IOException {
+    Schema schema = SchemaBuilder.record("event").fields().requiredLong("id").requiredString("payload").endRecord();
+    File tmpDir = Files.createTempDir();
+    FileSystem fs = FileSystem.getLocal(new Configuration());
+    try {
+      Path inputDir = new Path(tmpDir.getAbsolutePath(), "input");
+      Path outputDir = new Path(tmpDir.getAbsolutePath(), "output");
+      State state = new State();
+      state.setProp(MRCompactor.COMPACTION_INPUT_DIR, inputDir.toString());
+      state.setProp(MRCompactor.COMPACTION_INPUT_SUBDIR, "minutely");
+      state.setProp(MRCompactor.COMPACTION_DEST_DIR, outputDir.toString());
+      state.setProp(MRCompactor.COMPACTION_DEST_SUBDIR, "hourly");
+      state.setProp(MRCompactor.COMPACTION_JOB_DIR, new Path(tmpDir.getAbsolutePath(), "job").toString());
+      state.setProp(MRCompactor.COMPACTION_RENAME_SOURCE_DIR_ENABLED, true);
+      state.setProp(MRCompactorAvroKeyDedupJobRunner.COMPACTION_JOB_DEDUP_KEY, "ALL");
+      state.setProp(CompactionJobConfigurator.COMPACTION_DEDUP_KEY_INDEX_ENABLED, true);
+      state.setProp(CompactionJobConfigurator.COMPACTION_DEDUP_KEY_INDEX_FPP, 0.0001);
+      CompactionAvroJobConfigurator configurator = new CompactionAvroJobConfigurator(state);
+
+      // Late data colliding with the second output file of the previous run
+      Path datasetDir = new Path(inputDir, "Dataset/minutely/2017/04/03/10");
+      writeFile(fs, schema, new Path(datasetDir, "run_2/late.10.avro"), 1500, 1510);
+      Path dstDir = new Path(outputDir, "Dataset/hourly/2017/04/03/10");
+      Path file1 = writeFile(fs, schema, new Path(dstDir, "part-r-1000.1.1.avro"), 0, 1000);
+      Path file2 = writeFile(fs, schema, new Path(dstDir, "part-r-1000.1.2.avro"), 1000, 2000);
+      AvroDedupKeyIndex index = new AvroDedupKeyIndex(fs, schema, configurator.getDedupKeySchema(schema), 0.0001);
+      index.writeIndex(file1);
+      index.writeIndex(file2);
+
+      // The reducers are sized with the colliding file, which alone is as large as the target output file size
+      state.setProp(MRCompactorAvroKeyDedupJobRunner.COMPACTION_JOB_TARGET_OUTPUT_FILE_SIZE,
+          fs.getFileStatus(file2).getLen());
+      Job job = configurator.createJob(new SimpleFileSystemDataset(datasetDir));
+
+      Assert.assertEquals(configurator.getOutputFilesToReplace(), Collections.singleton(fs.makeQualified(file2)));
+      Assert.assertEquals(configurator.getReplacedRecordCount(), 1000);
+      Assert.assertEquals(Arrays.asList(FileInputFormat.getInputPaths(job)),
+          Arrays.asList(fs.makeQualified(new Path(datasetDir, "run_2")), fs.makeQualified(file2)));
+      Assert.assertEquals(job.getNumReduceTasks(), 2);
+      Assert.assertTrue(job.getConfiguration()
+          .getBoolean(AvroKeyCompactorOutputFormat.COMPACTION_OUTPUT_DEDUP_KEY_INDEX_ENABLED, false));
+    } finally {
+      fs.delete(new Path(tmpDir.getAbsolutePath()), true);
+    }
+  }
+
+  private static Path writeFile(FileSystem fs, Schema schema, Path path, long startId, long endId)
+      throws IOException {
+    fs.mkdirs(path.getParent());
+    try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>())) {
+      writer.create(schema, new File(path.toUri().getPath()));
+      for (long id = startId; id < endId; id++) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("id", id);
+        record.put("payload", "payload_" + id);
+        writer.append(record);
+      }
+    }
+    return path;
+  }
 }
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.compaction.mapreduce.avro;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.io.Files;
+
+
+/**
+ * Test class for {@link AvroDedupKeyIndex}.
+ */
+@Test(groups = {"gobblin.compaction"})
+public class AvroDedupKeyIndexTest {
+  private static final Schema SCHEMA = SchemaBuilder.record("event").fields()
+      .requiredLong("id").requiredString("payload").endRecord();
+  private static final Schema KEY_SCHEMA = SchemaBuilder.record("event").fields()
+      .requiredLong("id").endRecord();
+
+  // A newer version of the schema, with a key field that records of the previous version get by default
+  private static final Schema NEW_SCHEMA = SchemaBuilder.record("event").fields()
+      .requiredLong("id").requiredString("payload").name("source").type().stringType().stringDefault("unknown")
+      .endRecord();
+  private static final Schema NEW_KEY_SCHEMA = SchemaBuilder.record("event").fields()
+      .requiredLong("id").requiredString("source").endRecord();
+
+  private File tmpDir;
+  private FileSystem fs;
+
+  @BeforeClass
+  public void setUp() throws IOException {
+    this.tmpDir = Files.createTempDir();
+    this.fs = FileSystem.getLocal(new Configuration());
+  }
+
+  @AfterClass
+  public void tearDown() throws IOException {
+    this.fs.delete(new Path(this.tmpDir.getAbsolutePath()), true);
+  }
+
+  @Test
+  public void testOnlyCollidingFilesMatch() throws IOException {
+    Path outputDir = new Path(this.tmpDir.getAbsolutePath(), "output");
+    Path deltaDir = new Path(this.tmpDir.getAbsolutePath(), "delta");
+    Path file1 = writeFile(new Path(outputDir, "part-1.avro"), 0, 1000);
+    Path file2 = writeFile(new Path(outputDir, "part-2.avro"), 1000, 2000);
+    Path unindexedFile = writeFile(new Path(outputDir, "part-3.avro"), 2000, 3000);
+    writeFile(new Path(deltaDir, "late.avro"), 1500, 1510);
+    writeFile(new Path(deltaDir, "nested/late.avro"), 1505, 1515);
+
+    AvroDedupKeyIndex index = new AvroDedupKeyIndex(this.fs, SCHEMA, KEY_SCHEMA, 0.0001);
+    index.writeIndex(file1);
+    index.writeIndex(file2);
+    Assert.assertTrue(this.fs.exists(AvroDedupKeyIndex.getIndexPath(file1)));
+
+    // Keys of the delta files read in parallel are merged
+    Set<Long> deltaKeys = index.collectKeyHashes(Collections.singletonList(deltaDir), 2);
+    Assert.assertEquals(deltaKeys.size(), 15);
+    Assert.assertFalse(index.mightContainAny(file1, deltaKeys));
+    Assert.assertTrue(index.mightContainAny(file2, deltaKeys));
+    // Files without an index are always compacted again
+    Assert.assertTrue(index.mightContainAny(unindexedFile, deltaKeys));
+
+    index.deleteIndex(file2);
+    Assert.assertFalse(this.fs.exists(AvroDedupKeyIndex.getIndexPath(file2)));
+  }
+
+  @Test
+  public void testMoveIndexBuiltFromWrittenRecords() throws IOException {
+    Path tmpFile = writeFile(new Path(this.tmpDir.getAbsolutePath(), "tmp/part-1.avro"), 0, 100);
+    Path dstFile = new Path(this.tmpDir.getAbsolutePath(), "dst/part-1.avro");
+
+    AvroDedupKeyIndex index = new AvroDedupKeyIndex(this.fs, SCHEMA, KEY_SCHEMA, 0.0001);
+    AvroDedupKeyIndex.IndexBuilder builder = index.newIndexBuilder();
+    for (long id = 0; id < 100; id++) {
+      builder.add(createRecord(id));
+    }
+    builder.write(AvroDedupKeyIndex.getIndexPath(tmpFile));
+    this.fs.mkdirs(dstFile.getParent());
+    this.fs.rename(tmpFile, dstFile);
+    index.moveIndex(tmpFile, dstFile);
+    Assert.assertFalse(this.fs.exists(AvroDedupKeyIndex.getIndexPath(tmpFile)));
+
+    Path deltaFile = writeFile(new Path(this.tmpDir.getAbsolutePath(), "late/late.avro"), 99, 100);
+    Assert.assertTrue(index.mightContainAny(dstFile,
+        index.collectKeyHashes(Collections.singletonList(deltaFile.getParent()), 1)));
+    Path otherDeltaFile = writeFile(new Path(this.tmpDir.getAbsolutePath(), "other/late.avro"), 100, 101);
+    Assert.assertFalse(index.mightContainAny(dstFile,
+        index.collectKeyHashes(Collections.singletonList(otherDeltaFile.getParent()), 1)));
+
+    // Moving the index of a file without index does nothing
+    index.moveIndex(deltaFile, otherDeltaFile);
+    Assert.assertFalse(this.fs.exists(AvroDedupKeyIndex.getIndexPath(otherDeltaFile)));
+  }
+
+  @Test
+  public void testDeltaWrittenWithOlderSchema() throws IOException {
+    Path outputFile = new Path(this.tmpDir.getAbsolutePath(), "evolved/output/part-1.avro");
+    this.fs.mkdirs(outputFile.getParent());
+    try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>())) {
+      writer.create(NEW_SCHEMA, new File(outputFile.toUri().getPath()));
+      for (long id = 0; id < 100; id++) {
+        GenericRecord record = new GenericData.Record(NEW_SCHEMA);
+        record.put("id", id);
+        record.put("payload", "payload_" + id);
+        record.put("source", "unknown");
+        writer.append(record);
+      }
+    }
+    // The late data still has the previous schema
+    Path deltaFile = writeFile(new Path(this.tmpDir.getAbsolutePath(), "evolved/delta/late.avro"), 50, 60);
+
+    AvroDedupKeyIndex index = new AvroDedupKeyIndex(this.fs, NEW_SCHEMA, NEW_KEY_SCHEMA, 0.0001);
+    index.writeIndex(outputFile);
+    // The delta records are read with the newest schema, so they have the same keys as the records of the output
+    Set<Long> deltaKeys = index.collectKeyHashes(Collections.singletonList(deltaFile.getParent()), 1);
+    Assert.assertEquals(deltaKeys.size(), 10);
+    Assert.assertTrue(index.mightContainAny(outputFile, deltaKeys));
+  }
+
+  private Path writeFile(Path path, long startId, long endId) throws IOException {
+    this.fs.mkdirs(path.getParent());
+    try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>())) {
+      writer.create(SCHEMA, new File(path.toUri().getPath()));
+      for (long id = startId; id < endId; id++) {
+        writer.append(createRecord(id));
+      }
+    }
+    return path;
+  }
+
+  private static GenericRecord createRecord(long id) {
+    GenericRecord record = new GenericData.Record(SCHEMA);
+    record.put("id", id);
+    record.put("payload", "payload_" + id);
+    return record;
+  }
+}
@@ -17,9 +17,16 @@
 
 package org.apache.gobblin.compaction.mapreduce.orc;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.TreeMap;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.BooleanWritable;
+import org.apache.hadoop.io.DataOutputBuffer;
 import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.WritableComparable;
 import org.apache.orc.OrcConf;
@@ -300,6 +307,84 @@ public class OrcKeyComparatorTest {
     Assert.assertTrue(comparator.compare(orcKey4, orcKey5) == 0);
   }
 
+  // Raw comparison on serialized keys should order records the same as the comparison on deserialized keys.
+  @Test
+  public void testRawComparisonConsistentWithObjectComparison() throws Exception {
+    TypeDescription nestedRecordSchema = TypeDescription.createStruct()
+        .addField("x", TypeDescription.createLong())
+        .addField("y", TypeDescription.createString());
+    TypeDescription schema = TypeDescription.createStruct()
+        .addField("a", TypeDescription.createInt())
+        .addField("b", TypeDescription.createString())
+        .addField("c", nestedRecordSchema)
+        .addField("d", TypeDescription.createBoolean());
+
+    OrcKeyComparator rawComparator = new OrcKeyComparator();
+    OrcKeyComparator objectComparator = new OrcKeyComparator();
+    Configuration conf = new Configuration();
+    conf.set(OrcConf.MAPRED_SHUFFLE_KEY_SCHEMA.getAttribute(), schema.toString());
+    rawComparator.setConf(conf);
+    conf.setBoolean(OrcKeyComparator.ORC_KEY_RAW_COMPARISON_ENABLED, false);
+    objectComparator.setConf(conf);
+    Assert.assertTrue(OrcKeyComparator.isRawComparable(schema));
+
+    List<OrcStruct> records = new ArrayList<>();
+    records.add(createMixedOrcStruct(schema, -1, "abc", 5L, "x", true));
+    records.add(createMixedOrcStruct(schema, 1, "abc", 5L, "x", true));
+    records.add(createMixedOrcStruct(schema, 1, "abcd", 5L, "x", true));
+    records.add(createMixedOrcStruct(schema, 1, "ab", 5L, "x", true));
+    records.add(createMixedOrcStruct(schema, 1, "abc", -5L, "x", true));
+    records.add(createMixedOrcStruct(schema, 1, "abc", 5L, "y", true));
+    records.add(createMixedOrcStruct(schema, 1, "abc", 5L, "x", false));
+    records.add(createMixedOrcStruct(schema, 1, null, 5L, "x", false));
+    records.add(createMixedOrcStruct(schema, 1, "\u00e9", 5L, null, false));
+    OrcStruct nullNested = createMixedOrcStruct(schema, 1, "abc", 5L, "x", true);
+    nullNested.setFieldValue("c", null);
+    records.add(nullNested);
+
+    for (OrcStruct left : records) {
+      for (OrcStruct right : records) {
+        byte[] leftBytes = serialize(left);
+        byte[] rightBytes = serialize(right);
+        Assert.assertEquals(
+            Integer.signum(rawComparator.compare(leftBytes, 0, leftBytes.length, rightBytes, 0, rightBytes.length)),
+            Integer.signum(objectComparator.compare(leftBytes, 0, leftBytes.length, rightBytes, 0, rightBytes.length)),
+            left + " vs " + right);
+      }
+    }
+  }
+
+  @Test
+  public void testRawComparisonNotSupportedForComplexTypes() throws Exception {
+    TypeDescription listSchema = TypeDescription.createList(TypeDescription.createString());
+    Assert.assertFalse(OrcKeyComparator.isRawComparable(
+        TypeDescription.createStruct().addField("a", TypeDescription.createInt()).addField("b", listSchema)));
+    Assert.assertFalse(OrcKeyComparator.isRawComparable(
+        TypeDescription.createStruct().addField("a", TypeDescription.createTimestamp())));
+    Assert.assertFalse(OrcKeyComparator.isRawComparable(TypeDescription.createStruct()
+        .addField("a", TypeDescription.createStruct().addField("b", TypeDescription.createDecimal()))));
+  }
+
+  private OrcStruct createMixedOrcStruct(TypeDescription schema, int a, String b, long x, String y, boolean d) {
+    OrcStruct result = new OrcStruct(schema);
+    OrcStruct nested = new OrcStruct(schema.getChildren().get(2));
+    nested.setFieldValue("x", new LongWritable(x));
+    nested.setFieldValue("y", y == null ? null : new Text(y));
+    result.setFieldValue("a", new IntWritable(a));
+    result.setFieldValue("b", b == null ? null : new Text(b));
+    result.setFieldValue("c", nested);
+    result.setFieldValue("d", new BooleanWritable(d));
+    return result;
+  }
+
+  private byte[] serialize(OrcStruct record) throws IOException {
+    OrcKey orcKey = new OrcKey();
+    orcKey.key = record;
+    DataOutputBuffer out = new DataOutputBuffer();
+    orcKey.write(out);
+    return Arrays.copyOf(out.getData(), out.getLength());
+  }
+
   private OrcMap createSimpleOrcMap(Text key, Text value, TypeDescription schema) {
     TreeMap map = new TreeMap<Text, Text>();
     map.put(key, value);
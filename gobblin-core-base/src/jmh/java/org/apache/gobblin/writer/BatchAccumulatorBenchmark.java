@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Functions;
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.Futures;
+
+
+/**
+ * Writes records through a {@link BufferedAsyncDataWriter} to a writer which takes {@link #SEND_TIME_MS} to send
+ * a batch, with a {@link SequentialBasedBatchAccumulator} for one lane and a {@link MultiLaneBatchAccumulator} with
+ * a processor per lane otherwise.
+ */
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@org.openjdk.jmh.annotations.Fork(value = 1)
+@BenchmarkMode(value = Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BatchAccumulatorBenchmark {
+  private static final int NUM_RECORDS = 2000;
+  private static final long BATCH_SIZE = 4 * 1024;
+  private static final long BATCH_TTL_MS = 10;
+  private static final long SEND_TIME_MS = 1;
+  private static final String PAYLOAD = Strings.repeat("x", 100);
+
+  @State(value = Scope.Benchmark)
+  public static class AccumulatorState {
+    @Param({"1", "4"})
+    public int lanes;
+  }
+
+  private static class SlowBatchWriter implements BatchAsyncDataWriter<String> {
+    @Override
+    public Future<WriteResponse> write(Batch<String> batch, WriteCallback callback) {
+      try {
+        Thread.sleep(SEND_TIME_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      callback.onSuccess(WriteResponse.EMPTY);
+      return Futures.immediateFuture(WriteResponse.EMPTY);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  @Benchmark
+  public void writeRecords(AccumulatorState state) throws Exception {
+    BatchAccumulator<String> accumulator;
+    if (state.lanes == 1) {
+      accumulator = new SequentialBasedBatchAccumulator<>(BATCH_SIZE, BATCH_TTL_MS, Batch.BATCH_QUEUE_CAPACITY_DEFAULT);
+    } else {
+      accumulator = new MultiLaneBatchAccumulator<>(state.lanes, BATCH_SIZE, BATCH_TTL_MS,
+          Batch.BATCH_QUEUE_CAPACITY_DEFAULT, LargeMessagePolicy.FAIL, Functions.identity());
+    }
+    BufferedAsyncDataWriter<String> writer =
+        new BufferedAsyncDataWriter<>(accumulator, new SlowBatchWriter(), state.lanes);
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      writer.write(i + PAYLOAD, WriteCallback.EMPTY);
+    }
+    writer.close();
+  }
+}
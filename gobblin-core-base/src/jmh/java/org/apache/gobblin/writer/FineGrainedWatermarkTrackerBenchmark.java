@@ -89,6 +89,21 @@ public class FineGrainedWatermarkTrackerBenchmark {
     }
   }
 
+  @Benchmark
+  @Group("trackImmediateAndCommit")
+  public void trackImmediateAcksAndCommit(Control control, TrackerState trackerState) throws Exception {
+    if (!control.stopMeasurement) {
+      AcknowledgableWatermark wmark = new AcknowledgableWatermark(new DefaultCheckpointableWatermark(
+          "0", new LongWatermark(trackerState._index)));
+      trackerState._watermarkTracker.track(wmark);
+      trackerState._index++;
+      wmark.ack();
+      if (trackerState._index % 1000 == 0) {
+        trackerState._watermarkTracker.getCommittableWatermarks();
+      }
+    }
+  }
+
   @Benchmark
   @Group("trackDelayed")
   public void trackWithDelayedAcks(Control control, TrackerState trackerState) throws Exception {
@@ -73,13 +73,25 @@ public class BufferedAsyncDataWriter<D> implements AsyncDataWriter<D> {
       };
 
   public BufferedAsyncDataWriter (BatchAccumulator<D> accumulator, BatchAsyncDataWriter<D> dataWriter) {
+    this(accumulator, dataWriter, 1);
+  }
+
+  /**
+   * @param numProcessors number of threads writing batches. More than one only sends several batches at once with
+   *                      an accumulator which hands them out independently, such as {@link MultiLaneBatchAccumulator},
+   *                      and requires a thread safe {@link BatchAsyncDataWriter}
+   */
+  public BufferedAsyncDataWriter (BatchAccumulator<D> accumulator, BatchAsyncDataWriter<D> dataWriter,
+      int numProcessors) {
     this.processor = new RecordProcessor (accumulator, dataWriter);
     this.accumulator = accumulator;
-    this.service = Executors.newFixedThreadPool(1);
+    this.service = Executors.newFixedThreadPool(numProcessors);
     this.running = true;
     this.startTime = System.currentTimeMillis();
     try {
-      this.service.execute(this.processor);
+      for (int i = 0; i < numProcessors; i++) {
+        this.service.execute(this.processor);
+      }
       this.service.shutdown();
     } catch (Exception e) {
       LOG.error("Cannot start internal thread to consume the data");
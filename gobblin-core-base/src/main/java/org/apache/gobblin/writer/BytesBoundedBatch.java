@@ -44,6 +44,13 @@ public class BytesBoundedBatch<D> extends Batch<D>{
     return (System.currentTimeMillis() - creationTimestamp) >= ttlInMilliSeconds;
   }
 
+  /**
+   * Return the milliseconds left before the TTL expires, 0 if it has expired
+   */
+  public long getRemainingTTL() {
+    return Math.max(0, ttlInMilliSeconds - (System.currentTimeMillis() - creationTimestamp));
+  }
+
   private long getInternalSize(D record) {
     return (record).toString().length() + this.OVERHEAD_SIZE_IN_BYTES;
   }
@@ -18,12 +18,10 @@ package org.apache.gobblin.writer;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.util.Deque;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -58,6 +56,10 @@ import org.apache.gobblin.util.ExecutorsUtils;
  * A class to handle fine-grain watermarks.
  * Thread-safe only if you know what you are doing :)
  *
+ * The watermarks of each source are kept in tracking order in a chain of fixed size array segments. A cursor per
+ * source points to the highest contiguous acked watermark and only moves forward, so finding the committable
+ * watermark only looks at the watermarks acked since the previous call. Segments behind the cursor are dropped as a
+ * whole and garbage collected.
  */
 @NotThreadSafe
 @Slf4j
@@ -76,7 +78,8 @@ public class FineGrainedWatermarkTracker implements Instrumentable, Closeable {
 
 
   private static final long MILLIS_TO_NANOS = 1000 * 1000;
-  private final Map<String, Deque<AcknowledgableWatermark>> _watermarksMap;
+  private static final int SEGMENT_SIZE = 1024;
+  private final Map<String, SourceWatermarks> _watermarksMap;
   private final long _sweepIntervalMillis;
   private final long _stabilityCheckIntervalMillis;
   private final long _watermarkLagThreshold;
@@ -98,7 +101,7 @@ public class FineGrainedWatermarkTracker implements Instrumentable, Closeable {
 
 
   public FineGrainedWatermarkTracker(Config config) {
-    _watermarksMap = new HashMap<>();
+    _watermarksMap = new ConcurrentHashMap<>();
     _sweepIntervalMillis = ConfigUtils.getLong(config, WATERMARK_TRACKER_SWEEP_INTERVAL_MS,
         WATERMARK_TRACKER_SWEEP_INTERVAL_MS_DEFAULT);
     _stabilityCheckIntervalMillis = ConfigUtils.getLong(config, WATERMARK_TRACKER_STABILITY_CHECK_INTERVAL_MS,
@@ -152,9 +155,9 @@ public class FineGrainedWatermarkTracker implements Instrumentable, Closeable {
     }
     maybeAbort();
     String source = acknowledgableWatermark.getCheckpointableWatermark().getSource();
-    Deque<AcknowledgableWatermark> sourceWatermarks = _watermarksMap.get(source);
+    SourceWatermarks sourceWatermarks = _watermarksMap.get(source);
     if (sourceWatermarks == null) {
-      sourceWatermarks = new ConcurrentLinkedDeque<>();
+      sourceWatermarks = new SourceWatermarks();
       _watermarksMap.put(source, sourceWatermarks);
     }
     sourceWatermarks.add(acknowledgableWatermark);
@@ -181,20 +184,10 @@ public class FineGrainedWatermarkTracker implements Instrumentable, Closeable {
 
   public Map<String, CheckpointableWatermark> getCommittableWatermarks() {
     Map<String, CheckpointableWatermark> commitableWatermarks = new HashMap<String, CheckpointableWatermark>(_watermarksMap.size());
-    for (Map.Entry<String, Deque<AcknowledgableWatermark>> entry: _watermarksMap.entrySet()) {
-      String source = entry.getKey();
-      Iterable<AcknowledgableWatermark> watermarks = entry.getValue();
-      AcknowledgableWatermark highestWatermark = null;
-      for (AcknowledgableWatermark watermark: watermarks) {
-        if (watermark.isAcked()) {
-          highestWatermark = watermark;
-        } else {
-          // hopefully we've already found the highest contiguous acked watermark
-          break;
-        }
-      }
+    for (Map.Entry<String, SourceWatermarks> entry: _watermarksMap.entrySet()) {
+      AcknowledgableWatermark highestWatermark = entry.getValue().getHighestContiguousAcked();
       if (highestWatermark != null) {
-        commitableWatermarks.put(source, highestWatermark.getCheckpointableWatermark());
+        commitableWatermarks.put(entry.getKey(), highestWatermark.getCheckpointableWatermark());
       }
     }
     return commitableWatermarks;
@@ -202,18 +195,10 @@ public class FineGrainedWatermarkTracker implements Instrumentable, Closeable {
 
   public Map<String, CheckpointableWatermark> getUnacknowledgedWatermarks() {
     Map<String, CheckpointableWatermark> unackedWatermarks = new HashMap<>(_watermarksMap.size());
-    for (Map.Entry<String, Deque<AcknowledgableWatermark>> entry: _watermarksMap.entrySet()) {
-      String source = entry.getKey();
-      Iterable<AcknowledgableWatermark> watermarks = entry.getValue();
-      AcknowledgableWatermark lowestUnacked = null;
-      for (AcknowledgableWatermark watermark: watermarks) {
-        if (!watermark.isAcked()) {
-          lowestUnacked = watermark;
-          break;
-        }
-      }
+    for (Map.Entry<String, SourceWatermarks> entry: _watermarksMap.entrySet()) {
+      AcknowledgableWatermark lowestUnacked = entry.getValue().getLowestUnacked();
       if (lowestUnacked != null) {
-        unackedWatermarks.put(source, lowestUnacked.getCheckpointableWatermark());
+        unackedWatermarks.put(entry.getKey(), lowestUnacked.getCheckpointableWatermark());
       }
     }
     return unackedWatermarks;
@@ -252,40 +237,8 @@ public class FineGrainedWatermarkTracker implements Instrumentable, Closeable {
   synchronized int sweep() {
     long startTime = System.nanoTime();
     int swept = 0;
-    for (Map.Entry<String, Deque<AcknowledgableWatermark>> entry : _watermarksMap.entrySet()) {
-      Deque<AcknowledgableWatermark> watermarks = entry.getValue();
-      /**
-       * Keep popping acked elements from the front as long as their next element is also acked.
-       * So: Acked_A -> Acked_B -> Not-Acked_C -> ...  becomes
-       *     Acked_B -> Not-Acked_C -> ...
-       *
-       * We keep the acked element around because that represents the highest contiguous acked watermark.
-       */
-      boolean continueIteration = true;
-      while (continueIteration) {
-        Iterator<AcknowledgableWatermark> iter = watermarks.iterator();
-        if (!iter.hasNext()) {  // null
-          continueIteration = false;
-          continue;
-        }
-
-        AcknowledgableWatermark first = iter.next();
-        if (first.isAcked()) {
-          if (!iter.hasNext()) { // Acked_A -> null
-            continueIteration = false;
-            continue;
-          }
-          AcknowledgableWatermark second = iter.next();
-          if ((second != null) && second.isAcked()) { // Acked_A -> Acked_B -> ...
-            watermarks.pop();
-            swept++;
-          } else { // Acked_A -> Not_Acked_B
-            continueIteration = false;
-          }
-        } else { // Not_Acked_A -> ..
-          continueIteration = false;
-        }
-      }
+    for (SourceWatermarks watermarks : _watermarksMap.values()) {
+      swept += watermarks.sweep();
     }
     long duration = (System.nanoTime() - startTime)/ MILLIS_TO_NANOS;
     log.debug("Swept {} watermarks in {} millis", swept, duration);
@@ -293,7 +246,98 @@ public class FineGrainedWatermarkTracker implements Instrumentable, Closeable {
     return swept;
   }
 
+  /**
+   * The watermarks of a source, indexed by tracking order in a chain of segments of {@link #SEGMENT_SIZE} slots.
+   * Watermarks are added by a single thread. The cursor is moved under the lock by the threads looking for
+   * committable or unacknowledged watermarks.
+   */
+  private static final class SourceWatermarks {
 
+    private static final class Segment {
+      private final AcknowledgableWatermark[] _slots = new AcknowledgableWatermark[SEGMENT_SIZE];
+      private volatile Segment _next;
+    }
+
+    // Written by the tracking thread, published to the cursor by the volatile count
+    private Segment _tail;
+    private volatile long _tracked = 0;
+
+    // Index of the highest contiguous acked watermark, and the segment holding the next index
+    private long _acked = -1;
+    private AcknowledgableWatermark _highestAcked = null;
+    private Segment _cursorSegment;
+    private long _cursorSegmentStart = 0;
+    // Watermarks before this index are swept
+    private long _swept = 0;
+
+    SourceWatermarks() {
+      _tail = new Segment();
+      _cursorSegment = _tail;
+    }
+
+    void add(AcknowledgableWatermark watermark) {
+      long index = _tracked;
+      int offset = (int) (index % SEGMENT_SIZE);
+      if (offset == 0 && index > 0) {
+        Segment segment = new Segment();
+        _tail._next = segment;
+        _tail = segment;
+      }
+      _tail._slots[offset] = watermark;
+      _tracked = index + 1;
+    }
+
+    /**
+     * Move the cursor over the acked watermarks following it
+     * @return the number of tracked watermarks seen
+     */
+    private long advance() {
+      long tracked = _tracked;
+      while (_acked + 1 < tracked) {
+        long next = _acked + 1;
+        if (next - _cursorSegmentStart == SEGMENT_SIZE) {
+          _cursorSegment = _cursorSegment._next;
+          _cursorSegmentStart += SEGMENT_SIZE;
+        }
+        AcknowledgableWatermark watermark = _cursorSegment._slots[(int) (next - _cursorSegmentStart)];
+        if (!watermark.isAcked()) {
+          break;
+        }
+        _acked = next;
+        _highestAcked = watermark;
+      }
+      return tracked;
+    }
+
+    synchronized AcknowledgableWatermark getHighestContiguousAcked() {
+      advance();
+      return _highestAcked;
+    }
+
+    synchronized AcknowledgableWatermark getLowestUnacked() {
+      long tracked = advance();
+      if (_acked + 1 < tracked) {
+        return _cursorSegment._slots[(int) (_acked + 1 - _cursorSegmentStart)];
+      }
+      return null;
+    }
+
+    /**
+     * Release the acked watermarks before the highest contiguous acked one, which is kept since it is the committable
+     * watermark. Segments behind the cursor are no longer referenced.
+     * @return number of watermarks released
+     */
+    synchronized int sweep() {
+      advance();
+      long sweepTo = Math.max(_acked, 0);
+      int swept = (int) (sweepTo - _swept);
+      if (swept <= 0) {
+        return 0;
+      }
+      _swept = sweepTo;
+      return swept;
+    }
+  }
 
 
   private final Runnable _sweeper;
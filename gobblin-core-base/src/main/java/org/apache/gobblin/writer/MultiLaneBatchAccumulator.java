@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Futures;
+import com.typesafe.config.Config;
+
+import org.apache.gobblin.annotation.Alpha;
+import org.apache.gobblin.util.ConfigUtils;
+
+
+/**
+ * Multi-lane, bytes and TTL based accumulator
+ * Records are partitioned by key into independent lanes. Each lane batches its records like
+ * {@link SequentialBasedBatchAccumulator}: a batch is available once it is full or its TTL has expired. Batches of
+ * different lanes are handed out independently, so {@link BufferedAsyncDataWriter} can send several batches at once
+ * with several processors. A lane has at most one batch in flight, until the batch is deallocated, so the records of
+ * a key are sent in order.
+ */
+@Alpha
+public class MultiLaneBatchAccumulator<D> extends BatchAccumulator<D> {
+
+  public static final String BATCH_LANES = "writer.batch.lanes";
+  public static final int BATCH_LANES_DEFAULT = 4;
+
+  private static final LargeMessagePolicy DEFAULT_LARGE_MESSAGE_POLICY = LargeMessagePolicy.FAIL;
+  private static final Logger LOG = LoggerFactory.getLogger(MultiLaneBatchAccumulator.class);
+
+  private final List<Lane> lanes;
+  private final Function<? super D, ?> laneKeyFunction;
+  // Batches which are not acknowledged yet, with their lane
+  private final ConcurrentMap<Batch<D>, Lane> incomplete = new ConcurrentHashMap<>();
+  private final long memSizeLimit;
+  private final double tolerance = 0.95;
+  private final long expireInMilliSecond;
+  private final long laneCapacity;
+  private final LargeMessagePolicy largeMessagePolicy;
+
+  // Signaled when a batch may have become available
+  private final ReentrantLock availableLock = new ReentrantLock();
+  private final Condition available = availableLock.newCondition();
+  private int nextLane = 0;
+
+  public MultiLaneBatchAccumulator(Properties properties) {
+    this(ConfigUtils.propertiesToConfig(properties));
+  }
+
+  public MultiLaneBatchAccumulator(Config config) {
+    this(config, Functions.identity());
+  }
+
+  public MultiLaneBatchAccumulator(Config config, Function<? super D, ?> laneKeyFunction) {
+    this(ConfigUtils.getInt(config, BATCH_LANES, BATCH_LANES_DEFAULT),
+        ConfigUtils.getLong(config, Batch.BATCH_SIZE, Batch.BATCH_SIZE_DEFAULT),
+        ConfigUtils.getLong(config, Batch.BATCH_TTL, Batch.BATCH_TTL_DEFAULT),
+        ConfigUtils.getLong(config, Batch.BATCH_QUEUE_CAPACITY, Batch.BATCH_QUEUE_CAPACITY_DEFAULT),
+        DEFAULT_LARGE_MESSAGE_POLICY, laneKeyFunction);
+  }
+
+  /**
+   * @param numLanes number of lanes
+   * @param batchSizeLimit size limit of a batch in bytes
+   * @param expireInMilliSecond TTL of a batch which is not full
+   * @param capacity number of batches all the lanes can hold
+   * @param largeMessagePolicy policy for records larger than a batch
+   * @param laneKeyFunction the key of a record, records with the same key go to the same lane
+   */
+  public MultiLaneBatchAccumulator(int numLanes,
+      long batchSizeLimit,
+      long expireInMilliSecond,
+      long capacity,
+      LargeMessagePolicy largeMessagePolicy,
+      Function<? super D, ?> laneKeyFunction) {
+    Preconditions.checkArgument(numLanes > 0, "Number of lanes should be positive");
+    this.lanes = new ArrayList<>(numLanes);
+    for (int i = 0; i < numLanes; i++) {
+      this.lanes.add(new Lane());
+    }
+    this.laneKeyFunction = laneKeyFunction;
+    this.memSizeLimit = (long) (this.tolerance * batchSizeLimit);
+    this.expireInMilliSecond = expireInMilliSecond;
+    // A lane holds at least a batch to send and the batch being filled
+    this.laneCapacity = Math.max(2, capacity / numLanes);
+    this.largeMessagePolicy = largeMessagePolicy;
+  }
+
+  /**
+   * A lane of batches, the last batch is the one being filled
+   */
+  private class Lane {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Deque<BytesBoundedBatch<D>> batches = new ArrayDeque<>();
+    private boolean inFlight = false;
+  }
+
+  public long getNumOfBatches() {
+    long numOfBatches = 0;
+    for (Lane lane : this.lanes) {
+      lane.lock.lock();
+      try {
+        numOfBatches += lane.batches.size();
+      } finally {
+        lane.lock.unlock();
+      }
+    }
+    return numOfBatches;
+  }
+
+  private Lane getLane(D record) {
+    Object key = this.laneKeyFunction.apply(record);
+    int hash = key == null ? 0 : key.hashCode();
+    return this.lanes.get((hash & Integer.MAX_VALUE) % this.lanes.size());
+  }
+
+  /**
+   * Add a record to the last batch of its lane
+   */
+  public final Future<RecordMetadata> enqueue(D record, WriteCallback callback) throws InterruptedException {
+    Lane lane = getLane(record);
+    boolean previousBatchFull = false;
+    lane.lock.lock();
+    try {
+      BytesBoundedBatch<D> last = lane.batches.peekLast();
+      if (last != null) {
+        Future<RecordMetadata> future = null;
+        try {
+          future = last.tryAppend(record, callback, this.largeMessagePolicy);
+        } catch (RecordTooLargeException e) {
+          // Ok if the record was too large for the current batch
+        }
+        if (future != null) {
+          return future;
+        }
+      }
+
+      // Create a new batch because previous one has no space
+      BytesBoundedBatch<D> batch = new BytesBoundedBatch<>(this.memSizeLimit, this.expireInMilliSecond);
+      LOG.debug("Batch " + batch.getId() + " is generated");
+      Future<RecordMetadata> future = null;
+      try {
+        future = batch.tryAppend(record, callback, this.largeMessagePolicy);
+      } catch (RecordTooLargeException e) {
+        throw new RuntimeException("Failed due to a message that was too large", e);
+      }
+
+      // The future might be null, since the largeMessagePolicy might be set to DROP
+      if (future == null) {
+        assert largeMessagePolicy.equals(LargeMessagePolicy.DROP);
+        LOG.error("Batch " + batch.getId() + " is silently marked as complete, dropping a huge record: " + record);
+        callback.onSuccess(WriteResponse.EMPTY);
+        return Futures.immediateFuture(new RecordMetadata(0));
+      }
+
+      // if the lane is full, we should not add more
+      while (lane.batches.size() >= this.laneCapacity) {
+        LOG.debug("Lane size {} is greater than capacity {}, waiting", lane.batches.size(), this.laneCapacity);
+        lane.notFull.await();
+      }
+      previousBatchFull = !lane.batches.isEmpty();
+      lane.batches.addLast(batch);
+      this.incomplete.put(batch, lane);
+      return future;
+    } finally {
+      lane.lock.unlock();
+      if (previousBatchFull) {
+        signalAvailable();
+      }
+    }
+  }
+
+  private void signalAvailable() {
+    this.availableLock.lock();
+    try {
+      this.available.signalAll();
+    } finally {
+      this.availableLock.unlock();
+    }
+  }
+
+  /**
+   * Remove and return the first batch of a lane without a batch in flight, if there is more than one batch in the
+   * lane, if its TTL has expired or if the accumulator has been closed. Lanes are visited round-robin.
+   * Block until such a batch is available, or return null once the accumulator has been closed and all the lanes are
+   * empty.
+   */
+  public Batch<D> getNextAvailableBatch() {
+    this.availableLock.lock();
+    try {
+      while (true) {
+        boolean closed = this.isClosed();
+        boolean pending = false;
+        long waitMillis = this.expireInMilliSecond;
+        for (int i = 0; i < this.lanes.size(); i++) {
+          int laneIndex = (this.nextLane + i) % this.lanes.size();
+          Lane lane = this.lanes.get(laneIndex);
+          lane.lock.lock();
+          try {
+            BytesBoundedBatch<D> first = lane.batches.peekFirst();
+            if (first == null) {
+              continue;
+            }
+            pending = true;
+            if (lane.inFlight) {
+              continue;
+            }
+            if (lane.batches.size() > 1 || first.isTTLExpire() || closed) {
+              LOG.debug("retrieve batch " + first.getId());
+              lane.batches.pollFirst();
+              lane.inFlight = true;
+              lane.notFull.signal();
+              this.nextLane = (laneIndex + 1) % this.lanes.size();
+              return first;
+            }
+            waitMillis = Math.min(waitMillis, first.getRemainingTTL());
+          } finally {
+            lane.lock.unlock();
+          }
+        }
+
+        if (closed && !pending) {
+          return null;
+        }
+        this.available.await(Math.max(1, waitMillis), TimeUnit.MILLISECONDS);
+      }
+    } catch (InterruptedException e) {
+      LOG.error("Wait for next batch is interrupted. " + e.toString());
+    } finally {
+      this.availableLock.unlock();
+    }
+
+    return null;
+  }
+
+  public void close() {
+    super.close();
+    signalAvailable();
+  }
+
+  /**
+   * This will block until all the incomplete batches are acknowledged
+   */
+  public void flush() {
+    try {
+      List<Batch<D>> batches = new ArrayList<>(this.incomplete.keySet());
+      LOG.debug("Flush called on {} batches", batches.size());
+      for (Batch<D> batch : batches) {
+        batch.await();
+      }
+    } catch (Exception e) {
+      LOG.error("Error happened while flushing batches");
+    }
+  }
+
+  /**
+   * Once batch is acknowledged, remove it from incomplete list and let its lane hand out the next batch
+   */
+  public void deallocate(Batch<D> batch) {
+    Lane lane = this.incomplete.remove(batch);
+    if (lane == null) {
+      throw new IllegalStateException("Remove from the incomplete set failed. This should be impossible.");
+    }
+    lane.lock.lock();
+    try {
+      lane.inFlight = false;
+    } finally {
+      lane.lock.unlock();
+    }
+    signalAvailable();
+  }
+}
@@ -166,6 +166,53 @@ public class FineGrainedWatermarkTrackerTest {
     }
   }
 
+  /**
+   * Tests watermarks of several sources spanning several segments, with acks coming in between the lookups of
+   * committable watermarks.
+   */
+  @Test
+  public static void testMultipleSourcesAndSegments() {
+    FineGrainedWatermarkTracker tracker = new FineGrainedWatermarkTracker(ConfigFactory.empty());
+    tracker.setAutoStart(false);
+    int numWatermarks = 5000;
+    String[] sources = {"source0", "source1"};
+    AcknowledgableWatermark[][] acknowledgableWatermarks = new AcknowledgableWatermark[sources.length][numWatermarks];
+    for (int i = 0; i < numWatermarks; ++i) {
+      for (int s = 0; s < sources.length; ++s) {
+        acknowledgableWatermarks[s][i] =
+            new AcknowledgableWatermark(new DefaultCheckpointableWatermark(sources[s], new LongWatermark(i)));
+        tracker.track(acknowledgableWatermarks[s][i]);
+      }
+    }
+
+    // Ack the first source in chunks, the second one only up to a hole
+    for (int i = 0; i < numWatermarks; ++i) {
+      acknowledgableWatermarks[0][i].ack();
+      if (i % 1500 == 0) {
+        Assert.assertEquals(((LongWatermark) tracker.getCommittableWatermarks().get(sources[0]).getWatermark())
+            .getValue(), i);
+      }
+      if (i != 3000) {
+        acknowledgableWatermarks[1][i].ack();
+      }
+    }
+
+    Map<String, CheckpointableWatermark> commitables = tracker.getCommittableWatermarks();
+    Assert.assertEquals(((LongWatermark) commitables.get(sources[0]).getWatermark()).getValue(), numWatermarks - 1);
+    Assert.assertEquals(((LongWatermark) commitables.get(sources[1]).getWatermark()).getValue(), 2999);
+    Map<String, CheckpointableWatermark> unacked = tracker.getUnacknowledgedWatermarks();
+    Assert.assertFalse(unacked.containsKey(sources[0]));
+    Assert.assertEquals(((LongWatermark) unacked.get(sources[1]).getWatermark()).getValue(), 3000);
+
+    Assert.assertEquals(tracker.sweep(), numWatermarks - 1 + 2999);
+    Assert.assertEquals(tracker.sweep(), 0);
+
+    acknowledgableWatermarks[1][3000].ack();
+    Assert.assertEquals(((LongWatermark) tracker.getCommittableWatermarks().get(sources[1]).getWatermark()).getValue(),
+        numWatermarks - 1);
+    Assert.assertEquals(tracker.sweep(), numWatermarks - 1 - 2999);
+  }
+
   /**
    * A concurrent test, attempts fired in a single thread, but acks come in from multiple threads,
    * out of order.
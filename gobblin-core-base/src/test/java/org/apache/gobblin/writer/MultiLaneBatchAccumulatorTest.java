@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+
+
+@Test
+public class MultiLaneBatchAccumulatorTest {
+  // Records are keyed by their first character
+  private static final Function<String, Character> FIRST_CHAR = record -> record.charAt(0);
+
+  private static MultiLaneBatchAccumulator<String> createAccumulator(long batchSizeLimit, long ttlMillis) {
+    return new MultiLaneBatchAccumulator<>(2, batchSizeLimit, ttlMillis, 100, LargeMessagePolicy.FAIL, FIRST_CHAR);
+  }
+
+  public void testLanesAreIndependent() throws Exception {
+    MultiLaneBatchAccumulator<String> accumulator = createAccumulator(1024, 0);
+    accumulator.append("a1", WriteCallback.EMPTY);
+    accumulator.append("b1", WriteCallback.EMPTY);
+    accumulator.append("a2", WriteCallback.EMPTY);
+
+    // One batch per lane is handed out at once
+    Batch<String> first = accumulator.getNextAvailableBatch();
+    Batch<String> second = accumulator.getNextAvailableBatch();
+    Assert.assertNotEquals(first.getRecords().get(0).charAt(0), second.getRecords().get(0).charAt(0));
+    Batch<String> batchA = first.getRecords().get(0).startsWith("a") ? first : second;
+    Assert.assertEquals(batchA.getRecords(), Arrays.asList("a1", "a2"));
+
+    // The next batch of a lane waits for the batch in flight
+    accumulator.append("a3", WriteCallback.EMPTY);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<Batch<String>> next = executor.submit(accumulator::getNextAvailableBatch);
+    try {
+      next.get(200, TimeUnit.MILLISECONDS);
+      Assert.fail("The batch of a lane in flight should not be handed out");
+    } catch (TimeoutException e) {
+      // expected
+    }
+    accumulator.deallocate(batchA);
+    Assert.assertEquals(next.get(5, TimeUnit.SECONDS).getRecords(), Arrays.asList("a3"));
+    executor.shutdownNow();
+  }
+
+  public void testFullBatchIsAvailableBeforeTTL() throws Exception {
+    // Each record is 17 bytes with the overhead, so a batch holds 2 records
+    MultiLaneBatchAccumulator<String> accumulator = createAccumulator(40, 60000);
+    for (int i = 0; i < 5; i++) {
+      accumulator.append("a" + i, WriteCallback.EMPTY);
+    }
+    Assert.assertEquals(accumulator.getNumOfBatches(), 3);
+
+    Batch<String> batch = accumulator.getNextAvailableBatch();
+    Assert.assertEquals(batch.getRecords(), Arrays.asList("a0", "a1"));
+    accumulator.deallocate(batch);
+    batch = accumulator.getNextAvailableBatch();
+    Assert.assertEquals(batch.getRecords(), Arrays.asList("a2", "a3"));
+    accumulator.deallocate(batch);
+  }
+
+  public void testCloseHandsOutRemainingBatches() throws Exception {
+    MultiLaneBatchAccumulator<String> accumulator = createAccumulator(1024, 60000);
+    accumulator.append("a1", WriteCallback.EMPTY);
+    accumulator.append("b1", WriteCallback.EMPTY);
+    accumulator.close();
+
+    Batch<String> first = accumulator.getNextAvailableBatch();
+    Batch<String> second = accumulator.getNextAvailableBatch();
+    Assert.assertNotNull(first);
+    Assert.assertNotNull(second);
+    Assert.assertNull(accumulator.getNextAvailableBatch());
+
+    for (Batch<String> batch : Arrays.asList(first, second)) {
+      batch.onSuccess(WriteResponse.EMPTY);
+      batch.done();
+      accumulator.deallocate(batch);
+    }
+    accumulator.flush();
+  }
+
+  public void testBufferedWriterWithLanes() throws Exception {
+    MultiLaneBatchAccumulator<String> accumulator = createAccumulator(40, 10);
+    BatchAsyncDataWriter<String> dataWriter = new BatchAsyncDataWriter<String>() {
+      @Override
+      public Future<WriteResponse> write(Batch<String> batch, WriteCallback callback) {
+        callback.onSuccess(WriteResponse.EMPTY);
+        return null;
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+
+    BufferedAsyncDataWriter<String> writer = new BufferedAsyncDataWriter<>(accumulator, dataWriter, 2);
+    Future<WriteResponse> last = null;
+    for (int i = 0; i < 20; i++) {
+      last = writer.write((i % 2 == 0 ? "a" : "b") + i, WriteCallback.EMPTY);
+    }
+    writer.close();
+    Assert.assertNotNull(last.get(5, TimeUnit.SECONDS));
+    Assert.assertEquals(accumulator.getNumOfBatches(), 0);
+  }
+}
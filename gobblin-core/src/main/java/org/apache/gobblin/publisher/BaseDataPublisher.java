@@ -35,6 +35,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -93,6 +94,13 @@ import static org.apache.gobblin.util.retry.RetryerFactory.*;
  * parent directory of the path. To change this behavior one may override
  * {@link #recordPublisherOutputDirs(Path, Path, int)}.
  * </p>
+ *
+ * <p>
+ * The {@link FileSystem} operations of each publish go through a {@link PublishPlanner}, which skips repeated mkdirs,
+ * checks the existence of task output files with one listing per directory and, if
+ * {@link #PUBLISH_COLLAPSE_MOVES_ENABLED} is set, moves whole directories instead of their files. The number of calls
+ * saved is logged after each publish.
+ * </p>
  */
 public class BaseDataPublisher extends SingleTaskDataPublisher {
 
@@ -120,8 +128,20 @@ public class BaseDataPublisher extends SingleTaskDataPublisher {
   static final String DATA_PUBLISHER_RETRY_PREFIX = ConfigurationKeys.DATA_PUBLISHER_PREFIX + ".retry.";
   static final String PUBLISH_RETRY_ENABLED = DATA_PUBLISHER_RETRY_PREFIX + "enabled";
 
+  /**
+   * Whether the moves of all the files of a writer output directory are replaced by a move of the directory, if the
+   * destination directory does not exist. Subclasses overriding {@link #movePath(ParallelRunner, State, Path, Path, int)}
+   * then also get directories to move. Moves are never collapsed for branches with a final dir group, since the group is
+   * only set on the moved path.
+   */
+  public static final String PUBLISH_COLLAPSE_MOVES_ENABLED =
+      ConfigurationKeys.DATA_PUBLISHER_PREFIX + ".collapseMoves.enabled";
+  public static final boolean DEFAULT_PUBLISH_COLLAPSE_MOVES_ENABLED = false;
+
   static final Config PUBLISH_RETRY_DEFAULTS;
   protected final Config retrierConfig;
+  protected final boolean collapseMoves;
+  protected PublishPlanner publishPlanner;
 
   static {
     Map<String, Object> configMap =
@@ -205,6 +225,25 @@ public class BaseDataPublisher extends SingleTaskDataPublisher {
     this.parallelRunnerThreads =
         state.getPropAsInt(ParallelRunner.PARALLEL_RUNNER_THREADS_KEY, ParallelRunner.DEFAULT_PARALLEL_RUNNER_THREADS);
     this.parallelRunnerCloser = Closer.create();
+    this.collapseMoves =
+        this.getState().getPropAsBoolean(PUBLISH_COLLAPSE_MOVES_ENABLED, DEFAULT_PUBLISH_COLLAPSE_MOVES_ENABLED);
+    this.publishPlanner = createPublishPlanner();
+  }
+
+  private PublishPlanner createPublishPlanner() {
+    return new PublishPlanner(() -> {
+      for (ParallelRunner parallelRunner : this.parallelRunners.values()) {
+        parallelRunner.waitForTasks();
+      }
+    });
+  }
+
+  /**
+   * Log the {@link FileSystem} calls saved by the {@link PublishPlanner} of the finished publish, and start a new one.
+   */
+  private void finishPublishPlan() {
+    LOG.info("Publish planner issued " + this.publishPlanner);
+    this.publishPlanner = createPublishPlanner();
   }
 
   private MetadataMerger<String> buildMetadataMergerForBranch(String metadataFromConfig, int branchId,
@@ -335,6 +374,7 @@ public class BaseDataPublisher extends SingleTaskDataPublisher {
       publishSingleTaskData(state, branchId);
     }
     this.parallelRunnerCloser.close();
+    finishPublishPlan();
   }
 
   /**
@@ -362,6 +402,7 @@ public class BaseDataPublisher extends SingleTaskDataPublisher {
     }
 
     this.parallelRunnerCloser.close();
+    finishPublishPlan();
   }
 
   /**
@@ -383,6 +424,11 @@ public class BaseDataPublisher extends SingleTaskDataPublisher {
     // The directory where the workUnitState wrote its output data.
     Path writerOutputDir = WriterUtils.getWriterOutputDir(state, this.numBranches, branchId);
 
+    if (!publishSingleTaskData && writerOutputPathsMoved.contains(writerOutputDir)) {
+      // This writer output path has already been moved for another task of the same extract
+      return;
+    }
+
     if (!this.writerFileSystemByBranches.get(branchId).exists(writerOutputDir)) {
       LOG.warn(String.format("Branch %d of WorkUnit %s produced no data", branchId, state.getId()));
       return;
@@ -394,17 +440,13 @@ public class BaseDataPublisher extends SingleTaskDataPublisher {
 
     if (publishSingleTaskData) {
       // Create final output directory
-      WriterUtils.mkdirsWithRecursivePermissionWithRetry(this.publisherFileSystemByBranches.get(branchId), publisherOutputDir,
+      this.publishPlanner.mkdirs(this.publisherFileSystemByBranches.get(branchId), publisherOutputDir,
           this.permissions.get(branchId), retrierConfig);
       addSingleTaskWriterOutputToExistingDir(writerOutputDir, publisherOutputDir, state, branchId, parallelRunner);
     } else {
-      if (writerOutputPathsMoved.contains(writerOutputDir)) {
-        // This writer output path has already been moved for another task of the same extract
-        // If publishSingleTaskData=true, writerOutputPathMoved is ignored.
-        return;
-      }
-
+      this.publishPlanner.awaitPendingMovesInto(this.publisherFileSystemByBranches.get(branchId), publisherOutputDir);
       if (this.publisherFileSystemByBranches.get(branchId).exists(publisherOutputDir)) {
+        this.publishPlanner.markExists(this.publisherFileSystemByBranches.get(branchId), publisherOutputDir);
         // The final output directory already exists, check if the job is configured to replace it.
         // If publishSingleTaskData=true, final output directory is never replaced.
         boolean replaceFinalOutputDir = this.getState().getPropAsBoolean(ForkOperatorUtils
@@ -420,9 +462,10 @@ public class BaseDataPublisher extends SingleTaskDataPublisher {
         // Delete the final output directory if it is configured to be replaced
         LOG.info("Deleting publisher output dir " + publisherOutputDir);
         this.publisherFileSystemByBranches.get(branchId).delete(publisherOutputDir, true);
+        this.publishPlanner.markDeleted(this.publisherFileSystemByBranches.get(branchId), publisherOutputDir);
       } else {
         // Create the parent directory of the final output directory if it does not exist
-        WriterUtils.mkdirsWithRecursivePermissionWithRetry(this.publisherFileSystemByBranches.get(branchId),
+        this.publishPlanner.mkdirs(this.publisherFileSystemByBranches.get(branchId),
             publisherOutputDir.getParent(), this.permissions.get(branchId), retrierConfig);
       }
 
@@ -459,22 +502,52 @@ public class BaseDataPublisher extends SingleTaskDataPublisher {
     }
 
     Iterable<String> taskOutputFiles = workUnitState.getPropAsSet(outputFilePropName);
+    List<Path> taskOutputPaths = Lists.newArrayList();
+    for (String taskOutputFile : taskOutputFiles) {
+      taskOutputPaths.add(new Path(taskOutputFile));
+    }
+    Set<Path> existingTaskOutputPaths =
+        this.publishPlanner.filterExisting(this.writerFileSystemByBranches.get(branchId), taskOutputPaths);
+
+    Map<Path, Path> fileMoves = new LinkedHashMap<>();
     for (String taskOutputFile : taskOutputFiles) {
       Path taskOutputPath = new Path(taskOutputFile);
-      if (!this.writerFileSystemByBranches.get(branchId).exists(taskOutputPath)) {
+      if (!existingTaskOutputPaths.contains(taskOutputPath)) {
         LOG.warn("Task output file " + taskOutputFile + " doesn't exist.");
         continue;
       }
       String pathSuffix = taskOutputFile
           .substring(taskOutputFile.indexOf(writerOutputDir.toString()) + writerOutputDir.toString().length() + 1);
-      Path publisherOutputPath = new Path(publisherOutputDir, pathSuffix);
-      WriterUtils.mkdirsWithRecursivePermissionWithRetry(this.publisherFileSystemByBranches.get(branchId),
-          publisherOutputPath.getParent(), this.permissions.get(branchId), retrierConfig);
+      fileMoves.put(taskOutputPath, new Path(publisherOutputDir, pathSuffix));
+    }
+    movePaths(parallelRunner, workUnitState, fileMoves, branchId);
+  }
 
-      movePath(parallelRunner, workUnitState, taskOutputPath, publisherOutputPath, branchId);
+  /**
+   * Move files to their destinations, creating the parent directories of the destinations. The moves are planned by
+   * the {@link PublishPlanner}, which may replace the moves of the files of a directory by a move of the directory.
+   *
+   * @param fileMoves source file to destination file
+   */
+  protected void movePaths(ParallelRunner parallelRunner, State state, Map<Path, Path> fileMoves, int branchId)
+      throws IOException {
+    Map<Path, Path> plannedMoves = shouldCollapseMoves(branchId) ? this.publishPlanner.planMoves(
+        this.writerFileSystemByBranches.get(branchId), this.publisherFileSystemByBranches.get(branchId), fileMoves,
+        this.permissions.get(branchId)) : fileMoves;
+    for (Map.Entry<Path, Path> move : plannedMoves.entrySet()) {
+      this.publishPlanner.mkdirs(this.publisherFileSystemByBranches.get(branchId), move.getValue().getParent(),
+          this.permissions.get(branchId), retrierConfig);
+      movePath(parallelRunner, state, move.getKey(), move.getValue(), branchId);
     }
   }
 
+  /**
+   * @return whether {@link #movePaths(ParallelRunner, State, Map, int)} may move directories instead of their files
+   */
+  protected boolean shouldCollapseMoves(int branchId) {
+    return this.collapseMoves && !this.publisherFinalDirOwnerGroupsByBranches.get(branchId).isPresent();
+  }
+
   protected void addWriterOutputToExistingDir(Path writerOutputDir, Path publisherOutputDir,
       WorkUnitState workUnitState, int branchId, ParallelRunner parallelRunner)
       throws IOException {
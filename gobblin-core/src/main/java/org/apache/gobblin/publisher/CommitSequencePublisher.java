@@ -73,6 +73,14 @@ public class CommitSequencePublisher extends BaseDataPublisher {
     }
   }
 
+  /**
+   * Moves are deferred to the {@link CommitSequence}, so the publish planner cannot wait for collapsed directory moves.
+   */
+  @Override
+  protected boolean shouldCollapseMoves(int branchId) {
+    return false;
+  }
+
   /**
    * This method does not actually move data, but it creates an {@link FsRenameCommitStep}.
    */
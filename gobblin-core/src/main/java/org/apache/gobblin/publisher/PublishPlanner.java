@@ -0,0 +1,361 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.publisher;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.permission.FsPermission;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.typesafe.config.Config;
+
+import org.apache.gobblin.util.WriterUtils;
+
+
+/**
+ * Plans the {@link FileSystem} operations of a single publish of a {@link BaseDataPublisher}, to issue fewer metadata
+ * calls than moving and creating every path on its own. This matters most on object stores, where every call is a
+ * remote request and every rename is a copy plus a delete.
+ *
+ * <p>
+ *   The planner remembers the directories it created or found during the publish, so repeated
+ *   {@link #mkdirs(FileSystem, Path, FsPermission, Config)} calls for the same directory are skipped, and it checks
+ *   the existence of sibling paths with one listing of their parent, see {@link #filterExisting(FileSystem, Collection)}.
+ *   {@link #planMoves(FileSystem, FileSystem, Map, FsPermission)} replaces the moves of all the files of a source
+ *   directory with a single move of the directory, if the destination directory does not exist yet.
+ * </p>
+ *
+ * <p>
+ *   Moves are run asynchronously by a {@link org.apache.gobblin.util.ParallelRunner}, so a collapsed directory move may
+ *   still be pending when a later path of the same publish goes into its destination. The planner then waits for the
+ *   pending moves through the {@link MoveBarrier} before touching the destination.
+ * </p>
+ *
+ * <p>
+ *   The number of calls saved is estimated from the calls the skipped operations issue at least, and is meant for
+ *   reporting only.
+ * </p>
+ */
+public class PublishPlanner {
+
+  /**
+   * Minimum number of files in a directory for their moves to be collapsed. Collapsing costs a listing of the source
+   * directory, an existence check of the destination and a permission update.
+   */
+  public static final int MIN_FILES_TO_COLLAPSE = 3;
+
+  // Calls issued by ParallelRunner.movePath and BaseDataPublisher.recordPublisherOutputDirs for each move
+  private static final int CALLS_PER_MOVE = 3;
+  private static final int CALLS_PER_COLLAPSE = 3;
+
+  /**
+   * Waits until all the moves submitted so far are done.
+   */
+  public interface MoveBarrier {
+    void awaitPendingMoves() throws IOException;
+  }
+
+  private final MoveBarrier moveBarrier;
+  private final Set<Path> knownDirs = Sets.newHashSet();
+  private final Set<Path> pendingDirMoves = Sets.newHashSet();
+
+  private long mkdirsSkipped = 0;
+  private long existenceChecks = 0;
+  private long existenceListings = 0;
+  private long filesCollapsed = 0;
+  private long directoryMoves = 0;
+  private long fsCallsSaved = 0;
+
+  public PublishPlanner(MoveBarrier moveBarrier) {
+    this.moveBarrier = moveBarrier;
+  }
+
+  /**
+   * Same as {@link WriterUtils#mkdirsWithRecursivePermissionWithRetry(FileSystem, Path, FsPermission, Config)}, but
+   * skipped if the directory is already known to exist.
+   */
+  public void mkdirs(FileSystem fs, Path dir, FsPermission permission, Config retrierConfig) throws IOException {
+    Path qualifiedDir = fs.makeQualified(dir);
+    awaitPendingMovesInto(qualifiedDir);
+    if (this.knownDirs.contains(qualifiedDir)) {
+      this.mkdirsSkipped++;
+      this.fsCallsSaved++;
+      return;
+    }
+    WriterUtils.mkdirsWithRecursivePermissionWithRetry(fs, dir, permission, retrierConfig);
+    addKnownDir(qualifiedDir);
+  }
+
+  /**
+   * Record that a directory exists, e.g. after checking it.
+   */
+  public void markExists(FileSystem fs, Path dir) {
+    addKnownDir(fs.makeQualified(dir));
+  }
+
+  /**
+   * Record that a path and everything below it was deleted.
+   */
+  public void markDeleted(FileSystem fs, Path path) throws IOException {
+    Path qualifiedPath = fs.makeQualified(path);
+    awaitPendingMovesInto(qualifiedPath);
+    for (Iterator<Path> it = this.knownDirs.iterator(); it.hasNext();) {
+      if (isSameOrDescendant(it.next(), qualifiedPath)) {
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Wait for pending directory moves if the given path is the destination of one or goes below it.
+   */
+  public void awaitPendingMovesInto(FileSystem fs, Path path) throws IOException {
+    awaitPendingMovesInto(fs.makeQualified(path));
+  }
+
+  /**
+   * @return the given paths that exist. Paths sharing a parent are checked with a single listing of the parent.
+   */
+  public Set<Path> filterExisting(FileSystem fs, Collection<Path> paths) throws IOException {
+    Map<Path, List<Path>> pathsByParent = Maps.newLinkedHashMap();
+    for (Path path : paths) {
+      Path parent = fs.makeQualified(path).getParent();
+      if (!pathsByParent.containsKey(parent)) {
+        pathsByParent.put(parent, Lists.<Path>newArrayList());
+      }
+      pathsByParent.get(parent).add(path);
+    }
+
+    Set<Path> existingPaths = Sets.newLinkedHashSet();
+    for (Map.Entry<Path, List<Path>> entry : pathsByParent.entrySet()) {
+      List<Path> siblings = entry.getValue();
+      if (siblings.size() == 1) {
+        if (fs.exists(siblings.get(0))) {
+          existingPaths.add(siblings.get(0));
+        }
+        continue;
+      }
+
+      Set<String> childNames = Sets.newHashSet();
+      try {
+        for (FileStatus status : fs.listStatus(entry.getKey())) {
+          childNames.add(status.getPath().getName());
+        }
+      } catch (FileNotFoundException e) {
+        // None of the siblings exist
+      }
+      for (Path sibling : siblings) {
+        if (childNames.contains(sibling.getName())) {
+          existingPaths.add(sibling);
+        }
+      }
+      this.existenceChecks += siblings.size();
+      this.existenceListings++;
+      this.fsCallsSaved += siblings.size() - 1;
+    }
+    return existingPaths;
+  }
+
+  /**
+   * Plan the moves of files to their destinations. The files of a source directory are replaced by a move of the
+   * directory itself if
+   * <ul>
+   *   <li>at least {@link #MIN_FILES_TO_COLLAPSE} files are moved out of it,</li>
+   *   <li>the directory holds exactly these files and no sub directories,</li>
+   *   <li>the files keep their names and all go to the same destination directory,</li>
+   *   <li>and the destination directory does not exist.</li>
+   * </ul>
+   * The source directory of a collapsed move gets the given permission before it is moved, which is the permission the
+   * destination directory would have been created with.
+   *
+   * @param fileMoves source file to destination file, in the order to move them
+   * @return source path to destination path, where the parent directory of each destination has to be created
+   */
+  public Map<Path, Path> planMoves(FileSystem srcFs, FileSystem dstFs, Map<Path, Path> fileMoves,
+      FsPermission dirPermission) throws IOException {
+    Map<Path, Map<Path, Path>> movesBySrcDir = Maps.newLinkedHashMap();
+    for (Map.Entry<Path, Path> move : fileMoves.entrySet()) {
+      Path srcDir = move.getKey().getParent();
+      if (!movesBySrcDir.containsKey(srcDir)) {
+        movesBySrcDir.put(srcDir, new LinkedHashMap<Path, Path>());
+      }
+      movesBySrcDir.get(srcDir).put(move.getKey(), move.getValue());
+    }
+
+    Map<Path, Path> dirMoves = Maps.newHashMap();
+    for (Map.Entry<Path, Map<Path, Path>> entry : movesBySrcDir.entrySet()) {
+      Path srcDir = entry.getKey();
+      Map<Path, Path> moves = entry.getValue();
+      Path dstDir = getCommonDstDir(moves);
+      if (dstDir != null && moves.size() >= MIN_FILES_TO_COLLAPSE && canMoveDir(srcFs, srcDir, moves.keySet())
+          && canCreateDir(dstFs, dstDir)) {
+        dirMoves.put(srcDir, dstDir);
+      }
+    }
+    removeConflictingDirMoves(dirMoves, movesBySrcDir);
+
+    Map<Path, Path> plannedMoves = new LinkedHashMap<>();
+    for (Map.Entry<Path, Map<Path, Path>> entry : movesBySrcDir.entrySet()) {
+      Path srcDir = entry.getKey();
+      Map<Path, Path> moves = entry.getValue();
+      if (dirMoves.containsKey(srcDir)) {
+        Path dstDir = dirMoves.get(srcDir);
+        srcFs.setPermission(srcDir, dirPermission);
+        plannedMoves.put(srcDir, dstDir);
+        this.pendingDirMoves.add(dstFs.makeQualified(dstDir));
+        this.filesCollapsed += moves.size();
+        this.directoryMoves++;
+        this.fsCallsSaved += CALLS_PER_MOVE * (moves.size() - 1) - CALLS_PER_COLLAPSE;
+      } else {
+        plannedMoves.putAll(moves);
+      }
+    }
+    return plannedMoves;
+  }
+
+  /**
+   * The moves are submitted in plan order, and a directory move does not wait for the moves planned with it. So drop
+   * the directory moves whose destination is also the destination of, or above, another move of the plan.
+   */
+  private static void removeConflictingDirMoves(Map<Path, Path> dirMoves, Map<Path, Map<Path, Path>> movesBySrcDir) {
+    boolean removed = true;
+    while (removed) {
+      removed = false;
+      for (Iterator<Map.Entry<Path, Path>> it = dirMoves.entrySet().iterator(); it.hasNext();) {
+        Map.Entry<Path, Path> dirMove = it.next();
+        if (hasOtherMoveInto(dirMove.getKey(), dirMove.getValue(), dirMoves, movesBySrcDir)) {
+          it.remove();
+          removed = true;
+        }
+      }
+    }
+  }
+
+  private static boolean hasOtherMoveInto(Path srcDir, Path dstDir, Map<Path, Path> dirMoves,
+      Map<Path, Map<Path, Path>> movesBySrcDir) {
+    for (Map.Entry<Path, Map<Path, Path>> entry : movesBySrcDir.entrySet()) {
+      if (entry.getKey().equals(srcDir)) {
+        continue;
+      }
+      if (dirMoves.containsKey(entry.getKey())) {
+        if (isSameOrDescendant(dirMoves.get(entry.getKey()), dstDir)) {
+          return true;
+        }
+        continue;
+      }
+      for (Path dst : entry.getValue().values()) {
+        if (isSameOrDescendant(dst.getParent(), dstDir)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  public long getFsCallsSaved() {
+    return this.fsCallsSaved;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("about %d fewer file system calls: %d mkdirs skipped, %d existence checks done with %d listings,"
+            + " %d file moves collapsed into %d directory moves", this.fsCallsSaved, this.mkdirsSkipped,
+        this.existenceChecks, this.existenceListings, this.filesCollapsed, this.directoryMoves);
+  }
+
+  /**
+   * @return the destination directory of the moves if they all keep their file name and go to the same directory
+   */
+  private static Path getCommonDstDir(Map<Path, Path> moves) {
+    Path dstDir = null;
+    for (Map.Entry<Path, Path> move : moves.entrySet()) {
+      if (!move.getKey().getName().equals(move.getValue().getName())) {
+        return null;
+      }
+      if (dstDir == null) {
+        dstDir = move.getValue().getParent();
+      } else if (!dstDir.equals(move.getValue().getParent())) {
+        return null;
+      }
+    }
+    return dstDir;
+  }
+
+  private static boolean canMoveDir(FileSystem fs, Path dir, Set<Path> files) throws IOException {
+    Set<String> fileNames = Sets.newHashSet();
+    for (Path file : files) {
+      fileNames.add(file.getName());
+    }
+    FileStatus[] statuses = fs.listStatus(dir);
+    if (statuses.length != fileNames.size()) {
+      return false;
+    }
+    for (FileStatus status : statuses) {
+      if (status.isDirectory() || !fileNames.contains(status.getPath().getName())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean canCreateDir(FileSystem fs, Path dir) throws IOException {
+    Path qualifiedDir = fs.makeQualified(dir);
+    awaitPendingMovesInto(qualifiedDir);
+    return !this.knownDirs.contains(qualifiedDir) && !fs.exists(dir);
+  }
+
+  private void awaitPendingMovesInto(Path qualifiedPath) throws IOException {
+    for (Path pendingDir : this.pendingDirMoves) {
+      if (isSameOrDescendant(qualifiedPath, pendingDir)) {
+        this.moveBarrier.awaitPendingMoves();
+        for (Path movedDir : this.pendingDirMoves) {
+          addKnownDir(movedDir);
+        }
+        this.pendingDirMoves.clear();
+        return;
+      }
+    }
+  }
+
+  private void addKnownDir(Path qualifiedDir) {
+    for (Path dir = qualifiedDir; dir != null && this.knownDirs.add(dir); dir = dir.getParent()) {
+      // Ancestors of an existing directory exist too
+    }
+  }
+
+  private static boolean isSameOrDescendant(Path path, Path ancestor) {
+    for (Path p = path; p != null; p = p.getParent()) {
+      if (p.equals(ancestor)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -18,7 +18,9 @@
 package org.apache.gobblin.publisher;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
@@ -32,7 +34,6 @@ import org.apache.gobblin.dataset.Descriptor;
 import org.apache.gobblin.util.FileListUtils;
 import org.apache.gobblin.util.ForkOperatorUtils;
 import org.apache.gobblin.util.ParallelRunner;
-import org.apache.gobblin.util.WriterUtils;
 import org.apache.gobblin.writer.partitioner.TimeBasedWriterPartitioner;
 
 
@@ -59,17 +60,14 @@ public class TimePartitionedDataPublisher extends BaseDataPublisher {
   protected void addWriterOutputToExistingDir(Path writerOutput, Path publisherOutput, WorkUnitState workUnitState,
       int branchId, ParallelRunner parallelRunner) throws IOException {
 
+    Map<Path, Path> fileMoves = new LinkedHashMap<>();
     for (FileStatus status : FileListUtils.listFilesRecursively(this.writerFileSystemByBranches.get(branchId),
         writerOutput)) {
       String filePathStr = status.getPath().toString();
       String pathSuffix =
           filePathStr.substring(filePathStr.indexOf(writerOutput.toString()) + writerOutput.toString().length() + 1);
-      Path outputPath = new Path(publisherOutput, pathSuffix);
-
-      WriterUtils.mkdirsWithRecursivePermissionWithRetry(this.publisherFileSystemByBranches.get(branchId), outputPath.getParent(),
-            this.permissions.get(branchId), this.retrierConfig);
-
-      movePath(parallelRunner, workUnitState, status.getPath(), outputPath, branchId);
+      fileMoves.put(status.getPath(), new Path(publisherOutput, pathSuffix));
     }
+    movePaths(parallelRunner, workUnitState, fileMoves, branchId);
   }
 }
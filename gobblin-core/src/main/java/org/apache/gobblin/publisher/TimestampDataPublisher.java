@@ -22,7 +22,6 @@ import java.util.Set;
 import org.apache.hadoop.fs.Path;
 import com.google.common.base.Preconditions;
 import org.apache.gobblin.util.ParallelRunner;
-import org.apache.gobblin.util.WriterUtils;
 import org.apache.gobblin.configuration.State;
 import org.apache.gobblin.configuration.WorkUnitState;
 
@@ -51,10 +50,8 @@ public class TimestampDataPublisher extends BaseDataPublisher {
   protected void publishData(WorkUnitState state, int branchId, boolean publishSingleTaskData,
       Set<Path> writerOutputPathsMoved) throws IOException {
     Path publisherOutputDir = getPublisherOutputDir(state, branchId);
-    if (!this.publisherFileSystemByBranches.get(branchId).exists(publisherOutputDir)) {
-      WriterUtils.mkdirsWithRecursivePermissionWithRetry(this.publisherFileSystemByBranches.get(branchId),
-          publisherOutputDir, this.permissions.get(branchId), this.retrierConfig);
-    }
+    this.publishPlanner.mkdirs(this.publisherFileSystemByBranches.get(branchId), publisherOutputDir,
+        this.permissions.get(branchId), this.retrierConfig);
     super.publishData(state, branchId, publishSingleTaskData, writerOutputPathsMoved);
   }
 
@@ -73,10 +70,8 @@ public class TimestampDataPublisher extends BaseDataPublisher {
     String schemaName = dst.getName();
     Path newDst = new Path(new Path(outputDir, getDbTableName(schemaName)), timestamp);
 
-    if (!this.publisherFileSystemByBranches.get(branchId).exists(newDst)) {
-      WriterUtils.mkdirsWithRecursivePermissionWithRetry(this.publisherFileSystemByBranches.get(branchId),
-          newDst.getParent(), this.permissions.get(branchId), this.retrierConfig);
-    }
+    this.publishPlanner.mkdirs(this.publisherFileSystemByBranches.get(branchId), newDst.getParent(),
+        this.permissions.get(branchId), this.retrierConfig);
 
     super.movePath(parallelRunner, state, src, newDst, branchId);
   }
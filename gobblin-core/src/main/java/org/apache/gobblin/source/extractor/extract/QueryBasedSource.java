@@ -17,6 +17,7 @@
 
 package org.apache.gobblin.source.extractor.extract;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -48,10 +49,14 @@ import org.apache.gobblin.configuration.State;
 import org.apache.gobblin.configuration.WorkUnitState;
 import org.apache.gobblin.configuration.WorkUnitState.WorkingState;
 import org.apache.gobblin.metrics.event.lineage.LineageInfo;
+import org.apache.gobblin.source.extractor.Extractor;
 import org.apache.gobblin.source.extractor.JobCommitPolicy;
 import org.apache.gobblin.source.extractor.partition.Partition;
 import org.apache.gobblin.source.extractor.partition.Partitioner;
+import org.apache.gobblin.source.extractor.partition.SkewAwarePartitioner;
+import org.apache.gobblin.source.extractor.partition.WatermarkRangeCounter;
 import org.apache.gobblin.source.extractor.utils.Utils;
+import org.apache.gobblin.source.extractor.watermark.WatermarkType;
 import org.apache.gobblin.source.workunit.Extract;
 import org.apache.gobblin.source.workunit.Extract.TableType;
 import org.apache.gobblin.source.workunit.MultiWorkUnit;
@@ -219,9 +224,6 @@ public abstract class QueryBasedSource<S, D> extends AbstractSource<S, D> {
     TableType tableType =
         TableType.valueOf(state.getProp(ConfigurationKeys.EXTRACT_TABLE_TYPE_KEY).toUpperCase());
 
-    List<Partition> partitions = new Partitioner(state).getPartitionList(previousWatermark);
-    Collections.sort(partitions, Partitioner.ascendingComparator);
-
     // {@link ConfigurationKeys.EXTRACT_TABLE_NAME_KEY} specify the output path for Extract
     String outputTableName = sourceEntity.getDestTableName();
 
@@ -233,6 +235,12 @@ public abstract class QueryBasedSource<S, D> extends AbstractSource<S, D> {
       extract.setFullTrue(System.currentTimeMillis());
     }
 
+    Optional<List<Partition>> skewAwarePartitions =
+        getSkewAwarePartitions(sourceEntity, state, previousWatermark, extract);
+    List<Partition> partitions = skewAwarePartitions.isPresent() ? skewAwarePartitions.get()
+        : new Partitioner(state).getPartitionList(previousWatermark);
+    Collections.sort(partitions, Partitioner.ascendingComparator);
+
     for (Partition partition : partitions) {
       WorkUnit workunit = WorkUnit.create(extract);
       workunit.setProp(ConfigurationKeys.SOURCE_ENTITY, sourceEntity.getSourceEntityName());
@@ -246,6 +254,56 @@ public abstract class QueryBasedSource<S, D> extends AbstractSource<S, D> {
     return workUnits;
   }
 
+  /**
+   * Create partitions of about the same number of records with a {@link SkewAwarePartitioner}, if enabled and the
+   * extractor of this source implements {@link WatermarkRangeCounter}. The distribution of the watermark column is
+   * sampled through an extractor created for the whole watermark range.
+   *
+   * @return the partitions, or {@link Optional#absent()} to fall back to the {@link Partitioner}
+   */
+  private Optional<List<Partition>> getSkewAwarePartitions(SourceEntity sourceEntity, SourceState state,
+      long previousWatermark, Extract extract) {
+    if (!state.getPropAsBoolean(ConfigurationKeys.SOURCE_QUERYBASED_SKEW_AWARE_PARTITIONING_ENABLED,
+        ConfigurationKeys.DEFAULT_SOURCE_QUERYBASED_SKEW_AWARE_PARTITIONING_ENABLED)
+        || state.getPropAsBoolean(Partitioner.HAS_USER_SPECIFIED_PARTITIONS)) {
+      return Optional.absent();
+    }
+
+    String watermarkColumn = state.getProp(ConfigurationKeys.EXTRACT_DELTA_FIELDS_KEY);
+    if (StringUtils.isBlank(watermarkColumn) || watermarkColumn.contains(",")) {
+      log.info("Skew aware partitioning requires a single watermark column, found: " + watermarkColumn);
+      return Optional.absent();
+    }
+
+    Partition globalPartition = new Partitioner(state).getGlobalPartition(previousWatermark);
+    WorkUnit workUnit = WorkUnit.create(extract);
+    workUnit.setProp(ConfigurationKeys.SOURCE_ENTITY, sourceEntity.getSourceEntityName());
+    workUnit.setProp(ConfigurationKeys.EXTRACT_TABLE_NAME_KEY, sourceEntity.getDestTableName());
+    globalPartition.serialize(workUnit);
+
+    WatermarkType watermarkType = WatermarkType.valueOf(
+        state.getProp(ConfigurationKeys.SOURCE_QUERYBASED_WATERMARK_TYPE, ConfigurationKeys.DEFAULT_WATERMARK_TYPE)
+            .toUpperCase());
+    SkewAwarePartitioner partitioner = new SkewAwarePartitioner(watermarkType,
+        state.getPropAsInt(ConfigurationKeys.SOURCE_MAX_NUMBER_OF_PARTITIONS,
+            ConfigurationKeys.DEFAULT_MAX_NUMBER_OF_PARTITIONS),
+        state.getPropAsInt(ConfigurationKeys.SOURCE_QUERYBASED_SKEW_AWARE_PARTITIONING_MAX_PROBES,
+            ConfigurationKeys.DEFAULT_SOURCE_QUERYBASED_SKEW_AWARE_PARTITIONING_MAX_PROBES));
+
+    try (Extractor<S, D> extractor = getExtractor(new WorkUnitState(workUnit, state))) {
+      if (!(extractor instanceof WatermarkRangeCounter)) {
+        log.info(extractor.getClass().getName() + " can't count watermark ranges, skipping skew aware partitioning");
+        return Optional.absent();
+      }
+      List<Partition> partitions = partitioner.getPartitions(globalPartition, (WatermarkRangeCounter) extractor);
+      return partitions.isEmpty() ? Optional.<List<Partition>>absent() : Optional.of(partitions);
+    } catch (IOException e) {
+      log.warn("Failed to sample the watermark distribution of " + sourceEntity + ", using the default partitioning",
+          e);
+      return Optional.absent();
+    }
+  }
+
   protected void addLineageSourceInfo(SourceState sourceState, SourceEntity entity, WorkUnit workUnit) {
     // Does nothing by default
   }
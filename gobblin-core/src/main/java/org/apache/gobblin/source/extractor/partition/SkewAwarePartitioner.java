@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.source.extractor.partition;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.gobblin.source.extractor.watermark.WatermarkType;
+
+
+/**
+ * Splits a watermark range into partitions holding about the same number of records, instead of the equal intervals
+ * of {@link Partitioner}.
+ *
+ * <p>
+ *   The distribution of the watermark column is sampled with a {@link WatermarkRangeCounter}: the range is bisected,
+ *   heaviest bucket first, until every bucket holds at most a quarter of {@code total / maxPartitions} records, the
+ *   buckets can't be split any further at the granularity of the watermark type, or {@code maxProbes} count queries
+ *   were issued. Each bisection costs a single count query since the count of the right half follows from its parent.
+ *   Dense ranges, such as the recent data of a table, are thus sampled finely and sparse ranges coarsely. Adjacent
+ *   buckets are then merged into at most {@code maxPartitions} partitions, keeping the largest one as small as
+ *   possible.
+ * </p>
+ *
+ * <p>
+ *   Partition boundaries are aligned to the granularity of the watermark type: a second for timestamps, an hour for
+ *   hours and a day for dates.
+ * </p>
+ */
+@Slf4j
+public class SkewAwarePartitioner {
+
+  /** Buckets are split finer than partitions so that merging them can even out the partition sizes */
+  private static final int BUCKETS_PER_PARTITION = 4;
+  private static final DateTimeFormatter WATERMARK_FORMATTER =
+      DateTimeFormat.forPattern(Partitioner.WATERMARKTIMEFORMAT).withZoneUTC();
+
+  private final WatermarkType watermarkType;
+  private final int maxPartitions;
+  private final int maxProbes;
+
+  public SkewAwarePartitioner(WatermarkType watermarkType, int maxPartitions, int maxProbes) {
+    this.watermarkType = watermarkType;
+    this.maxPartitions = Math.max(1, maxPartitions);
+    this.maxProbes = Math.max(1, maxProbes);
+  }
+
+  /**
+   * @param globalPartition the partition covering the whole range to pull
+   * @param counter counts the records in a watermark range
+   * @return the partitions of the range in ascending order, or an empty list if the range can't be sampled
+   */
+  public List<Partition> getPartitions(Partition globalPartition, WatermarkRangeCounter counter) throws IOException {
+    long lowWatermark = globalPartition.getLowWatermark();
+    long highWatermark = globalPartition.getHighWatermark();
+    if (lowWatermark < 0 || highWatermark <= lowWatermark) {
+      return Collections.emptyList();
+    }
+
+    Bucket root = new Bucket(lowWatermark, highWatermark, toPosition(lowWatermark), toPosition(highWatermark),
+        counter.countRecords(lowWatermark, highWatermark));
+    long bucketSize = Math.max(1, root.count / ((long) this.maxPartitions * BUCKETS_PER_PARTITION));
+    int probes = 1;
+
+    PriorityQueue<Bucket> buckets =
+        new PriorityQueue<>(Comparator.comparingLong((Bucket bucket) -> bucket.count).reversed());
+    List<Bucket> leaves = new ArrayList<>();
+    buckets.add(root);
+
+    while (!buckets.isEmpty() && buckets.peek().count > bucketSize && probes < this.maxProbes) {
+      Bucket bucket = buckets.poll();
+      long midPosition = bucket.lowPosition + (bucket.highPosition - bucket.lowPosition) / 2;
+      if (midPosition <= bucket.lowPosition || midPosition >= bucket.highPosition) {
+        leaves.add(bucket);
+        continue;
+      }
+
+      long midWatermark = toWatermark(midPosition);
+      // Rows may be inserted between two probes, never let the right half go negative
+      long leftCount = Math.min(counter.countRecords(bucket.lowWatermark, midWatermark), bucket.count);
+      probes++;
+      buckets.add(new Bucket(bucket.lowWatermark, midWatermark, bucket.lowPosition, midPosition, leftCount));
+      buckets.add(new Bucket(midWatermark, bucket.highWatermark, midPosition, bucket.highPosition,
+          bucket.count - leftCount));
+    }
+    leaves.addAll(buckets);
+    leaves.sort(Comparator.comparingLong((Bucket bucket) -> bucket.lowWatermark));
+
+    List<Partition> partitions = merge(leaves, root.count, globalPartition);
+    log.info("Sampled {} records with {} count queries into {} buckets and {} partitions", root.count, probes,
+        leaves.size(), partitions.size());
+    return partitions;
+  }
+
+  /**
+   * Merge adjacent buckets into at most {@code maxPartitions} partitions, minimizing the size of the largest one.
+   * The smallest partition capacity for which filling partitions greedily needs no more than {@code maxPartitions}
+   * partitions is found by binary search.
+   */
+  private List<Partition> merge(List<Bucket> buckets, long totalCount, Partition globalPartition) {
+    long minCapacity = 0;
+    for (Bucket bucket : buckets) {
+      minCapacity = Math.max(minCapacity, bucket.count);
+    }
+    long maxCapacity = Math.max(minCapacity, totalCount);
+    while (minCapacity < maxCapacity) {
+      long capacity = minCapacity + (maxCapacity - minCapacity) / 2;
+      if (fill(buckets, capacity, null) <= this.maxPartitions) {
+        maxCapacity = capacity;
+      } else {
+        minCapacity = capacity + 1;
+      }
+    }
+
+    List<Long> boundaries = new ArrayList<>();
+    fill(buckets, minCapacity, boundaries);
+
+    List<Partition> partitions = new ArrayList<>();
+    long lowWatermark = globalPartition.getLowWatermark();
+    for (long boundary : boundaries) {
+      partitions.add(new Partition(lowWatermark, boundary, false));
+      lowWatermark = boundary;
+    }
+    partitions.add(new Partition(lowWatermark, globalPartition.getHighWatermark(), true,
+        globalPartition.getHasUserSpecifiedHighWatermark()));
+    return partitions;
+  }
+
+  /**
+   * Fill partitions of the given capacity with adjacent buckets.
+   *
+   * @param boundaries if not null, receives the low watermark of every partition but the first
+   * @return the number of partitions
+   */
+  private static int fill(List<Bucket> buckets, long capacity, List<Long> boundaries) {
+    int numPartitions = 1;
+    long partitionSize = 0;
+    for (Bucket bucket : buckets) {
+      if (partitionSize > 0 && partitionSize + bucket.count > capacity) {
+        numPartitions++;
+        partitionSize = 0;
+        if (boundaries != null) {
+          boundaries.add(bucket.lowWatermark);
+        }
+      }
+      partitionSize += bucket.count;
+    }
+    return numPartitions;
+  }
+
+  /**
+   * Map a watermark to a linear position, counted in units of the watermark granularity.
+   */
+  private long toPosition(long watermark) {
+    if (this.watermarkType == WatermarkType.SIMPLE) {
+      return watermark;
+    }
+    return Math.floorDiv(WATERMARK_FORMATTER.parseMillis(Long.toString(watermark)), getUnitMillis());
+  }
+
+  private long toWatermark(long position) {
+    if (this.watermarkType == WatermarkType.SIMPLE) {
+      return position;
+    }
+    return Long.parseLong(WATERMARK_FORMATTER.print(position * getUnitMillis()));
+  }
+
+  private long getUnitMillis() {
+    switch (this.watermarkType) {
+      case DATE:
+        return TimeUnit.DAYS.toMillis(1);
+      case HOUR:
+        return TimeUnit.HOURS.toMillis(1);
+      default:
+        return TimeUnit.SECONDS.toMillis(1);
+    }
+  }
+
+  @AllArgsConstructor
+  private static class Bucket {
+    private final long lowWatermark;
+    private final long highWatermark;
+    private final long lowPosition;
+    private final long highPosition;
+    private final long count;
+  }
+}
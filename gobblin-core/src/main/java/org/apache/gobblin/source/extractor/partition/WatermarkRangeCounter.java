@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.source.extractor.partition;
+
+import java.io.IOException;
+
+
+/**
+ * Counts the source records in a watermark range. Implemented by extractors that can answer such a query cheaply,
+ * so that {@link SkewAwarePartitioner} can sample the distribution of the watermark column.
+ */
+public interface WatermarkRangeCounter {
+
+  /**
+   * @param lowWatermark inclusive low watermark, in {@link Partitioner#WATERMARKTIMEFORMAT} for time based watermarks
+   * @param highWatermark exclusive high watermark, in the same format
+   * @return the number of source records with a watermark in the range
+   */
+  long countRecords(long lowWatermark, long highWatermark) throws IOException;
+}
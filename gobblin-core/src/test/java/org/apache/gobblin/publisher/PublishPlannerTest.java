@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.publisher;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.permission.FsPermission;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
+
+import org.apache.gobblin.util.WriterUtils;
+
+
+/**
+ * Tests for {@link PublishPlanner}
+ */
+@Test(groups = { "gobblin.publisher" })
+public class PublishPlannerTest {
+
+  private static final FsPermission PERMISSION = new FsPermission((short) 0755);
+
+  private FileSystem fs;
+  private File tmpDir;
+  private AtomicInteger barrierCalls;
+  private PublishPlanner planner;
+
+  @BeforeMethod
+  public void setUp() throws IOException {
+    this.fs = FileSystem.getLocal(new Configuration());
+    this.tmpDir = Files.createTempDir();
+    this.barrierCalls = new AtomicInteger();
+    this.planner = new PublishPlanner(() -> this.barrierCalls.incrementAndGet());
+  }
+
+  @AfterMethod
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(this.tmpDir);
+  }
+
+  @Test
+  public void testMkdirsSkipsKnownDirs() throws IOException {
+    Path dir = new Path(this.tmpDir.getPath(), "a/b/c");
+    this.planner.mkdirs(this.fs, dir, PERMISSION, WriterUtils.NO_RETRY_CONFIG);
+    Assert.assertTrue(this.fs.exists(dir));
+    Assert.assertEquals(this.planner.getFsCallsSaved(), 0);
+
+    this.planner.mkdirs(this.fs, dir, PERMISSION, WriterUtils.NO_RETRY_CONFIG);
+    this.planner.mkdirs(this.fs, dir.getParent(), PERMISSION, WriterUtils.NO_RETRY_CONFIG);
+    Assert.assertEquals(this.planner.getFsCallsSaved(), 2);
+
+    this.fs.delete(dir.getParent(), true);
+    this.planner.markDeleted(this.fs, dir.getParent());
+    this.planner.mkdirs(this.fs, dir, PERMISSION, WriterUtils.NO_RETRY_CONFIG);
+    Assert.assertTrue(this.fs.exists(dir));
+    Assert.assertEquals(this.planner.getFsCallsSaved(), 2);
+  }
+
+  @Test
+  public void testFilterExisting() throws IOException {
+    Path dir = new Path(this.tmpDir.getPath(), "task");
+    Path file1 = createFile(new Path(dir, "file1"));
+    Path file2 = createFile(new Path(dir, "file2"));
+    Path missing = new Path(dir, "missing");
+    Path missingDirFile = new Path(this.tmpDir.getPath(), "missingDir/file");
+    Path otherDirFile = createFile(new Path(this.tmpDir.getPath(), "other/file"));
+
+    Set<Path> existing = this.planner.filterExisting(this.fs,
+        ImmutableList.of(file1, file2, missing, missingDirFile, new Path(missingDirFile.getParent(), "file2"),
+            otherDirFile));
+    Assert.assertEquals(existing, ImmutableSet.of(file1, file2, otherDirFile));
+    // 5 checks of paths with siblings were done with 2 listings
+    Assert.assertEquals(this.planner.getFsCallsSaved(), 3);
+  }
+
+  @Test
+  public void testPlanMovesCollapsesDirectories() throws IOException {
+    Path src = new Path(this.tmpDir.getPath(), "src");
+    Path dst = new Path(this.tmpDir.getPath(), "dst");
+    this.fs.mkdirs(new Path(dst, "existing"));
+
+    Map<Path, Path> fileMoves = new LinkedHashMap<>();
+    // A new destination directory: collapsed
+    addFileMoves(fileMoves, src, dst, "new", 3);
+    // Too few files
+    addFileMoves(fileMoves, src, dst, "small", 2);
+    // An existing destination directory
+    addFileMoves(fileMoves, src, dst, "existing", 3);
+    // A file of the source directory is not moved
+    addFileMoves(fileMoves, src, dst, "partial", 3);
+    createFile(new Path(src, "partial/notMoved"));
+
+    Map<Path, Path> plannedMoves =
+        this.planner.planMoves(this.fs, this.fs, fileMoves, PERMISSION);
+
+    Map<Path, Path> expectedMoves = new LinkedHashMap<>();
+    expectedMoves.put(new Path(src, "new"), new Path(dst, "new"));
+    for (Map.Entry<Path, Path> move : fileMoves.entrySet()) {
+      if (!move.getKey().getParent().getName().equals("new")) {
+        expectedMoves.put(move.getKey(), move.getValue());
+      }
+    }
+    Assert.assertEquals(plannedMoves, expectedMoves);
+    Assert.assertEquals(this.fs.getFileStatus(new Path(src, "new")).getPermission(), PERMISSION);
+
+    // Creating a directory below a collapsed destination waits for the pending moves
+    Assert.assertEquals(this.barrierCalls.get(), 0);
+    this.planner.mkdirs(this.fs, new Path(dst, "new/sub"), PERMISSION, WriterUtils.NO_RETRY_CONFIG);
+    Assert.assertEquals(this.barrierCalls.get(), 1);
+  }
+
+  @Test
+  public void testPlanMovesSkipsConflictingDirectories() throws IOException {
+    Path src = new Path(this.tmpDir.getPath(), "src");
+    Path dst = new Path(this.tmpDir.getPath(), "dst");
+
+    Map<Path, Path> fileMoves = new LinkedHashMap<>();
+    addFileMoves(fileMoves, src, dst, "a", 3);
+    // Another source directory moving a file into the destination of "a"
+    Path other = createFile(new Path(src, "b/other"));
+    fileMoves.put(other, new Path(dst, "a/other"));
+
+    Assert.assertEquals(this.planner.planMoves(this.fs, this.fs, fileMoves, PERMISSION), fileMoves);
+  }
+
+  private void addFileMoves(Map<Path, Path> fileMoves, Path src, Path dst, String dirName, int numFiles)
+      throws IOException {
+    for (int i = 0; i < numFiles; i++) {
+      Path file = createFile(new Path(src, dirName + "/file" + i));
+      fileMoves.put(file, new Path(dst, dirName + "/file" + i));
+    }
+  }
+
+  private Path createFile(Path path) throws IOException {
+    this.fs.create(path).close();
+    return path;
+  }
+}
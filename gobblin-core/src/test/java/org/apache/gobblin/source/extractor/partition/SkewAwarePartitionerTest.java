@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.source.extractor.partition;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import org.apache.gobblin.source.extractor.watermark.WatermarkType;
+
+
+/**
+ * Unit tests for {@link SkewAwarePartitioner}
+ */
+public class SkewAwarePartitionerTest {
+
+  @Test
+  public void testEqualRowPartitions() throws Exception {
+    // 10% of the rows spread over the first 95% of the range, 90% of them in the last 5%
+    long[] watermarks = new long[100000];
+    for (int i = 0; i < 10000; i++) {
+      watermarks[i] = i * 95L;
+    }
+    for (int i = 10000; i < watermarks.length; i++) {
+      watermarks[i] = 950000 + (i - 10000) / 2;
+    }
+    SortedCounter counter = new SortedCounter(watermarks);
+    int maxPartitions = 10;
+
+    List<Partition> partitions = new SkewAwarePartitioner(WatermarkType.SIMPLE, maxPartitions, 200)
+        .getPartitions(new Partition(0, 1000000, true, false), counter);
+
+    assertContiguous(partitions, 0, 1000000);
+    Assert.assertTrue(partitions.size() <= maxPartitions);
+    Assert.assertTrue(counter.probes <= 200);
+    Assert.assertFalse(partitions.get(partitions.size() - 1).getHasUserSpecifiedHighWatermark());
+
+    long target = watermarks.length / maxPartitions;
+    for (Partition partition : partitions) {
+      long count = counter.countRecords(partition.getLowWatermark(), partition.getHighWatermark());
+      Assert.assertTrue(count <= target * 3 / 2, "Partition " + partition.getLowWatermark() + " has " + count);
+    }
+
+    // Equal intervals put more than 90% of the rows in the last partition
+    Assert.assertTrue(counter.countRecords(900000, 1000000) > 90000);
+  }
+
+  @Test
+  public void testTimeBoundariesAreAligned() throws Exception {
+    WatermarkRangeCounter counter = (low, high) -> (high - low) * (low >= 20170110000000L ? 100 : 1);
+
+    List<Partition> partitions = new SkewAwarePartitioner(WatermarkType.DATE, 5, 50)
+        .getPartitions(new Partition(20170101000000L, 20170112000000L, true, true), counter);
+
+    assertContiguous(partitions, 20170101000000L, 20170112000000L);
+    Assert.assertTrue(partitions.size() > 1);
+    Assert.assertTrue(partitions.get(partitions.size() - 1).getHasUserSpecifiedHighWatermark());
+    for (Partition partition : partitions) {
+      Assert.assertEquals(partition.getLowWatermark() % 1000000, 0);
+    }
+
+    partitions = new SkewAwarePartitioner(WatermarkType.TIMESTAMP, 5, 50)
+        .getPartitions(new Partition(20170101000000L, 20170101000001L, true, false), counter);
+    Assert.assertEquals(partitions.size(), 1);
+  }
+
+  @Test
+  public void testEmptyRange() throws Exception {
+    Assert.assertTrue(new SkewAwarePartitioner(WatermarkType.SIMPLE, 5, 50)
+        .getPartitions(new Partition(-1, -1, true, false), (low, high) -> 0).isEmpty());
+  }
+
+  private static void assertContiguous(List<Partition> partitions, long lowWatermark, long highWatermark) {
+    Assert.assertEquals(partitions.get(0).getLowWatermark(), lowWatermark);
+    for (int i = 1; i < partitions.size(); i++) {
+      Assert.assertEquals(partitions.get(i).getLowWatermark(), partitions.get(i - 1).getHighWatermark());
+      Assert.assertTrue(partitions.get(i).getLowWatermark() > partitions.get(i - 1).getLowWatermark());
+      Assert.assertFalse(partitions.get(i - 1).isLastPartition());
+    }
+    Assert.assertEquals(partitions.get(partitions.size() - 1).getHighWatermark(), highWatermark);
+    Assert.assertTrue(partitions.get(partitions.size() - 1).isLastPartition());
+  }
+
+  private static class SortedCounter implements WatermarkRangeCounter {
+    private final long[] watermarks;
+    private int probes = 0;
+
+    SortedCounter(long[] watermarks) {
+      this.watermarks = watermarks;
+    }
+
+    @Override
+    public long countRecords(long lowWatermark, long highWatermark) {
+      this.probes++;
+      return indexOf(highWatermark) - indexOf(lowWatermark);
+    }
+
+    private int indexOf(long watermark) {
+      int index = Arrays.binarySearch(this.watermarks, watermark);
+      if (index < 0) {
+        return -index - 1;
+      }
+      while (index > 0 && this.watermarks[index - 1] == watermark) {
+        index--;
+      }
+      return index;
+    }
+  }
+}
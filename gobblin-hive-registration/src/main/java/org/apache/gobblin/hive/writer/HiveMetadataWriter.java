@@ -28,6 +28,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -70,7 +71,8 @@ public class HiveMetadataWriter implements MetadataWriter {
   private final WhitelistBlacklist whiteistBlacklist;
   @Getter
   private final KafkaSchemaRegistry schemaRegistry;
-  private final HashMap<String, HashMap<List<String>, ListenableFuture<Void>>> currentExecutionMap;
+  // Tables can be flushed concurrently by GobblinMCEWriter, so the per-table execution maps live in a concurrent map
+  private final ConcurrentHashMap<String, HashMap<List<String>, ListenableFuture<Void>>> currentExecutionMap;
 
   private final HashMap<String, Cache<String, String>> schemaCreationTimeMap;
   private final HashMap<String, Cache<List<String>, HiveSpec>> specMaps;
@@ -84,7 +86,7 @@ public class HiveMetadataWriter implements MetadataWriter {
     this.whiteistBlacklist = new WhitelistBlacklist(state.getProp(HIVE_REGISTRATION_WHITELIST, ""),
         state.getProp(HIVE_REGISTRATION_BLACKLIST, ""));
     this.schemaRegistry = KafkaSchemaRegistry.get(state.getProperties());
-    this.currentExecutionMap = new HashMap<>();
+    this.currentExecutionMap = new ConcurrentHashMap<>();
     this.schemaCreationTimeMap = new HashMap<>();
     this.specMaps = new HashMap<>();
     this.lastestSchemaMap = new HashMap<>();
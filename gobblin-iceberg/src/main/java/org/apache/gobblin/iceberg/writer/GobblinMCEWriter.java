@@ -18,6 +18,7 @@
 package org.apache.gobblin.iceberg.writer;
 
 import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
 import com.google.common.cache.Cache;
@@ -29,10 +30,15 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import lombok.Getter;
@@ -50,6 +56,7 @@ import org.apache.gobblin.metadata.GobblinMetadataChangeEvent;
 import org.apache.gobblin.metadata.OperationType;
 import org.apache.gobblin.stream.RecordEnvelope;
 import org.apache.gobblin.util.ClustersNames;
+import org.apache.gobblin.util.ExecutorsUtils;
 import org.apache.gobblin.util.HadoopUtils;
 import org.apache.gobblin.util.ParallelRunner;
 import org.apache.gobblin.util.reflection.GobblinConstructorUtils;
@@ -76,6 +83,8 @@ public class GobblinMCEWriter implements DataWriter<GenericRecord> {
   public static final String FORCE_HIVE_DATABASE_NAME = "force.hive.database.name";
   public static final String METADATA_REGISTRATION_THREADS = "metadata.registration.threads";
   public static final String METADATA_PARALLEL_RUNNER_TIMEOUT_MILLS = "metadata.parallel.runner.timeout.mills";
+  public static final String METADATA_FLUSH_THREADS = "metadata.flush.threads";
+  public static final int DEFAULT_METADATA_FLUSH_THREADS = 1;
   public static final String HIVE_PARTITION_NAME = "hive.partition.name";
   public static final String GMCE_METADATA_WRITER_CLASSES = "gmce.metadata.writer.classes";
   public static final int DEFAULT_ICEBERG_PARALLEL_TIMEOUT_MILLS = 60000;
@@ -86,6 +95,7 @@ public class GobblinMCEWriter implements DataWriter<GenericRecord> {
   Map<String, OperationType> datasetOperationTypeMap;
   protected State state;
   private final ParallelRunner parallelRunner;
+  private final Optional<ExecutorService> flushExecutor;
   private int parallelRunnerTimeoutMills;
   private Map<String, Cache<String, Collection<HiveSpec>>> oldSpecsMaps;
   private Map<String, Cache<String, Collection<HiveSpec>>> newSpecsMaps;
@@ -106,6 +116,15 @@ public class GobblinMCEWriter implements DataWriter<GenericRecord> {
         FileSystem.get(HadoopUtils.getConfFromState(properties))));
     parallelRunnerTimeoutMills =
         state.getPropAsInt(METADATA_PARALLEL_RUNNER_TIMEOUT_MILLS, DEFAULT_ICEBERG_PARALLEL_TIMEOUT_MILLS);
+    int flushThreads = state.getPropAsInt(METADATA_FLUSH_THREADS, DEFAULT_METADATA_FLUSH_THREADS);
+    if (flushThreads > 1) {
+      ExecutorService executor = ExecutorsUtils.loggingDecorator(Executors.newFixedThreadPool(flushThreads,
+          ExecutorsUtils.newDaemonThreadFactory(Optional.of(log), Optional.of("GMCEFlush-%d"))));
+      closer.register(() -> ExecutorsUtils.shutdownExecutorService(executor, Optional.of(log)));
+      flushExecutor = Optional.of(executor);
+    } else {
+      flushExecutor = Optional.absent();
+    }
   }
 
   @Override
@@ -255,16 +274,61 @@ public class GobblinMCEWriter implements DataWriter<GenericRecord> {
   @Override
   public void flush() throws IOException {
     log.info(String.format("start to flushing %s records", String.valueOf(recordCount.get())));
-    for (String tableString : tableOperationTypeMap.keySet()) {
-      List<String> tid = Splitter.on(TABLE_NAME_DELIMITER).splitToList(tableString);
-      for (MetadataWriter writer : metadataWriters) {
-        writer.flush(tid.get(0), tid.get(1));
+    if (flushExecutor.isPresent()) {
+      parallelFlush(flushExecutor.get());
+    } else {
+      for (String tableString : tableOperationTypeMap.keySet()) {
+        flushTable(tableString);
       }
     }
     tableOperationTypeMap.clear();
     recordCount.lazySet(0L);
   }
 
+  /**
+   * Flush the tables concurrently. Tables are independent of each other, so each table is flushed by one task
+   * which calls the metadata writers in order, which keeps the per-table ordering of the serial flush.
+   * A failure of one table does not stop the flush of the other tables, and is re-thrown after all the tasks finish.
+   */
+  private void parallelFlush(ExecutorService executor) throws IOException {
+    Map<String, Future<Void>> futures = new LinkedHashMap<>();
+    for (String tableString : tableOperationTypeMap.keySet()) {
+      futures.put(tableString, executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          flushTable(tableString);
+          return null;
+        }
+      }));
+    }
+    IOException exception = null;
+    for (Map.Entry<String, Future<Void>> future : futures.entrySet()) {
+      try {
+        future.getValue().get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while flushing table " + future.getKey(), e);
+      } catch (ExecutionException e) {
+        log.error("Failed to flush table " + future.getKey(), e.getCause());
+        if (exception == null) {
+          exception = new IOException("Failed to flush table " + future.getKey(), e.getCause());
+        } else {
+          exception.addSuppressed(e.getCause());
+        }
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  private void flushTable(String tableString) throws IOException {
+    List<String> tid = Splitter.on(TABLE_NAME_DELIMITER).splitToList(tableString);
+    for (MetadataWriter writer : metadataWriters) {
+      writer.flush(tid.get(0), tid.get(1));
+    }
+  }
+
   @Override
   public void close() throws IOException {
     this.flush();
@@ -29,6 +29,7 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Range;
 import com.google.common.collect.Sets;
 import com.google.common.io.Closer;
+import com.google.common.util.concurrent.Striped;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -41,10 +42,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -138,6 +140,10 @@ public class IcebergMetadataWriter implements MetadataWriter {
   private static final String ICEBERG_FILE_PATH_COLUMN = "file_path";
   private static final String DEFAULT_CREATION_TIME = "0";
   private static final String SNAPSHOT_EXPIRE_THREADS = "snapshot.expire.threads";
+  public static final String ICEBERG_MAX_CONCURRENT_COMMITS = "iceberg.max.concurrent.commits";
+  public static final int DEFAULT_ICEBERG_MAX_CONCURRENT_COMMITS = 10;
+  private static final String COMMIT_TIME = "iceberg.commit.time";
+  private static final String TABLE_COMMIT_TIME_FORMAT = COMMIT_TIME + ".%s.%s";
   private static final long DEFAULT_WATERMARK = -1L;
   protected final MetricContext metricContext;
   protected EventSubmitter eventSubmitter;
@@ -149,10 +155,15 @@ public class IcebergMetadataWriter implements MetadataWriter {
   @Getter
   private final KafkaSchemaRegistry schemaRegistry;
   private final Map<TableIdentifier, TableMetadata> tableMetadataMap;
+  // Commit latency of each table, registered in the metric context once per table
+  private final Map<TableIdentifier, Timer> tableCommitTimers;
   @Setter
   protected HiveCatalog catalog;
   protected final Configuration conf;
-  protected final ReadWriteLock readWriteLock;
+  // Locks are striped by table so that flushes of different tables can run concurrently
+  protected final Striped<ReadWriteLock> readWriteLocks;
+  // Bounds the number of transactions committed to the catalog at the same time
+  private final Semaphore commitPermits;
   private final HiveLock locks;
   private final ParallelRunner parallelRunner;
   private final boolean useDataLoacationAsTableLocation;
@@ -162,9 +173,10 @@ public class IcebergMetadataWriter implements MetadataWriter {
     this.schemaRegistry = KafkaSchemaRegistry.get(state.getProperties());
     conf = HadoopUtils.getConfFromState(state);
     initializeCatalog();
-    tableTopicpartitionMap = new HashMap<>();
-    tableMetadataMap = new HashMap<>();
-    tableCurrentWaterMarkMap = new HashMap<>();
+    tableTopicpartitionMap = new ConcurrentHashMap<>();
+    tableMetadataMap = new ConcurrentHashMap<>();
+    tableCommitTimers = new ConcurrentHashMap<>();
+    tableCurrentWaterMarkMap = new ConcurrentHashMap<>();
     List<Tag<?>> tags = Lists.newArrayList();
     String clusterIdentifier = ClustersNames.getInstance().getClusterName();
     tags.add(new Tag<>(CLUSTER_IDENTIFIER_KEY_NAME, clusterIdentifier));
@@ -175,7 +187,9 @@ public class IcebergMetadataWriter implements MetadataWriter {
     this.whiteistBlacklist = new WhitelistBlacklist(state.getProp(ICEBERG_REGISTRATION_WHITELIST, ""),
         state.getProp(ICEBERG_REGISTRATION_BLACKLIST, ""));
     // Use lock to make it safe when flush and write are called async
-    readWriteLock = new ReentrantReadWriteLock();
+    readWriteLocks = Striped.lazyWeakReadWriteLock(Integer.MAX_VALUE);
+    commitPermits = new Semaphore(
+        state.getPropAsInt(ICEBERG_MAX_CONCURRENT_COMMITS, DEFAULT_ICEBERG_MAX_CONCURRENT_COMMITS), true);
     this.locks = new HiveLock(state.getProperties());
     parallelRunner = closer.register(new ParallelRunner(state.getPropAsInt(SNAPSHOT_EXPIRE_THREADS, 20),
         FileSystem.get(HadoopUtils.getConfFromState(state))));
@@ -618,15 +632,16 @@ public class IcebergMetadataWriter implements MetadataWriter {
    * 3. Update the schema
    * 4. Commit the transaction
    * 5. reset tableMetadata
+   * Flushes of different tables only share the cap on concurrent catalog commits, so they can be called in parallel
    * @param dbName
    * @param tableName
    */
   @Override
   public void flush(String dbName, String tableName) throws IOException {
-    Lock writeLock = readWriteLock.writeLock();
+    TableIdentifier tid = TableIdentifier.of(dbName, tableName);
+    Lock writeLock = readWriteLocks.get(tid).writeLock();
     writeLock.lock();
     try {
-      TableIdentifier tid = TableIdentifier.of(dbName, tableName);
       TableMetadata tableMetadata = tableMetadataMap.getOrDefault(tid, new TableMetadata());
       if (tableMetadata.transaction.isPresent()) {
         Transaction transaction = tableMetadata.transaction.get();
@@ -665,9 +680,7 @@ public class IcebergMetadataWriter implements MetadataWriter {
         UpdateProperties updateProperties = transaction.updateProperties();
         props.forEach(updateProperties::set);
         updateProperties.commit();
-        try (AutoCloseableHiveLock lock = this.locks.getTableLock(dbName, tableName)) {
-          transaction.commitTransaction();
-        }
+        commitTransaction(transaction, dbName, tableName);
         Snapshot snapshot = tableMetadata.table.get().currentSnapshot();
         Map<String, String> currentProps = tableMetadata.table.get().properties();
         submitSnapshotCommitEvent(snapshot, tableMetadata, dbName, tableName, currentProps, highWatermark);
@@ -684,6 +697,28 @@ public class IcebergMetadataWriter implements MetadataWriter {
     }
   }
 
+  /**
+   * Commit the transaction to the catalog, waiting for a permit if too many commits are in flight.
+   * The commit latency is recorded both for all tables and for this table.
+   */
+  private void commitTransaction(Transaction transaction, String dbName, String tableName) throws IOException {
+    try {
+      commitPermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(String.format("Interrupted while waiting to commit table %s %s", dbName, tableName), e);
+    }
+    Timer tableCommitTimer = tableCommitTimers.computeIfAbsent(TableIdentifier.of(dbName, tableName),
+        tid -> metricContext.timer(String.format(TABLE_COMMIT_TIME_FORMAT, dbName, tableName)));
+    try (AutoCloseableHiveLock lock = this.locks.getTableLock(dbName, tableName);
+        Timer.Context context = metricContext.timer(COMMIT_TIME).time();
+        Timer.Context tableContext = tableCommitTimer.time()) {
+      transaction.commitTransaction();
+    } finally {
+      commitPermits.release();
+    }
+  }
+
   private void submitSnapshotCommitEvent(Snapshot snapshot, TableMetadata tableMetadata, String dbName,
       String tableName, Map<String, String> props, Long highWaterMark) {
     GobblinEventBuilder gobblinTrackingEvent =
@@ -773,7 +808,8 @@ public class IcebergMetadataWriter implements MetadataWriter {
   @Override
   public void writeEnvelope(RecordEnvelope<GenericRecord> recordEnvelope, Map<String, Collection<HiveSpec>> newSpecsMap,
       Map<String, Collection<HiveSpec>> oldSpecsMap, HiveSpec tableSpec) throws IOException {
-    Lock readLock = readWriteLock.readLock();
+    Lock readLock = readWriteLocks.get(
+        TableIdentifier.of(tableSpec.getTable().getDbName(), tableSpec.getTable().getTableName())).readLock();
     readLock.lock();
     try {
       GenericRecord genericRecord = recordEnvelope.getRecord();
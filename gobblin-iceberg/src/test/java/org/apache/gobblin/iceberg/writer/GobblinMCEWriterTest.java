@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.iceberg.writer;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.generic.GenericRecord;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+import org.apache.gobblin.configuration.State;
+import org.apache.gobblin.hive.spec.HiveSpec;
+import org.apache.gobblin.hive.writer.MetadataWriter;
+import org.apache.gobblin.metadata.OperationType;
+import org.apache.gobblin.stream.RecordEnvelope;
+
+
+public class GobblinMCEWriterTest {
+  private static final int NUM_TABLES = 4;
+
+  @Test
+  public void testParallelFlushWithFailure() throws IOException {
+    State state = new State();
+    state.setProp(GobblinMCEWriter.GMCE_METADATA_WRITER_CLASSES, ConcurrentMetadataWriter.class.getName());
+    state.setProp(GobblinMCEWriter.METADATA_FLUSH_THREADS, NUM_TABLES);
+    GobblinMCEWriter writer = new GobblinMCEWriter(null, state);
+    for (int i = 0; i < NUM_TABLES; i++) {
+      writer.tableOperationTypeMap.put("db" + GobblinMCEWriter.TABLE_NAME_DELIMITER + "table" + i,
+          OperationType.add_files);
+    }
+
+    ConcurrentMetadataWriter.reset("table2");
+    try {
+      writer.flush();
+      Assert.fail("Flush should fail when a table fails to flush");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage().contains("db.table2"), e.getMessage());
+    }
+    // The failure of one table does not prevent the other tables from being flushed
+    Assert.assertEquals(ConcurrentMetadataWriter.FLUSHED_TABLES, ImmutableSet.of("db.table0", "db.table1", "db.table3"));
+    Assert.assertEquals(writer.tableOperationTypeMap.size(), NUM_TABLES);
+
+    // A later flush is not affected by the previous failure
+    ConcurrentMetadataWriter.reset(null);
+    writer.flush();
+    Assert.assertEquals(ConcurrentMetadataWriter.FLUSHED_TABLES.size(), NUM_TABLES);
+    Assert.assertTrue(writer.tableOperationTypeMap.isEmpty());
+    writer.close();
+  }
+
+  /**
+   * A {@link MetadataWriter} whose flushes only complete once all tables are being flushed at the same time.
+   */
+  public static class ConcurrentMetadataWriter implements MetadataWriter {
+    private static final Set<String> FLUSHED_TABLES = ConcurrentHashMap.newKeySet();
+    private static volatile CountDownLatch concurrentFlushes;
+    private static volatile String failingTable;
+
+    public ConcurrentMetadataWriter(State state) {
+    }
+
+    private static void reset(String failingTable) {
+      FLUSHED_TABLES.clear();
+      concurrentFlushes = new CountDownLatch(NUM_TABLES);
+      ConcurrentMetadataWriter.failingTable = failingTable;
+    }
+
+    @Override
+    public void flush(String dbName, String tableName) throws IOException {
+      concurrentFlushes.countDown();
+      try {
+        if (!concurrentFlushes.await(10, TimeUnit.SECONDS)) {
+          throw new IOException("Tables are not flushed concurrently");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+      if (tableName.equals(failingTable)) {
+        throw new IOException("Injected failure");
+      }
+      FLUSHED_TABLES.add(dbName + "." + tableName);
+    }
+
+    @Override
+    public void writeEnvelope(RecordEnvelope<GenericRecord> recordEnvelope,
+        Map<String, Collection<HiveSpec>> newSpecsMap, Map<String, Collection<HiveSpec>> oldSpecsMap,
+        HiveSpec tableSpec) throws IOException {
+    }
+
+    @Override
+    public void close() throws IOException {
+    }
+  }
+}
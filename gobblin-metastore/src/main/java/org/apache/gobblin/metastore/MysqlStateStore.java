@@ -35,6 +35,7 @@ import java.sql.Timestamp;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -267,21 +268,12 @@ public class MysqlStateStore<T extends State> implements StateStore<T> {
   @Override
   public void putAll(String storeName, String tableName, Collection<T> states) throws IOException {
     try (Connection connection = dataSource.getConnection();
-        PreparedStatement insertStatement = connection.prepareStatement(UPSERT_JOB_STATE_SQL);
-        ByteArrayOutputStream byteArrayOs = new ByteArrayOutputStream();
-        OutputStream os = compressedValues ? new GZIPOutputStream(byteArrayOs) : byteArrayOs;
-        DataOutputStream dataOutput = new DataOutputStream(os)) {
+        PreparedStatement insertStatement = connection.prepareStatement(UPSERT_JOB_STATE_SQL)) {
 
       int index = 0;
       insertStatement.setString(++index, storeName);
       insertStatement.setString(++index, tableName);
-
-      for (T state : states) {
-        addStateToDataOutputStream(dataOutput, state);
-      }
-
-      dataOutput.close();
-      insertStatement.setBlob(++index, new ByteArrayInputStream(byteArrayOs.toByteArray()));
+      insertStatement.setBlob(++index, new ByteArrayInputStream(serializeStates(states)));
 
       insertStatement.executeUpdate();
       connection.commit();
@@ -290,6 +282,48 @@ public class MysqlStateStore<T extends State> implements StateStore<T> {
     }
   }
 
+  /**
+   * Store each state in its own table of the given store, using a single batched statement and a single commit
+   * instead of one round trip per table.
+   *
+   * @param storeName the store name
+   * @param statesByTableName the state to store in each table
+   * @throws IOException
+   */
+  public void putAll(String storeName, Map<String, T> statesByTableName) throws IOException {
+    if (statesByTableName.isEmpty()) {
+      return;
+    }
+
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement insertStatement = connection.prepareStatement(UPSERT_JOB_STATE_SQL)) {
+      for (Map.Entry<String, T> entry : statesByTableName.entrySet()) {
+        int index = 0;
+        insertStatement.setString(++index, storeName);
+        insertStatement.setString(++index, entry.getKey());
+        insertStatement.setBlob(++index,
+            new ByteArrayInputStream(serializeStates(Collections.singleton(entry.getValue()))));
+        insertStatement.addBatch();
+      }
+
+      insertStatement.executeBatch();
+      connection.commit();
+    } catch (SQLException e) {
+      throw new IOException("Failure storing " + statesByTableName.size() + " states to store " + storeName, e);
+    }
+  }
+
+  private byte[] serializeStates(Collection<T> states) throws IOException {
+    ByteArrayOutputStream byteArrayOs = new ByteArrayOutputStream();
+    try (OutputStream os = compressedValues ? new GZIPOutputStream(byteArrayOs) : byteArrayOs;
+        DataOutputStream dataOutput = new DataOutputStream(os)) {
+      for (T state : states) {
+        addStateToDataOutputStream(dataOutput, state);
+      }
+    }
+    return byteArrayOs.toByteArray();
+  }
+
   @Override
   public T get(String storeName, String tableName, String stateId) throws IOException {
     try (Connection connection = dataSource.getConnection();
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.metrics.event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Function;
+
+import org.apache.gobblin.metrics.MetricContext;
+import org.apache.gobblin.metrics.Tag;
+import org.apache.gobblin.metrics.notification.Notification;
+
+
+/**
+ * Measures the throughput of submitting events through an {@link EventSubmitter} attached to a child
+ * {@link MetricContext} with a few tags, where both the child and its parent have a notification target.
+ *
+ * Run with {@code -prof gc} to also report the allocation rate per submitted event.
+ */
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@org.openjdk.jmh.annotations.Fork(value = 3)
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EventSubmitterBenchmark {
+  private static final String NAMESPACE = "gobblin.benchmark";
+  private static final String EVENT_NAME = "BenchmarkEvent";
+
+  @State(value = Scope.Benchmark)
+  public static class SubmitterState {
+    private MetricContext parentContext;
+    private MetricContext childContext;
+    private EventSubmitter eventSubmitter;
+    private final LongAdder notifications = new LongAdder();
+
+    @Setup
+    public void setup() {
+      Function<Notification, Void> target = new Function<Notification, Void>() {
+        @Override
+        public Void apply(Notification input) {
+          notifications.increment();
+          return null;
+        }
+      };
+
+      this.parentContext = MetricContext.builder("parent-" + System.nanoTime())
+          .addTag(new Tag<>("jobName", "benchmarkJob"))
+          .addTag(new Tag<>("jobId", "job_benchmarkJob_1"))
+          .build();
+      this.childContext = this.parentContext.childBuilder("child-" + System.nanoTime())
+          .addTag(new Tag<>("taskId", "task_benchmarkJob_1_0"))
+          .addTag(new Tag<>("datasetUrn", "/data/tracking/PageViewEvent"))
+          .build();
+      this.parentContext.addNotificationTarget(target);
+      this.childContext.addNotificationTarget(target);
+
+      this.eventSubmitter = new EventSubmitter.Builder(this.childContext, NAMESPACE)
+          .addMetadata("submitterKey1", "value1")
+          .addMetadata("submitterKey2", "value2")
+          .build();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+      this.childContext.close();
+      this.parentContext.close();
+    }
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void submitEventBuilder(SubmitterState state) {
+    GobblinEventBuilder eventBuilder = new GobblinEventBuilder(EVENT_NAME);
+    eventBuilder.addMetadata("eventKey", "eventValue");
+    state.eventSubmitter.submit(eventBuilder);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void submitWithMetadataElements(SubmitterState state) {
+    state.eventSubmitter.submit(EVENT_NAME, "eventKey", "eventValue");
+  }
+}
@@ -29,9 +29,6 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -53,17 +50,16 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.io.Closer;
-import com.google.common.util.concurrent.MoreExecutors;
 
 import org.apache.gobblin.metrics.context.NameConflictException;
 import org.apache.gobblin.metrics.context.ReportableContext;
 import org.apache.gobblin.metrics.notification.EventNotification;
 import org.apache.gobblin.metrics.notification.Notification;
-import org.apache.gobblin.util.ExecutorsUtils;
 
 
 /**
@@ -100,7 +96,9 @@ public class MetricContext extends MetricRegistry implements ReportableContext,
   private final Map<UUID, Function<Notification, Void>> notificationTargets;
   private final ContextAwareTimer notificationTimer;
 
-  private Optional<ExecutorService> executorServiceOptional;
+  // Tags of this context rendered as event metadata. Tags are fixed once the context is built, so this is computed
+  // once instead of on every submitted event.
+  private final Map<String, String> eventMetadataTags;
 
   // This set exists so that metrics that have no hard references in code don't get GCed while the MetricContext
   // is alive.
@@ -120,7 +118,12 @@ public class MetricContext extends MetricRegistry implements ReportableContext,
     this.contextAwareMetricsSet = Sets.newConcurrentHashSet();
 
     this.notificationTargets = Maps.newConcurrentMap();
-    this.executorServiceOptional = Optional.absent();
+
+    ImmutableMap.Builder<String, String> eventMetadataTagsBuilder = ImmutableMap.builder();
+    for (Map.Entry<String, Object> entry : this.innerMetricContext.getTagMap().entrySet()) {
+      eventMetadataTagsBuilder.put(entry.getKey(), entry.getValue().toString());
+    }
+    this.eventMetadataTags = eventMetadataTagsBuilder.build();
 
     this.notificationTimer = new ContextAwareTimer(this, GOBBLIN_METRICS_NOTIFICATIONS_TIMER_NAME);
     register(this.notificationTimer);
@@ -130,16 +133,6 @@ public class MetricContext extends MetricRegistry implements ReportableContext,
     }
   }
 
-  private synchronized ExecutorService getExecutorService() {
-    if(!this.executorServiceOptional.isPresent()) {
-      this.executorServiceOptional = Optional.of(MoreExecutors.getExitingExecutorService(
-          (ThreadPoolExecutor) Executors.newCachedThreadPool(ExecutorsUtils.newThreadFactory(Optional.of(LOG),
-              Optional.of("MetricContext-" + getName() + "-%d"))), 5,
-          TimeUnit.MINUTES));
-    }
-    return this.executorServiceOptional.get();
-  }
-
   /**
    * Get the name of this {@link MetricContext}.
    *
@@ -188,11 +181,9 @@ public class MetricContext extends MetricRegistry implements ReportableContext,
    */
   private void injectTagsToEvent(GobblinTrackingEvent event) {
     Map<String, String> originalMetadata = event.getMetadata();
-    Map<String, Object> tags = getTagMap();
-    Map<String, String> newMetadata = Maps.newHashMap();
-    for(Map.Entry<String, Object> entry : tags.entrySet()) {
-      newMetadata.put(entry.getKey(), entry.getValue().toString());
-    }
+    Map<String, String> newMetadata =
+        Maps.newHashMapWithExpectedSize(this.eventMetadataTags.size() + originalMetadata.size());
+    newMetadata.putAll(this.eventMetadataTags);
     newMetadata.putAll(originalMetadata);
     event.setMetadata(newMetadata);
   }
@@ -17,6 +17,8 @@
 
 package org.apache.gobblin.metrics.event;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 import com.google.common.base.Optional;
@@ -106,7 +108,8 @@ public class EventSubmitter {
   }
 
   private EventSubmitter(Builder builder) {
-    this.metadata = builder.metadata;
+    // Metadata values may be null, which ImmutableMap does not allow
+    this.metadata = Collections.unmodifiableMap(new HashMap<>(builder.metadata));
     this.namespace = builder.namespace;
     this.metricContext = builder.metricContext;
   }
@@ -146,11 +149,14 @@ public class EventSubmitter {
       throw new IllegalArgumentException("Unmatched keys in metadata elements.");
     }
 
-    Map<String, String> metadata = Maps.newHashMap();
-    for(int i = 0; i < metadataEls.length/2; i++) {
-      metadata.put(metadataEls[2 * i], metadataEls[2 * i + 1]);
+    if(this.metricContext.isPresent()) {
+      Map<String, String> finalMetadata = Maps.newHashMapWithExpectedSize(this.metadata.size() + metadataEls.length / 2);
+      finalMetadata.putAll(this.metadata);
+      for(int i = 0; i < metadataEls.length/2; i++) {
+        finalMetadata.put(metadataEls[2 * i], metadataEls[2 * i + 1]);
+      }
+      submitWithFinalMetadata(name, finalMetadata);
     }
-    submit(name, metadata);
   }
 
   /**
@@ -173,16 +179,20 @@ public class EventSubmitter {
   @Deprecated
   public void submit(String name, Map<String, String> additionalMetadata) {
     if(this.metricContext.isPresent()) {
-      Map<String, String> finalMetadata = Maps.newHashMap(this.metadata);
+      Map<String, String> finalMetadata = Maps.newHashMapWithExpectedSize(this.metadata.size() + additionalMetadata.size());
+      finalMetadata.putAll(this.metadata);
       if(!additionalMetadata.isEmpty()) {
         finalMetadata.putAll(additionalMetadata);
       }
-
-      // Timestamp is set by metric context.
-      this.metricContext.get().submitEvent(new GobblinTrackingEvent(0l, this.namespace, name, finalMetadata));
+      submitWithFinalMetadata(name, finalMetadata);
     }
   }
 
+  private void submitWithFinalMetadata(String name, Map<String, String> finalMetadata) {
+    // Timestamp is set by metric context.
+    this.metricContext.get().submitEvent(new GobblinTrackingEvent(0l, this.namespace, name, finalMetadata));
+  }
+
   /**
    * Calls submit on submitter if present.
    * @deprecated Use {{@link #submit(GobblinEventBuilder)}}
@@ -21,15 +21,16 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.Closeable;
+import java.util.ArrayDeque;
 import java.util.Map;
 import java.util.Queue;
 import java.util.SortedMap;
 import java.util.UUID;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.Nullable;
 
@@ -46,15 +47,18 @@ import com.codahale.metrics.Timer;
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Queues;
 import com.google.common.io.Closer;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 
 import org.apache.gobblin.configuration.ConfigurationKeys;
+import org.apache.gobblin.metrics.ContextAwareGauge;
+import org.apache.gobblin.metrics.ContextAwareMeter;
+import org.apache.gobblin.metrics.ContextAwareTimer;
 import org.apache.gobblin.metrics.GobblinTrackingEvent;
 import org.apache.gobblin.metrics.MetricContext;
 import org.apache.gobblin.metrics.notification.EventNotification;
@@ -71,6 +75,15 @@ import static org.apache.gobblin.metrics.event.TaskEvent.METADATA_TASK_ID;
  *   Subclasses should implement {@link #reportEventQueue} to emit the events to the sink. Events will only be
  *   reported once, and then removed from the event queue.
  * </p>
+ *
+ * <p>
+ *   Events are buffered in an {@link EventRingBuffer} of {@link #QUEUE_CAPACITY_KEY} events, and
+ *   {@link #QUEUE_OVERFLOW_POLICY_KEY} decides whether producers block, drop the oldest events or coalesce identical
+ *   events when the sink falls behind. Events are handed to the sink in batches of at most {@link #BATCH_SIZE_KEY}
+ *   events; a report is triggered on the reporter schedule, as soon as a full batch is buffered, and every
+ *   {@link #BATCH_FLUSH_INTERVAL_MILLIS_KEY} milliseconds if set. The buffer depth, the dropped and coalesced events
+ *   and the sink latency are exposed as metrics of the reported {@link MetricContext}.
+ * </p>
  */
 @Slf4j
 public abstract class EventReporter extends ScheduledReporter implements Closeable {
@@ -83,15 +96,36 @@ public abstract class EventReporter extends ScheduledReporter implements Closeab
   public static final String QUEUE_CAPACITY_KEY = ConfigurationKeys.METRICS_REPORTING_EVENTS_CONFIGURATIONS_PREFIX + ".queue.capacity";
   public static final int DEFAULT_QUEUE_OFFER_TIMEOUT_SECS = 10;
   public static final String QUEUE_OFFER_TIMOUT_SECS_KEY = ConfigurationKeys.METRICS_REPORTING_EVENTS_CONFIGURATIONS_PREFIX + ".queue.offer.timeout.secs";
+  public static final String DEFAULT_QUEUE_OVERFLOW_POLICY = EventRingBuffer.OverflowPolicy.BLOCK.name();
+  public static final String QUEUE_OVERFLOW_POLICY_KEY = ConfigurationKeys.METRICS_REPORTING_EVENTS_CONFIGURATIONS_PREFIX + ".queue.overflow.policy";
+  public static final int DEFAULT_BATCH_SIZE = 100;
+  public static final String BATCH_SIZE_KEY = ConfigurationKeys.METRICS_REPORTING_EVENTS_CONFIGURATIONS_PREFIX + ".batch.size";
+  public static final long DEFAULT_BATCH_FLUSH_INTERVAL_MILLIS = 0;
+  public static final String BATCH_FLUSH_INTERVAL_MILLIS_KEY = ConfigurationKeys.METRICS_REPORTING_EVENTS_CONFIGURATIONS_PREFIX + ".batch.flush.interval.millis";
+  public static final String REPORTER_METRICS_QUALIFIER = "eventReporter";
+  public static final String QUEUE_DEPTH = "queueDepth";
+  public static final String DROPPED_EVENTS = "droppedEvents";
+  public static final String COALESCED_EVENTS = "coalescedEvents";
+  public static final String SINK_LATENCY = "sinkLatency";
   private static final String NULL_STRING = "null";
 
   private final MetricContext metricContext;
-  private final BlockingQueue<GobblinTrackingEvent> reportingQueue;
+  private final EventRingBuffer reportingQueue;
   @Getter
   private final int queueCapacity;
   @Getter
   private final int queueOfferTimeoutSecs;
-  private final ExecutorService immediateReportExecutor;
+  @Getter
+  private final int batchSize;
+  private final int immediateReportThreshold;
+  private final ScheduledExecutorService immediateReportExecutor;
+  private final AtomicBoolean immediateReportScheduled = new AtomicBoolean(false);
+  private final Object reportLock = new Object();
+  private final String queueDepthGaugeName;
+  private final boolean queueDepthGaugeRegistered;
+  private final ContextAwareMeter droppedEventsMeter;
+  private final ContextAwareMeter coalescedEventsMeter;
+  private final ContextAwareTimer sinkLatencyTimer;
   private final UUID notificationTargetKey;
   protected final Closer closer;
   protected final Config config;
@@ -99,6 +133,9 @@ public abstract class EventReporter extends ScheduledReporter implements Closeab
       ImmutableMap.<String, Object>builder()
           .put(QUEUE_CAPACITY_KEY, DEFAULT_QUEUE_CAPACITY)
           .put(QUEUE_OFFER_TIMOUT_SECS_KEY, DEFAULT_QUEUE_OFFER_TIMEOUT_SECS)
+          .put(QUEUE_OVERFLOW_POLICY_KEY, DEFAULT_QUEUE_OVERFLOW_POLICY)
+          .put(BATCH_SIZE_KEY, DEFAULT_BATCH_SIZE)
+          .put(BATCH_FLUSH_INTERVAL_MILLIS_KEY, DEFAULT_BATCH_FLUSH_INTERVAL_MILLIS)
           .build());
 
 
@@ -106,8 +143,8 @@ public abstract class EventReporter extends ScheduledReporter implements Closeab
     super(builder.context, builder.name, builder.filter, builder.rateUnit, builder.durationUnit);
 
     this.closer = Closer.create();
-    this.immediateReportExecutor = MoreExecutors.getExitingExecutorService(
-        (ThreadPoolExecutor) Executors.newFixedThreadPool(1,
+    this.immediateReportExecutor = MoreExecutors.getExitingScheduledExecutorService(
+        (ScheduledThreadPoolExecutor) Executors.newScheduledThreadPool(1,
             ExecutorsUtils.newThreadFactory(Optional.of(LOGGER), Optional.of("EventReporter-" + builder.name + "-%d"))),
         5, TimeUnit.MINUTES);
 
@@ -124,7 +161,48 @@ public abstract class EventReporter extends ScheduledReporter implements Closeab
     this.config = builder.config.withFallback(FALLBACK);
     this.queueCapacity = this.config.getInt(QUEUE_CAPACITY_KEY);
     this.queueOfferTimeoutSecs = this.config.getInt(QUEUE_OFFER_TIMOUT_SECS_KEY);
-    this.reportingQueue = Queues.newLinkedBlockingQueue(this.queueCapacity);
+    this.batchSize = this.config.getInt(BATCH_SIZE_KEY);
+    Preconditions.checkArgument(this.batchSize > 0, BATCH_SIZE_KEY + " must be positive.");
+    this.reportingQueue = new EventRingBuffer(this.queueCapacity,
+        EventRingBuffer.OverflowPolicy.valueOf(this.config.getString(QUEUE_OVERFLOW_POLICY_KEY).toUpperCase()));
+    this.immediateReportThreshold = Math.max(1, Math.min(this.batchSize, this.queueCapacity * 2 / 3));
+
+    String metricPrefix = JOINER.join(METRIC_KEY_PREFIX, REPORTER_METRICS_QUALIFIER, getClass().getSimpleName());
+    this.queueDepthGaugeName = JOINER.join(metricPrefix, QUEUE_DEPTH);
+    this.queueDepthGaugeRegistered = registerQueueDepthGauge();
+    this.droppedEventsMeter = this.metricContext.contextAwareMeter(JOINER.join(metricPrefix, DROPPED_EVENTS));
+    this.coalescedEventsMeter = this.metricContext.contextAwareMeter(JOINER.join(metricPrefix, COALESCED_EVENTS));
+    this.sinkLatencyTimer = this.metricContext.contextAwareTimer(JOINER.join(metricPrefix, SINK_LATENCY));
+
+    long flushIntervalMillis = this.config.getLong(BATCH_FLUSH_INTERVAL_MILLIS_KEY);
+    if (flushIntervalMillis > 0) {
+      this.immediateReportExecutor.scheduleWithFixedDelay(new Runnable() {
+        @Override
+        public void run() {
+          report();
+        }
+      }, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Register the buffer depth gauge, unless another reporter of the same class already did for this context.
+   */
+  private boolean registerQueueDepthGauge() {
+    ContextAwareGauge<Integer> queueDepthGauge = this.metricContext.newContextAwareGauge(this.queueDepthGaugeName,
+        new Gauge<Integer>() {
+          @Override
+          public Integer getValue() {
+            return reportingQueue.size();
+          }
+        });
+    try {
+      this.metricContext.register(this.queueDepthGaugeName, queueDepthGauge);
+      return true;
+    } catch (IllegalArgumentException iae) {
+      LOGGER.debug("Gauge {} is already registered.", this.queueDepthGaugeName);
+      return false;
+    }
   }
 
   /**
@@ -143,26 +221,57 @@ public abstract class EventReporter extends ScheduledReporter implements Closeab
    * @param event {@link org.apache.gobblin.metrics.GobblinTrackingEvent} to add to queue.
    */
   public void addEventToReportingQueue(GobblinTrackingEvent event) {
-    if (this.reportingQueue.size() > this.queueCapacity * 2 / 3) {
+    if (this.reportingQueue.size() >= this.immediateReportThreshold) {
       immediatelyScheduleReport();
     }
     try {
-      if (!this.reportingQueue.offer(sanitizeEvent(event), this.queueOfferTimeoutSecs, TimeUnit.SECONDS)) {
-        log.error("Enqueuing of event {} at reporter with class {} timed out. Sending of events is probably stuck.",
-            event, this.getClass().getCanonicalName());
+      switch (this.reportingQueue.offer(sanitizeEvent(event), this.queueOfferTimeoutSecs, TimeUnit.SECONDS)) {
+        case TIMED_OUT:
+          this.droppedEventsMeter.mark();
+          log.error("Enqueuing of event {} at reporter with class {} timed out. Sending of events is probably stuck.",
+              event, this.getClass().getCanonicalName());
+          break;
+        case DROPPED_OLDEST:
+          this.droppedEventsMeter.mark();
+          break;
+        case COALESCED:
+          this.coalescedEventsMeter.mark();
+          break;
+        default:
+          break;
       }
     } catch (InterruptedException ie) {
+      this.droppedEventsMeter.mark();
       log.warn("Enqueuing of event {} at reporter with class {} was interrupted.", event,
           this.getClass().getCanonicalName(), ie);
     }
   }
 
   /**
-   * Report all {@link org.apache.gobblin.metrics.GobblinTrackingEvent}s in the queue.
+   * Report all {@link org.apache.gobblin.metrics.GobblinTrackingEvent}s in the queue, in batches of at most
+   * {@link #getBatchSize()} events. Events added while reporting are left for the next report.
    */
   @Override
   public void report() {
-    reportEventQueue(this.reportingQueue);
+    synchronized (this.reportLock) {
+      Queue<GobblinTrackingEvent> batch = new ArrayDeque<>(Math.min(this.batchSize, this.queueCapacity));
+      int remaining = this.reportingQueue.size();
+      while (remaining > 0) {
+        int drained = this.reportingQueue.drainTo(batch, Math.min(remaining, this.batchSize));
+        if (drained == 0) {
+          break;
+        }
+        remaining -= drained;
+
+        ContextAwareTimer.Context timer = this.sinkLatencyTimer.time();
+        try {
+          reportEventQueue(batch);
+        } finally {
+          timer.stop();
+          batch.clear();
+        }
+      }
+    }
   }
 
   /**
@@ -194,9 +303,13 @@ public abstract class EventReporter extends ScheduledReporter implements Closeab
   }
 
   private void immediatelyScheduleReport() {
+    if (!this.immediateReportScheduled.compareAndSet(false, true)) {
+      return;
+    }
     this.immediateReportExecutor.submit(new Runnable() {
       @Override
       public void run() {
+        immediateReportScheduled.set(false);
         report();
       }
     });
@@ -237,6 +350,10 @@ public abstract class EventReporter extends ScheduledReporter implements Closeab
     try {
       this.metricContext.removeNotificationTarget(this.notificationTargetKey);
       report();
+      this.immediateReportExecutor.shutdown();
+      if (this.queueDepthGaugeRegistered) {
+        this.metricContext.remove(this.queueDepthGaugeName);
+      }
       this.closer.close();
     } catch (Exception e) {
       LOGGER.warn("Exception when closing EventReporter", e);
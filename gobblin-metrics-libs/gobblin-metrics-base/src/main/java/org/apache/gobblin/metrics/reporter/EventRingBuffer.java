@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.metrics.reporter;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+
+import lombok.Getter;
+
+import org.apache.gobblin.metrics.GobblinTrackingEvent;
+
+
+/**
+ * A bounded ring buffer of {@link GobblinTrackingEvent}s used by {@link EventReporter} to decouple event producers
+ * from the sink.
+ *
+ * <p>
+ *   What happens when the buffer is full is decided by its {@link OverflowPolicy}. With
+ *   {@link OverflowPolicy#COALESCE}, an event identical to a buffered one (same namespace, name and metadata) is
+ *   always merged into the buffered event instead of taking a slot; when the merged event is drained, its metadata
+ *   contains the number of merged events under {@link #COALESCED_COUNT_KEY} and it keeps the timestamp of the first
+ *   event. The buffer does not modify the offered events, which may be shared with other reporters: a merged event is
+ *   drained as a copy with its own metadata.
+ * </p>
+ */
+public class EventRingBuffer {
+
+  public static final String COALESCED_COUNT_KEY = "coalescedEventCount";
+
+  /**
+   * What to do with a new event when the buffer is full.
+   */
+  public enum OverflowPolicy {
+    /** Block the producer until there is space in the buffer or the offer times out. */
+    BLOCK,
+    /** Evict the oldest buffered event. */
+    DROP_OLDEST,
+    /** Merge identical events into a single event with a count, and evict the oldest event if still full. */
+    COALESCE
+  }
+
+  /**
+   * Outcome of {@link #offer(GobblinTrackingEvent, long, TimeUnit)}.
+   */
+  public enum OfferResult {
+    ADDED,
+    COALESCED,
+    DROPPED_OLDEST,
+    TIMED_OUT
+  }
+
+  @Getter
+  private final OverflowPolicy overflowPolicy;
+  private final GobblinTrackingEvent[] events;
+  private final int[] counts;
+  // Coalescing key of each buffered event and sequence number of the buffered event for each coalescing key, only
+  // used with OverflowPolicy.COALESCE
+  private final CoalescingKey[] keys;
+  private final Map<CoalescingKey, Long> pendingEvents;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notFull = this.lock.newCondition();
+  // Sequence number of the oldest buffered event
+  private long head = 0;
+  // Sequence number of the next offered event
+  private long tail = 0;
+
+  public EventRingBuffer(int capacity, OverflowPolicy overflowPolicy) {
+    Preconditions.checkArgument(capacity > 0, "Capacity must be positive.");
+    this.overflowPolicy = overflowPolicy;
+    this.events = new GobblinTrackingEvent[capacity];
+    this.counts = new int[capacity];
+    this.keys = overflowPolicy == OverflowPolicy.COALESCE ? new CoalescingKey[capacity] : null;
+    this.pendingEvents = overflowPolicy == OverflowPolicy.COALESCE ? Maps.newHashMapWithExpectedSize(capacity) : null;
+  }
+
+  /**
+   * Add an event to the buffer, applying the {@link OverflowPolicy} if the buffer is full. The timeout is only used
+   * by {@link OverflowPolicy#BLOCK}.
+   */
+  public OfferResult offer(GobblinTrackingEvent event, long timeout, TimeUnit unit) throws InterruptedException {
+    CoalescingKey key = this.pendingEvents == null ? null : new CoalescingKey(event);
+    long remainingNanos = unit.toNanos(timeout);
+
+    this.lock.lockInterruptibly();
+    try {
+      if (key != null) {
+        Long sequence = this.pendingEvents.get(key);
+        if (sequence != null && sequence >= this.head) {
+          this.counts[index(sequence)]++;
+          return OfferResult.COALESCED;
+        }
+      }
+
+      OfferResult result = OfferResult.ADDED;
+      while (sizeUnderLock() == this.events.length) {
+        if (this.overflowPolicy == OverflowPolicy.BLOCK) {
+          if (remainingNanos <= 0) {
+            return OfferResult.TIMED_OUT;
+          }
+          remainingNanos = this.notFull.awaitNanos(remainingNanos);
+        } else {
+          removeOldest();
+          result = OfferResult.DROPPED_OLDEST;
+        }
+      }
+
+      int index = index(this.tail);
+      this.events[index] = event;
+      this.counts[index] = 1;
+      if (key != null) {
+        this.keys[index] = key;
+        this.pendingEvents.put(key, this.tail);
+      }
+      this.tail++;
+      return result;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Move up to {@code maxEvents} of the oldest buffered events to the given collection.
+   * @return the number of events moved.
+   */
+  public int drainTo(Collection<? super GobblinTrackingEvent> collection, int maxEvents) {
+    this.lock.lock();
+    try {
+      int drained = 0;
+      while (drained < maxEvents && sizeUnderLock() > 0) {
+        collection.add(removeOldest());
+        drained++;
+      }
+      if (drained > 0) {
+        this.notFull.signalAll();
+      }
+      return drained;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  public int size() {
+    this.lock.lock();
+    try {
+      return sizeUnderLock();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  public int getCapacity() {
+    return this.events.length;
+  }
+
+  private int sizeUnderLock() {
+    return (int) (this.tail - this.head);
+  }
+
+  private int index(long sequence) {
+    return (int) (sequence % this.events.length);
+  }
+
+  private GobblinTrackingEvent removeOldest() {
+    int index = index(this.head);
+    GobblinTrackingEvent event = this.events[index];
+    int count = this.counts[index];
+    this.events[index] = null;
+    this.head++;
+
+    if (this.pendingEvents != null) {
+      this.pendingEvents.remove(this.keys[index]);
+      this.keys[index] = null;
+      if (count > 1) {
+        Map<String, String> metadata = new HashMap<>(event.getMetadata());
+        metadata.put(COALESCED_COUNT_KEY, Integer.toString(count));
+        return new GobblinTrackingEvent(event.getTimestamp(), event.getNamespace(), event.getName(), metadata);
+      }
+    }
+    return event;
+  }
+
+  /**
+   * Identity of an event for coalescing: everything but its timestamp. The metadata is copied, since the event can be
+   * modified after it is buffered.
+   */
+  private static class CoalescingKey {
+    private final String namespace;
+    private final String name;
+    private final Map<String, String> metadata;
+    private final int hashCode;
+
+    CoalescingKey(GobblinTrackingEvent event) {
+      this.namespace = event.getNamespace();
+      this.name = event.getName();
+      this.metadata = new HashMap<>(event.getMetadata());
+      this.hashCode = Objects.hashCode(this.namespace, this.name, this.metadata);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CoalescingKey)) {
+        return false;
+      }
+      CoalescingKey other = (CoalescingKey) o;
+      return this.hashCode == other.hashCode && Objects.equal(this.namespace, other.namespace)
+          && Objects.equal(this.name, other.name) && Objects.equal(this.metadata, other.metadata);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hashCode;
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.metrics.event;
+
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+
+import org.apache.gobblin.metrics.GobblinTrackingEvent;
+import org.apache.gobblin.metrics.MetricContext;
+import org.apache.gobblin.metrics.notification.EventNotification;
+
+
+public class EventSubmitterTest {
+
+  @Test
+  public void testNullMetadataValue() {
+    MetricContext context = new MetricContext.Builder("name").build();
+    final List<GobblinTrackingEvent> events = Lists.newArrayList();
+    context.addNotificationTarget(input -> {
+      if (input instanceof EventNotification) {
+        events.add(((EventNotification) input).getEvent());
+      }
+      return null;
+    });
+
+    EventSubmitter submitter = new EventSubmitter.Builder(context, "namespace").addMetadata("key", null).build();
+    submitter.submit("event", "otherKey", "value");
+
+    Assert.assertEquals(events.size(), 1);
+    Map<String, String> metadata = events.get(0).getMetadata();
+    Assert.assertTrue(metadata.containsKey("key"));
+    Assert.assertNull(metadata.get("key"));
+    Assert.assertEquals(metadata.get("otherKey"), "value");
+  }
+}
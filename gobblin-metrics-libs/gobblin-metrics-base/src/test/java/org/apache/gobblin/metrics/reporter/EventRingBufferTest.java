@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.metrics.reporter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.gobblin.metrics.GobblinTrackingEvent;
+
+
+public class EventRingBufferTest {
+
+  @Test
+  public void testBlock() throws Exception {
+    EventRingBuffer buffer = new EventRingBuffer(2, EventRingBuffer.OverflowPolicy.BLOCK);
+    Assert.assertEquals(buffer.offer(event("e1", "1"), 0, TimeUnit.MILLISECONDS), EventRingBuffer.OfferResult.ADDED);
+    Assert.assertEquals(buffer.offer(event("e2", "1"), 0, TimeUnit.MILLISECONDS), EventRingBuffer.OfferResult.ADDED);
+    Assert.assertEquals(buffer.offer(event("e3", "1"), 10, TimeUnit.MILLISECONDS),
+        EventRingBuffer.OfferResult.TIMED_OUT);
+    Assert.assertEquals(buffer.size(), 2);
+
+    List<GobblinTrackingEvent> drained = Lists.newArrayList();
+    Assert.assertEquals(buffer.drainTo(drained, 1), 1);
+    Assert.assertEquals(drained.get(0).getName(), "e1");
+    Assert.assertEquals(buffer.offer(event("e3", "1"), 0, TimeUnit.MILLISECONDS), EventRingBuffer.OfferResult.ADDED);
+
+    drained.clear();
+    Assert.assertEquals(buffer.drainTo(drained, 10), 2);
+    Assert.assertEquals(drained.get(0).getName(), "e2");
+    Assert.assertEquals(drained.get(1).getName(), "e3");
+    Assert.assertEquals(buffer.size(), 0);
+  }
+
+  @Test
+  public void testDropOldest() throws Exception {
+    EventRingBuffer buffer = new EventRingBuffer(2, EventRingBuffer.OverflowPolicy.DROP_OLDEST);
+    buffer.offer(event("e1", "1"), 0, TimeUnit.MILLISECONDS);
+    buffer.offer(event("e2", "1"), 0, TimeUnit.MILLISECONDS);
+    Assert.assertEquals(buffer.offer(event("e3", "1"), 0, TimeUnit.MILLISECONDS),
+        EventRingBuffer.OfferResult.DROPPED_OLDEST);
+
+    List<GobblinTrackingEvent> drained = Lists.newArrayList();
+    buffer.drainTo(drained, 10);
+    Assert.assertEquals(drained.size(), 2);
+    Assert.assertEquals(drained.get(0).getName(), "e2");
+    Assert.assertEquals(drained.get(1).getName(), "e3");
+  }
+
+  @Test
+  public void testCoalesce() throws Exception {
+    EventRingBuffer buffer = new EventRingBuffer(2, EventRingBuffer.OverflowPolicy.COALESCE);
+    Assert.assertEquals(buffer.offer(event("e1", "1"), 0, TimeUnit.MILLISECONDS), EventRingBuffer.OfferResult.ADDED);
+    Assert.assertEquals(buffer.offer(event("e1", "1"), 0, TimeUnit.MILLISECONDS),
+        EventRingBuffer.OfferResult.COALESCED);
+    Assert.assertEquals(buffer.offer(event("e1", "2"), 0, TimeUnit.MILLISECONDS), EventRingBuffer.OfferResult.ADDED);
+    Assert.assertEquals(buffer.offer(event("e1", "1"), 0, TimeUnit.MILLISECONDS),
+        EventRingBuffer.OfferResult.COALESCED);
+    Assert.assertEquals(buffer.size(), 2);
+
+    // A different event evicts the oldest one when the buffer is full
+    Assert.assertEquals(buffer.offer(event("e2", "1"), 0, TimeUnit.MILLISECONDS),
+        EventRingBuffer.OfferResult.DROPPED_OLDEST);
+
+    List<GobblinTrackingEvent> drained = Lists.newArrayList();
+    buffer.drainTo(drained, 10);
+    Assert.assertEquals(drained.size(), 2);
+    Assert.assertEquals(drained.get(0).getMetadata().get("key"), "2");
+    Assert.assertFalse(drained.get(0).getMetadata().containsKey(EventRingBuffer.COALESCED_COUNT_KEY));
+    Assert.assertEquals(drained.get(1).getName(), "e2");
+
+    // Once drained, an event no longer coalesces with new ones
+    buffer.offer(event("e1", "1"), 0, TimeUnit.MILLISECONDS);
+    buffer.offer(event("e1", "1"), 0, TimeUnit.MILLISECONDS);
+    buffer.offer(event("e1", "1"), 0, TimeUnit.MILLISECONDS);
+    drained.clear();
+    buffer.drainTo(drained, 10);
+    Assert.assertEquals(drained.size(), 1);
+    Assert.assertEquals(drained.get(0).getMetadata().get(EventRingBuffer.COALESCED_COUNT_KEY), "3");
+  }
+
+  @Test
+  public void testCoalesceEventsSharedByReporters() throws Exception {
+    // Each reporter has its own buffer, but the events are the same instances
+    EventRingBuffer buffer1 = new EventRingBuffer(2, EventRingBuffer.OverflowPolicy.COALESCE);
+    EventRingBuffer buffer2 = new EventRingBuffer(2, EventRingBuffer.OverflowPolicy.COALESCE);
+    GobblinTrackingEvent first = event("e1", "1");
+    GobblinTrackingEvent second = event("e1", "1");
+    for (GobblinTrackingEvent event : Lists.newArrayList(first, second)) {
+      buffer1.offer(event, 0, TimeUnit.MILLISECONDS);
+      buffer2.offer(event, 0, TimeUnit.MILLISECONDS);
+    }
+
+    List<GobblinTrackingEvent> drained = Lists.newArrayList();
+    buffer1.drainTo(drained, 10);
+    Assert.assertEquals(drained.size(), 1);
+    Assert.assertEquals(drained.get(0).getMetadata().get(EventRingBuffer.COALESCED_COUNT_KEY), "2");
+    // The shared event is not modified by the buffer
+    Assert.assertFalse(first.getMetadata().containsKey(EventRingBuffer.COALESCED_COUNT_KEY));
+
+    // Another reporter modifies the metadata of the shared event while it is buffered
+    first.getMetadata().put("sanitized", "true");
+    drained.clear();
+    buffer2.drainTo(drained, 10);
+    Assert.assertEquals(drained.size(), 1);
+    Assert.assertEquals(drained.get(0).getMetadata().get(EventRingBuffer.COALESCED_COUNT_KEY), "2");
+    Assert.assertEquals(buffer2.size(), 0);
+
+    // New identical events are buffered again rather than merged into the drained event
+    Assert.assertEquals(buffer2.offer(event("e1", "1"), 0, TimeUnit.MILLISECONDS),
+        EventRingBuffer.OfferResult.ADDED);
+    drained.clear();
+    buffer2.drainTo(drained, 10);
+    Assert.assertEquals(drained.size(), 1);
+    Assert.assertFalse(drained.get(0).getMetadata().containsKey(EventRingBuffer.COALESCED_COUNT_KEY));
+  }
+
+  private static GobblinTrackingEvent event(String name, String value) {
+    Map<String, String> metadata = Maps.newHashMap();
+    metadata.put("key", value);
+    return new GobblinTrackingEvent(0L, "namespace", name, metadata);
+  }
+}
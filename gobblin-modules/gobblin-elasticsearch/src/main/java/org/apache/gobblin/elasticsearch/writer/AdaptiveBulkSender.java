@@ -0,0 +1,354 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gobblin.elasticsearch.writer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.gobblin.metrics.MetricContext;
+import org.apache.gobblin.util.ConfigUtils;
+import org.apache.gobblin.util.ExecutorsUtils;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.rest.RestStatus;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.typesafe.config.Config;
+
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Sends the bulk request of each batch as several bulk requests sized by bytes, with several of them in flight.
+ *
+ * <p>
+ *   The target size of a bulk request adapts to the cluster: it grows by the minimum size after each bulk request
+ *   answered within half the target latency, and is halved after a bulk request slower than the target latency, with
+ *   rejected items, or failed. Up to {@link ElasticsearchWriterConfigurationKeys#BULK_MAX_IN_FLIGHT} bulk requests are
+ *   in flight, and {@link #send(BulkClient, BulkRequest, ActionListener)} blocks until one of them is done.
+ * </p>
+ *
+ * <p>
+ *   Items rejected by a full write queue (429) or an unavailable shard (503) are sent again, without the other items
+ *   of their bulk request, up to {@link ElasticsearchWriterConfigurationKeys#BULK_MAX_ITEM_RETRIES} times with an
+ *   exponential backoff. Once all the bulk requests of a batch are done, the listener of the batch gets a single
+ *   {@link BulkResponse} with an item for each request of the batch, in order. Listeners are called in the order the
+ *   batches were sent, so a batch is acknowledged after all the batches sent before it.
+ * </p>
+ */
+@Slf4j
+public class AdaptiveBulkSender implements Closeable {
+  // Estimated bytes of a request in a bulk besides its source, as counted by BulkRequest
+  private static final int REQUEST_OVERHEAD_BYTES = 50;
+
+  /**
+   * Sends a bulk request asynchronously
+   */
+  public interface BulkClient {
+    void bulk(BulkRequest bulkRequest, ActionListener<BulkResponse> listener);
+  }
+
+  private final long minBulkBytes;
+  private final long maxBulkBytes;
+  private final long targetLatencyMillis;
+  private final int maxItemRetries;
+  private final long retryBackoffMillis;
+
+  private final Semaphore inFlightBulks;
+  private final ScheduledExecutorService retryExecutor;
+  // Batches not acknowledged yet, in the order they were sent
+  private final Deque<PendingBatch> pendingBatches = new ArrayDeque<>();
+  private long targetBulkBytes;
+
+  private final Timer bulkLatency;
+  private final Meter rejectedItems;
+  private final Meter retriedItems;
+  private final Meter failedBulks;
+
+  public AdaptiveBulkSender(Config config, MetricContext metricContext) {
+    this.minBulkBytes = ConfigUtils.getLong(config, ElasticsearchWriterConfigurationKeys.BULK_MIN_BYTES,
+        ElasticsearchWriterConfigurationKeys.BULK_MIN_BYTES_DEFAULT);
+    this.maxBulkBytes = ConfigUtils.getLong(config, ElasticsearchWriterConfigurationKeys.BULK_MAX_BYTES,
+        ElasticsearchWriterConfigurationKeys.BULK_MAX_BYTES_DEFAULT);
+    Preconditions.checkArgument(this.minBulkBytes > 0 && this.minBulkBytes <= this.maxBulkBytes,
+        "Invalid bulk sizes: [%s, %s]", this.minBulkBytes, this.maxBulkBytes);
+    this.targetBulkBytes = Math.max(this.minBulkBytes, Math.min(this.maxBulkBytes,
+        ConfigUtils.getLong(config, ElasticsearchWriterConfigurationKeys.BULK_INITIAL_BYTES,
+            ElasticsearchWriterConfigurationKeys.BULK_INITIAL_BYTES_DEFAULT)));
+    this.targetLatencyMillis = ConfigUtils.getLong(config, ElasticsearchWriterConfigurationKeys.BULK_TARGET_LATENCY_MILLIS,
+        ElasticsearchWriterConfigurationKeys.BULK_TARGET_LATENCY_MILLIS_DEFAULT);
+    this.maxItemRetries = ConfigUtils.getInt(config, ElasticsearchWriterConfigurationKeys.BULK_MAX_ITEM_RETRIES,
+        ElasticsearchWriterConfigurationKeys.BULK_MAX_ITEM_RETRIES_DEFAULT);
+    this.retryBackoffMillis = ConfigUtils.getLong(config, ElasticsearchWriterConfigurationKeys.BULK_RETRY_BACKOFF_MILLIS,
+        ElasticsearchWriterConfigurationKeys.BULK_RETRY_BACKOFF_MILLIS_DEFAULT);
+    int maxInFlight = ConfigUtils.getInt(config, ElasticsearchWriterConfigurationKeys.BULK_MAX_IN_FLIGHT,
+        ElasticsearchWriterConfigurationKeys.BULK_MAX_IN_FLIGHT_DEFAULT);
+    Preconditions.checkArgument(maxInFlight > 0, "Max bulk requests in flight should be a positive number");
+    this.inFlightBulks = new Semaphore(maxInFlight);
+    this.retryExecutor = Executors.newSingleThreadScheduledExecutor(
+        ExecutorsUtils.newDaemonThreadFactory(Optional.of(log), Optional.of("ElasticsearchBulkRetry-%d")));
+
+    this.bulkLatency = metricContext.timer("elasticsearch.bulk.latency");
+    this.rejectedItems = metricContext.meter("elasticsearch.bulk.rejectedItems");
+    this.retriedItems = metricContext.meter("elasticsearch.bulk.retriedItems");
+    this.failedBulks = metricContext.meter("elasticsearch.bulk.failures");
+
+    log.info("Sending adaptive bulk requests of {} bytes in [{}, {}], targeting {} ms with up to {} in flight",
+        this.targetBulkBytes, this.minBulkBytes, this.maxBulkBytes, this.targetLatencyMillis, maxInFlight);
+  }
+
+  /**
+   * Send the {@link IndexRequest}s of a batch, blocking while the maximum number of bulk requests are in flight
+   */
+  public void send(BulkClient client, BulkRequest batchRequest, ActionListener<BulkResponse> listener) {
+    List<DocWriteRequest> requests = batchRequest.requests();
+    PendingBatch batch = new PendingBatch(requests.size(), listener);
+    List<Bulk> bulks = split(batch, requests);
+    batch.remainingBulks.set(bulks.size());
+    synchronized (this.pendingBatches) {
+      this.pendingBatches.add(batch);
+    }
+    if (bulks.isEmpty()) {
+      acknowledgeDoneBatches();
+      return;
+    }
+
+    for (int i = 0; i < bulks.size(); i++) {
+      try {
+        this.inFlightBulks.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        batch.fail(e);
+        for (int j = i; j < bulks.size(); j++) {
+          completeBatchBulk(batch);
+        }
+        return;
+      }
+      sendBulk(client, bulks.get(i), 0);
+    }
+  }
+
+  private List<Bulk> split(PendingBatch batch, List<DocWriteRequest> requests) {
+    long maxBytes = getTargetBulkBytes();
+    List<Bulk> bulks = new ArrayList<>();
+    Bulk bulk = null;
+    for (int i = 0; i < requests.size(); i++) {
+      IndexRequest request = (IndexRequest) requests.get(i);
+      if (bulk == null || bulk.bytes + estimateBytes(request) > maxBytes) {
+        bulk = new Bulk(batch);
+        bulks.add(bulk);
+      }
+      bulk.add(i, request);
+    }
+    return bulks;
+  }
+
+  private void sendBulk(BulkClient client, Bulk bulk, int attempt) {
+    BulkRequest bulkRequest = new BulkRequest();
+    for (IndexRequest request : bulk.requests) {
+      bulkRequest.add(request);
+    }
+
+    long startNanos = System.nanoTime();
+    try {
+      client.bulk(bulkRequest, new ActionListener<BulkResponse>() {
+        @Override
+        public void onResponse(BulkResponse bulkResponse) {
+          onBulkResponse(client, bulk, attempt, startNanos, bulkResponse);
+        }
+
+        @Override
+        public void onFailure(Exception e) {
+          onBulkFailure(bulk, startNanos, e);
+        }
+      });
+    } catch (RuntimeException e) {
+      onBulkFailure(bulk, startNanos, e);
+    }
+  }
+
+  private void onBulkResponse(BulkClient client, Bulk bulk, int attempt, long startNanos, BulkResponse bulkResponse) {
+    long latencyNanos = System.nanoTime() - startNanos;
+    this.bulkLatency.update(latencyNanos, TimeUnit.NANOSECONDS);
+
+    BulkItemResponse[] items = bulkResponse.getItems();
+    if (items.length != bulk.requests.size()) {
+      bulk.batch.fail(new IllegalStateException(
+          "Got " + items.length + " items for a bulk request of " + bulk.requests.size() + " requests"));
+      onBatchBulkDone(bulk.batch);
+      return;
+    }
+    Bulk retry = new Bulk(bulk.batch);
+    int rejected = 0;
+    for (int i = 0; i < items.length; i++) {
+      BulkItemResponse item = items[i];
+      if (item.isFailed() && isRejection(item.getFailure().getStatus())) {
+        rejected++;
+        if (attempt < this.maxItemRetries) {
+          retry.add(bulk.batchIndices.get(i), bulk.requests.get(i));
+          continue;
+        }
+      }
+      bulk.batch.items[bulk.batchIndices.get(i)] = item;
+    }
+    if (rejected > 0) {
+      this.rejectedItems.mark(rejected);
+    }
+    adjustTargetBulkBytes(TimeUnit.NANOSECONDS.toMillis(latencyNanos), rejected > 0);
+
+    if (retry.requests.isEmpty()) {
+      onBatchBulkDone(bulk.batch);
+      return;
+    }
+    // The retry keeps the permit of the bulk request it comes from
+    this.retriedItems.mark(retry.requests.size());
+    long backoffMillis = this.retryBackoffMillis << attempt;
+    log.debug("Retrying {} rejected items in {} ms", retry.requests.size(), backoffMillis);
+    try {
+      this.retryExecutor.schedule(() -> sendBulk(client, retry, attempt + 1), backoffMillis, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      bulk.batch.fail(e);
+      onBatchBulkDone(bulk.batch);
+    }
+  }
+
+  private void onBulkFailure(Bulk bulk, long startNanos, Exception e) {
+    this.bulkLatency.update(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    this.failedBulks.mark();
+    adjustTargetBulkBytes(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), true);
+    bulk.batch.fail(e);
+    onBatchBulkDone(bulk.batch);
+  }
+
+  private void onBatchBulkDone(PendingBatch batch) {
+    this.inFlightBulks.release();
+    completeBatchBulk(batch);
+  }
+
+  private void completeBatchBulk(PendingBatch batch) {
+    if (batch.remainingBulks.decrementAndGet() == 0) {
+      acknowledgeDoneBatches();
+    }
+  }
+
+  private void acknowledgeDoneBatches() {
+    synchronized (this.pendingBatches) {
+      while (!this.pendingBatches.isEmpty() && this.pendingBatches.peek().remainingBulks.get() == 0) {
+        this.pendingBatches.poll().acknowledge();
+      }
+    }
+  }
+
+  private synchronized void adjustTargetBulkBytes(long latencyMillis, boolean overloaded) {
+    long previousBytes = this.targetBulkBytes;
+    if (overloaded || latencyMillis > this.targetLatencyMillis) {
+      this.targetBulkBytes = Math.max(this.minBulkBytes, this.targetBulkBytes / 2);
+    } else if (latencyMillis < this.targetLatencyMillis / 2) {
+      this.targetBulkBytes = Math.min(this.maxBulkBytes, this.targetBulkBytes + this.minBulkBytes);
+    }
+    if (this.targetBulkBytes != previousBytes) {
+      log.debug("Bulk size changed from {} to {} bytes after a bulk request of {} ms, overloaded: {}", previousBytes,
+          this.targetBulkBytes, latencyMillis, overloaded);
+    }
+  }
+
+  @VisibleForTesting
+  synchronized long getTargetBulkBytes() {
+    return this.targetBulkBytes;
+  }
+
+  private static boolean isRejection(RestStatus status) {
+    return status == RestStatus.TOO_MANY_REQUESTS || status == RestStatus.SERVICE_UNAVAILABLE;
+  }
+
+  private static long estimateBytes(IndexRequest request) {
+    return (request.source() == null ? 0 : request.source().length()) + REQUEST_OVERHEAD_BYTES;
+  }
+
+  @Override
+  public void close() throws IOException {
+    ExecutorsUtils.shutdownExecutorService(this.retryExecutor, Optional.of(log));
+  }
+
+  /**
+   * A bulk request for some of the requests of a batch
+   */
+  private static class Bulk {
+    private final PendingBatch batch;
+    private final List<Integer> batchIndices = new ArrayList<>();
+    private final List<IndexRequest> requests = new ArrayList<>();
+    private long bytes = 0;
+
+    Bulk(PendingBatch batch) {
+      this.batch = batch;
+    }
+
+    void add(int batchIndex, IndexRequest request) {
+      this.batchIndices.add(batchIndex);
+      this.requests.add(request);
+      this.bytes += estimateBytes(request);
+    }
+  }
+
+  /**
+   * A batch whose bulk requests are not all done or which is not acknowledged yet
+   */
+  private static class PendingBatch {
+    private final BulkItemResponse[] items;
+    private final ActionListener<BulkResponse> listener;
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger remainingBulks = new AtomicInteger();
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    PendingBatch(int numRequests, ActionListener<BulkResponse> listener) {
+      this.items = new BulkItemResponse[numRequests];
+      this.listener = listener;
+    }
+
+    void fail(Exception e) {
+      this.failure.compareAndSet(null, e);
+    }
+
+    void acknowledge() {
+      if (this.failure.get() != null) {
+        this.listener.onFailure(this.failure.get());
+      } else {
+        this.listener.onResponse(
+            new BulkResponse(this.items, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.startNanos)));
+      }
+    }
+  }
+}
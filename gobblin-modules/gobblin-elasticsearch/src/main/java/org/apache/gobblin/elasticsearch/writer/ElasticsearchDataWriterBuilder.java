@@ -21,6 +21,7 @@ import java.util.Properties;
 
 import org.apache.gobblin.util.ConfigUtils;
 import org.apache.gobblin.writer.AsyncWriterManager;
+import org.apache.gobblin.writer.Batch;
 import org.apache.gobblin.writer.BatchAsyncDataWriter;
 import org.apache.gobblin.writer.BufferedAsyncDataWriter;
 import org.apache.gobblin.writer.DataWriter;
@@ -29,6 +30,7 @@ import org.apache.gobblin.writer.SequentialBasedBatchAccumulator;
 
 import com.google.gson.JsonObject;
 import com.typesafe.config.Config;
+import com.typesafe.config.ConfigValueFactory;
 
 import org.apache.gobblin.configuration.State;
 
@@ -41,7 +43,16 @@ public class ElasticsearchDataWriterBuilder extends DataWriterBuilder {
     Properties taskProps = state.getProperties();
     Config config = ConfigUtils.propertiesToConfig(taskProps);
 
-    SequentialBasedBatchAccumulator<JsonObject> batchAccumulator = new SequentialBasedBatchAccumulator<>(taskProps);
+    Config accumulatorConfig = config;
+    if (ConfigUtils.getBoolean(config, ElasticsearchWriterConfigurationKeys.ADAPTIVE_BULK_ENABLED,
+        ElasticsearchWriterConfigurationKeys.ADAPTIVE_BULK_ENABLED_DEFAULT) && !config.hasPath(Batch.BATCH_SIZE)) {
+      // Accumulate batches up to the largest bulk request, the adaptive bulk sender splits them to the current size
+      accumulatorConfig = config.withValue(Batch.BATCH_SIZE, ConfigValueFactory.fromAnyRef(
+          ConfigUtils.getLong(config, ElasticsearchWriterConfigurationKeys.BULK_MAX_BYTES,
+              ElasticsearchWriterConfigurationKeys.BULK_MAX_BYTES_DEFAULT)));
+    }
+    SequentialBasedBatchAccumulator<JsonObject> batchAccumulator =
+        new SequentialBasedBatchAccumulator<>(accumulatorConfig);
 
     BatchAsyncDataWriter asyncDataWriter;
     switch (ElasticsearchWriterConfigurationKeys.ClientType.valueOf(
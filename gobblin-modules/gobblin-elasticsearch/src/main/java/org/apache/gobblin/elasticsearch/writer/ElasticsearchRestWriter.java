@@ -186,7 +186,8 @@ public class ElasticsearchRestWriter extends ElasticsearchWriterBase implements
 
     Pair<BulkRequest, FutureCallbackHolder> preparedBatch = this.prepareBatch(batch, callback);
     try {
-      client.bulkAsync(preparedBatch.getFirst(), preparedBatch.getSecond().getActionListener());
+      bulk((request, listener) -> client.bulkAsync(request, listener), preparedBatch.getFirst(),
+          preparedBatch.getSecond().getActionListener());
       return preparedBatch.getSecond().getFuture();
     }
     catch (Exception e) {
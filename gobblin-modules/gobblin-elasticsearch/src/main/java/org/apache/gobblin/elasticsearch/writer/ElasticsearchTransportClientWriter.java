@@ -78,7 +78,8 @@ class ElasticsearchTransportClientWriter extends ElasticsearchWriterBase impleme
   public Future<WriteResponse> write(Batch<Object> batch, @Nullable WriteCallback callback) {
 
     Pair<BulkRequest, FutureCallbackHolder> preparedBatch = this.prepareBatch(batch, callback);
-    client.bulk(preparedBatch.getFirst(), preparedBatch.getSecond().getActionListener());
+    bulk((request, listener) -> client.bulk(request, listener), preparedBatch.getFirst(),
+        preparedBatch.getSecond().getActionListener());
     return preparedBatch.getSecond().getFuture();
 
   }
@@ -26,17 +26,22 @@ import java.util.List;
 
 import org.apache.commons.lang3.reflect.ConstructorUtils;
 import org.apache.commons.math3.util.Pair;
+import org.apache.gobblin.configuration.State;
 import org.apache.gobblin.elasticsearch.typemapping.JsonSerializer;
 import org.apache.gobblin.elasticsearch.typemapping.TypeMapper;
+import org.apache.gobblin.instrumented.Instrumented;
 import org.apache.gobblin.util.ConfigUtils;
 import org.apache.gobblin.writer.Batch;
 import org.apache.gobblin.writer.WriteCallback;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.common.transport.InetSocketTransportAddress;
 import org.elasticsearch.common.xcontent.XContentType;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
 import com.google.common.base.Throwables;
@@ -57,6 +62,7 @@ public abstract class ElasticsearchWriterBase implements Closeable {
   protected final String idFieldName;
   List<InetSocketTransportAddress> hostAddresses;
   protected final MalformedDocPolicy malformedDocPolicy;
+  protected final Optional<AdaptiveBulkSender> adaptiveBulkSender;
 
   ElasticsearchWriterBase(Config config)
       throws UnknownHostException {
@@ -96,6 +102,14 @@ public abstract class ElasticsearchWriterBase implements Closeable {
         ElasticsearchWriterConfigurationKeys.ELASTICSEARCH_WRITER_MALFORMED_DOC_POLICY,
         ElasticsearchWriterConfigurationKeys.ELASTICSEARCH_WRITER_MALFORMED_DOC_POLICY_DEFAULT));
 
+    if (ConfigUtils.getBoolean(config, ElasticsearchWriterConfigurationKeys.ADAPTIVE_BULK_ENABLED,
+        ElasticsearchWriterConfigurationKeys.ADAPTIVE_BULK_ENABLED_DEFAULT)) {
+      this.adaptiveBulkSender = Optional.of(new AdaptiveBulkSender(config,
+          Instrumented.getMetricContext(new State(ConfigUtils.configToProperties(config)), AdaptiveBulkSender.class)));
+    } else {
+      this.adaptiveBulkSender = Optional.absent();
+    }
+
     // If list is empty, connect to the default host and port
     if (!config.hasPath(ElasticsearchWriterConfigurationKeys.ELASTICSEARCH_WRITER_HOSTS)) {
       InetSocketTransportAddress hostAddress = new InetSocketTransportAddress(
@@ -160,9 +174,24 @@ public abstract class ElasticsearchWriterBase implements Closeable {
     return new Pair(bulkRequest, futureCallbackHolder);
   }
 
+  /**
+   * Send the bulk request of a batch with the client, through the {@link AdaptiveBulkSender} if it is enabled
+   */
+  protected void bulk(AdaptiveBulkSender.BulkClient client, BulkRequest bulkRequest,
+      ActionListener<BulkResponse> listener) {
+    if (this.adaptiveBulkSender.isPresent()) {
+      this.adaptiveBulkSender.get().send(client, bulkRequest, listener);
+    } else {
+      client.bulk(bulkRequest, listener);
+    }
+  }
+
   @Override
   public void close() throws IOException {
     this.serializer.close();
+    if (this.adaptiveBulkSender.isPresent()) {
+      this.adaptiveBulkSender.get().close();
+    }
   }
 
 }
@@ -60,6 +60,24 @@ public class ElasticsearchWriterConfigurationKeys {
   static final String FAILURE_ALLOWANCE_PCT_CONFIG = prefix("failureAllowancePercentage");
   static final double FAILURE_ALLOWANCE_PCT_DEFAULT = 0.0;
 
+  //Adaptive Bulk Configuration, see AdaptiveBulkSender
+  public static final String ADAPTIVE_BULK_ENABLED = prefix("bulk.adaptive.enabled");
+  public static final boolean ADAPTIVE_BULK_ENABLED_DEFAULT = false;
+  public static final String BULK_INITIAL_BYTES = prefix("bulk.initialBytes");
+  public static final long BULK_INITIAL_BYTES_DEFAULT = 5 * 1024 * 1024;
+  public static final String BULK_MIN_BYTES = prefix("bulk.minBytes");
+  public static final long BULK_MIN_BYTES_DEFAULT = 512 * 1024;
+  public static final String BULK_MAX_BYTES = prefix("bulk.maxBytes");
+  public static final long BULK_MAX_BYTES_DEFAULT = 15 * 1024 * 1024;
+  public static final String BULK_TARGET_LATENCY_MILLIS = prefix("bulk.targetLatencyMillis");
+  public static final long BULK_TARGET_LATENCY_MILLIS_DEFAULT = 2000;
+  public static final String BULK_MAX_IN_FLIGHT = prefix("bulk.maxInFlight");
+  public static final int BULK_MAX_IN_FLIGHT_DEFAULT = 4;
+  public static final String BULK_MAX_ITEM_RETRIES = prefix("bulk.maxItemRetries");
+  public static final int BULK_MAX_ITEM_RETRIES_DEFAULT = 3;
+  public static final String BULK_RETRY_BACKOFF_MILLIS = prefix("bulk.retryBackoffMillis");
+  public static final long BULK_RETRY_BACKOFF_MILLIS_DEFAULT = 200;
+
   public enum ClientType {
     TRANSPORT,
     REST
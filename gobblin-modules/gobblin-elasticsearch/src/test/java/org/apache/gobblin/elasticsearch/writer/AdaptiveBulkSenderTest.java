@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gobblin.elasticsearch.writer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.gobblin.configuration.State;
+import org.apache.gobblin.instrumented.Instrumented;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.rest.RestStatus;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+
+@Slf4j
+public class AdaptiveBulkSenderTest {
+  // Each request is estimated to 150 bytes, so bulk requests of 300 bytes hold 2 requests
+  private static final String SOURCE = "{\"field\":\"" + Strings.repeat("x", 88) + "\"}";
+
+  private static AdaptiveBulkSender createSender(long initialBytes) {
+    Config config = ConfigFactory.parseMap(ImmutableMap.<String, Object>builder()
+        .put(ElasticsearchWriterConfigurationKeys.BULK_INITIAL_BYTES, initialBytes)
+        .put(ElasticsearchWriterConfigurationKeys.BULK_MIN_BYTES, 300)
+        .put(ElasticsearchWriterConfigurationKeys.BULK_MAX_BYTES, 3000)
+        .put(ElasticsearchWriterConfigurationKeys.BULK_TARGET_LATENCY_MILLIS, 10000)
+        .put(ElasticsearchWriterConfigurationKeys.BULK_MAX_IN_FLIGHT, 8)
+        .put(ElasticsearchWriterConfigurationKeys.BULK_MAX_ITEM_RETRIES, 2)
+        .put(ElasticsearchWriterConfigurationKeys.BULK_RETRY_BACKOFF_MILLIS, 1)
+        .build());
+    return new AdaptiveBulkSender(config, Instrumented.getMetricContext(new State(), AdaptiveBulkSenderTest.class));
+  }
+
+  private static BulkRequest createBatch(int firstId, int numRequests) {
+    BulkRequest bulkRequest = new BulkRequest();
+    for (int i = firstId; i < firstId + numRequests; i++) {
+      bulkRequest.add(new IndexRequest("test", "test", Integer.toString(i)).source(SOURCE, XContentType.JSON));
+    }
+    return bulkRequest;
+  }
+
+  private static BulkItemResponse item(DocWriteRequest request, boolean rejected) {
+    BulkItemResponse item = Mockito.mock(BulkItemResponse.class);
+    Mockito.when(item.getId()).thenReturn(request.id());
+    Mockito.when(item.isFailed()).thenReturn(rejected);
+    if (rejected) {
+      BulkItemResponse.Failure failure = Mockito.mock(BulkItemResponse.Failure.class);
+      Mockito.when(failure.getStatus()).thenReturn(RestStatus.TOO_MANY_REQUESTS);
+      Mockito.when(item.getFailure()).thenReturn(failure);
+    }
+    return item;
+  }
+
+  private static List<String> ids(BulkRequest bulkRequest) {
+    List<String> ids = new ArrayList<>();
+    for (DocWriteRequest request : bulkRequest.requests()) {
+      ids.add(request.id());
+    }
+    return ids;
+  }
+
+  /**
+   * Answers bulk requests right away, rejecting the requests with the given ids once
+   */
+  private static class RejectingClient implements AdaptiveBulkSender.BulkClient {
+    private final Set<String> toReject;
+    private final List<List<String>> bulks = new CopyOnWriteArrayList<>();
+
+    RejectingClient(String... toReject) {
+      this.toReject = Collections.synchronizedSet(new HashSet<>());
+      Collections.addAll(this.toReject, toReject);
+    }
+
+    @Override
+    public void bulk(BulkRequest bulkRequest, ActionListener<BulkResponse> listener) {
+      this.bulks.add(ids(bulkRequest));
+      List<DocWriteRequest> requests = bulkRequest.requests();
+      BulkItemResponse[] items = new BulkItemResponse[requests.size()];
+      for (int i = 0; i < items.length; i++) {
+        items[i] = item(requests.get(i), this.toReject.remove(requests.get(i).id()));
+      }
+      listener.onResponse(new BulkResponse(items, 1));
+    }
+  }
+
+  private static class CollectingListener implements ActionListener<BulkResponse> {
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile BulkResponse response;
+    private volatile Exception failure;
+
+    @Override
+    public void onResponse(BulkResponse bulkResponse) {
+      this.response = bulkResponse;
+      this.done.countDown();
+    }
+
+    @Override
+    public void onFailure(Exception e) {
+      this.failure = e;
+      this.done.countDown();
+    }
+
+    BulkResponse await() throws InterruptedException {
+      Assert.assertTrue(this.done.await(10, TimeUnit.SECONDS), "The batch was not acknowledged");
+      Assert.assertNull(this.failure);
+      return this.response;
+    }
+  }
+
+  @Test
+  public void testSplitsBatchAndRetriesRejectedItems() throws Exception {
+    AdaptiveBulkSender sender = createSender(300);
+    RejectingClient client = new RejectingClient("3");
+    CollectingListener listener = new CollectingListener();
+
+    sender.send(client, createBatch(0, 6), listener);
+    BulkResponse response = listener.await();
+
+    Assert.assertFalse(response.hasFailures());
+    List<String> responseIds = new ArrayList<>();
+    for (BulkItemResponse item : response.getItems()) {
+      responseIds.add(item.getId());
+    }
+    Assert.assertEquals(responseIds, ids(createBatch(0, 6)));
+
+    // Only the rejected item is sent again
+    Assert.assertEquals(client.bulks.size(), 4);
+    Assert.assertEquals(client.bulks.get(1), Arrays.asList("2", "3"));
+    Assert.assertEquals(client.bulks.get(3), Collections.singletonList("3"));
+    sender.close();
+  }
+
+  @Test
+  public void testRejectedItemsAreReturnedAfterMaxRetries() throws Exception {
+    AdaptiveBulkSender sender = createSender(3000);
+    AdaptiveBulkSender.BulkClient client = (bulkRequest, listener) -> {
+      List<DocWriteRequest> requests = bulkRequest.requests();
+      BulkItemResponse[] items = new BulkItemResponse[requests.size()];
+      for (int i = 0; i < items.length; i++) {
+        items[i] = item(requests.get(i), "1".equals(requests.get(i).id()));
+      }
+      listener.onResponse(new BulkResponse(items, 1));
+    };
+    CollectingListener listener = new CollectingListener();
+
+    sender.send(client, createBatch(0, 3), listener);
+    BulkResponse response = listener.await();
+
+    Assert.assertTrue(response.hasFailures());
+    Assert.assertFalse(response.getItems()[0].isFailed());
+    Assert.assertTrue(response.getItems()[1].isFailed());
+    Assert.assertFalse(response.getItems()[2].isFailed());
+    sender.close();
+  }
+
+  @Test
+  public void testAcknowledgesBatchesInOrder() throws Exception {
+    AdaptiveBulkSender sender = createSender(3000);
+    List<ActionListener<BulkResponse>> heldListeners = new CopyOnWriteArrayList<>();
+    List<BulkRequest> heldRequests = new CopyOnWriteArrayList<>();
+    RejectingClient answeringClient = new RejectingClient();
+    AdaptiveBulkSender.BulkClient holdingClient = (bulkRequest, listener) -> {
+      heldRequests.add(bulkRequest);
+      heldListeners.add(listener);
+    };
+
+    CollectingListener first = new CollectingListener();
+    CollectingListener second = new CollectingListener();
+    sender.send(holdingClient, createBatch(0, 2), first);
+    sender.send(answeringClient, createBatch(2, 2), second);
+
+    // The second batch is done, but waits for the first one
+    Assert.assertEquals(answeringClient.bulks.size(), 1);
+    Assert.assertEquals(second.done.getCount(), 1);
+
+    answeringClient.bulk(heldRequests.get(0), heldListeners.get(0));
+    Assert.assertEquals(first.await().getItems().length, 2);
+    Assert.assertEquals(second.await().getItems().length, 2);
+    sender.close();
+  }
+
+  @Test
+  public void testFailedBulkFailsBatch() throws Exception {
+    AdaptiveBulkSender sender = createSender(300);
+    CollectingListener listener = new CollectingListener();
+
+    sender.send((bulkRequest, bulkListener) -> bulkListener.onFailure(new RuntimeException("Failed")),
+        createBatch(0, 4), listener);
+
+    Assert.assertTrue(listener.done.await(10, TimeUnit.SECONDS));
+    Assert.assertNotNull(listener.failure);
+    sender.close();
+  }
+
+  @Test
+  public void testBulkSizeAdaptsToRejections() throws Exception {
+    AdaptiveBulkSender sender = createSender(1200);
+
+    // Fast responses grow the bulk size by the minimum size
+    sender.send(new RejectingClient(), createBatch(0, 2), new CollectingListener());
+    Assert.assertEquals(sender.getTargetBulkBytes(), 1500);
+
+    // Rejections halve it
+    CollectingListener listener = new CollectingListener();
+    sender.send(new RejectingClient("0"), createBatch(0, 2), listener);
+    listener.await();
+    Assert.assertTrue(sender.getTargetBulkBytes() < 1500, "Bulk size should shrink on rejections");
+    sender.close();
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import org.apache.gobblin.async.AsyncRequest;
+import org.apache.gobblin.async.AsyncRequestBuilder;
+import org.apache.gobblin.async.BufferedRecord;
+import org.apache.gobblin.broker.SharedResourcesBrokerFactory;
+import org.apache.gobblin.broker.gobblin_scopes.GobblinScopeTypes;
+import org.apache.gobblin.configuration.WorkUnitState;
+import org.apache.gobblin.http.ApacheHttpClient;
+import org.apache.gobblin.http.ApacheHttpResponseHandler;
+import org.apache.gobblin.utils.HttpConstants;
+
+
+/**
+ * Writes records one request each to a local stub server, which serves up to {@link #SERVER_THREADS} requests at a
+ * time in {@link #SERVICE_TIME_MS} each and queues the others, with one request at a time and with adaptive
+ * concurrency.
+ */
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@org.openjdk.jmh.annotations.Fork(value = 1)
+@BenchmarkMode(value = Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AsyncHttpWriterBenchmark {
+  private static final int SERVER_THREADS = 8;
+  private static final long SERVICE_TIME_MS = 5;
+  private static final int NUM_RECORDS = 200;
+  private static final byte[] RESPONSE = "ok".getBytes(StandardCharsets.UTF_8);
+
+  @State(value = Scope.Benchmark)
+  public static class StubServerState {
+    @Param({"false", "true"})
+    public boolean adaptiveConcurrency;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String url;
+
+    @Setup
+    public void setup() throws IOException {
+      // Without it, small responses wait for delayed acknowledgements and every request takes about 40ms
+      System.setProperty("sun.net.httpserver.nodelay", "true");
+      this.serverExecutor = Executors.newFixedThreadPool(SERVER_THREADS);
+      this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+      this.server.createContext("/", StubServerState::serve);
+      this.server.setExecutor(this.serverExecutor);
+      this.server.start();
+      this.url = "http://localhost:" + this.server.getAddress().getPort() + "/records";
+    }
+
+    private static void serve(HttpExchange exchange) throws IOException {
+      try (InputStream is = exchange.getRequestBody()) {
+        ByteStreams.exhaust(is);
+      }
+      try {
+        Thread.sleep(SERVICE_TIME_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.getResponseHeaders().add("Content-Type", "text/plain");
+      exchange.sendResponseHeaders(200, RESPONSE.length);
+      try (OutputStream os = exchange.getResponseBody()) {
+        os.write(RESPONSE);
+      }
+    }
+
+    @TearDown
+    public void tearDown() {
+      this.server.stop(0);
+      this.serverExecutor.shutdownNow();
+    }
+  }
+
+  @Benchmark
+  public void writeRecords(StubServerState state) throws Exception {
+    StubWriterBuilder builder = new StubWriterBuilder(state.url, state.adaptiveConcurrency);
+    AsyncHttpWriter<String, HttpUriRequest, CloseableHttpResponse> writer = new AsyncHttpWriter<>(builder);
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      writer.write("record" + i, WriteCallback.EMPTY);
+    }
+    writer.close();
+  }
+
+  private static class StubWriterBuilder extends AsyncHttpWriterBuilder<String, HttpUriRequest, CloseableHttpResponse> {
+    StubWriterBuilder(String url, boolean adaptiveConcurrency) {
+      Config config = ConfigFactory.parseMap(ImmutableMap.<String, Object>of(
+          HttpConstants.URL_TEMPLATE, url,
+          ApacheHttpClient.POOLING_CONN_MANAGER_MAX_PER_CONN, 2 * SERVER_THREADS,
+          ApacheHttpClient.POOLING_CONN_MANAGER_MAX_TOTAL_CONN, 2 * SERVER_THREADS));
+      this.state = new WorkUnitState();
+      this.client = new ApacheHttpClient(HttpClientBuilder.create(), config,
+          SharedResourcesBrokerFactory.createDefaultTopLevelBroker(ConfigFactory.empty(),
+              GobblinScopeTypes.GLOBAL.defaultScopeInstance()));
+      this.asyncRequestBuilder = new StubRequestBuilder(url);
+      this.responseHandler = new ApacheHttpResponseHandler<>();
+      this.queueCapacity = NUM_RECORDS;
+      this.maxAttempts = AsyncHttpWriter.DEFAULT_MAX_ATTEMPTS;
+      this.adaptiveConcurrencyEnabled = adaptiveConcurrency;
+      this.initialConcurrency = AsyncHttpWriter.DEFAULT_INITIAL_CONCURRENCY;
+      this.minConcurrency = AsyncHttpWriter.DEFAULT_MIN_CONCURRENCY;
+      this.maxConcurrency = 2 * SERVER_THREADS;
+      this.concurrencyBackoffRatio = AsyncHttpWriter.DEFAULT_CONCURRENCY_BACKOFF_RATIO;
+      this.latencyTolerance = AsyncHttpWriter.DEFAULT_LATENCY_TOLERANCE;
+    }
+
+    @Override
+    public AsyncHttpWriterBuilder<String, HttpUriRequest, CloseableHttpResponse> fromConfig(Config config) {
+      return this;
+    }
+  }
+
+  private static class StubRequestBuilder implements AsyncRequestBuilder<String, HttpUriRequest> {
+    private final String url;
+
+    StubRequestBuilder(String url) {
+      this.url = url;
+    }
+
+    @Override
+    public AsyncRequest<String, HttpUriRequest> buildRequest(Queue<BufferedRecord<String>> buffer) {
+      BufferedRecord<String> record = buffer.poll();
+      if (record == null) {
+        return null;
+      }
+      HttpPost post = new HttpPost(this.url);
+      post.setEntity(new StringEntity(record.getRecord(), ContentType.TEXT_PLAIN));
+      AsyncRequest<String, HttpUriRequest> request = new AsyncRequest<>();
+      request.markRecord(record, record.getRecord().length());
+      request.setRawRequest(post);
+      return request;
+    }
+  }
+}
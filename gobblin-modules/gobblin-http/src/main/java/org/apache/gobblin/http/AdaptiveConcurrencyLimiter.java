@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+
+/**
+ * Limits the number of requests in flight to an endpoint, with a limit adapted to the observed latencies and errors
+ * with additive increase, multiplicative decrease (AIMD).
+ *
+ * <p>
+ *   The limit grows by about one for each limit-full of successful requests, as long as the requests use the whole
+ *   limit. It is multiplied by the backoff ratio when a request fails because the endpoint is overloaded, see
+ *   {@link #onOverload(long)}, or when a request takes longer than the latency tolerance times the baseline latency.
+ *   The baseline is the lowest latency of the previous window of samples, so it follows an endpoint which becomes
+ *   slower for good. The limit is only decreased for requests sent after the previous decrease, so a burst of slow
+ *   requests in flight counts as a single signal.
+ * </p>
+ */
+@ThreadSafe
+public class AdaptiveConcurrencyLimiter {
+  private static final int WINDOW_SIZE = 100;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double backoffRatio;
+  private final double latencyTolerance;
+
+  private final Lock lock = new ReentrantLock();
+  private final Condition permitReleased = lock.newCondition();
+
+  private double limit;
+  private int inFlight = 0;
+  private boolean decreased = false;
+  private long lastDecreaseNanos;
+
+  private long baselineLatencyNanos = Long.MAX_VALUE;
+  private long windowMinLatencyNanos = Long.MAX_VALUE;
+  private int windowSamples = 0;
+
+  /**
+   * @param initialLimit the limit to start with
+   * @param minLimit the lowest limit
+   * @param maxLimit the highest limit
+   * @param backoffRatio the ratio the limit is multiplied by on a decrease, in (0, 1)
+   * @param latencyTolerance how many times slower than the baseline a request can be before decreasing the limit
+   */
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+      double latencyTolerance) {
+    Preconditions.checkArgument(minLimit > 0 && minLimit <= maxLimit, "Invalid limits: [%s, %s]", minLimit, maxLimit);
+    Preconditions.checkArgument(backoffRatio > 0 && backoffRatio < 1, "Backoff ratio should be in (0, 1)");
+    Preconditions.checkArgument(latencyTolerance > 1, "Latency tolerance should be greater than 1");
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.backoffRatio = backoffRatio;
+    this.latencyTolerance = latencyTolerance;
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+  }
+
+  /**
+   * Wait until a request can be sent without exceeding the limit, and count it as in flight
+   */
+  public void acquire() throws InterruptedException {
+    this.lock.lock();
+    try {
+      while (this.inFlight >= (int) this.limit) {
+        this.permitReleased.await();
+      }
+      this.inFlight++;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Count a request acquired by {@link #acquire()} as done
+   */
+  public void release() {
+    this.lock.lock();
+    try {
+      this.inFlight--;
+      this.permitReleased.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Record a request sent at {@code startNanos}, as given by {@link System#nanoTime()}, that succeeded
+   */
+  public void onSuccess(long startNanos) {
+    long latencyNanos = System.nanoTime() - startNanos;
+    this.lock.lock();
+    try {
+      this.windowMinLatencyNanos = Math.min(this.windowMinLatencyNanos, latencyNanos);
+      if (++this.windowSamples >= WINDOW_SIZE) {
+        this.baselineLatencyNanos = this.windowMinLatencyNanos;
+        this.windowMinLatencyNanos = Long.MAX_VALUE;
+        this.windowSamples = 0;
+      }
+
+      long baseline = Math.min(this.baselineLatencyNanos, this.windowMinLatencyNanos);
+      if (latencyNanos > this.latencyTolerance * baseline) {
+        decrease(startNanos);
+      } else if (this.inFlight >= (int) this.limit) {
+        // Only grow a limit which is actually used, the request is still counted in flight
+        this.limit = Math.min(this.maxLimit, this.limit + 1 / this.limit);
+        this.permitReleased.signalAll();
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Record a request sent at {@code startNanos}, as given by {@link System#nanoTime()}, that failed because the
+   * endpoint is overloaded or unavailable, e.g. with a server error or a timeout
+   */
+  public void onOverload(long startNanos) {
+    this.lock.lock();
+    try {
+      decrease(startNanos);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void decrease(long startNanos) {
+    if (this.decreased && startNanos - this.lastDecreaseNanos < 0) {
+      return;
+    }
+    this.limit = Math.max(this.minLimit, this.limit * this.backoffRatio);
+    this.decreased = true;
+    this.lastDecreaseNanos = System.nanoTime();
+  }
+
+  /**
+   * Wait until no request is in flight
+   *
+   * @return false if the timeout elapsed before
+   */
+  public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+    long remainingNanos = unit.toNanos(timeout);
+    this.lock.lock();
+    try {
+      while (this.inFlight > 0) {
+        if (remainingNanos <= 0) {
+          return false;
+        }
+        remainingNanos = this.permitReleased.awaitNanos(remainingNanos);
+      }
+      return true;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  public int getLimit() {
+    this.lock.lock();
+    try {
+      return (int) this.limit;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  public int getInFlight() {
+    this.lock.lock();
+    try {
+      return this.inFlight;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+}
@@ -19,6 +19,10 @@ package org.apache.gobblin.writer;
 
 import java.io.IOException;
 import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.gobblin.instrumented.Instrumented;
 import org.apache.gobblin.metrics.MetricContext;
@@ -26,21 +30,33 @@ import org.apache.gobblin.metrics.event.FailureEventBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Optional;
+
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.gobblin.async.AsyncRequest;
 import org.apache.gobblin.async.AsyncRequestBuilder;
 import org.apache.gobblin.async.BufferedRecord;
 import org.apache.gobblin.async.DispatchException;
+import org.apache.gobblin.http.AdaptiveConcurrencyLimiter;
 import org.apache.gobblin.http.HttpClient;
 import org.apache.gobblin.http.ResponseHandler;
 import org.apache.gobblin.http.ResponseStatus;
+import org.apache.gobblin.util.ExecutorsUtils;
 
 
 /**
  * This class is an {@link AsyncHttpWriter} that writes data in a batch, which
  * is sent via http request
  *
+ * <p>
+ *   By default, one request is sent at a time by the dispatcher thread. With adaptive concurrency enabled, requests
+ *   are sent by a pool of threads, and an {@link AdaptiveConcurrencyLimiter} bounds the requests in flight according to
+ *   the observed latencies, server errors and send failures. Once the limit is reached the dispatcher stops taking
+ *   records from the buffer, so writers are blocked until the endpoint catches up. The {@link HttpClient} must then be
+ *   thread safe, and pool enough connections for the maximum concurrency.
+ * </p>
+ *
  * @param <D> type of record
  * @param <RQ> type of request
  * @param <RP> type of response
@@ -52,6 +68,12 @@ public class AsyncHttpWriter<D, RQ, RP> extends AbstractAsyncDataWriter<D> {
   private static final String FATAL_ASYNC_HTTP_WRITE_EVENT = "fatalAsyncHttpWrite";
 
   public static final int DEFAULT_MAX_ATTEMPTS = 3;
+  public static final boolean DEFAULT_ADAPTIVE_CONCURRENCY_ENABLED = false;
+  public static final int DEFAULT_INITIAL_CONCURRENCY = 1;
+  public static final int DEFAULT_MIN_CONCURRENCY = 1;
+  public static final int DEFAULT_MAX_CONCURRENCY = 32;
+  public static final double DEFAULT_CONCURRENCY_BACKOFF_RATIO = 0.75;
+  public static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
 
   private final HttpClient<RQ, RP> httpClient;
   private final ResponseHandler<RQ, RP> responseHandler;
@@ -60,6 +82,11 @@ public class AsyncHttpWriter<D, RQ, RP> extends AbstractAsyncDataWriter<D> {
 
   private final MetricContext context;
 
+  private final Optional<AdaptiveConcurrencyLimiter> concurrencyLimiter;
+  private final Optional<ExecutorService> sendExecutor;
+  // The first fatal failure of a request sent by the send executor
+  private final AtomicReference<DispatchException> sendFailure = new AtomicReference<>();
+
   public AsyncHttpWriter(AsyncHttpWriterBuilder builder) {
     super(builder.getQueueCapacity());
     this.httpClient = builder.getClient();
@@ -67,23 +94,87 @@ public class AsyncHttpWriter<D, RQ, RP> extends AbstractAsyncDataWriter<D> {
     this.responseHandler = builder.getResponseHandler();
     this.maxAttempts = builder.getMaxAttempts();
     this.context = Instrumented.getMetricContext(builder.getState(), AsyncHttpWriter.class);
+
+    if (builder.isAdaptiveConcurrencyEnabled()) {
+      this.concurrencyLimiter = Optional.of(new AdaptiveConcurrencyLimiter(builder.getInitialConcurrency(),
+          builder.getMinConcurrency(), builder.getMaxConcurrency(), builder.getConcurrencyBackoffRatio(),
+          builder.getLatencyTolerance()));
+      this.sendExecutor = Optional.of(Executors.newFixedThreadPool(builder.getMaxConcurrency(),
+          ExecutorsUtils.newDaemonThreadFactory(Optional.of(LOG), Optional.of("AsyncHttpWriter-%d"))));
+      LOG.info("Sending up to {} concurrent requests with adaptive concurrency", builder.getMaxConcurrency());
+    } else {
+      this.concurrencyLimiter = Optional.absent();
+      this.sendExecutor = Optional.absent();
+    }
   }
 
   @Override
   protected void dispatch(Queue<BufferedRecord<D>> buffer) throws DispatchException {
-    AsyncRequest<D, RQ> asyncRequest = requestBuilder.buildRequest(buffer);
+    if (!this.concurrencyLimiter.isPresent()) {
+      AsyncRequest<D, RQ> asyncRequest = requestBuilder.buildRequest(buffer);
+      if (asyncRequest != null) {
+        send(asyncRequest);
+      }
+      return;
+    }
+
+    DispatchException failure = this.sendFailure.get();
+    if (failure != null) {
+      throw failure;
+    }
+
+    // Wait for a permit before taking records, so the buffer fills up and blocks writers while the limit is reached
+    AdaptiveConcurrencyLimiter limiter = this.concurrencyLimiter.get();
+    try {
+      limiter.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DispatchException("Interrupted while waiting to send a request", e);
+    }
+
+    AsyncRequest<D, RQ> asyncRequest;
+    try {
+      asyncRequest = requestBuilder.buildRequest(buffer);
+    } catch (RuntimeException e) {
+      limiter.release();
+      throw e;
+    }
     if (asyncRequest == null) {
+      limiter.release();
       return;
     }
 
+    this.sendExecutor.get().execute(() -> {
+      try {
+        send(asyncRequest);
+      } catch (DispatchException e) {
+        if (e.isFatal()) {
+          this.sendFailure.compareAndSet(null, e);
+        }
+      } catch (RuntimeException e) {
+        DispatchException de = new DispatchException("Write failed on " + e.getClass().getSimpleName(), e);
+        onFailure(asyncRequest, de);
+        this.sendFailure.compareAndSet(null, de);
+      } finally {
+        limiter.release();
+      }
+    });
+  }
+
+  /**
+   * Send the request with retries, and call the callbacks of its records
+   */
+  private void send(AsyncRequest<D, RQ> asyncRequest) throws DispatchException {
     RQ rawRequest = asyncRequest.getRawRequest();
     RP response;
 
     int attempt = 0;
     while (attempt < maxAttempts) {
+      long startNanos = System.nanoTime();
       try {
           response = httpClient.sendRequest(rawRequest);
       } catch (Exception e) {
+        onOverload(startNanos);
         // Retry
         attempt++;
         if (attempt == maxAttempts) {
@@ -102,12 +193,14 @@ public class AsyncHttpWriter<D, RQ, RP> extends AbstractAsyncDataWriter<D> {
       switch (status.getType()) {
         case OK:
           // Write succeeds
+          onSuccess(startNanos);
           onSuccess(asyncRequest, status);
           return;
         case CONTINUE:
           LOG.debug("Http write continues");
           LOG.debug(asyncRequest.toString());
 
+          onSuccess(startNanos);
           onSuccess(asyncRequest, status);
           return;
         case CLIENT_ERROR:
@@ -120,6 +213,7 @@ public class AsyncHttpWriter<D, RQ, RP> extends AbstractAsyncDataWriter<D> {
           throw clientExp;
         case SERVER_ERROR:
           // Server side error. Retry
+          onOverload(startNanos);
           attempt++;
           if (attempt == maxAttempts) {
             LOG.error("Http write request failed on server error");
@@ -133,6 +227,18 @@ public class AsyncHttpWriter<D, RQ, RP> extends AbstractAsyncDataWriter<D> {
     }
   }
 
+  private void onSuccess(long startNanos) {
+    if (this.concurrencyLimiter.isPresent()) {
+      this.concurrencyLimiter.get().onSuccess(startNanos);
+    }
+  }
+
+  private void onOverload(long startNanos) {
+    if (this.concurrencyLimiter.isPresent()) {
+      this.concurrencyLimiter.get().onOverload(startNanos);
+    }
+  }
+
   /**
    * Callback on sending the asyncRequest successfully
    */
@@ -184,13 +290,42 @@ public class AsyncHttpWriter<D, RQ, RP> extends AbstractAsyncDataWriter<D> {
     }
   }
 
+  /**
+   * Wait for the buffer to be empty and, with adaptive concurrency, for the requests in flight to be done
+   */
+  @Override
+  public void flush()
+      throws IOException {
+    super.flush();
+    if (!this.concurrencyLimiter.isPresent()) {
+      return;
+    }
+
+    try {
+      this.concurrencyLimiter.get().awaitIdle(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for requests in flight", e);
+    }
+    DispatchException failure = this.sendFailure.get();
+    if (failure != null) {
+      throw new IOException("Failed to send a request", failure);
+    }
+  }
+
   @Override
   public void close()
       throws IOException {
     try {
       super.close();
     } finally {
-      httpClient.close();
+      try {
+        if (this.sendExecutor.isPresent()) {
+          ExecutorsUtils.shutdownExecutorService(this.sendExecutor.get(), Optional.of(LOG));
+        }
+      } finally {
+        httpClient.close();
+      }
     }
   }
 }
@@ -27,6 +27,7 @@ import org.apache.gobblin.broker.iface.SharedResourcesBroker;
 import org.apache.gobblin.config.ConfigBuilder;
 import org.apache.gobblin.configuration.State;
 import org.apache.gobblin.configuration.WorkUnitState;
+import org.apache.gobblin.http.ApacheHttpClient;
 import org.apache.gobblin.http.HttpClient;
 import org.apache.gobblin.http.ResponseHandler;
 import org.apache.gobblin.instrumented.Instrumented;
@@ -51,12 +52,24 @@ public abstract class AsyncHttpWriterBuilder<D, RQ, RP> extends FluentDataWriter
 
   private static final String MAX_OUTSTANDING_WRITES = "maxOutstandingWrites";
   private static final String MAX_ATTEMPTS = "maxAttempts";
+  private static final String ADAPTIVE_CONCURRENCY_ENABLED = "adaptiveConcurrency.enabled";
+  private static final String INITIAL_CONCURRENCY = "adaptiveConcurrency.initial";
+  private static final String MIN_CONCURRENCY = "adaptiveConcurrency.min";
+  private static final String MAX_CONCURRENCY = "adaptiveConcurrency.max";
+  private static final String CONCURRENCY_BACKOFF_RATIO = "adaptiveConcurrency.backoffRatio";
+  private static final String LATENCY_TOLERANCE = "adaptiveConcurrency.latencyTolerance";
 
   private static final Config FALLBACK =
       ConfigFactory.parseMap(ImmutableMap.<String, Object>builder()
           .put(HttpConstants.ERROR_CODE_WHITELIST, "")
           .put(MAX_OUTSTANDING_WRITES, AsyncWriterManager.MAX_OUTSTANDING_WRITES_DEFAULT)
           .put(MAX_ATTEMPTS, AsyncHttpWriter.DEFAULT_MAX_ATTEMPTS)
+          .put(ADAPTIVE_CONCURRENCY_ENABLED, AsyncHttpWriter.DEFAULT_ADAPTIVE_CONCURRENCY_ENABLED)
+          .put(INITIAL_CONCURRENCY, AsyncHttpWriter.DEFAULT_INITIAL_CONCURRENCY)
+          .put(MIN_CONCURRENCY, AsyncHttpWriter.DEFAULT_MIN_CONCURRENCY)
+          .put(MAX_CONCURRENCY, AsyncHttpWriter.DEFAULT_MAX_CONCURRENCY)
+          .put(CONCURRENCY_BACKOFF_RATIO, AsyncHttpWriter.DEFAULT_CONCURRENCY_BACKOFF_RATIO)
+          .put(LATENCY_TOLERANCE, AsyncHttpWriter.DEFAULT_LATENCY_TOLERANCE)
           .build());
 
   @Getter
@@ -75,6 +88,18 @@ public abstract class AsyncHttpWriterBuilder<D, RQ, RP> extends FluentDataWriter
   protected SharedResourcesBroker<GobblinScopeTypes> broker = null;
   @Getter
   protected int maxAttempts;
+  @Getter
+  protected boolean adaptiveConcurrencyEnabled;
+  @Getter
+  protected int initialConcurrency;
+  @Getter
+  protected int minConcurrency;
+  @Getter
+  protected int maxConcurrency;
+  @Getter
+  protected double concurrencyBackoffRatio;
+  @Getter
+  protected double latencyTolerance;
   private int maxOutstandingWrites;
 
   /**
@@ -100,6 +125,23 @@ public abstract class AsyncHttpWriterBuilder<D, RQ, RP> extends FluentDataWriter
     config = config.withFallback(FALLBACK);
     this.maxOutstandingWrites = config.getInt(MAX_OUTSTANDING_WRITES);
     this.maxAttempts = config.getInt(MAX_ATTEMPTS);
+    this.adaptiveConcurrencyEnabled = config.getBoolean(ADAPTIVE_CONCURRENCY_ENABLED);
+    this.initialConcurrency = config.getInt(INITIAL_CONCURRENCY);
+    this.minConcurrency = config.getInt(MIN_CONCURRENCY);
+    this.maxConcurrency = config.getInt(MAX_CONCURRENCY);
+    this.concurrencyBackoffRatio = config.getDouble(CONCURRENCY_BACKOFF_RATIO);
+    this.latencyTolerance = config.getDouble(LATENCY_TOLERANCE);
+    if (this.adaptiveConcurrencyEnabled) {
+      // A basic connection manager holds a single connection, which concurrent requests can't share
+      Preconditions.checkArgument(!config.hasPath(ApacheHttpClient.HTTP_CONN_MANAGER) || !config
+              .getString(ApacheHttpClient.HTTP_CONN_MANAGER).equalsIgnoreCase(ApacheHttpClient.ConnManager.BASIC.name()),
+          "Adaptive concurrency requires the " + ApacheHttpClient.ConnManager.POOLING.name() + " connection manager");
+      // Pool a connection for each concurrent request, unless the pool is configured
+      config = config.withFallback(ConfigFactory.parseMap(ImmutableMap.<String, Object>of(
+          ApacheHttpClient.HTTP_CONN_MANAGER, ApacheHttpClient.ConnManager.POOLING.name(),
+          ApacheHttpClient.POOLING_CONN_MANAGER_MAX_PER_CONN, this.maxConcurrency,
+          ApacheHttpClient.POOLING_CONN_MANAGER_MAX_TOTAL_CONN, this.maxConcurrency)));
+    }
     return fromConfig(config);
   }
 
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.http;
+
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+@Test
+public class AdaptiveConcurrencyLimiterTest {
+
+  public void testIncreaseWhenLimitIsUsed() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 3, 0.5, 2.0);
+
+    limiter.acquire();
+    limiter.onSuccess(startedMillisAgo(10));
+    limiter.release();
+    Assert.assertEquals(limiter.getLimit(), 2);
+
+    // The limit is not used, so it does not grow
+    limiter.acquire();
+    limiter.onSuccess(startedMillisAgo(10));
+    limiter.release();
+    Assert.assertEquals(limiter.getLimit(), 2);
+
+    // Two successes at a full limit of 2 grow it by 1, up to the maximum
+    for (int i = 0; i < 10; i++) {
+      limiter.acquire();
+      limiter.acquire();
+      limiter.onSuccess(startedMillisAgo(10));
+      limiter.onSuccess(startedMillisAgo(10));
+      limiter.release();
+      limiter.release();
+    }
+    Assert.assertEquals(limiter.getLimit(), 3);
+    Assert.assertEquals(limiter.getInFlight(), 0);
+  }
+
+  public void testDecreaseOnOverload() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 8, 0.5, 2.0);
+
+    long startNanos = System.nanoTime();
+    limiter.onOverload(startNanos);
+    Assert.assertEquals(limiter.getLimit(), 4);
+
+    // A request sent before the decrease does not decrease the limit again
+    limiter.onOverload(startNanos);
+    Assert.assertEquals(limiter.getLimit(), 4);
+
+    limiter.onOverload(System.nanoTime());
+    limiter.onOverload(System.nanoTime());
+    limiter.onOverload(System.nanoTime());
+    Assert.assertEquals(limiter.getLimit(), 1);
+  }
+
+  public void testDecreaseOnSlowRequest() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 8, 0.5, 2.0);
+
+    limiter.onSuccess(startedMillisAgo(10));
+    limiter.onSuccess(startedMillisAgo(15));
+    Assert.assertEquals(limiter.getLimit(), 8);
+
+    limiter.onSuccess(startedMillisAgo(100));
+    Assert.assertEquals(limiter.getLimit(), 4);
+  }
+
+  public void testAcquireBlocksAtLimit() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 2, 0.5, 2.0);
+    limiter.acquire();
+    limiter.acquire();
+
+    Thread waiter = new Thread(() -> {
+      try {
+        limiter.acquire();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    waiter.start();
+    waiter.join(100);
+    Assert.assertTrue(waiter.isAlive());
+    Assert.assertFalse(limiter.awaitIdle(10, TimeUnit.MILLISECONDS));
+
+    limiter.release();
+    waiter.join(1000);
+    Assert.assertFalse(waiter.isAlive());
+    Assert.assertEquals(limiter.getInFlight(), 2);
+
+    limiter.release();
+    limiter.release();
+    Assert.assertTrue(limiter.awaitIdle(10, TimeUnit.MILLISECONDS));
+  }
+
+  private static long startedMillisAgo(long millis) {
+    return System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+}
@@ -17,16 +17,24 @@
 package org.apache.gobblin.writer;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.testng.annotations.Test;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableMap;
+import com.sun.net.httpserver.HttpServer;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 
@@ -41,14 +49,19 @@ import org.apache.gobblin.broker.BrokerConstants;
 import org.apache.gobblin.broker.SharedResourcesBrokerFactory;
 import org.apache.gobblin.broker.SharedResourcesBrokerImpl;
 import org.apache.gobblin.broker.SimpleScopeType;
+import org.apache.gobblin.broker.gobblin_scopes.GobblinScopeTypes;
 import org.apache.gobblin.broker.iface.SharedResourcesBroker;
+import org.apache.gobblin.configuration.State;
 import org.apache.gobblin.configuration.WorkUnitState;
+import org.apache.gobblin.http.ApacheHttpClient;
 import org.apache.gobblin.http.HttpClient;
 import org.apache.gobblin.http.ResponseHandler;
 import org.apache.gobblin.http.ResponseStatus;
 import org.apache.gobblin.http.StatusType;
 import org.apache.gobblin.http.ThrottledHttpClient;
 import org.apache.gobblin.net.Request;
+import org.apache.gobblin.source.workunit.WorkUnit;
+import org.apache.gobblin.utils.HttpConstants;
 import org.apache.gobblin.util.limiter.RateBasedLimiter;
 import org.apache.gobblin.util.limiter.broker.SharedLimiterFactory;
 
@@ -128,6 +141,65 @@ public class AsyncHttpWriterTest {
     Assert.assertTrue(client.isCloseCalled);
   }
 
+  /**
+   * Test successful writes of 50 records sent concurrently
+   */
+  public void testSuccessfulWritesWithAdaptiveConcurrency() {
+    MockHttpClient client = new MockHttpClient();
+    MockRequestBuilder requestBuilder = new MockRequestBuilder();
+    MockResponseHandler responseHandler = new MockResponseHandler();
+    MockAsyncHttpWriterBuilder builder = new MockAsyncHttpWriterBuilder(client, requestBuilder, responseHandler);
+    builder.enableAdaptiveConcurrency();
+    TestAsyncHttpWriter asyncHttpWriter = new TestAsyncHttpWriter(builder);
+
+    List<MockWriteCallback> callbacks = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      MockWriteCallback callback = new MockWriteCallback();
+      callbacks.add(callback);
+      asyncHttpWriter.write(new Object(), callback);
+    }
+
+    try {
+      asyncHttpWriter.close();
+    } catch (IOException e) {
+      Assert.fail("Close failed");
+    }
+
+    // Assert all successful callbacks are invoked
+    for (MockWriteCallback callback : callbacks) {
+      Assert.assertTrue(callback.isSuccess);
+    }
+    Assert.assertTrue(client.isCloseCalled);
+  }
+
+  /**
+   * Test server error with requests sent concurrently. Attempt 3 times and fail on flush
+   */
+  public void testServerErrorWithAdaptiveConcurrency() {
+    MockHttpClient client = new MockHttpClient();
+    MockRequestBuilder requestBuilder = new MockRequestBuilder();
+    MockResponseHandler responseHandler = new MockResponseHandler();
+    MockAsyncHttpWriterBuilder builder = new MockAsyncHttpWriterBuilder(client, requestBuilder, responseHandler);
+    builder.enableAdaptiveConcurrency();
+    TestAsyncHttpWriter asyncHttpWriter = new TestAsyncHttpWriter(builder);
+
+    responseHandler.type = StatusType.SERVER_ERROR;
+    MockWriteCallback callback = new MockWriteCallback();
+    asyncHttpWriter.write(new Object(), callback);
+
+    boolean hasAnException = false;
+    try {
+      asyncHttpWriter.close();
+    } catch (Exception e) {
+      hasAnException = true;
+    }
+    Assert.assertTrue(hasAnException);
+    Assert.assertFalse(callback.isSuccess);
+    Assert.assertTrue(client.isCloseCalled);
+    Assert.assertTrue(client.attempts == AsyncHttpWriter.DEFAULT_MAX_ATTEMPTS);
+    Assert.assertTrue(responseHandler.attempts == AsyncHttpWriter.DEFAULT_MAX_ATTEMPTS);
+  }
+
   private static SharedResourcesBroker createMockBroker() {
     Joiner JOINER = Joiner.on(".");
     Config config = ConfigFactory.parseMap(ImmutableMap.of(
@@ -139,6 +211,73 @@ public class AsyncHttpWriterTest {
     return broker;
   }
 
+  /**
+   * Test concurrent requests through the {@link ApacheHttpClient} of an adaptive writer
+   */
+  public void testAdaptiveConcurrencyWithApacheHttpClient() throws Exception {
+    int concurrency = 2;
+    // A request is only answered once all of them are received
+    CountDownLatch received = new CountDownLatch(concurrency);
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newFixedThreadPool(concurrency));
+    server.createContext("/", exchange -> {
+      received.countDown();
+      try {
+        received.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+    });
+    server.start();
+
+    ExecutorService senders = Executors.newFixedThreadPool(concurrency);
+    try {
+      String url = "http://localhost:" + server.getAddress().getPort() + "/";
+      AvroHttpWriterBuilder builder = new AvroHttpWriterBuilder();
+      builder.fromState(createAdaptiveConcurrencyState(url));
+      HttpClient<HttpUriRequest, CloseableHttpResponse> client = builder.getClient();
+
+      List<Future<Integer>> statusCodes = new ArrayList<>();
+      for (int i = 0; i < concurrency; i++) {
+        statusCodes.add(senders.submit(() -> {
+          try (CloseableHttpResponse response = client.sendRequest(new HttpGet(url))) {
+            return response.getStatusLine().getStatusCode();
+          }
+        }));
+      }
+      for (Future<Integer> statusCode : statusCodes) {
+        Assert.assertEquals(200, statusCode.get(30, TimeUnit.SECONDS).intValue());
+      }
+      client.close();
+    } finally {
+      senders.shutdownNow();
+      server.stop(0);
+    }
+  }
+
+  /**
+   * Test a basic connection manager, which holds a single connection, is rejected with adaptive concurrency
+   */
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testAdaptiveConcurrencyRejectsBasicConnectionManager() {
+    WorkUnitState state = createAdaptiveConcurrencyState("http://localhost:8080/");
+    state.setProp(AsyncHttpWriterBuilder.CONF_PREFIX + ApacheHttpClient.HTTP_CONN_MANAGER,
+        ApacheHttpClient.ConnManager.BASIC.name());
+    new AvroHttpWriterBuilder().fromState(state);
+  }
+
+  private static WorkUnitState createAdaptiveConcurrencyState(String url) {
+    SharedResourcesBroker<GobblinScopeTypes> broker = SharedResourcesBrokerFactory
+        .createDefaultTopLevelBroker(ConfigFactory.empty(), GobblinScopeTypes.GLOBAL.defaultScopeInstance());
+    WorkUnitState state = new WorkUnitState(WorkUnit.createEmpty(), new State(), broker);
+    state.setProp(AsyncHttpWriterBuilder.CONF_PREFIX + "adaptiveConcurrency.enabled", true);
+    state.setProp(AsyncHttpWriterBuilder.CONF_PREFIX + HttpConstants.URL_TEMPLATE, url);
+    state.setProp(AsyncHttpWriterBuilder.CONF_PREFIX + HttpConstants.VERB, "GET");
+    return state;
+  }
+
   /**
    * Test failure triggered by client error. No retries
    */
@@ -340,6 +479,15 @@ public class AsyncHttpWriterTest {
       this.maxAttempts = 3;
     }
 
+    void enableAdaptiveConcurrency() {
+      this.adaptiveConcurrencyEnabled = true;
+      this.initialConcurrency = 2;
+      this.minConcurrency = 1;
+      this.maxConcurrency = 4;
+      this.concurrencyBackoffRatio = AsyncHttpWriter.DEFAULT_CONCURRENCY_BACKOFF_RATIO;
+      this.latencyTolerance = AsyncHttpWriter.DEFAULT_LATENCY_TOLERANCE;
+    }
+
     @Override
     public DataWriter<Object> build()
         throws IOException {
@@ -59,7 +59,7 @@ public class KafkaEventReporter extends EventReporter {
   @Override
   public void reportEventQueue(Queue<GobblinTrackingEvent> queue) {
     GobblinTrackingEvent nextEvent;
-    List<byte[]> events = Lists.newArrayList();
+    List<byte[]> events = Lists.newArrayListWithCapacity(queue.size());
 
     while(null != (nextEvent = queue.poll())) {
       events.add(this.serializer.serializeRecord(nextEvent));
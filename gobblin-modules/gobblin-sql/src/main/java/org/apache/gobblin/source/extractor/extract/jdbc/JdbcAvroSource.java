@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.source.extractor.extract.jdbc;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+import org.apache.gobblin.configuration.SourceState;
+import org.apache.gobblin.configuration.State;
+import org.apache.gobblin.configuration.WorkUnitState;
+import org.apache.gobblin.source.Source;
+import org.apache.gobblin.source.extractor.Extractor;
+import org.apache.gobblin.source.jdbc.JdbcAvroExtractor;
+import org.apache.gobblin.source.jdbc.JdbcExtractor;
+import org.apache.gobblin.source.workunit.WorkUnit;
+
+
+/**
+ * A {@link Source} that extracts Avro {@link GenericRecord}s from a JDBC database without the intermediate
+ * {@link JsonElement} records.
+ *
+ * <p>
+ *   Work units are created by a delegate JDBC source, such as {@link MysqlSource}, {@link PostgresqlSource},
+ *   {@link OracleSource}, {@link SqlServerSource} or {@link TeradataSource}, configured with
+ *   {@link #DELEGATE_SOURCE_CLASS}. The extractors of the delegate are wrapped in a {@link JdbcAvroExtractor}, so jobs
+ *   using this source should drop the JSON to Avro converter.
+ * </p>
+ */
+public class JdbcAvroSource implements Source<Schema, GenericRecord> {
+
+  public static final String DELEGATE_SOURCE_CLASS = "source.jdbc.avro.delegate.class";
+  public static final String DEFAULT_DELEGATE_SOURCE_CLASS = MysqlSource.class.getName();
+
+  private Source<JsonArray, JsonElement> delegate;
+
+  @Override
+  public List<WorkUnit> getWorkunits(SourceState state) {
+    return getDelegate(state).getWorkunits(state);
+  }
+
+  @Override
+  public Extractor<Schema, GenericRecord> getExtractor(WorkUnitState state) throws IOException {
+    Extractor<JsonArray, JsonElement> extractor = getDelegate(state).getExtractor(state);
+    if (!(extractor instanceof JdbcExtractor)) {
+      throw new IOException(String.format("%s is not a %s", extractor.getClass().getName(),
+          JdbcExtractor.class.getSimpleName()));
+    }
+    return new JdbcAvroExtractor((JdbcExtractor) extractor, state);
+  }
+
+  @Override
+  public void shutdown(SourceState state) {
+    getDelegate(state).shutdown(state);
+  }
+
+  @SuppressWarnings("unchecked")
+  private synchronized Source<JsonArray, JsonElement> getDelegate(State state) {
+    if (this.delegate == null) {
+      String className = state.getProp(DELEGATE_SOURCE_CLASS, DEFAULT_DELEGATE_SOURCE_CLASS);
+      try {
+        Class<?> delegateClass = Class.forName(className);
+        Preconditions.checkArgument(Source.class.isAssignableFrom(delegateClass), "%s is not a source", className);
+        this.delegate = (Source<JsonArray, JsonElement>) delegateClass.newInstance();
+      } catch (ReflectiveOperationException e) {
+        throw new RuntimeException("Failed to create delegate source " + className, e);
+      }
+    }
+    return this.delegate;
+  }
+}
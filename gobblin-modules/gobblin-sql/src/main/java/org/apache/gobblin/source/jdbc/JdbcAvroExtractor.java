@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.source.jdbc;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.TimeZone;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.gobblin.configuration.ConfigurationKeys;
+import org.apache.gobblin.configuration.WorkUnitState;
+import org.apache.gobblin.source.extractor.DataRecordException;
+import org.apache.gobblin.source.extractor.Extractor;
+import org.apache.gobblin.source.workunit.Extract;
+
+
+/**
+ * An {@link Extractor} that reads the rows of a {@link JdbcExtractor} data query straight into Avro
+ * {@link GenericRecord}s with a {@link ResultSetAvroMapper}, skipping the {@link com.google.gson.JsonElement}
+ * records of the wrapped extractor and the JSON to Avro conversion that usually follows them.
+ *
+ * <p>
+ *   The wrapped extractor must already be built, so that its predicates, column names and high watermark are set up.
+ *   The query runs on the first call to {@link #getSchema()} or {@link #readRecord(GenericRecord)}. The Avro schema is
+ *   derived from the {@link java.sql.ResultSetMetaData} of the query, and date and time columns are read in the time
+ *   zone of {@link ConfigurationKeys#CONVERTER_AVRO_DATE_TIMEZONE}, like the JSON to Avro converter does.
+ * </p>
+ */
+@Slf4j
+public class JdbcAvroExtractor implements Extractor<Schema, GenericRecord> {
+
+  private static final String DEFAULT_TIME_ZONE = "UTC";
+
+  private final JdbcExtractor extractor;
+  private final WorkUnitState workUnitState;
+  private ResultSet resultSet;
+  private ResultSetAvroMapper mapper;
+  private boolean hasNext = true;
+  private long recordCount = 0;
+
+  public JdbcAvroExtractor(JdbcExtractor extractor, WorkUnitState workUnitState) {
+    this.extractor = extractor;
+    this.workUnitState = workUnitState;
+  }
+
+  @Override
+  public Schema getSchema() throws IOException {
+    try {
+      return getMapper().getSchema();
+    } catch (DataRecordException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public GenericRecord readRecord(@Deprecated GenericRecord reuse) throws DataRecordException, IOException {
+    if (!this.hasNext) {
+      return null;
+    }
+
+    ResultSetAvroMapper mapper = getMapper();
+    try {
+      if (!this.resultSet.next()) {
+        this.hasNext = false;
+        log.info("Total number of records processed: " + this.recordCount);
+        return null;
+      }
+      this.recordCount++;
+      return mapper.map(this.resultSet);
+    } catch (SQLException e) {
+      throw new DataRecordException("Failed to get records from database; error - " + e.getMessage(), e);
+    }
+  }
+
+  private ResultSetAvroMapper getMapper() throws DataRecordException {
+    if (this.mapper == null) {
+      this.resultSet = this.extractor.getDataResultSet();
+      Extract extract = this.workUnitState.getExtract();
+      TimeZone timeZone = TimeZone.getTimeZone(
+          this.workUnitState.getProp(ConfigurationKeys.CONVERTER_AVRO_DATE_TIMEZONE, DEFAULT_TIME_ZONE));
+      try {
+        this.mapper = new ResultSetAvroMapper(this.resultSet.getMetaData(), this.extractor.getHeaderRecord(),
+            extract.getTable(), extract.getNamespace(), this.extractor.convertBitToBoolean(), timeZone);
+      } catch (SQLException e) {
+        throw new DataRecordException("Failed to map result set to Avro; error - " + e.getMessage(), e);
+      }
+    }
+    return this.mapper;
+  }
+
+  @Override
+  public long getExpectedRecordCount() {
+    return this.extractor.getExpectedRecordCount();
+  }
+
+  @Override
+  public long getHighWatermark() {
+    return this.extractor.getHighWatermark();
+  }
+
+  /**
+   * Closes the wrapped extractor, which records the actual high watermark and closes the connection.
+   */
+  @Override
+  public void close() throws IOException {
+    this.extractor.close();
+  }
+}
@@ -65,6 +65,7 @@ import org.apache.gobblin.source.extractor.extract.Command;
 import org.apache.gobblin.source.extractor.extract.CommandOutput;
 import org.apache.gobblin.source.extractor.extract.QueryBasedExtractor;
 import org.apache.gobblin.source.extractor.extract.SourceSpecificLayer;
+import org.apache.gobblin.source.extractor.partition.WatermarkRangeCounter;
 import org.apache.gobblin.source.jdbc.JdbcCommand.JdbcCommandType;
 import org.apache.gobblin.source.extractor.resultset.RecordSetList;
 import org.apache.gobblin.source.extractor.schema.ColumnAttributes;
@@ -72,6 +73,7 @@ import org.apache.gobblin.source.extractor.schema.ColumnNameCase;
 import org.apache.gobblin.source.extractor.schema.Schema;
 import org.apache.gobblin.source.extractor.utils.Utils;
 import org.apache.gobblin.source.extractor.watermark.Predicate;
+import org.apache.gobblin.source.extractor.watermark.WatermarkPredicate;
 import org.apache.gobblin.source.extractor.watermark.WatermarkType;
 import org.apache.gobblin.source.workunit.WorkUnit;
 
@@ -82,7 +84,7 @@ import org.apache.gobblin.source.workunit.WorkUnit;
  * @author nveeramr
  */
 public abstract class JdbcExtractor extends QueryBasedExtractor<JsonArray, JsonElement>
-    implements SourceSpecificLayer<JsonArray, JsonElement>, JdbcSpecificLayer {
+    implements SourceSpecificLayer<JsonArray, JsonElement>, JdbcSpecificLayer, WatermarkRangeCounter {
   private static final Gson gson = new Gson();
   private List<String> headerRecord;
   private boolean firstPull = true;
@@ -803,6 +805,29 @@ public abstract class JdbcExtractor extends QueryBasedExtractor<JsonArray, JsonE
     }
   }
 
+  /**
+   * Count the records whose watermark column falls in the given range, used to sample the distribution of the
+   * watermark column for skew aware partitioning.
+   */
+  @Override
+  public long countRecords(long lowWatermark, long highWatermark) throws IOException {
+    WatermarkType watermarkType = WatermarkType.valueOf(this.workUnitState
+        .getProp(ConfigurationKeys.SOURCE_QUERYBASED_WATERMARK_TYPE, ConfigurationKeys.DEFAULT_WATERMARK_TYPE)
+        .toUpperCase());
+    WatermarkPredicate watermark =
+        new WatermarkPredicate(this.workUnitState.getProp(ConfigurationKeys.EXTRACT_DELTA_FIELDS_KEY), watermarkType);
+    List<Predicate> rangePredicates = new ArrayList<>();
+    rangePredicates.add(watermark.getPredicate(this, lowWatermark, ">=", Predicate.PredicateType.LWM));
+    rangePredicates.add(watermark.getPredicate(this, highWatermark, "<", Predicate.PredicateType.HWM));
+
+    try {
+      return this.getSourceCount(this.workUnitState.getProp(ConfigurationKeys.SOURCE_QUERYBASED_SCHEMA),
+          this.workUnitState.getProp(ConfigurationKeys.SOURCE_ENTITY), this.workUnit, rangePredicates);
+    } catch (RecordCountException e) {
+      throw new IOException(e);
+    }
+  }
+
   @Override
   public Iterator<JsonElement> getRecordSet(String schema, String entity, WorkUnit workUnit,
       List<Predicate> predicateList) throws DataRecordException, IOException {
@@ -823,6 +848,31 @@ public abstract class JdbcExtractor extends QueryBasedExtractor<JsonArray, JsonE
     }
   }
 
+  /**
+   * Run the data query of this work unit and return its {@link ResultSet}, for readers that map the rows themselves
+   * instead of reading the {@link JsonElement} records of {@link #readRecord(JsonElement)}.
+   *
+   * @return result set of the data query, closed by {@link #close()}
+   */
+  public ResultSet getDataResultSet() throws DataRecordException {
+    try {
+      this.prepareInitialPull();
+      this.log.info("Get data resultset using JDBC");
+      List<Command> cmds = this.getDataMetadata(this.workUnitState.getProp(ConfigurationKeys.SOURCE_QUERYBASED_SCHEMA),
+          this.workUnitState.getProp(ConfigurationKeys.SOURCE_ENTITY), this.workUnit, this.predicateList);
+      this.dataResponse = this.executePreparedSql(cmds);
+      this.setFirstPull(false);
+    } catch (Exception e) {
+      throw new DataRecordException("Failed to get record set using JDBC; error - " + e.getMessage(), e);
+    }
+
+    Iterator<ResultSet> itr = (Iterator<ResultSet>) this.dataResponse.getResults().values().iterator();
+    if (!itr.hasNext()) {
+      throw new DataRecordException("Failed to get data from database - Resultset has no records");
+    }
+    return itr.next();
+  }
+
   @Override
   public JsonArray getSchema(CommandOutput<?, ?> response) throws SchemaException, IOException {
     this.log.debug("Extract schema from resultset");
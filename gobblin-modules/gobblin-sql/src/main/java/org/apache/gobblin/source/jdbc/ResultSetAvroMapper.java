@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.source.jdbc;
+
+import java.nio.ByteBuffer;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+
+import org.apache.avro.JsonProperties;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+
+/**
+ * Maps the rows of a JDBC {@link ResultSet} straight to Avro {@link GenericRecord}s.
+ *
+ * <p>
+ *   The Avro schema and one {@link ColumnReader} per column are derived once from the {@link ResultSetMetaData}, so
+ *   mapping a row only calls the typed {@link ResultSet} getter of each column. Every field is a nullable union.
+ *   Types map as follows:
+ *   <ul>
+ *     <li>BIT and BOOLEAN to boolean, or to int if BIT is not converted to boolean</li>
+ *     <li>TINYINT, SMALLINT and INTEGER to int, BIGINT to long</li>
+ *     <li>REAL to float, FLOAT and DOUBLE to double</li>
+ *     <li>DATE, TIME and TIMESTAMP to long epoch millis, read in the given time zone</li>
+ *     <li>BINARY, VARBINARY, LONGVARBINARY and BLOB to bytes</li>
+ *     <li>everything else, including DECIMAL and NUMERIC to keep their precision, to string</li>
+ *   </ul>
+ * </p>
+ *
+ * <p>
+ *   A new record is created for each row, since downstream constructs may hold on to the records they receive.
+ * </p>
+ */
+public class ResultSetAvroMapper {
+
+  private final Schema schema;
+  private final ColumnReader[] readers;
+  private final Calendar calendar;
+
+  /**
+   * @param metadata metadata of the {@link ResultSet} to map
+   * @param columnNames output name of each column, in the order of the {@link ResultSet} columns
+   * @param recordName name of the Avro record
+   * @param namespace namespace of the Avro record, may be null
+   * @param convertBitToBoolean whether BIT columns are booleans, see {@link JdbcExtractor#convertBitToBoolean()}
+   * @param timeZone time zone the database values of date and time columns are in
+   */
+  public ResultSetAvroMapper(ResultSetMetaData metadata, List<String> columnNames, String recordName,
+      String namespace, boolean convertBitToBoolean, TimeZone timeZone) throws SQLException {
+    int numColumns = metadata.getColumnCount();
+    if (columnNames.size() != numColumns) {
+      throw new SQLException(String.format("Expected %d column names but got %d", numColumns, columnNames.size()));
+    }
+
+    this.calendar = Calendar.getInstance(timeZone);
+    this.readers = new ColumnReader[numColumns];
+    List<Schema.Field> fields = Lists.newArrayListWithCapacity(numColumns);
+    Set<String> fieldNames = Sets.newHashSet();
+
+    for (int i = 0; i < numColumns; i++) {
+      int columnType = metadata.getColumnType(i + 1);
+      Schema.Type avroType = getAvroType(columnType, convertBitToBoolean);
+      this.readers[i] = getColumnReader(columnType, avroType);
+
+      Schema fieldSchema = Schema.createUnion(ImmutableList.of(Schema.create(Schema.Type.NULL), Schema.create(avroType)));
+      String fieldName = uniqueName(toAvroName(columnNames.get(i)), fieldNames);
+      fields.add(new Schema.Field(fieldName, fieldSchema, null, JsonProperties.NULL_VALUE));
+    }
+
+    this.schema = Schema.createRecord(toAvroName(recordName), null, namespace, false, fields);
+  }
+
+  public Schema getSchema() {
+    return this.schema;
+  }
+
+  /**
+   * Map the current row of the {@link ResultSet} to a {@link GenericRecord}.
+   */
+  public GenericRecord map(ResultSet resultSet) throws SQLException {
+    GenericRecord record = new GenericData.Record(this.schema);
+    for (int i = 0; i < this.readers.length; i++) {
+      Object value = this.readers[i].read(resultSet, i + 1);
+      record.put(i, resultSet.wasNull() ? null : value);
+    }
+    return record;
+  }
+
+  private static Schema.Type getAvroType(int columnType, boolean convertBitToBoolean) {
+    switch (columnType) {
+      case Types.BIT:
+        return convertBitToBoolean ? Schema.Type.BOOLEAN : Schema.Type.INT;
+      case Types.BOOLEAN:
+        return Schema.Type.BOOLEAN;
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+        return Schema.Type.INT;
+      case Types.BIGINT:
+      case Types.DATE:
+      case Types.TIME:
+      case Types.TIMESTAMP:
+        return Schema.Type.LONG;
+      case Types.REAL:
+        return Schema.Type.FLOAT;
+      case Types.FLOAT:
+      case Types.DOUBLE:
+        return Schema.Type.DOUBLE;
+      case Types.BINARY:
+      case Types.VARBINARY:
+      case Types.LONGVARBINARY:
+      case Types.BLOB:
+        return Schema.Type.BYTES;
+      default:
+        return Schema.Type.STRING;
+    }
+  }
+
+  private ColumnReader getColumnReader(int columnType, Schema.Type avroType) {
+    switch (columnType) {
+      case Types.DATE:
+        return (rs, i) -> {
+          java.sql.Date date = rs.getDate(i, this.calendar);
+          return date == null ? null : date.getTime();
+        };
+      case Types.TIME:
+        return (rs, i) -> {
+          java.sql.Time time = rs.getTime(i, this.calendar);
+          return time == null ? null : time.getTime();
+        };
+      case Types.TIMESTAMP:
+        return (rs, i) -> {
+          java.sql.Timestamp timestamp = rs.getTimestamp(i, this.calendar);
+          return timestamp == null ? null : timestamp.getTime();
+        };
+      case Types.BLOB:
+        return (rs, i) -> {
+          Blob blob = rs.getBlob(i);
+          return blob == null ? null : ByteBuffer.wrap(blob.getBytes(1L, (int) blob.length()));
+        };
+      case Types.CLOB:
+        return (rs, i) -> {
+          Clob clob = rs.getClob(i);
+          return clob == null ? null : clob.getSubString(1L, (int) clob.length());
+        };
+      default:
+        break;
+    }
+
+    switch (avroType) {
+      case BOOLEAN:
+        return ResultSet::getBoolean;
+      case INT:
+        return ResultSet::getInt;
+      case LONG:
+        return ResultSet::getLong;
+      case FLOAT:
+        return ResultSet::getFloat;
+      case DOUBLE:
+        return ResultSet::getDouble;
+      case BYTES:
+        return (rs, i) -> {
+          byte[] bytes = rs.getBytes(i);
+          return bytes == null ? null : ByteBuffer.wrap(bytes);
+        };
+      default:
+        return ResultSet::getString;
+    }
+  }
+
+  /**
+   * Replace the characters Avro does not allow in names with underscores.
+   */
+  private static String toAvroName(String name) {
+    StringBuilder sb = new StringBuilder(name.length() + 1);
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      sb.append(Character.isLetterOrDigit(c) && c < 128 || c == '_' ? c : '_');
+    }
+    if (sb.length() == 0 || Character.isDigit(sb.charAt(0))) {
+      sb.insert(0, '_');
+    }
+    return sb.toString();
+  }
+
+  private static String uniqueName(String name, Set<String> usedNames) {
+    String uniqueName = name;
+    for (int suffix = 1; !usedNames.add(uniqueName); suffix++) {
+      uniqueName = name + "_" + suffix;
+    }
+    return uniqueName;
+  }
+
+  /**
+   * Reads a single column of the current row with the {@link ResultSet} getter matching its Avro type.
+   */
+  @FunctionalInterface
+  private interface ColumnReader {
+    Object read(ResultSet resultSet, int columnIndex) throws SQLException;
+  }
+}
@@ -20,6 +20,8 @@ package org.apache.gobblin.writer;
 import org.apache.gobblin.publisher.JdbcPublisher;
 import org.apache.gobblin.util.ForkOperatorUtils;
 import org.apache.gobblin.util.jdbc.DataSourceBuilder;
+import org.apache.gobblin.writer.commands.AsyncJdbcBufferedInserter;
+import org.apache.gobblin.writer.commands.JdbcBufferedInserter;
 import org.apache.gobblin.writer.commands.JdbcWriterCommands;
 import org.apache.gobblin.writer.commands.JdbcWriterCommandsFactory;
 import org.apache.gobblin.configuration.ConfigurationKeys;
@@ -29,6 +31,7 @@ import org.apache.gobblin.converter.jdbc.JdbcEntryData;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
 
 import javax.sql.DataSource;
 
@@ -36,7 +39,9 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.Logger;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 
 
 /**
@@ -63,6 +68,12 @@ import com.google.common.base.Preconditions;
  *     As it needs to check the current existence in the dataset, it is expected to show performance degradation.
  *     Also, possibility of duplicate entry was also discussed.
  * Water mark: In order to use water mark in task level, writer needs to send same order when retried which is not guaranteed.
+ *
+ * With {@link AsyncJdbcBufferedInserter#WRITER_JDBC_ASYNC_INSERT_ENABLED}, batches are sent by background threads while the
+ * task thread keeps buffering rows. {@link AsyncJdbcBufferedInserter#WRITER_JDBC_ASYNC_INSERT_CONNECTIONS} greater than one
+ * opens more connections to the staging table. As the rows of a task are only written atomically within a single
+ * transaction, more than one connection is only allowed with {@link #ENABLE_AUTO_COMMIT}, where rows are not written
+ * atomically anyway.
  */
 public class JdbcWriter implements DataWriter<JdbcEntryData> {
   private static final Logger LOG = LoggerFactory.getLogger(JdbcWriter.class);
@@ -70,10 +81,12 @@ public class JdbcWriter implements DataWriter<JdbcEntryData> {
   public static final String ENABLE_AUTO_COMMIT = "jdbcWriter.enableAutoCommit";
 
   private final Connection conn;
+  private final List<Connection> asyncConnections = Lists.newArrayList();
   private final State state;
   private final JdbcWriterCommands commands;
   private final String databaseName;
   private final String tableName;
+  private final Optional<AsyncJdbcBufferedInserter> asyncInserter;
 
   private boolean failed;
   private long recordWrittenCount;
@@ -96,6 +109,7 @@ public class JdbcWriter implements DataWriter<JdbcEntryData> {
       this.conn.setAutoCommit(this.state.getPropAsBoolean(ENABLE_AUTO_COMMIT, false));
       this.commands = new JdbcWriterCommandsFactory().newInstance(this.state, this.conn);
       this.commands.setConnectionParameters(this.state.getProperties(), this.conn);
+      this.asyncInserter = createAsyncInserter();
     } catch (SQLException e) {
       throw new RuntimeException(e);
     }
@@ -108,6 +122,58 @@ public class JdbcWriter implements DataWriter<JdbcEntryData> {
     this.databaseName = databaseName;
     this.tableName = table;
     this.conn = conn;
+    this.asyncInserter = Optional.absent();
+  }
+
+  @VisibleForTesting
+  JdbcWriter(List<JdbcWriterCommands> commands, State state, String databaseName, String table,
+      List<Connection> connections) {
+    checkAsyncConnections(state, connections.size());
+    this.commands = commands.get(0);
+    this.state = state;
+    this.databaseName = databaseName;
+    this.tableName = table;
+    this.conn = connections.get(0);
+    this.asyncConnections.addAll(connections.subList(1, connections.size()));
+    this.asyncInserter = Optional.of(new AsyncJdbcBufferedInserter(state, commands));
+  }
+
+  /**
+   * Creates the {@link AsyncJdbcBufferedInserter} if enabled. It uses {@link #commands} and, for each additional
+   * connection, another {@link JdbcWriterCommands} over a new connection.
+   */
+  private Optional<AsyncJdbcBufferedInserter> createAsyncInserter() throws SQLException {
+    if (!this.state.getPropAsBoolean(AsyncJdbcBufferedInserter.WRITER_JDBC_ASYNC_INSERT_ENABLED,
+        AsyncJdbcBufferedInserter.DEFAULT_WRITER_JDBC_ASYNC_INSERT_ENABLED)) {
+      return Optional.absent();
+    }
+    int numConnections = this.state.getPropAsInt(AsyncJdbcBufferedInserter.WRITER_JDBC_ASYNC_INSERT_CONNECTIONS,
+        AsyncJdbcBufferedInserter.DEFAULT_WRITER_JDBC_ASYNC_INSERT_CONNECTIONS);
+    checkAsyncConnections(this.state, numConnections);
+
+    List<JdbcWriterCommands> inserters = Lists.newArrayList(this.commands);
+    for (int i = 1; i < numConnections; i++) {
+      Connection asyncConn = createConnection();
+      this.asyncConnections.add(asyncConn);
+      asyncConn.setAutoCommit(true);
+      JdbcWriterCommands asyncCommands = new JdbcWriterCommandsFactory().newInstance(this.state, asyncConn);
+      asyncCommands.setConnectionParameters(this.state.getProperties(), asyncConn);
+      inserters.add(asyncCommands);
+    }
+    LOG.info("Inserting asynchronously over " + numConnections + " connection(s).");
+    return Optional.of(new AsyncJdbcBufferedInserter(this.state, inserters));
+  }
+
+  /**
+   * The rows of a task are only written atomically within the single transaction of {@link #conn}, so that a failed
+   * task leaves nothing in the staging table. More than one connection is thus only allowed with
+   * {@link #ENABLE_AUTO_COMMIT}.
+   */
+  private static void checkAsyncConnections(State state, int numConnections) {
+    Preconditions.checkArgument(numConnections > 0,
+        AsyncJdbcBufferedInserter.WRITER_JDBC_ASYNC_INSERT_CONNECTIONS + " should be a positive number");
+    Preconditions.checkArgument(numConnections == 1 || state.getPropAsBoolean(ENABLE_AUTO_COMMIT, false),
+        AsyncJdbcBufferedInserter.WRITER_JDBC_ASYNC_INSERT_CONNECTIONS + " greater than 1 requires " + ENABLE_AUTO_COMMIT);
   }
 
   private Connection createConnection() throws SQLException {
@@ -132,7 +198,7 @@ public class JdbcWriter implements DataWriter<JdbcEntryData> {
       LOG.debug("Writing " + record);
     }
     try {
-      this.commands.insert(this.databaseName, this.tableName, record);
+      getInserter().insert(this.databaseName, this.tableName, record);
       this.recordWrittenCount++;
     } catch (Exception e) {
       this.failed = true;
@@ -149,8 +215,9 @@ public class JdbcWriter implements DataWriter<JdbcEntryData> {
   public void commit() throws IOException {
     try {
       LOG.info("Flushing pending insert.");
-      this.commands.flush();
+      getInserter().flush();
       LOG.info("Commiting transaction.");
+      // Additional connections only exist in auto-commit mode, so their rows are already written
       this.conn.commit();
     } catch (Exception e) {
       this.failed = true;
@@ -173,19 +240,35 @@ public class JdbcWriter implements DataWriter<JdbcEntryData> {
    */
   @Override
   public void close() throws IOException {
-    try {
+    if (this.asyncInserter.isPresent()) {
+      this.asyncInserter.get().close();
+    }
+
+    List<Connection> connections = Lists.newArrayList(this.asyncConnections);
+    if (this.conn != null) {
+      connections.add(0, this.conn);
+    }
+    SQLException exception = null;
+    for (Connection connection : connections) {
       try {
-        if (this.failed && this.conn != null) {
-          this.conn.rollback();
-        }
-      } finally {
-        if (this.conn != null) {
-          this.conn.close();
+        try {
+          if (this.failed && connection == this.conn) {
+            connection.rollback();
+          }
+        } finally {
+          connection.close();
         }
+      } catch (SQLException e) {
+        exception = exception == null ? e : exception;
       }
-    } catch (SQLException e) {
-      throw new RuntimeException(e);
     }
+    if (exception != null) {
+      throw new RuntimeException(exception);
+    }
+  }
+
+  private JdbcBufferedInserter getInserter() {
+    return this.asyncInserter.isPresent() ? this.asyncInserter.get() : this.commands;
   }
 
   @Override
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer.commands;
+
+import static org.apache.gobblin.configuration.ConfigurationKeys.WRITER_PREFIX;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import org.apache.gobblin.configuration.State;
+import org.apache.gobblin.converter.jdbc.JdbcEntryData;
+import org.apache.gobblin.util.ExecutorsUtils;
+
+
+/**
+ * A {@link JdbcBufferedInserter} that hands batches of rows to background threads, so that the task thread keeps
+ * converting and buffering rows while the previous batches are sent to the database.
+ *
+ * <p>
+ *   Each delegate inserter is expected to own its connection and is only called from its own thread. Batches of
+ *   {@link #WRITER_JDBC_INSERT_BATCH_SIZE} rows are handed to the delegates round robin, and at most two batches per
+ *   delegate are in flight, one being sent and one waiting, which double buffers the rows and blocks the task thread
+ *   when the database falls behind. The delegates still choose how a batch is sent, e.g. a multi-row INSERT or COPY.
+ * </p>
+ *
+ * <p>
+ *   {@link #flush()} waits for the batches in flight and flushes every delegate. The first failure of a background
+ *   insert fails the following {@link #insert(String, String, JdbcEntryData)} or {@link #flush()} call, and the
+ *   remaining batches are dropped.
+ * </p>
+ */
+public class AsyncJdbcBufferedInserter implements JdbcBufferedInserter, Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AsyncJdbcBufferedInserter.class);
+
+  public static final String WRITER_JDBC_ASYNC_INSERT_ENABLED = WRITER_PREFIX + ".jdbc.async_insert.enabled";
+  public static final boolean DEFAULT_WRITER_JDBC_ASYNC_INSERT_ENABLED = false;
+  public static final String WRITER_JDBC_ASYNC_INSERT_CONNECTIONS = WRITER_PREFIX + ".jdbc.async_insert.connections";
+  public static final int DEFAULT_WRITER_JDBC_ASYNC_INSERT_CONNECTIONS = 1;
+
+  private static final int MAX_PENDING_BATCHES_PER_INSERTER = 2;
+
+  private final List<JdbcBufferedInserter> inserters;
+  private final List<ExecutorService> executors;
+  private final Semaphore pendingBatches;
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private final int batchSize;
+
+  private List<JdbcEntryData> currentBatch;
+  private String currentDatabaseName;
+  private String currentTable;
+  private int nextInserter = 0;
+  private volatile boolean closed = false;
+
+  public AsyncJdbcBufferedInserter(State state, List<? extends JdbcBufferedInserter> inserters) {
+    Preconditions.checkArgument(!inserters.isEmpty(), "At least one inserter is required");
+    this.batchSize = state.getPropAsInt(WRITER_JDBC_INSERT_BATCH_SIZE, DEFAULT_WRITER_JDBC_INSERT_BATCH_SIZE);
+    if (this.batchSize < 1) {
+      throw new IllegalArgumentException(WRITER_JDBC_INSERT_BATCH_SIZE + " should be a positive number");
+    }
+
+    this.inserters = ImmutableList.copyOf(inserters);
+    this.executors = Lists.newArrayListWithCapacity(inserters.size());
+    for (int i = 0; i < inserters.size(); i++) {
+      this.executors.add(Executors.newSingleThreadExecutor(
+          ExecutorsUtils.newThreadFactory(Optional.of(LOG), Optional.of("AsyncJdbcInserter-" + i + "-%d"))));
+    }
+    this.pendingBatches = new Semaphore(inserters.size() * MAX_PENDING_BATCHES_PER_INSERTER);
+    this.currentBatch = Lists.newArrayListWithCapacity(this.batchSize);
+  }
+
+  /**
+   * Buffers the row, and hands the buffer to the next delegate once it holds a full batch. Blocks while all the
+   * delegates have their maximum number of batches in flight.
+   */
+  @Override
+  public void insert(String databaseName, String table, JdbcEntryData jdbcEntryData) throws SQLException {
+    checkFailure();
+    if (!this.currentBatch.isEmpty()
+        && !(Objects.equals(databaseName, this.currentDatabaseName) && Objects.equals(table, this.currentTable))) {
+      submitCurrentBatch();
+    }
+    this.currentDatabaseName = databaseName;
+    this.currentTable = table;
+    this.currentBatch.add(jdbcEntryData);
+
+    if (this.currentBatch.size() >= this.batchSize) {
+      submitCurrentBatch();
+    }
+  }
+
+  private void submitCurrentBatch() throws SQLException {
+    final List<JdbcEntryData> batch = this.currentBatch;
+    final String databaseName = this.currentDatabaseName;
+    final String table = this.currentTable;
+    final JdbcBufferedInserter inserter = this.inserters.get(this.nextInserter);
+    ExecutorService executor = this.executors.get(this.nextInserter);
+    this.nextInserter = (this.nextInserter + 1) % this.inserters.size();
+    this.currentBatch = Lists.newArrayListWithCapacity(this.batchSize);
+
+    try {
+      this.pendingBatches.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while waiting to insert a batch", e);
+    }
+
+    executor.execute(() -> {
+      try {
+        if (isActive()) {
+          for (JdbcEntryData row : batch) {
+            inserter.insert(databaseName, table, row);
+          }
+        }
+      } catch (Throwable t) {
+        this.failure.compareAndSet(null, t);
+      } finally {
+        this.pendingBatches.release();
+      }
+    });
+  }
+
+  /**
+   * Hands the remaining rows to a delegate, then flushes every delegate on its own thread and waits for all of them.
+   */
+  @Override
+  public void flush() throws SQLException {
+    checkFailure();
+    if (!this.currentBatch.isEmpty()) {
+      submitCurrentBatch();
+    }
+
+    List<Future<Void>> flushes = Lists.newArrayListWithCapacity(this.inserters.size());
+    for (int i = 0; i < this.inserters.size(); i++) {
+      final JdbcBufferedInserter inserter = this.inserters.get(i);
+      flushes.add(this.executors.get(i).submit(() -> {
+        if (isActive()) {
+          inserter.flush();
+        }
+        return null;
+      }));
+    }
+
+    for (Future<Void> flush : flushes) {
+      try {
+        flush.get();
+      } catch (ExecutionException e) {
+        this.failure.compareAndSet(null, e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new SQLException("Interrupted while flushing inserts", e);
+      }
+    }
+    checkFailure();
+  }
+
+  private boolean isActive() {
+    return !this.closed && this.failure.get() == null;
+  }
+
+  private void checkFailure() throws SQLException {
+    Throwable t = this.failure.get();
+    if (t != null) {
+      throw t instanceof SQLException ? (SQLException) t : new SQLException("Failed to insert batch", t);
+    }
+  }
+
+  /**
+   * Stops the background threads. Batches that have not started yet are dropped, and the delegates and their
+   * connections are left to the caller.
+   */
+  @Override
+  public void close() throws IOException {
+    this.closed = true;
+    for (ExecutorService executor : this.executors) {
+      ExecutorsUtils.shutdownExecutorService(executor, Optional.of(LOG));
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer.commands;
+
+import static org.apache.gobblin.configuration.ConfigurationKeys.WRITER_PREFIX;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.postgresql.PGConnection;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import com.google.common.io.BaseEncoding;
+
+import org.apache.gobblin.configuration.State;
+import org.apache.gobblin.converter.jdbc.JdbcEntryData;
+import org.apache.gobblin.converter.jdbc.JdbcEntryDatum;
+
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * A {@link JdbcBufferedInserter} for PostgreSQL that loads the rows with COPY ... FROM STDIN in CSV format instead of
+ * INSERT statements, which skips statement parsing and parameter binding on the server.
+ *
+ * <p>
+ *   Rows are buffered as CSV text and copied every {@link #WRITER_JDBC_POSTGRES_COPY_BATCH_SIZE} rows. Null values are
+ *   written unquoted and empty, every other value is quoted, so empty strings stay distinct from nulls. Values are
+ *   written as the PostgreSQL JDBC driver binds them in {@link PostgresBufferedInserter}: binary values in bytea hex
+ *   format, and dates, times and timestamps with their fractional seconds in the JVM time zone.
+ * </p>
+ */
+@Slf4j
+public class PostgresCopyInserter implements JdbcBufferedInserter {
+
+  public static final String WRITER_JDBC_POSTGRES_COPY_ENABLED = WRITER_PREFIX + ".jdbc.postgres.copy.enabled";
+  public static final boolean DEFAULT_WRITER_JDBC_POSTGRES_COPY_ENABLED = false;
+  public static final String WRITER_JDBC_POSTGRES_COPY_BATCH_SIZE = WRITER_PREFIX + ".jdbc.postgres.copy.batch_size";
+  public static final int DEFAULT_WRITER_JDBC_POSTGRES_COPY_BATCH_SIZE = 10000;
+
+  private static final String COPY_STATEMENT_FORMAT = "COPY %s.%s (%s) FROM STDIN WITH (FORMAT csv)";
+  private static final Joiner JOINER_ON_COMMA = Joiner.on(',');
+  static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("uuuu-MM-dd");
+  static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSSSSSxxx");
+  static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss.SSSSSSxxx");
+
+  private final Connection conn;
+  private final int batchSize;
+  private final List<String> columnNames = Lists.newArrayList();
+  private final StringBuilder pendingRows = new StringBuilder();
+  private int pendingRowCount = 0;
+  private String copyStatement;
+
+  public PostgresCopyInserter(State state, Connection conn) {
+    this.conn = conn;
+    this.batchSize =
+        state.getPropAsInt(WRITER_JDBC_POSTGRES_COPY_BATCH_SIZE, DEFAULT_WRITER_JDBC_POSTGRES_COPY_BATCH_SIZE);
+    if (this.batchSize < 1) {
+      throw new IllegalArgumentException(WRITER_JDBC_POSTGRES_COPY_BATCH_SIZE + " should be a positive number");
+    }
+  }
+
+  @Override
+  public void insert(String databaseName, String table, JdbcEntryData jdbcEntryData) throws SQLException {
+    if (this.columnNames.isEmpty()) {
+      for (JdbcEntryDatum datum : jdbcEntryData) {
+        this.columnNames.add(datum.getColumnName());
+      }
+      this.copyStatement =
+          String.format(COPY_STATEMENT_FORMAT, databaseName, table, JOINER_ON_COMMA.join(this.columnNames));
+      log.info("Initialized COPY insert " + this.copyStatement);
+    }
+
+    appendCsvRow(this.pendingRows, jdbcEntryData);
+    this.pendingRowCount++;
+    if (this.pendingRowCount >= this.batchSize) {
+      flush();
+    }
+  }
+
+  @Override
+  public void flush() throws SQLException {
+    if (this.pendingRowCount == 0) {
+      return;
+    }
+    try {
+      long copied = this.conn.unwrap(PGConnection.class).getCopyAPI()
+          .copyIn(this.copyStatement, new StringReader(this.pendingRows.toString()));
+      log.debug("Copied {} rows", copied);
+    } catch (IOException e) {
+      throw new SQLException("Failed to copy rows with " + this.copyStatement, e);
+    }
+    this.pendingRows.setLength(0);
+    this.pendingRowCount = 0;
+  }
+
+  static void appendCsvRow(StringBuilder sb, JdbcEntryData jdbcEntryData) {
+    boolean first = true;
+    for (JdbcEntryDatum datum : jdbcEntryData) {
+      if (!first) {
+        sb.append(',');
+      }
+      first = false;
+      Object val = datum.getVal();
+      if (val != null) {
+        sb.append('"').append(toCopyText(val).replace("\"", "\"\"")).append('"');
+      }
+    }
+    sb.append('\n');
+  }
+
+  private static String toCopyText(Object val) {
+    if (val instanceof byte[]) {
+      return "\\x" + BaseEncoding.base16().lowerCase().encode((byte[]) val);
+    }
+    if (val instanceof Timestamp) {
+      return OffsetDateTime.ofInstant(((Timestamp) val).toInstant(), ZoneId.systemDefault()).format(TIMESTAMP_FORMAT);
+    }
+    if (val instanceof Date) {
+      return ((Date) val).toLocalDate().format(DATE_FORMAT);
+    }
+    if (val instanceof Time) {
+      return OffsetDateTime.ofInstant(Instant.ofEpochMilli(((Time) val).getTime()), ZoneId.systemDefault())
+          .format(TIME_FORMAT);
+    }
+    return val.toString();
+  }
+}
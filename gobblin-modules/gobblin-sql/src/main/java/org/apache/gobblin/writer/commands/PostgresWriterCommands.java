@@ -53,7 +53,9 @@ public class PostgresWriterCommands implements JdbcWriterCommands {
 
   public PostgresWriterCommands(State state, Connection conn) {
     this.conn = conn;
-    this.jdbcBufferedWriter = new PostgresBufferedInserter(state, conn);
+    this.jdbcBufferedWriter = state.getPropAsBoolean(PostgresCopyInserter.WRITER_JDBC_POSTGRES_COPY_ENABLED,
+        PostgresCopyInserter.DEFAULT_WRITER_JDBC_POSTGRES_COPY_ENABLED) ? new PostgresCopyInserter(state, conn)
+        : new PostgresBufferedInserter(state, conn);
   }
 
   @Override
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.source.jdbc;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.commons.lang.StringUtils;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.mockrunner.mock.jdbc.MockResultSet;
+
+
+@Test(groups = { "gobblin.source.jdbc" })
+public class ResultSetAvroMapperTest {
+
+  private static final List<String> COLUMN_NAMES = ImmutableList.of("id", "name", "price", "updated", "flag", "data",
+      "name");
+  private static final int[] COLUMN_TYPES = { Types.BIGINT, Types.VARCHAR, Types.DECIMAL, Types.TIMESTAMP, Types.BIT,
+      Types.VARBINARY, Types.INTEGER };
+
+  @Test
+  public void testSchema() throws Exception {
+    ResultSetAvroMapper mapper = new ResultSetAvroMapper(buildMetadata(), COLUMN_NAMES, "my-table", "ns", true,
+        TimeZone.getTimeZone("UTC"));
+
+    Schema schema = mapper.getSchema();
+    Assert.assertEquals(schema.getFullName(), "ns.my_table");
+    Assert.assertEquals(getType(schema, "id"), Schema.Type.LONG);
+    Assert.assertEquals(getType(schema, "name"), Schema.Type.STRING);
+    Assert.assertEquals(getType(schema, "price"), Schema.Type.STRING);
+    Assert.assertEquals(getType(schema, "updated"), Schema.Type.LONG);
+    Assert.assertEquals(getType(schema, "flag"), Schema.Type.BOOLEAN);
+    Assert.assertEquals(getType(schema, "data"), Schema.Type.BYTES);
+    Assert.assertEquals(getType(schema, "name_1"), Schema.Type.INT);
+
+    ResultSetAvroMapper bitAsInt = new ResultSetAvroMapper(buildMetadata(), COLUMN_NAMES, "t", null, false,
+        TimeZone.getTimeZone("UTC"));
+    Assert.assertEquals(getType(bitAsInt.getSchema(), "flag"), Schema.Type.INT);
+  }
+
+  @Test
+  public void testMap() throws Exception {
+    Timestamp updated = new Timestamp(1500000000000L);
+    MockResultSet resultSet = new MockResultSet(StringUtils.EMPTY);
+    resultSet.addColumn("id", Arrays.asList(1L, 2L));
+    resultSet.addColumn("name", Arrays.asList("a", null));
+    resultSet.addColumn("price", Arrays.asList("1.10", "2.20"));
+    resultSet.addColumn("updated", Arrays.asList(updated, null));
+    resultSet.addColumn("flag", Arrays.asList(true, false));
+    resultSet.addColumn("data", Arrays.asList(new byte[] { 1, 2 }, null));
+    resultSet.addColumn("name2", Arrays.asList(7, null));
+
+    ResultSetAvroMapper mapper = new ResultSetAvroMapper(buildMetadata(), COLUMN_NAMES, "t", null, true,
+        TimeZone.getTimeZone("UTC"));
+
+    Assert.assertTrue(resultSet.next());
+    GenericRecord record = mapper.map(resultSet);
+    Assert.assertEquals(record.get("id"), 1L);
+    Assert.assertEquals(record.get("name"), "a");
+    Assert.assertEquals(record.get("price"), "1.10");
+    Assert.assertEquals(record.get("updated"), updated.getTime());
+    Assert.assertEquals(record.get("flag"), true);
+    Assert.assertEquals(record.get("data"), ByteBuffer.wrap(new byte[] { 1, 2 }));
+    Assert.assertEquals(record.get("name_1"), 7);
+
+    Assert.assertTrue(resultSet.next());
+    GenericRecord secondRecord = mapper.map(resultSet);
+    Assert.assertNotSame(secondRecord, record);
+    Assert.assertEquals(secondRecord.get("id"), 2L);
+    Assert.assertNull(secondRecord.get("name"));
+    Assert.assertNull(secondRecord.get("updated"));
+    Assert.assertNull(secondRecord.get("data"));
+    Assert.assertNull(secondRecord.get("name_1"));
+  }
+
+  private static ResultSetMetaData buildMetadata() throws Exception {
+    ResultSetMetaData metadata = Mockito.mock(ResultSetMetaData.class);
+    Mockito.when(metadata.getColumnCount()).thenReturn(COLUMN_TYPES.length);
+    for (int i = 0; i < COLUMN_TYPES.length; i++) {
+      Mockito.when(metadata.getColumnType(i + 1)).thenReturn(COLUMN_TYPES[i]);
+    }
+    return metadata;
+  }
+
+  private static Schema.Type getType(Schema schema, String fieldName) {
+    return schema.getField(fieldName).schema().getTypes().get(1).getType();
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer;
+
+import static org.apache.gobblin.writer.commands.JdbcBufferedInserter.WRITER_JDBC_INSERT_BATCH_SIZE;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import org.apache.gobblin.configuration.State;
+import org.apache.gobblin.converter.jdbc.JdbcEntryData;
+import org.apache.gobblin.writer.commands.AsyncJdbcBufferedInserter;
+import org.apache.gobblin.writer.commands.JdbcBufferedInserter;
+import org.apache.gobblin.writer.commands.MySqlBufferedInserter;
+
+@Test(groups = {"gobblin.writer"}, singleThreaded=true)
+public class AsyncJdbcBufferedInserterTest extends JdbcBufferedInserterTestBase {
+
+  public void testAsyncInsertOverTwoConnections() throws Exception {
+    final int colNums = 5;
+    final int batchSize = 10;
+    final int entryCount = 107;
+    final int colSize = 7;
+
+    State state = new State();
+    state.setProp(WRITER_JDBC_INSERT_BATCH_SIZE, Integer.toString(batchSize));
+
+    Connection otherConn = mock(Connection.class);
+    PreparedStatement pstmt = mock(PreparedStatement.class);
+    PreparedStatement otherPstmt = mock(PreparedStatement.class);
+    when(conn.prepareStatement(anyString())).thenReturn(pstmt);
+    when(otherConn.prepareStatement(anyString())).thenReturn(otherPstmt);
+
+    try (AsyncJdbcBufferedInserter inserter = new AsyncJdbcBufferedInserter(state,
+        ImmutableList.of(getJdbcBufferedInserter(state, conn), getJdbcBufferedInserter(state, otherConn)))) {
+      for (JdbcEntryData entry : createJdbcEntries(colNums, colSize, entryCount)) {
+        inserter.insert(db, table, entry);
+      }
+      inserter.flush();
+    }
+
+    // 11 batches alternate between the connections, and the 7 remaining rows go to the first one
+    verify(pstmt, times(6)).execute();
+    verify(otherPstmt, times(5)).execute();
+    verify(pstmt, times(colNums * 57)).setObject(anyInt(), anyObject());
+    verify(otherPstmt, times(colNums * 50)).setObject(anyInt(), anyObject());
+  }
+
+  public void testAsyncInsertFailure() throws Exception {
+    State state = new State();
+    state.setProp(WRITER_JDBC_INSERT_BATCH_SIZE, "2");
+
+    JdbcBufferedInserter failing = mock(JdbcBufferedInserter.class);
+    doThrow(new SQLException("insert failed")).when(failing).insert(anyString(), anyString(), any(JdbcEntryData.class));
+
+    List<JdbcEntryData> entries = createJdbcEntries(3, 5, 4);
+    try (AsyncJdbcBufferedInserter inserter = new AsyncJdbcBufferedInserter(state, ImmutableList.of(failing))) {
+      for (JdbcEntryData entry : entries) {
+        inserter.insert(db, table, entry);
+      }
+      inserter.flush();
+      Assert.fail("Flush should fail after a failed batch");
+    } catch (SQLException e) {
+      Assert.assertEquals(e.getMessage(), "insert failed");
+    }
+    verify(failing, times(0)).flush();
+  }
+
+  @Override
+  protected JdbcBufferedInserter getJdbcBufferedInserter(State state, Connection conn) {
+    return new MySqlBufferedInserter(state, conn);
+  }
+}
@@ -22,6 +22,7 @@ import static org.mockito.Mockito.*;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Arrays;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -29,6 +30,7 @@ import org.testng.annotations.Test;
 import org.apache.gobblin.configuration.State;
 import org.apache.gobblin.converter.jdbc.JdbcEntryData;
 import org.apache.gobblin.writer.JdbcWriter;
+import org.apache.gobblin.writer.commands.AsyncJdbcBufferedInserter;
 import org.apache.gobblin.writer.commands.JdbcWriterCommands;
 
 @Test(groups = {"gobblin.writer"})
@@ -80,4 +82,40 @@ public class JdbcWriterTest {
     verify(conn, times(1)).close();
     Assert.assertEquals(writer.recordsWritten(), 0L);
   }
+
+  @Test
+  public void multipleConnectionsRequireAutoCommitTest() throws SQLException, IOException {
+    JdbcWriterCommands writerCommands = mock(JdbcWriterCommands.class);
+    JdbcWriterCommands otherWriterCommands = mock(JdbcWriterCommands.class);
+    Connection conn = mock(Connection.class);
+    Connection otherConn = mock(Connection.class);
+    // The second commit would fail after the first one made its rows durable
+    doThrow(new SQLException("commit failed")).when(otherConn).commit();
+
+    State state = new State();
+    state.setProp(AsyncJdbcBufferedInserter.WRITER_JDBC_ASYNC_INSERT_CONNECTIONS, 2);
+    try {
+      new JdbcWriter(Arrays.asList(writerCommands, otherWriterCommands), state, "db", "users",
+          Arrays.asList(conn, otherConn));
+      Assert.fail("More than one connection should require auto-commit");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    verify(conn, never()).commit();
+    verify(otherConn, never()).commit();
+
+    // In auto-commit mode, the rows of the additional connections are not committed again
+    state.setProp(JdbcWriter.ENABLE_AUTO_COMMIT, true);
+    try (JdbcWriter writer = new JdbcWriter(Arrays.asList(writerCommands, otherWriterCommands), state, "db", "users",
+        Arrays.asList(conn, otherConn))) {
+      writer.write(null);
+      writer.commit();
+    }
+    verify(writerCommands, times(1)).flush();
+    verify(otherWriterCommands, times(1)).flush();
+    verify(conn, times(1)).commit();
+    verify(otherConn, never()).commit();
+    verify(conn, never()).rollback();
+    verify(otherConn, times(1)).close();
+  }
 }
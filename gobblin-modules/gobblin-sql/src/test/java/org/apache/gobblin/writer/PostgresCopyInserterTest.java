@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.writer;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.CharStreams;
+
+import org.apache.gobblin.configuration.State;
+import org.apache.gobblin.converter.jdbc.JdbcEntryData;
+import org.apache.gobblin.converter.jdbc.JdbcEntryDatum;
+import org.apache.gobblin.writer.commands.PostgresCopyInserter;
+
+
+@Test(groups = {"gobblin.writer"})
+public class PostgresCopyInserterTest {
+
+  private static String copy(JdbcEntryData entry) throws Exception {
+    final List<String> copied = Lists.newArrayList();
+    CopyManager copyManager = mock(CopyManager.class);
+    when(copyManager.copyIn(anyString(), any(Reader.class))).thenAnswer(invocation -> {
+      copied.add(CharStreams.toString((Reader) invocation.getArguments()[1]));
+      return 1L;
+    });
+    PGConnection pgConnection = mock(PGConnection.class);
+    when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+    Connection conn = mock(Connection.class);
+    when(conn.unwrap(PGConnection.class)).thenReturn(pgConnection);
+
+    PostgresCopyInserter inserter = new PostgresCopyInserter(new State(), conn);
+    inserter.insert("db", "users", entry);
+    inserter.flush();
+    Assert.assertEquals(copied.size(), 1);
+    return copied.get(0);
+  }
+
+  private static String unquote(String field) {
+    Assert.assertTrue(field.startsWith("\"") && field.endsWith("\""), field);
+    return field.substring(1, field.length() - 1).replace("\"\"", "\"");
+  }
+
+  public void testBinaryAndTemporalRoundTrip() throws Exception {
+    byte[] bytes = new byte[]{0, 15, (byte) 0xff, '"', ','};
+    Timestamp timestamp = Timestamp.valueOf("2020-02-29 23:59:58.123456");
+    Date date = Date.valueOf("1999-12-31");
+    Time time = new Time(Timestamp.valueOf("1970-01-01 08:30:15.250").getTime());
+
+    JdbcEntryData entry = new JdbcEntryData(Lists.newArrayList(new JdbcEntryDatum("bin", bytes),
+        new JdbcEntryDatum("ts", timestamp), new JdbcEntryDatum("dt", date), new JdbcEntryDatum("tm", time),
+        new JdbcEntryDatum("str", "a \"b\" c"), new JdbcEntryDatum("nothing", null)));
+    String row = copy(entry);
+    Assert.assertTrue(row.endsWith("\n"));
+    List<String> values = Splitter.on(',').splitToList(row.substring(0, row.length() - 1));
+    Assert.assertEquals(values.size(), 6);
+    // Columns are copied in the order of the entry
+    Map<String, String> fields = Maps.newHashMap();
+    int i = 0;
+    for (JdbcEntryDatum datum : entry) {
+      fields.put(datum.getColumnName(), values.get(i++));
+    }
+
+    // Binary values are in bytea hex format
+    String bin = unquote(fields.get("bin"));
+    Assert.assertEquals(bin, "\\x000fff222c");
+    Assert.assertEquals(BaseEncoding.base16().lowerCase().decode(bin.substring(2)), bytes);
+
+    // Temporal values keep their fractional seconds and the JVM time zone
+    String ts = unquote(fields.get("ts"));
+    Assert.assertTrue(ts.startsWith("2020-02-29 23:59:58.123456"), ts);
+    Assert.assertEquals(Timestamp.from(
+        OffsetDateTime.parse(ts, DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss.SSSSSSxxx")).toInstant()), timestamp);
+    Assert.assertEquals(unquote(fields.get("dt")), "1999-12-31");
+    Assert.assertEquals(Date.valueOf(LocalDate.parse(unquote(fields.get("dt")))), date);
+    String tm = unquote(fields.get("tm"));
+    Assert.assertTrue(tm.startsWith("08:30:15.250000"), tm);
+    LocalTime localTime = OffsetTime.parse(tm, DateTimeFormatter.ofPattern("HH:mm:ss.SSSSSSxxx")).toLocalTime();
+    Assert.assertEquals(Timestamp.valueOf(LocalDateTime.of(LocalDate.of(1970, 1, 1), localTime)).getTime(),
+        time.getTime());
+
+    Assert.assertEquals(unquote(fields.get("str")), "a \"b\" c");
+    // Nulls are unquoted and empty
+    Assert.assertEquals(fields.get("nothing"), "");
+  }
+}
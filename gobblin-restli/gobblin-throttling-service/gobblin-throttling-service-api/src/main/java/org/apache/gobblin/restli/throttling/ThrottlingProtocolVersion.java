@@ -19,11 +19,17 @@ package org.apache.gobblin.restli.throttling;
 
 /**
  * Versions of the Throttling service protocol. Allows the server to know what the client understands, and to adjust
- * the response based on the client version. Only add new versions at the end.
+ * the response based on the client version, and the client to know what the server supports. Only add new versions at
+ * the end.
  */
 public enum ThrottlingProtocolVersion {
 	/** Base version of throttling server. */
 	BASE,
 	/** Clients at this level know to wait before distributing permits allocated to them. */
-	WAIT_ON_CLIENT
+	WAIT_ON_CLIENT,
+	/**
+	 * Clients at this level drop permits after their expiration and return unused permits to the server. Servers at this
+	 * level accept unused permits returned by clients.
+	 */
+	LEASES
 }
@@ -31,6 +31,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleConsumer;
 
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Timer;
@@ -69,6 +70,14 @@ import lombok.extern.slf4j.Slf4j;
  * An object that requests batches of permits from an external throttling server. It tries to hide the latency of doing
  * external permit requests by requesting them in batches and preemptively requesting permits before the current ones
  * are exhausted.
+ *
+ * Batches are leases: they may carry an expiration set by the server, after which unused permits are dropped. Permits
+ * are taken from the local leases without going through the request lock whenever possible, and a new lease is
+ * requested in the background as soon as the local permits would not last for {@link #PREFETCH_ROUND_TRIPS} request
+ * round trips at the observed consumption rate. The size of each lease follows a moving average of the consumption
+ * rate of previous leases, updated whenever a lease is used up or expires, so that a requester returns to the server
+ * roughly every {@link #targetMillisBetweenRequests}. Permits that are still unused when the requester is closed are
+ * returned to the server with {@link #returnUnusedPermits()}, if the server supports it.
  */
 @Slf4j
 class BatchedPermitsRequester {
@@ -89,6 +98,12 @@ class BatchedPermitsRequester {
   private static final double MAX_DEPLETION_RATE = 1e20;
   public static final int MAX_GROWTH_REQUEST = 2;
   private static final long GET_PERMITS_MAX_SLEEP_MILLIS = 1000;
+  /** Weight of the latest observation in the moving averages of consumption rate and request latency. */
+  private static final double MOVING_AVERAGE_WEIGHT = 0.5;
+  /** A new lease is requested when the stored permits would not last this many request round trips. */
+  private static final int PREFETCH_ROUND_TRIPS = 2;
+  /** A new lease is requested when the current lease has less than this fraction of its permits left. */
+  private static final double PREFETCH_REMAINING_FRACTION = 0.2;
 
   private static final ScheduledExecutorService SCHEDULE_EXECUTOR_SERVICE =
       Executors.newScheduledThreadPool(1, ExecutorsUtils.newDaemonThreadFactory(Optional.of(log),
@@ -112,7 +127,15 @@ class BatchedPermitsRequester {
   /** Permit requests will timeout after this many millis. */
   private final long maxTimeout;
   /** Any request larger than this is known to be impossible to satisfy. */
-  private long knownUnsatisfiablePermits;
+  private volatile long knownUnsatisfiablePermits;
+  /** Moving average of the rate (permits per milli) at which leased permits are used. Negative if unknown. */
+  private volatile double consumptionRatePerMilli = -1;
+  /** Moving average of the round trip time of permit requests. */
+  private volatile double requestLatencyMillis;
+  /** Number of permits in the last lease received from the server. */
+  private volatile long lastLeasePermits;
+  /** Whether the server accepts unused permits, which a server without leases would treat as a new request. */
+  private volatile boolean serverAcceptsReturnedPermits;
 
   private volatile AllocationCallback currentCallback;
 
@@ -123,7 +146,7 @@ class BatchedPermitsRequester {
     Preconditions.checkArgument(!Strings.isNullOrEmpty(resourceId), "Must provide a resource id.");
     Preconditions.checkArgument(!Strings.isNullOrEmpty(requestorIdentifier), "Must provide a requestor identifier.");
 
-    this.permitBatchContainer = new PermitBatchContainer();
+    this.permitBatchContainer = new PermitBatchContainer(this::updateConsumptionRate);
     this.lock = new ReentrantLock();
     this.newPermitsAvailable = this.lock.newCondition();
     /** Ensures there is only one in-flight request at a time. */
@@ -154,6 +177,12 @@ class BatchedPermitsRequester {
     if (permits <= 0) {
       return true;
     }
+    // Fast path: use permits already leased from the server without acquiring the request lock
+    if (permits < this.knownUnsatisfiablePermits && this.permitBatchContainer.tryTake(permits)) {
+      maybePrefetchPermits();
+      return true;
+    }
+
     long startTimeNanos = System.nanoTime();
     this.permitsOutstanding.addEntryWithWeight(permits);
     this.lock.lock();
@@ -172,6 +201,7 @@ class BatchedPermitsRequester {
         }
         if (this.permitBatchContainer.tryTake(permits)) {
           this.permitsOutstanding.removeEntryWithWeight(permits);
+          maybePrefetchPermits();
           return true;
         }
         if (this.retryStatus.canRetryWithinMillis(remainingTime(startTimeNanos, this.maxTimeout))) {
@@ -194,6 +224,28 @@ class BatchedPermitsRequester {
     return false;
   }
 
+  /**
+   * Request a new lease in the background if the stored permits are about to run out, so that callers of
+   * {@link #getPermits(long)} do not have to wait for the server.
+   */
+  private void maybePrefetchPermits() {
+    if (this.requestSemaphore.availablePermits() == 0 || !this.retryStatus.canRetryNow()) {
+      // A request is already in flight, or we cannot send one right now
+      return;
+    }
+    long storedPermits = this.permitBatchContainer.getTotalAvailablePermits();
+    if (storedPermits <= PREFETCH_REMAINING_FRACTION * this.lastLeasePermits || isAboutToRunOut(storedPermits)) {
+      maybeSendNewPermitRequest();
+    }
+  }
+
+  /**
+   * @return true if the input permits will be used before a new lease can be obtained from the server.
+   */
+  private boolean isAboutToRunOut(long storedPermits) {
+    return storedPermits < this.consumptionRatePerMilli * Math.max(this.requestLatencyMillis, 1) * PREFETCH_ROUND_TRIPS;
+  }
+
   private long remainingTime(long startTimeNanos, long timeout) {
     return Math.max(timeout - elapsedMillis(startTimeNanos), 0);
   }
@@ -234,7 +286,7 @@ class BatchedPermitsRequester {
       PermitRequest permitRequest = this.basePermitRequest.copy();
       permitRequest.setPermits(permits);
       permitRequest.setMinPermits((long) this.permitsOutstanding.getAverageWeightOrZero());
-      permitRequest.setVersion(ThrottlingProtocolVersion.WAIT_ON_CLIENT.ordinal());
+      permitRequest.setVersion(ThrottlingProtocolVersion.LEASES.ordinal());
       if (BatchedPermitsRequester.this.restRequestHistogram != null) {
         BatchedPermitsRequester.this.restRequestHistogram.update(permits);
       }
@@ -281,15 +333,19 @@ class BatchedPermitsRequester {
       // If there are multiple batches in the queue, don't create a new request
       return candidatePermits;
     }
-    PermitBatch firstBatch = Iterables.getFirst(this.permitBatchContainer.batches.values(), null);
+    PermitBatch firstBatch = this.permitBatchContainer.getFirstBatch();
 
     if (firstBatch != null) {
-      // If the current batch has more than 20% permits left, don't create a new request
-      if ((double) firstBatch.getPermits() / firstBatch.getInitialPermits() > 0.2) {
+      // If the current batch has more than 20% permits left and will last until a new request returns,
+      // don't create a new request
+      if ((double) firstBatch.getPermits() / firstBatch.getInitialPermits() > PREFETCH_REMAINING_FRACTION
+          && !isAboutToRunOut(firstBatch.getPermits())) {
         return candidatePermits;
       }
 
-      double averageDepletionRate = firstBatch.getAverageDepletionRate();
+      // Until a lease has been used up or has expired, the consumption rate is estimated from the current lease
+      double averageDepletionRate = this.consumptionRatePerMilli >= 0
+          ? this.consumptionRatePerMilli : firstBatch.getAverageDepletionRate();
       long candidatePermitsByDepletion =
           Math.min((long) (averageDepletionRate * this.targetMillisBetweenRequests), MAX_GROWTH_REQUEST *
               firstBatch.getInitialPermits());
@@ -299,6 +355,61 @@ class BatchedPermitsRequester {
     }
   }
 
+  /**
+   * Add the depletion rate of a lease that was used up or has expired to the moving average of the consumption rate.
+   * Called by the {@link PermitBatchContainer} under its lock.
+   */
+  private void updateConsumptionRate(double depletionRate) {
+    if (depletionRate >= MAX_DEPLETION_RATE) {
+      // Lease was not used long enough to compute a rate
+      return;
+    }
+    this.consumptionRatePerMilli = this.consumptionRatePerMilli >= 0
+        ? MOVING_AVERAGE_WEIGHT * depletionRate + (1 - MOVING_AVERAGE_WEIGHT) * this.consumptionRatePerMilli
+        : depletionRate;
+  }
+
+  /**
+   * Return all permits that were leased from the server but not used yet, so that other requestors can use them.
+   * Permits are only returned to servers which accept them, otherwise they are dropped. This is a best effort
+   * operation, failures to reach the server are only logged.
+   * @return the number of permits returned.
+   */
+  public long returnUnusedPermits() {
+    long unusedPermits = this.permitBatchContainer.purgeAll();
+    if (unusedPermits <= 0) {
+      return 0;
+    }
+    if (!this.serverAcceptsReturnedPermits) {
+      log.debug(String.format("Dropping %d unused permits, the server does not accept returned permits.", unusedPermits));
+      return 0;
+    }
+    try {
+      PermitRequest permitRequest = this.basePermitRequest.copy();
+      permitRequest.setPermits(0);
+      permitRequest.setReturnedPermits(unusedPermits);
+      permitRequest.setVersion(ThrottlingProtocolVersion.LEASES.ordinal());
+
+      log.debug("Returning unused permits " + permitRequest);
+
+      this.requestSender.sendRequest(permitRequest, new Callback<Response<PermitAllocation>>() {
+        @Override
+        public void onError(Throwable e) {
+          log.warn(String.format("Failed to return %d unused permits to the throttling service.", unusedPermits), e);
+        }
+
+        @Override
+        public void onSuccess(Response<PermitAllocation> result) {
+          // Nothing to do
+        }
+      });
+    } catch (CloneNotSupportedException cnse) {
+      // This should never happen.
+      throw new RuntimeException(cnse);
+    }
+    return unusedPermits;
+  }
+
   @VisibleForTesting
   AllocationCallback createAllocationCallback(Sleeper sleeper) {
     return new AllocationCallback(new NoopCloseable(), sleeper);
@@ -366,6 +477,11 @@ class BatchedPermitsRequester {
 
         log.debug("Received permit allocation " + allocation);
 
+        double latency = elapsedTime();
+        BatchedPermitsRequester.this.requestLatencyMillis = BatchedPermitsRequester.this.requestLatencyMillis > 0
+            ? MOVING_AVERAGE_WEIGHT * latency + (1 - MOVING_AVERAGE_WEIGHT) * BatchedPermitsRequester.this.requestLatencyMillis
+            : latency;
+
         Long retryDelay = allocation.getMinRetryDelayMillis(GetMode.NULL);
         if (retryDelay != null) {
           BatchedPermitsRequester.this.retryStatus.blockRetries(retryDelay, null);
@@ -376,12 +492,17 @@ class BatchedPermitsRequester {
           this.sleeper.sleep(waitForUse);
         }
 
+        if (allocation.getVersion(GetMode.DEFAULT) >= ThrottlingProtocolVersion.LEASES.ordinal()) {
+          BatchedPermitsRequester.this.serverAcceptsReturnedPermits = true;
+        }
+
         if (allocation.getUnsatisfiablePermits(GetMode.DEFAULT) > 0) {
           BatchedPermitsRequester.this.knownUnsatisfiablePermits = allocation.getUnsatisfiablePermits(GetMode.DEFAULT);
         }
 
         if (allocation.getPermits() > 0) {
           BatchedPermitsRequester.this.permitBatchContainer.addPermitAllocation(allocation);
+          BatchedPermitsRequester.this.lastLeasePermits = allocation.getPermits();
         }
 
         clearCallback();
@@ -476,6 +597,20 @@ class BatchedPermitsRequester {
         return MAX_DEPLETION_RATE;
       }
     }
+
+    /**
+     * Get the average rate at which permits in this batch were used until it expired.
+     */
+    private double getDepletionRateAtExpiration() {
+      if (this.firstUseTime == 0) {
+        return 0;
+      }
+      if (this.expiration > this.firstUseTime) {
+        return (double) (this.initialPermits - this.permits) / (this.expiration - this.firstUseTime);
+      } else {
+        return MAX_DEPLETION_RATE;
+      }
+    }
   }
 
   /**
@@ -490,6 +625,12 @@ class BatchedPermitsRequester {
     });
     @Getter
     private volatile long totalAvailablePermits = 0;
+    /** Receives the depletion rate of each batch that was used up or has expired. */
+    private final DoubleConsumer depletionRateListener;
+
+    PermitBatchContainer(DoubleConsumer depletionRateListener) {
+      this.depletionRateListener = depletionRateListener;
+    }
 
     private synchronized boolean tryTake(long permits) {
       purgeExpiredBatches();
@@ -502,9 +643,16 @@ class BatchedPermitsRequester {
         PermitBatch batch = batchesIterator.next();
         if (batch.getPermits() < permits) {
           permits -= batch.getPermits();
+          if (batch.getPermits() > 0) {
+            batch.decrementPermits(batch.getPermits());
+            this.depletionRateListener.accept(batch.getAverageDepletionRate());
+          }
           batchesIterator.remove();
         } else {
           batch.decrementPermits(permits);
+          if (batch.getPermits() <= 0) {
+            this.depletionRateListener.accept(batch.getAverageDepletionRate());
+          }
           return true;
         }
       }
@@ -526,22 +674,41 @@ class BatchedPermitsRequester {
 
     private synchronized void purgeExpiredBatches() {
       long now = System.currentTimeMillis();
-      purgeBatches(this.batches.asMap().subMap(Long.MIN_VALUE, now).values().iterator());
+      purgeBatches(this.batches.asMap().subMap(Long.MIN_VALUE, now).values().iterator(), true);
     }
 
-    private synchronized void purgeAll() {
-      purgeBatches(this.batches.asMap().values().iterator());
+    /**
+     * Drop all batches that have not expired yet.
+     * @return the number of permits dropped.
+     */
+    private synchronized long purgeAll() {
+      purgeExpiredBatches();
+      return purgeBatches(this.batches.asMap().values().iterator(), false);
     }
 
-    private void purgeBatches(Iterator<Collection<PermitBatch>> iterator) {
+    /**
+     * @param expired whether the batches have expired, in which case their depletion rate is reported. Used up batches
+     *                have been reported already.
+     */
+    private long purgeBatches(Iterator<Collection<PermitBatch>> iterator, boolean expired) {
+      long permitsPurged = 0;
       while (iterator.hasNext()) {
         Collection<PermitBatch> batches = iterator.next();
         for (PermitBatch batch : batches) {
           Long permitsExpired = batch.getPermits();
           this.totalAvailablePermits -= permitsExpired;
+          permitsPurged += permitsExpired;
+          if (expired && permitsExpired > 0) {
+            this.depletionRateListener.accept(batch.getDepletionRateAtExpiration());
+          }
         }
         iterator.remove();
       }
+      return permitsPurged;
+    }
+
+    private synchronized PermitBatch getFirstBatch() {
+      return Iterables.getFirst(this.batches.values(), null);
     }
 
     private synchronized void addPermitAllocation(PermitAllocation allocation) {
@@ -21,12 +21,14 @@ import java.net.ConnectException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
 import com.linkedin.common.callback.Callback;
 import com.linkedin.r2.RemoteInvocationException;
 import com.linkedin.r2.RetriableRequestException;
@@ -57,6 +59,10 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * A {@link RequestSender} that handles redirects and unreachable uris transparently.
+ *
+ * Redirects are remembered per resource, so that when the throttling service partitions resources across several
+ * servers, requests for each resource go directly to the server owning it. When the owner of a resource cannot be
+ * reached, the resource falls back to the default server, which redirects it to the new owner.
  */
 @Slf4j
 public class RedirectAwareRestClientRequestSender extends RestClientRequestSender {
@@ -100,6 +106,8 @@ public class RedirectAwareRestClientRequestSender extends RestClientRequestSende
   private volatile RestClient restClient;
   @Getter
   private volatile String currentServerPrefix;
+  /** Server prefix each resource was last redirected to. */
+  private final Map<String, String> resourceServerPrefixes = Maps.newConcurrentMap();
 
   private String lastLogPrefix = "";
   private AtomicInteger requestsSinceLastLog = new AtomicInteger(0);
@@ -166,6 +174,27 @@ public class RedirectAwareRestClientRequestSender extends RestClientRequestSende
     return this.restClient;
   }
 
+  @Override
+  protected RestClient getRestClient(PermitRequest request) {
+    String resourcePrefix = this.resourceServerPrefixes.get(request.getResource());
+    if (resourcePrefix == null) {
+      return getRestClient();
+    }
+    try {
+      return getRestClientForPrefix(resourcePrefix);
+    } catch (NotConfiguredException nce) {
+      log.warn("Could not create client for " + resourcePrefix, nce);
+      this.resourceServerPrefixes.remove(request.getResource());
+      return getRestClient();
+    }
+  }
+
+  @VisibleForTesting
+  String getServerPrefix(String resource) {
+    String resourcePrefix = this.resourceServerPrefixes.get(resource);
+    return resourcePrefix == null ? getCurrentServerPrefix() : resourcePrefix;
+  }
+
   @Override
   protected Callback<Response<PermitAllocation>> decorateCallback(PermitRequest request,
       Callback<Response<PermitAllocation>> callback) {
@@ -183,8 +212,12 @@ public class RedirectAwareRestClientRequestSender extends RestClientRequestSende
       log.error(String.format("Switching to server prefix %s due to: %s", uri, reason), errorCause);
     }
     this.currentServerPrefix = uri;
-    this.restClient = (RestClient) this.broker.getSharedResource(new SharedRestClientFactory(),
-          new UriRestClientKey(RestliLimiterFactory.RESTLI_SERVICE_NAME, uri));
+    this.restClient = getRestClientForPrefix(uri);
+  }
+
+  private RestClient getRestClientForPrefix(String uri) throws NotConfiguredException {
+    return (RestClient) this.broker.getSharedResource(new SharedRestClientFactory(),
+        new UriRestClientKey(RestliLimiterFactory.RESTLI_SERVICE_NAME, uri));
   }
 
   /**
@@ -210,8 +243,11 @@ public class RedirectAwareRestClientRequestSender extends RestClientRequestSende
           }
           RestLiResponseException responseExc = (RestLiResponseException) error;
           String newUri = (String) responseExc.getErrorDetails().get("Location");
-          RedirectAwareRestClientRequestSender.this.updateRestClient(
-              SharedRestClientFactory.resolveUriPrefix(new URI(newUri)), "301 redirect", null);
+          String newPrefix = SharedRestClientFactory.resolveUriPrefix(new URI(newUri));
+          if (!newPrefix.equals(RedirectAwareRestClientRequestSender.this.getCurrentServerPrefix())) {
+            RedirectAwareRestClientRequestSender.this.updateRestClient(newPrefix, "301 redirect", null);
+          }
+          RedirectAwareRestClientRequestSender.this.resourceServerPrefixes.put(this.originalRequest.getResource(), newPrefix);
           this.exponentialBackoff.awaitNextRetry();
           sendRequest(this.originalRequest, this);
         } else if (error instanceof RemoteInvocationException
@@ -220,7 +256,11 @@ public class RedirectAwareRestClientRequestSender extends RestClientRequestSende
           if (this.retries > RedirectAwareRestClientRequestSender.this.connectionPrefixes.size() + MIN_RETRIES) {
             this.underlying.onError(new NonRetriableException("Failed to connect to all available connection prefixes.", error));
           }
-          updateRestClient(getNextConnectionPrefix(), "Failed to communicate with " + getCurrentServerPrefix(), error);
+          String resourcePrefix =
+              RedirectAwareRestClientRequestSender.this.resourceServerPrefixes.remove(this.originalRequest.getResource());
+          if (resourcePrefix == null || resourcePrefix.equals(getCurrentServerPrefix())) {
+            updateRestClient(getNextConnectionPrefix(), "Failed to communicate with " + getCurrentServerPrefix(), error);
+          }
           this.exponentialBackoff.awaitNextRetry();
           sendRequest(this.originalRequest, this);
         } else {
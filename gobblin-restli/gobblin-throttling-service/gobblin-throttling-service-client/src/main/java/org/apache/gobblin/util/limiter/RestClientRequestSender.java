@@ -42,7 +42,7 @@ public abstract class RestClientRequestSender implements RequestSender {
   public void sendRequest(PermitRequest request, Callback<Response<PermitAllocation>> callback) {
     PermitsGetRequestBuilder getBuilder = new PermitsRequestBuilders().get();
     Request<PermitAllocation> fullRequest = getBuilder.id(new ComplexResourceKey<>(request, new EmptyRecord())).build();
-    getRestClient().sendRequest(fullRequest, decorateCallback(request, callback));
+    getRestClient(request).sendRequest(fullRequest, decorateCallback(request, callback));
   }
 
   /**
@@ -57,4 +57,12 @@ public abstract class RestClientRequestSender implements RequestSender {
    * @return The {@link RestClient} to use to send the request.
    */
   protected abstract RestClient getRestClient();
+
+  /**
+   * @return The {@link RestClient} to use to send the input request. Subclasses can override this method to route
+   *         requests for different resources to different servers.
+   */
+  protected RestClient getRestClient(PermitRequest request) {
+    return getRestClient();
+  }
 }
@@ -82,9 +82,12 @@ public class RestliServiceBasedLimiter implements Limiter {
     return permitsGranted ? NoopCloseable.INSTANCE : null;
   }
 
+  /**
+   * Returns the permits leased from the server and not used yet, so that other clients can use them.
+   */
   @Override
   public void stop() {
-    // Do nothing
+    this.bachedPermitsContainer.returnUnusedPermits();
   }
 
   /**
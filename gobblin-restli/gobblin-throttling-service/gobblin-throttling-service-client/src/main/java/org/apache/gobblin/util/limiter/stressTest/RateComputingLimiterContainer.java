@@ -24,6 +24,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
@@ -50,6 +52,7 @@ import lombok.extern.slf4j.Slf4j;
 public class RateComputingLimiterContainer {
   private final List<AtomicLong> subLimiterPermitCounts = Lists.newArrayList();
   private final Queue<Long> unusedPermitsCounts = new LinkedList<>();
+  private final Queue<Long> grantLatenciesMillis = new ConcurrentLinkedQueue<>();
 
   private Map<String, Long> lastReportTimes = Maps.newHashMap();
 
@@ -62,7 +65,7 @@ public class RateComputingLimiterContainer {
   }
 
   /**
-   * A {@link Limiter} decorator that records all permits granted.
+   * A {@link Limiter} decorator that records all permits granted, and how long each permit grant took.
    */
   @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
   public class RateComputingLimiterDecorator implements Limiter, Decorator {
@@ -83,19 +86,24 @@ public class RateComputingLimiterContainer {
 
     @Override
     public Closeable acquirePermits(long permits) throws InterruptedException {
+      long startNanos = System.nanoTime();
       Closeable closeable = this.underlying.acquirePermits(permits);
+      RateComputingLimiterContainer.this.grantLatenciesMillis.add(
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
       this.localPermitCount.addAndGet(permits);
       return closeable;
     }
 
     @Override
     public void stop() {
-      this.underlying.stop();
       if (this.underlying instanceof RestliServiceBasedLimiter) {
+        // Read unused permits before stopping, as stopping returns them to the server
         RestliServiceBasedLimiter restliLimiter = (RestliServiceBasedLimiter) this.underlying;
-        RateComputingLimiterContainer.this.unusedPermitsCounts.add(restliLimiter.getUnusedPermits());
-        log.info("Unused permits: " + restliLimiter.getUnusedPermits());
+        long unusedPermits = restliLimiter.getUnusedPermits();
+        RateComputingLimiterContainer.this.unusedPermitsCounts.add(unusedPermits);
+        log.info("Unused permits: " + unusedPermits);
       }
+      this.underlying.stop();
       RateComputingLimiterContainer.this.subLimiterPermitCounts.remove(this.localPermitCount);
     }
   }
@@ -119,6 +127,19 @@ public class RateComputingLimiterContainer {
     return stats;
   }
 
+  /**
+   * Get a {@link DescriptiveStatistics} object with the latency in millis of all permit grants since the last report.
+   * Use {@link DescriptiveStatistics#getPercentile(double)} to get tail latencies.
+   */
+  public @Nullable DescriptiveStatistics getGrantLatencyStatsSinceLastReport() {
+    DescriptiveStatistics stats = new DescriptiveStatistics();
+    Long latency;
+    while ((latency = this.grantLatenciesMillis.poll()) != null) {
+      stats.addValue(latency);
+    }
+    return stats.getN() == 0 ? null : stats;
+  }
+
   private @Nullable DescriptiveStatistics getNormalizedStatistics(String key, Collection<? extends Number> values) {
     long now = System.currentTimeMillis();
 
@@ -33,6 +33,8 @@ import org.apache.commons.cli.Options;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.apache.hadoop.conf.Configuration;
 
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
 import com.google.common.collect.Maps;
 import com.google.inject.Key;
 import com.google.inject.name.Names;
@@ -59,7 +61,9 @@ import lombok.extern.slf4j.Slf4j;
  * The mock {@link RestliServiceBasedLimiter} sends requests to an embedded {@link LimiterServerResource}, adding an
  * artificial latency to the requests representing the network latency.
  *
- * The stress test prints permit granting statistics every 15 seconds.
+ * The stress test prints permit granting statistics every 15 seconds, including the p99 latency of permit grants as
+ * seen by the stressors and the p99 latency of the requests processed by the server. Running it with a large number of
+ * stressor threads measures how the server behaves under high concurrency for a single hot resource.
  */
 @Slf4j
 public class LocalStressTest {
@@ -72,13 +76,17 @@ public class LocalStressTest {
       new Option("latency", true, "Artificial request latency in millis.");
   public static final Option QPS =
       new Option("qps", true, "Target qps.");
+  public static final Option SHARDS =
+      new Option("shards", true, "Number of token bucket shards for the resource.");
 
-  public static final Options OPTIONS = StressTestUtils.OPTIONS.addOption(STRESSOR_THREADS).addOption(PROCESSOR_THREADS);
+  public static final Options OPTIONS = StressTestUtils.OPTIONS.addOption(STRESSOR_THREADS).addOption(PROCESSOR_THREADS)
+      .addOption(ARTIFICIAL_LATENCY).addOption(QPS).addOption(SHARDS);
 
   public static final int DEFAULT_STRESSOR_THREADS = 10;
   public static final int DEFAULT_PROCESSOR_THREADS = 10;
   public static final int DEFAULT_ARTIFICIAL_LATENCY = 100;
   public static final int DEFAULT_TARGET_QPS = 100;
+  public static final int DEFAULT_SHARDS = QPSPolicy.DEFAULT_SHARDS;
 
   public static void main(String[] args) throws Exception {
 
@@ -92,6 +100,7 @@ public class LocalStressTest {
         DEFAULT_ARTIFICIAL_LATENCY)));
     long targetQps = Integer.parseInt(cli.getOptionValue(QPS.getOpt(), Integer.toString(
         DEFAULT_TARGET_QPS)));
+    int shards = Integer.parseInt(cli.getOptionValue(SHARDS.getOpt(), Integer.toString(DEFAULT_SHARDS)));
 
     Configuration configuration = new Configuration();
     StressTestUtils.populateConfigFromCli(configuration, cli);
@@ -106,6 +115,8 @@ public class LocalStressTest {
             QPSPolicy.FACTORY_ALIAS);
     configMap.put(BrokerConfigurationKeyGenerator.generateKey(factory, res1key, null, QPSPolicy.QPS),
         Long.toString(targetQps));
+    configMap.put(BrokerConfigurationKeyGenerator.generateKey(factory, res1key, null, QPSPolicy.SHARDS),
+        Integer.toString(shards));
 
     ThrottlingGuiceServletConfig guiceServletConfig = new ThrottlingGuiceServletConfig();
     guiceServletConfig.initialize(ConfigFactory.parseMap(configMap));
@@ -123,7 +134,9 @@ public class LocalStressTest {
     ThrottlingPolicy policy = (ThrottlingPolicy) broker.getSharedResource(new ThrottlingPolicyFactory(),
         new SharedLimiterKey(resourceLimited));
     ScheduledExecutorService reportingThread = Executors.newSingleThreadScheduledExecutor();
-    reportingThread.scheduleAtFixedRate(new Reporter(limiterContainer, policy), 0, 15, TimeUnit.SECONDS);
+    Timer requestTimer = guiceServletConfig.getInjector().getInstance(
+        Key.get(Timer.class, Names.named(LimiterServerResource.REQUEST_TIMER_INJECT_NAME)));
+    reportingThread.scheduleAtFixedRate(new Reporter(limiterContainer, policy, requestTimer), 0, 15, TimeUnit.SECONDS);
 
     Queue<Future<?>> futures = new LinkedList<>();
     MockRequester requester = new MockRequester(limiterServer, artificialLatency, processorThreads);
@@ -178,6 +191,7 @@ public class LocalStressTest {
   private static class Reporter implements Runnable {
     private final RateComputingLimiterContainer limiter;
     private final ThrottlingPolicy policy;
+    private final Timer requestTimer;
 
     @Override
     public void run() {
@@ -193,11 +207,20 @@ public class LocalStressTest {
             stats.getMin(), stats.getMax(), stats.getMean(), stats.getStandardDeviation(), stats.getSum()));
       }
 
+      stats = limiter.getGrantLatencyStatsSinceLastReport();
+      if (stats != null) {
+        log.info(String.format("Grant latency stats (millis): count: %d, mean: %f, p50: %f, p99: %f, max: %f", stats.getN(),
+            stats.getMean(), stats.getPercentile(50), stats.getPercentile(99), stats.getMax()));
+      }
+
+      Snapshot snapshot = this.requestTimer.getSnapshot();
+      log.info(String.format("Server request latency (millis): p50: %f, p99: %f, max: %f",
+          snapshot.getMedian() / 1000000, snapshot.get99thPercentile() / 1000000, (double) snapshot.getMax() / 1000000));
+
       if (this.policy instanceof QPSPolicy) {
         QPSPolicy qpsPolicy = (QPSPolicy) this.policy;
         DynamicTokenBucket dynamicTokenBucket = qpsPolicy.getTokenBucket();
-        TokenBucket tokenBucket = dynamicTokenBucket.getTokenBucket();
-        log.info("Stored tokens: " + tokenBucket.getStoredTokens());
+        log.info("Stored tokens: " + dynamicTokenBucket.getStoredTokens());
       }
     }
   }
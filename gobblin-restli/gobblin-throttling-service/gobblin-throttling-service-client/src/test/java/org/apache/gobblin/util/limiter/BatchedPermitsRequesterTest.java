@@ -35,12 +35,14 @@ import org.testng.annotations.Test;
 import com.google.common.base.Optional;
 import com.google.common.collect.Queues;
 import com.linkedin.common.callback.Callback;
+import com.linkedin.data.template.GetMode;
 import com.linkedin.restli.client.Response;
 import com.linkedin.restli.client.RestLiResponseException;
 import com.linkedin.restli.common.HttpStatus;
 
 import org.apache.gobblin.restli.throttling.PermitAllocation;
 import org.apache.gobblin.restli.throttling.PermitRequest;
+import org.apache.gobblin.restli.throttling.ThrottlingProtocolVersion;
 import org.apache.gobblin.util.ExecutorsUtils;
 
 import lombok.AllArgsConstructor;
@@ -160,6 +162,71 @@ public class BatchedPermitsRequesterTest {
     }
   }
 
+  @Test
+  public void testPrefetchAndReturnUnusedPermits() throws Exception {
+    Queue<RequestAndCallback> queue = Queues.newArrayDeque();
+
+    BatchedPermitsRequester container = BatchedPermitsRequester.builder().resourceId("resource")
+        .requestorIdentifier("requestor").requestSender(new TestRequestSender(queue, false)).build();
+    try (ParallelRequester requester = new ParallelRequester(container)) {
+
+      Future<Boolean> future = requester.request(10);
+
+      await(new QueueSize(queue, 1), 1000);
+      satisfyRequestBuilder().requestAndCallback(queue.poll()).satisfy();
+      Assert.assertTrue(future.get(1, TimeUnit.SECONDS));
+
+      // The lease was used up, so a new lease is requested before anybody asks for more permits
+      await(new QueueSize(queue, 1), 1000);
+      RequestAndCallback prefetchRequest = queue.poll();
+      long leasedPermits = prefetchRequest.getRequest().getPermits();
+      Assert.assertTrue(leasedPermits > 1);
+      satisfyRequestBuilder().requestAndCallback(prefetchRequest).version(ThrottlingProtocolVersion.LEASES.ordinal())
+          .satisfy();
+
+      // Served from the local lease
+      Assert.assertTrue(container.getPermits(1));
+
+      Assert.assertEquals(container.returnUnusedPermits(), leasedPermits - 1);
+      Assert.assertEquals(container.getPermitBatchContainer().getTotalAvailablePermits(), 0);
+      boolean returnRequestSent = false;
+      for (RequestAndCallback requestAndCallback : queue) {
+        if (requestAndCallback.getRequest().getReturnedPermits(GetMode.DEFAULT) == leasedPermits - 1) {
+          Assert.assertEquals((long) requestAndCallback.getRequest().getPermits(), 0);
+          returnRequestSent = true;
+        }
+      }
+      Assert.assertTrue(returnRequestSent);
+    }
+  }
+
+  @Test
+  public void testUnusedPermitsNotReturnedToServerWithoutLeases() throws Exception {
+    Queue<RequestAndCallback> queue = Queues.newArrayDeque();
+
+    BatchedPermitsRequester container = BatchedPermitsRequester.builder().resourceId("resource")
+        .requestorIdentifier("requestor").requestSender(new TestRequestSender(queue, false)).build();
+    try (ParallelRequester requester = new ParallelRequester(container)) {
+
+      Future<Boolean> future = requester.request(10);
+
+      await(new QueueSize(queue, 1), 1000);
+      satisfyRequestBuilder().requestAndCallback(queue.poll()).satisfy();
+      Assert.assertTrue(future.get(1, TimeUnit.SECONDS));
+
+      await(new QueueSize(queue, 1), 1000);
+      satisfyRequestBuilder().requestAndCallback(queue.poll()).satisfy();
+      Assert.assertTrue(container.getPermits(1));
+
+      // The server did not advertise leases, it would treat returned permits as a new request
+      Assert.assertEquals(container.returnUnusedPermits(), 0);
+      Assert.assertEquals(container.getPermitBatchContainer().getTotalAvailablePermits(), 0);
+      for (RequestAndCallback requestAndCallback : queue) {
+        Assert.assertEquals((long) requestAndCallback.getRequest().getReturnedPermits(GetMode.DEFAULT), 0);
+      }
+    }
+  }
+
   @Test
   public void testWaitToUsePermits() throws Exception {
     Queue<RequestAndCallback> queue = Queues.newArrayDeque();
@@ -214,10 +281,11 @@ public class BatchedPermitsRequesterTest {
   }
 
   @Builder(builderMethodName = "satisfyRequestBuilder", buildMethodName = "satisfy")
-  public static void satisfyRequest(RequestAndCallback requestAndCallback, long expiration) {
+  public static void satisfyRequest(RequestAndCallback requestAndCallback, long expiration, int version) {
     PermitAllocation allocation = new PermitAllocation();
     allocation.setPermits(requestAndCallback.getRequest().getPermits());
     allocation.setExpiration(expiration > 0 ? expiration : Long.MAX_VALUE);
+    allocation.setVersion(version);
 
     Response<PermitAllocation> response = Mockito.mock(Response.class);
     Mockito.when(response.getEntity()).thenReturn(allocation);
@@ -20,8 +20,12 @@ package org.apache.gobblin.util.limiter;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.common.io.Closer;
 import com.google.inject.Injector;
+import com.linkedin.restli.common.ComplexResourceKey;
+import com.linkedin.restli.common.EmptyRecord;
+import com.linkedin.restli.server.RestLiServiceException;
 import com.linkedin.restli.server.resources.BaseResource;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
@@ -32,12 +36,14 @@ import org.apache.gobblin.broker.iface.SharedResourcesBroker;
 import org.apache.gobblin.restli.EmbeddedRestliServer;
 import org.apache.gobblin.restli.throttling.CountBasedPolicy;
 import org.apache.gobblin.restli.throttling.LimiterServerResource;
+import org.apache.gobblin.restli.throttling.PermitRequest;
 import org.apache.gobblin.restli.throttling.ThrottlingGuiceServletConfig;
 import org.apache.gobblin.restli.throttling.ThrottlingPolicyFactory;
 import org.apache.gobblin.util.limiter.broker.SharedLimiterKey;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.curator.test.TestingServer;
@@ -150,6 +156,101 @@ public class RestliServiceBasedLimiterTest {
     }
   }
 
+  @Test
+  public void testPartitionedRouting() throws Exception {
+    try (Closer closer = Closer.create()) {
+      Map<String, String> configMap = Maps.newHashMap();
+
+      TestingServer zkTestingServer = closer.register(new TestingServer(-1));
+      configMap.put(ThrottlingGuiceServletConfig.ZK_STRING_KEY, zkTestingServer.getConnectString());
+      configMap.put(ThrottlingGuiceServletConfig.HA_CLUSTER_NAME,
+          RestliServiceBasedLimiterTest.class.getSimpleName() + "_partitioned_cluster");
+      configMap.put(ThrottlingGuiceServletConfig.HA_MODE, ThrottlingGuiceServletConfig.HA_MODE_PARTITIONED);
+      Config config = ConfigFactory.parseMap(configMap);
+
+      Map<Integer, RestliServer> servers = Maps.newHashMap();
+      for (int port = 2510; port < 2513; port++) {
+        servers.put(port, createAndStartServer(config, port));
+      }
+
+      SharedResourcesBroker<SimpleScopeType> broker =
+          SharedResourcesBrokerFactory.createDefaultTopLevelBroker(ConfigFactory.empty(), SimpleScopeType.GLOBAL.defaultScopeInstance());
+      List<String> prefixes = Lists.newArrayList();
+      for (RestliServer server : servers.values()) {
+        prefixes.add(server.getServer().getURIPrefix());
+      }
+      RedirectAwareRestClientRequestSender requestSender = new RedirectAwareRestClientRequestSender(broker, prefixes);
+
+      List<String> resources = Lists.newArrayList();
+      for (int i = 0; i < 10; i++) {
+        resources.add(new SharedLimiterKey("res" + i).getResourceLimitedPath());
+      }
+      Map<String, Integer> owners = awaitOwners(servers, resources);
+      // resources are spread across servers
+      Assert.assertTrue(Sets.newHashSet(owners.values()).size() > 1, "Owners: " + owners);
+
+      // each resource is sent to its owner, regardless of where the other resources are
+      for (String resource : resources) {
+        RestliServiceBasedLimiter limiter = RestliServiceBasedLimiter.builder().requestSender(requestSender)
+            .resourceLimited(resource).serviceIdentifier("service").build();
+        Assert.assertNotNull(limiter.acquirePermits(20));
+        limiter.clearAllStoredPermits();
+        Assert.assertEquals(new URI(requestSender.getServerPrefix(resource)).getPort(), (int) owners.get(resource),
+            resource);
+      }
+
+      // a server that restarts owns the same resources as before
+      int restartedPort = owners.get(resources.get(0));
+      servers.remove(restartedPort).close();
+      awaitOwners(servers, resources);
+      servers.put(restartedPort, createAndStartServer(config, restartedPort));
+      Assert.assertEquals(awaitOwners(servers, resources), owners);
+
+      for (RestliServer server : servers.values()) {
+        server.close();
+      }
+    }
+  }
+
+  /**
+   * Wait until each resource is served by a single server.
+   * @return the port of the server owning each resource.
+   */
+  private Map<String, Integer> awaitOwners(Map<Integer, RestliServer> servers, List<String> resources)
+      throws InterruptedException {
+    for (int attempt = 0; attempt < 50; attempt++) {
+      Map<String, Integer> owners = Maps.newHashMap();
+      boolean converged = true;
+      for (String resource : resources) {
+        int leaders = 0;
+        for (Map.Entry<Integer, RestliServer> server : servers.entrySet()) {
+          try {
+            server.getValue().getGuiceServletConfig().getLimiterResource()
+                .getSync(new ComplexResourceKey<>(createPermitRequest(resource), new EmptyRecord()));
+            owners.put(resource, server.getKey());
+            leaders++;
+          } catch (RestLiServiceException exc) {
+            // not the owner of this resource
+          }
+        }
+        converged &= leaders == 1;
+      }
+      if (converged) {
+        return owners;
+      }
+      Thread.sleep(100);
+    }
+    throw new AssertionError("Cluster membership did not converge.");
+  }
+
+  private PermitRequest createPermitRequest(String resource) {
+    PermitRequest request = new PermitRequest();
+    request.setPermits(1);
+    request.setRequestorIdentifier("requestor");
+    request.setResource(resource);
+    return request;
+  }
+
   private int parsePortOfCurrentServerPrefix(RedirectAwareRestClientRequestSender requestSender) throws
                                                                                                  URISyntaxException{
     return new URI(requestSender.getCurrentServerPrefix()).getPort();
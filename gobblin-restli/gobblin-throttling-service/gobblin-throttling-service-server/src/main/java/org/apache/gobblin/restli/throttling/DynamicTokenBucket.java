@@ -17,12 +17,13 @@
 
 package org.apache.gobblin.restli.throttling;
 
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
-import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 
+import javax.annotation.Nullable;
 import lombok.Data;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 
@@ -37,6 +38,12 @@ import lombok.extern.slf4j.Slf4j;
  * * The object computes a target timeout equal to the minimum time needed to fulfill the minimum requested permits
  *   (according to the configured qps) plus a {@link #baseTimeout}.
  * * The object will return as many permits as it can using that timeout, bounded by minimum and desired number of permits.
+ *
+ * For very hot resources, the qps can be split across several {@link TokenBucket} shards. Each request is routed to a
+ * home shard chosen by hashing a shard key (e.g. the requestor identifier), so that concurrent requestors mostly touch
+ * different buckets. If the home shard cannot grant the minimum permits, the other shards are tried before giving up.
+ * Since a single request is served by a single shard, shards should only be used when requests are small compared to
+ * qps / shards.
  */
 @Slf4j
 public class DynamicTokenBucket {
@@ -51,9 +58,7 @@ public class DynamicTokenBucket {
     private final boolean possibleToSatisfy;
   }
 
-  @VisibleForTesting
-  @Getter
-  private final TokenBucket tokenBucket;
+  private final TokenBucket[] tokenBuckets;
   private final long baseTimeout;
 
   /**
@@ -64,7 +69,23 @@ public class DynamicTokenBucket {
    *                            milliseconds. The actual tokens stored will be 1000 * qps * maxBucketSizeMillis.
    */
   DynamicTokenBucket(long qps, long fullRequestTimeoutMillis, long maxBucketSizeMillis) {
-    this.tokenBucket = new TokenBucket(qps, maxBucketSizeMillis);
+    this(qps, fullRequestTimeoutMillis, maxBucketSizeMillis, 1);
+  }
+
+  /**
+   * @param shards number of {@link TokenBucket}s the qps is split across. It is capped at the qps so that every shard
+   *               has a positive rate.
+   */
+  DynamicTokenBucket(long qps, long fullRequestTimeoutMillis, long maxBucketSizeMillis, int shards) {
+    Preconditions.checkArgument(shards > 0, "Number of shards must be positive.");
+    Preconditions.checkArgument(qps > 0, "QPS must be positive.");
+
+    int numShards = (int) Math.min(shards, qps);
+    this.tokenBuckets = new TokenBucket[numShards];
+    for (int i = 0; i < numShards; i++) {
+      long shardQps = qps / numShards + (i < qps % numShards ? 1 : 0);
+      this.tokenBuckets[i] = new TokenBucket(shardQps, maxBucketSizeMillis);
+    }
     this.baseTimeout = fullRequestTimeoutMillis;
   }
 
@@ -77,31 +98,44 @@ public class DynamicTokenBucket {
    * @return a {@link PermitsAndDelay} for the allocated permits.
    */
   public PermitsAndDelay getPermitsAndDelay(long requestedPermits, long minPermits, long timeoutMillis) {
+    return getPermitsAndDelay(requestedPermits, minPermits, timeoutMillis, null);
+  }
+
+  /**
+   * Like {@link #getPermitsAndDelay(long, long, long)}, but uses the shard selected by the input key as the home shard.
+   * @param shardKey key used to select the home shard. If null, a random shard is used.
+   */
+  public PermitsAndDelay getPermitsAndDelay(long requestedPermits, long minPermits, long timeoutMillis,
+      @Nullable String shardKey) {
+    int homeShard = getHomeShard(shardKey);
+    TokenBucket tokenBucket = this.tokenBuckets[homeShard];
     try {
-      long storedTokens = this.tokenBucket.getStoredTokens();
+      long storedTokens = tokenBucket.getStoredTokens();
 
       long eagerTokens = storedTokens / 2;
-      if (eagerTokens > requestedPermits && this.tokenBucket.getTokens(eagerTokens, 0, TimeUnit.MILLISECONDS)) {
+      if (eagerTokens > requestedPermits && tokenBucket.getTokens(eagerTokens, 0, TimeUnit.MILLISECONDS)) {
         return new PermitsAndDelay(eagerTokens, 0, true);
       }
 
-      long millisToSatisfyMinPermits = (long) (minPermits / this.tokenBucket.getTokensPerMilli());
+      long millisToSatisfyMinPermits = (long) (minPermits / tokenBucket.getTokensPerMilli());
       if (millisToSatisfyMinPermits > timeoutMillis) {
         return new PermitsAndDelay(0, 0, false);
       }
       long allowedTimeout = Math.min(millisToSatisfyMinPermits + this.baseTimeout, timeoutMillis);
 
       while (requestedPermits > minPermits) {
-        long wait = this.tokenBucket.tryReserveTokens(requestedPermits, allowedTimeout);
+        long wait = tokenBucket.tryReserveTokens(requestedPermits, allowedTimeout);
         if (wait >= 0) {
           return new PermitsAndDelay(requestedPermits, wait, true);
         }
         requestedPermits /= 2;
       }
 
-      long wait = this.tokenBucket.tryReserveTokens(minPermits, allowedTimeout);
-      if (wait >= 0) {
-        return new PermitsAndDelay(requestedPermits, wait, true);
+      for (int i = 0; i < this.tokenBuckets.length; i++) {
+        long wait = this.tokenBuckets[(homeShard + i) % this.tokenBuckets.length].tryReserveTokens(minPermits, allowedTimeout);
+        if (wait >= 0) {
+          return new PermitsAndDelay(requestedPermits, wait, true);
+        }
       }
 
     } catch (InterruptedException ie) {
@@ -126,4 +160,41 @@ public class DynamicTokenBucket {
     return permitsAndDelay.permits;
   }
 
+  /**
+   * Give back permits that were granted but not used by a requestor.
+   * @param shardKey key used to select the shard the permits are returned to. If null, a random shard is used.
+   */
+  public void returnPermits(long permits, @Nullable String shardKey) {
+    this.tokenBuckets[getHomeShard(shardKey)].returnTokens(permits);
+  }
+
+  /**
+   * Get the current number of stored tokens across all shards. Note this is a snapshot of the object, and there is no
+   * guarantee that those tokens will be available at any point in the future.
+   */
+  public long getStoredTokens() {
+    long storedTokens = 0;
+    for (TokenBucket tokenBucket : this.tokenBuckets) {
+      storedTokens += tokenBucket.getStoredTokens();
+    }
+    return storedTokens;
+  }
+
+  /**
+   * @return the number of {@link TokenBucket} shards.
+   */
+  public int getShards() {
+    return this.tokenBuckets.length;
+  }
+
+  private int getHomeShard(@Nullable String shardKey) {
+    if (this.tokenBuckets.length == 1) {
+      return 0;
+    }
+    if (shardKey == null) {
+      return ThreadLocalRandom.current().nextInt(this.tokenBuckets.length);
+    }
+    return (shardKey.hashCode() & Integer.MAX_VALUE) % this.tokenBuckets.length;
+  }
+
 }
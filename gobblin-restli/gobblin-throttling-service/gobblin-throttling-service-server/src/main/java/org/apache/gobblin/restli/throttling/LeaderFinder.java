@@ -31,6 +31,9 @@ import com.google.common.util.concurrent.Service;
  *
  * The metadata is application specific, but it might include the {@link java.net.URI} of the leader for example.
  *
+ * Some implementations elect a leader per key (see {@link #isLeader(String)}), which allows spreading the work of the
+ * leader across the processes of the cluster.
+ *
  * @param <T>
  */
 public interface LeaderFinder<T extends LeaderFinder.Metadata> extends Service {
@@ -50,6 +53,21 @@ public interface LeaderFinder<T extends LeaderFinder.Metadata> extends Service {
    */
   T getLocalMetadata();
 
+  /**
+   * @return true if the current process is the leader for the input key. {@link LeaderFinder}s that partition keys
+   *         across several leaders override this method, by default there is a single leader for all keys.
+   */
+  default boolean isLeader(String key) {
+    return isLeader();
+  }
+
+  /**
+   * @return The metadata of the current leader for the input key.
+   */
+  default T getLeaderMetadata(String key) {
+    return getLeaderMetadata();
+  }
+
   /**
    * An interface for process-specific metadata in a cluster using {@link LeaderFinder}. In general, this metadata will
    * contain information useful for the non-leaders (for example, the {@link java.net.URI} of the leader).
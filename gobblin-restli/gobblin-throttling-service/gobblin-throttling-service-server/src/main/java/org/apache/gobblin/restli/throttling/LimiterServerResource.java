@@ -115,8 +115,8 @@ public class LimiterServerResource extends ComplexKeyResourceAsyncTemplate<Permi
 
       permitsRequestedMeter.mark(request.getPermits());
 
-      if (this.leaderFinderOpt.isPresent() && !this.leaderFinderOpt.get().isLeader()) {
-        URI leaderUri = this.leaderFinderOpt.get().getLeaderMetadata().getUri();
+      if (this.leaderFinderOpt.isPresent() && !this.leaderFinderOpt.get().isLeader(resourceId)) {
+        URI leaderUri = this.leaderFinderOpt.get().getLeaderMetadata(resourceId).getUri();
 
         RestLiServiceException exception = new RestLiServiceException(HttpStatus.S_301_MOVED_PERMANENTLY,
             String.format("New leader <a href=\"%s\">%s</a>", leaderUri, leaderUri));
@@ -145,6 +145,8 @@ public class LimiterServerResource extends ComplexKeyResourceAsyncTemplate<Permi
           }
         }
 
+        // Lets the client know that it can return unused permits
+        allocation.setVersion(ThrottlingProtocolVersion.LEASES.ordinal());
         permitsGrantedMeter.mark(allocation.getPermits());
 
         log.debug("Request: {}, allocation: {}, elapsedTime: {} ns", request, allocation, System.nanoTime() - startNanos);
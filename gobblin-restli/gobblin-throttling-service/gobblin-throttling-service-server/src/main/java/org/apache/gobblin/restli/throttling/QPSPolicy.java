@@ -61,12 +61,27 @@ public class QPSPolicy implements ThrottlingPolicy {
    */
   public static final String MAX_BUCKET_SIZE_MILLIS = "maxBucketSizeMillis";
   public static final long DEFAULT_MAX_BUCKET_SIZE = 10000;
+  /**
+   * Number of token bucket shards the qps is split across. Requests from the same requestor always start at the same
+   * shard, which reduces contention for very hot resources. Only useful when each request is small compared to
+   * qps / shards.
+   */
+  public static final String SHARDS = "shards";
+  public static final int DEFAULT_SHARDS = 1;
+  /**
+   * Time after which allocated permits expire if the client has not used them. Bounding the lifetime of allocations
+   * prevents idle clients from hoarding permits. A non-positive value means allocations never expire.
+   */
+  public static final String LEASE_DURATION_MILLIS = "leaseDurationMillis";
+  // Several times the default time between requests of a client, so that busy clients use up their leases first
+  public static final long DEFAULT_LEASE_DURATION_MILLIS = 60000;
 
   @Getter
   private final long qps;
   @VisibleForTesting
   @Getter
   private final DynamicTokenBucket tokenBucket;
+  private final long leaseDurationMillis;
 
   @Alias(FACTORY_ALIAS)
   public static class Factory implements ThrottlingPolicyFactory.SpecificPolicyFactory {
@@ -84,23 +99,42 @@ public class QPSPolicy implements ThrottlingPolicy {
         ? config.getLong(FULL_REQUEST_TIMEOUT_MILLIS) : DEFAULT_FULL_REQUEST_TIMEOUT;
     long maxBucketSizeMillis = config.hasPath(MAX_BUCKET_SIZE_MILLIS)
         ? config.getLong(MAX_BUCKET_SIZE_MILLIS) : DEFAULT_MAX_BUCKET_SIZE;
-    this.tokenBucket = new DynamicTokenBucket(qps, fullRequestTimeoutMillis, maxBucketSizeMillis);
+    int shards = config.hasPath(SHARDS) ? config.getInt(SHARDS) : DEFAULT_SHARDS;
+    this.tokenBucket = new DynamicTokenBucket(qps, fullRequestTimeoutMillis, maxBucketSizeMillis, shards);
+    this.leaseDurationMillis = config.hasPath(LEASE_DURATION_MILLIS)
+        ? config.getLong(LEASE_DURATION_MILLIS) : DEFAULT_LEASE_DURATION_MILLIS;
   }
 
   @Override
   public PermitAllocation computePermitAllocation(PermitRequest request) {
+    String requestorIdentifier = request.getRequestorIdentifier(GetMode.NULL);
+    long permitsReturned = request.getReturnedPermits(GetMode.DEFAULT);
+    if (permitsReturned > 0) {
+      this.tokenBucket.returnPermits(permitsReturned, requestorIdentifier);
+    }
+
     long permitsRequested = request.getPermits();
+    if (permitsRequested <= 0) {
+      // Nothing requested (e.g. the request only returns unused permits), do not grant eager permits
+      PermitAllocation allocation = new PermitAllocation();
+      allocation.setPermits(0);
+      allocation.setExpiration(Long.MAX_VALUE);
+      return allocation;
+    }
+
     Long minPermits = request.getMinPermits(GetMode.NULL);
     if (minPermits == null) {
       minPermits = permitsRequested;
     }
 
     DynamicTokenBucket.PermitsAndDelay permitsGranted =
-        this.tokenBucket.getPermitsAndDelay(permitsRequested, minPermits, LimiterServerResource.TIMEOUT_MILLIS);
+        this.tokenBucket.getPermitsAndDelay(permitsRequested, minPermits, LimiterServerResource.TIMEOUT_MILLIS,
+            requestorIdentifier);
 
     PermitAllocation allocation = new PermitAllocation();
     allocation.setPermits(permitsGranted.getPermits());
-    allocation.setExpiration(Long.MAX_VALUE);
+    allocation.setExpiration(this.leaseDurationMillis > 0
+        ? System.currentTimeMillis() + permitsGranted.getDelay() + this.leaseDurationMillis : Long.MAX_VALUE);
     allocation.setWaitForPermitUseMillis(permitsGranted.getDelay());
     if (!permitsGranted.isPossibleToSatisfy()) {
       allocation.setUnsatisfiablePermits(request.getMinPermits(GetMode.DEFAULT));
@@ -117,7 +151,7 @@ public class QPSPolicy implements ThrottlingPolicy {
 
   @Override
   public Map<String, String> getParameters() {
-    return ImmutableMap.of("qps", Long.toString(this.qps));
+    return ImmutableMap.of("qps", Long.toString(this.qps), "shards", Integer.toString(this.tokenBucket.getShards()));
   }
 
   @Override
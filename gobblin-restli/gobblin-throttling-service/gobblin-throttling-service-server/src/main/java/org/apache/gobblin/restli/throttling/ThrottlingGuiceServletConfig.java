@@ -47,6 +47,7 @@ import org.apache.gobblin.broker.iface.SharedResourcesBroker;
 import org.apache.gobblin.metrics.MetricContext;
 import org.apache.gobblin.metrics.broker.MetricContextFactory;
 import org.apache.gobblin.metrics.broker.MetricContextKey;
+import org.apache.gobblin.util.ConfigUtils;
 import org.apache.gobblin.util.Sleeper;
 
 import java.io.Closeable;
@@ -80,6 +81,15 @@ public class ThrottlingGuiceServletConfig extends GuiceServletContextListener im
 
   public static final String ZK_STRING_KEY = THROTTLING_SERVER_PREFIX + "ha.zkString";
   public static final String HA_CLUSTER_NAME = THROTTLING_SERVER_PREFIX + "ha.clusterName";
+  /**
+   * {@link #HA_MODE_SINGLE_LEADER} (default) routes all resources to one elected leader. {@link #HA_MODE_PARTITIONED}
+   * partitions resources across all servers in the cluster with consistent hashing.
+   */
+  public static final String HA_MODE = THROTTLING_SERVER_PREFIX + "ha.mode";
+  public static final String HA_MODE_SINGLE_LEADER = "singleLeader";
+  public static final String HA_MODE_PARTITIONED = "partitioned";
+  public static final String HA_VIRTUAL_NODES_PER_SERVER = THROTTLING_SERVER_PREFIX + "ha.virtualNodesPerServer";
+  public static final int DEFAULT_HA_VIRTUAL_NODES_PER_SERVER = 100;
 
   private Optional<LeaderFinder<URIMetadata>> _leaderFinder;
   private Config _config;
@@ -188,9 +198,15 @@ public class ThrottlingGuiceServletConfig extends GuiceServletContextListener im
 
       String clusterName = config.getString(HA_CLUSTER_NAME);
       String zkString = config.getString(ZK_STRING_KEY);
+      URIMetadata localMetadata = new URIMetadata(new URI("http", null, hostname, port, null, null, null));
 
-      return Optional.<LeaderFinder<URIMetadata>>of(new ZookeeperLeaderElection<>(zkString, clusterName,
-          new URIMetadata(new URI("http", null, hostname, port, null, null, null))));
+      String haMode = ConfigUtils.getString(config, HA_MODE, HA_MODE_SINGLE_LEADER);
+      if (HA_MODE_PARTITIONED.equalsIgnoreCase(haMode)) {
+        return Optional.<LeaderFinder<URIMetadata>>of(new ZookeeperConsistentHashingLeaderFinder<>(zkString, clusterName,
+            localMetadata, ConfigUtils.getInt(config, HA_VIRTUAL_NODES_PER_SERVER, DEFAULT_HA_VIRTUAL_NODES_PER_SERVER)));
+      }
+      Preconditions.checkArgument(HA_MODE_SINGLE_LEADER.equalsIgnoreCase(haMode), "Unknown " + HA_MODE + ": " + haMode);
+      return Optional.<LeaderFinder<URIMetadata>>of(new ZookeeperLeaderElection<>(zkString, clusterName, localMetadata));
     }
     return Optional.absent();
   }
@@ -18,29 +18,27 @@
 package org.apache.gobblin.restli.throttling;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.google.common.base.Preconditions;
 
-import lombok.AccessLevel;
-import lombok.Getter;
+import lombok.AllArgsConstructor;
 
 
 /**
  * An implementation of Token Bucket (https://en.wikipedia.org/wiki/Token_bucket).
  *
  * This class is intended to limit the rate at which tokens are used to a given QPS. It can store tokens for future usage.
+ *
+ * The state of the bucket is kept in an immutable {@link BucketState} that is replaced with a compare-and-set, so that
+ * concurrent permit requests never block each other. Under contention a request simply retries with the new state.
  */
 public class TokenBucket {
 
-  @Getter(AccessLevel.PROTECTED)
-  private double tokensPerMilli;
-  private double maxBucketSizeInTokens;
-
-  private volatile long nextTokenAvailableMillis;
-  private volatile double tokensStored;
+  private final AtomicReference<BucketState> state;
 
   public TokenBucket(long qps, long maxBucketSizeInMillis) {
-    this.nextTokenAvailableMillis = System.currentTimeMillis();
+    this.state = new AtomicReference<>(new BucketState(0, 0, System.currentTimeMillis(), 0));
     resetQPS(qps, maxBucketSizeInMillis);
   }
 
@@ -48,17 +46,27 @@ public class TokenBucket {
     Preconditions.checkArgument(qps > 0, "QPS must be positive.");
     Preconditions.checkArgument(maxBucketSizeInMillis >= 0, "Max bucket size must be non-negative.");
 
-    long now = System.currentTimeMillis();
-    synchronized (this) {
-      updateTokensStored(now);
-      if (this.nextTokenAvailableMillis > now) {
-        this.tokensStored -= (this.nextTokenAvailableMillis - now) * this.tokensPerMilli;
+    double tokensPerMilli = (double) qps / 1000;
+    while (true) {
+      long now = System.currentTimeMillis();
+      BucketState current = this.state.get();
+      BucketState updated = current.updateTokensStored(now);
+      double tokensStored = updated.tokensStored;
+      if (updated.nextTokenAvailableMillis > now) {
+        tokensStored -= (updated.nextTokenAvailableMillis - now) * updated.tokensPerMilli;
+      }
+      updated = new BucketState(tokensPerMilli, tokensPerMilli * maxBucketSizeInMillis,
+          updated.nextTokenAvailableMillis, tokensStored);
+      if (this.state.compareAndSet(current, updated)) {
+        return;
       }
-      this.tokensPerMilli = (double) qps / 1000;
-      this.maxBucketSizeInTokens = this.tokensPerMilli * maxBucketSizeInMillis;
     }
   }
 
+  protected double getTokensPerMilli() {
+    return this.state.get().tokensPerMilli;
+  }
+
   /**
    * Attempt to get the specified amount of tokens within the specified timeout. If the tokens cannot be retrieved in the
    * specified timeout, the call will return false immediately, otherwise, the call will block until the tokens are available.
@@ -86,52 +94,99 @@ public class TokenBucket {
    * tokens will be available at any point in the future.
    */
   public long getStoredTokens() {
-    synchronized (this) {
-      updateTokensStored(System.currentTimeMillis());
-    }
-    return (long) this.tokensStored;
+    return (long) this.state.get().updateTokensStored(System.currentTimeMillis()).tokensStored;
   }
 
   /**
-   * Note: this method should only be called while holding the class lock. For performance, the lock is not explicitly
-   * acquired.
+   * Reserve the specified amount of tokens if they can be made available within the given wait.
    *
    * @return the wait until the tokens are available or negative if they can't be acquired in the give timeout.
    */
-  synchronized long tryReserveTokens(long tokens, long maxWaitMillis) {
-    long now = System.currentTimeMillis();
-    long waitUntilNextTokenAvailable = Math.max(0, this.nextTokenAvailableMillis - now);
-
-    updateTokensStored(now);
-    if (tokens <= this.tokensStored) {
-      this.tokensStored -= tokens;
-      return waitUntilNextTokenAvailable;
-    }
+  long tryReserveTokens(long tokens, long maxWaitMillis) {
+    while (true) {
+      long now = System.currentTimeMillis();
+      BucketState current = this.state.get();
+      long waitUntilNextTokenAvailable = Math.max(0, current.nextTokenAvailableMillis - now);
+
+      BucketState updated = current.updateTokensStored(now);
+      long totalWait;
+      if (tokens <= updated.tokensStored) {
+        updated = new BucketState(updated.tokensPerMilli, updated.maxBucketSizeInTokens,
+            updated.nextTokenAvailableMillis, updated.tokensStored - tokens);
+        totalWait = waitUntilNextTokenAvailable;
+      } else {
+        double additionalNeededTokens = tokens - updated.tokensStored;
+        // casting to long will round towards 0
+        long additionalWaitForEnoughTokens = (long) (additionalNeededTokens / updated.tokensPerMilli) + 1;
+        totalWait = waitUntilNextTokenAvailable + additionalWaitForEnoughTokens;
+        if (totalWait > maxWaitMillis) {
+          return -1;
+        }
+        updated = new BucketState(updated.tokensPerMilli, updated.maxBucketSizeInTokens,
+            updated.nextTokenAvailableMillis + additionalWaitForEnoughTokens,
+            updated.tokensPerMilli * additionalWaitForEnoughTokens - additionalNeededTokens);
+      }
 
-    double additionalNeededTokens = tokens - this.tokensStored;
-    // casting to long will round towards 0
-    long additionalWaitForEnoughTokens = (long) (additionalNeededTokens / this.tokensPerMilli) + 1;
-    long totalWait = waitUntilNextTokenAvailable + additionalWaitForEnoughTokens;
-    if (totalWait > maxWaitMillis) {
-      return -1;
+      if (this.state.compareAndSet(current, updated)) {
+        return totalWait;
+      }
     }
-    this.tokensStored = this.tokensPerMilli * additionalWaitForEnoughTokens - additionalNeededTokens;
-    this.nextTokenAvailableMillis = this.nextTokenAvailableMillis + additionalWaitForEnoughTokens;
-    return totalWait;
   }
 
   /**
-   * Note: this method should only be called while holding the class lock. For performance, the lock is not explicitly
-   * acquired.
+   * Give back tokens that were reserved but not used. Returned tokens first pay back tokens reserved ahead of time
+   * (i.e. they move {@link BucketState#nextTokenAvailableMillis} back towards now), and are then added to the stored
+   * tokens, up to the max bucket size.
    */
-  private void updateTokensStored(long now) {
-    if (now <= this.nextTokenAvailableMillis) {
+  public void returnTokens(long tokens) {
+    if (tokens <= 0) {
       return;
     }
-    long millisUnaccounted = now - this.nextTokenAvailableMillis;
-    double newTokens = millisUnaccounted * this.tokensPerMilli;
-    this.nextTokenAvailableMillis = now;
-    this.tokensStored = Math.min(this.tokensStored + newTokens, Math.max(this.tokensStored, this.maxBucketSizeInTokens));
+    while (true) {
+      long now = System.currentTimeMillis();
+      BucketState current = this.state.get();
+      BucketState updated = current.updateTokensStored(now);
+
+      double remainingTokens = tokens;
+      long nextTokenAvailableMillis = updated.nextTokenAvailableMillis;
+      if (nextTokenAvailableMillis > now) {
+        long millisPaidBack = Math.min(nextTokenAvailableMillis - now, (long) (remainingTokens / updated.tokensPerMilli));
+        nextTokenAvailableMillis -= millisPaidBack;
+        remainingTokens -= millisPaidBack * updated.tokensPerMilli;
+      }
+      double tokensStored = Math.min(updated.tokensStored + remainingTokens,
+          Math.max(updated.tokensStored, updated.maxBucketSizeInTokens));
+      updated = new BucketState(updated.tokensPerMilli, updated.maxBucketSizeInTokens, nextTokenAvailableMillis,
+          tokensStored);
+
+      if (this.state.compareAndSet(current, updated)) {
+        return;
+      }
+    }
   }
 
+  /**
+   * An immutable snapshot of the bucket. All fields are replaced together so that a reader always sees a consistent
+   * rate, capacity and token count.
+   */
+  @AllArgsConstructor
+  private static class BucketState {
+    private final double tokensPerMilli;
+    private final double maxBucketSizeInTokens;
+    private final long nextTokenAvailableMillis;
+    private final double tokensStored;
+
+    /**
+     * @return a state with the tokens accumulated since {@link #nextTokenAvailableMillis} added to the bucket.
+     */
+    private BucketState updateTokensStored(long now) {
+      if (now <= this.nextTokenAvailableMillis) {
+        return this;
+      }
+      long millisUnaccounted = now - this.nextTokenAvailableMillis;
+      double newTokens = millisUnaccounted * this.tokensPerMilli;
+      return new BucketState(this.tokensPerMilli, this.maxBucketSizeInTokens, now,
+          Math.min(this.tokensStored + newTokens, Math.max(this.tokensStored, this.maxBucketSizeInTokens)));
+    }
+  }
 }
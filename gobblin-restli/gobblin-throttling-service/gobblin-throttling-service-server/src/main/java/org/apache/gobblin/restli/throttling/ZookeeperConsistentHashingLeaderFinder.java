@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.restli.throttling;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Maps;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.AbstractIdleService;
+
+import org.apache.gobblin.util.SerializationUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * A {@link LeaderFinder} using Zookeeper that partitions keys across all processes in the cluster with consistent
+ * hashing, so that each process is the leader for a subset of the keys.
+ *
+ * Every process registers an ephemeral node with its {@link org.apache.gobblin.restli.throttling.LeaderFinder.Metadata}
+ * under the cluster node, and watches the list of members. Each member is placed in a hash ring with a number of
+ * virtual nodes, and the leader of a key is the first member found clockwise from the hash of the key. When a process
+ * joins or leaves the cluster, the ring is rebuilt and only the keys adjacent to the virtual nodes of that process change
+ * leader. The positions of a member are derived from the short name of its metadata, e.g. its {@link java.net.URI},
+ * so a process that restarts and registers again takes back the same keys.
+ *
+ * {@link #isLeader()} and {@link #getLeaderMetadata()} refer to the oldest member of the cluster.
+ */
+@Slf4j
+public class ZookeeperConsistentHashingLeaderFinder<T extends LeaderFinder.Metadata> extends AbstractIdleService
+    implements LeaderFinder<T> {
+
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  private final String membersNode;
+  private final T localMetadata;
+  private final String zkConnectString;
+  private final int virtualNodesPerMember;
+
+  private CuratorFramework zooKeeper;
+  private volatile String nodeId;
+  private volatile HashRing<T> hashRing = new HashRing<>(ImmutableMap.<String, T>of(), 1);
+  /** Metadata of members never changes, so it is only read once per member. */
+  private final Map<String, T> memberMetadataCache = Maps.newConcurrentMap();
+
+  private volatile boolean fatalFailure = false;
+  private volatile boolean closed = false;
+
+  /**
+   * @param zkConnectString Zookeeper connect string.
+   * @param clusterName Cluster name. Processes in the same cluster are identified by the cluster name.
+   * @param localMetadata {@link org.apache.gobblin.restli.throttling.LeaderFinder.Metadata} for the local process.
+   * @param virtualNodesPerMember number of positions of each process in the hash ring. More virtual nodes produce a
+   *                              more even distribution of keys.
+   */
+  public ZookeeperConsistentHashingLeaderFinder(String zkConnectString, String clusterName, T localMetadata,
+      int virtualNodesPerMember) {
+    Preconditions.checkArgument(virtualNodesPerMember > 0, "Virtual nodes per member must be positive.");
+    this.zkConnectString = zkConnectString;
+    this.localMetadata = localMetadata;
+    this.virtualNodesPerMember = virtualNodesPerMember;
+    if (!clusterName.startsWith("/")) {
+      clusterName = "/" + clusterName;
+    }
+    this.membersNode = clusterName + "/members";
+  }
+
+  @Override
+  public boolean isLeader() {
+    HashRing<T> ring = getHashRing();
+    return this.nodeId != null && this.nodeId.equals(ring.getOldestMember());
+  }
+
+  @Override
+  public T getLeaderMetadata() {
+    HashRing<T> ring = getHashRing();
+    return ring.getMetadata(ring.getOldestMember());
+  }
+
+  @Override
+  public boolean isLeader(String key) {
+    HashRing<T> ring = getHashRing();
+    return this.nodeId != null && this.nodeId.equals(ring.getMember(key));
+  }
+
+  @Override
+  public T getLeaderMetadata(String key) {
+    HashRing<T> ring = getHashRing();
+    return ring.getMetadata(ring.getMember(key));
+  }
+
+  @Override
+  public T getLocalMetadata() {
+    return this.localMetadata;
+  }
+
+  private HashRing<T> getHashRing() {
+    if (this.fatalFailure) {
+      throw new IllegalStateException(ZookeeperConsistentHashingLeaderFinder.class.getSimpleName() + " has failed fatally.");
+    }
+    return this.hashRing;
+  }
+
+  @Override
+  protected void startUp() throws Exception {
+    reset();
+  }
+
+  @Override
+  protected synchronized void shutDown() throws Exception {
+    this.closed = true;
+    if (this.zooKeeper != null) {
+      this.zooKeeper.close();
+    }
+  }
+
+  private synchronized void reset() {
+    try {
+      if (this.zooKeeper != null) {
+        this.zooKeeper.close();
+      }
+
+      this.zooKeeper = CuratorFrameworkFactory.builder().retryPolicy(new ExponentialBackoffRetry(100, 3))
+          .connectString(this.zkConnectString).build();
+      this.zooKeeper.start();
+      if (!this.zooKeeper.blockUntilConnected(1, TimeUnit.SECONDS)) {
+        throw new RuntimeException("Could not connect to Zookeeper.");
+      }
+      String nodePath = this.zooKeeper.create().creatingParentsIfNeeded().withMode(CreateMode.EPHEMERAL_SEQUENTIAL)
+          .forPath(this.membersNode + "/p_", SerializationUtils.serializeIntoBytes(this.localMetadata));
+      this.nodeId = nodePath.substring(nodePath.lastIndexOf("/") + 1);
+      updateMembers();
+    } catch (Throwable exc) {
+      throw new RuntimeException(exc);
+    }
+  }
+
+  /**
+   * Read the current members of the cluster, rebuild the hash ring, and set a watch for the next membership change.
+   * If a member leaves while its data is read, the members are read again, without setting another watch: the watch
+   * set by the first read already fires for that change.
+   */
+  private synchronized void updateMembers() {
+    try {
+      boolean watchSet = false;
+      while (true) {
+        List<String> children = watchSet ? this.zooKeeper.getChildren().forPath(this.membersNode)
+            : this.zooKeeper.getChildren().usingWatcher(new MembershipWatcher()).forPath(this.membersNode);
+        watchSet = true;
+
+        Map<String, T> members;
+        try {
+          members = readMembers(children);
+        } catch (KeeperException.NoNodeException exc) {
+          log.warn("Member disappeared while updating members, retrying.", exc);
+          continue;
+        }
+        this.memberMetadataCache.keySet().retainAll(children);
+
+        if (!members.containsKey(this.nodeId)) {
+          // Our ephemeral node is gone (e.g. session expired), register again
+          resetOrFail(null);
+          return;
+        }
+
+        this.hashRing = new HashRing<>(members, this.virtualNodesPerMember);
+        log.info(String.format("Updated members of %s: %s", this.membersNode, members.keySet()));
+        return;
+      }
+    } catch (KeeperException exc) {
+      resetOrFail(exc);
+    } catch (Throwable exc) {
+      log.error("Fatal failure.", exc);
+      this.fatalFailure = true;
+    }
+  }
+
+  private Map<String, T> readMembers(List<String> children) throws Exception {
+    Map<String, T> members = Maps.newHashMap();
+    for (String child : children) {
+      T metadata = this.memberMetadataCache.get(child);
+      if (metadata == null) {
+        metadata = deserializeMetadata(this.zooKeeper.getData().forPath(this.membersNode + "/" + child));
+        this.memberMetadataCache.put(child, metadata);
+      }
+      members.put(child, metadata);
+    }
+    return members;
+  }
+
+  private void resetOrFail(Throwable cause) {
+    log.warn("Lost Zookeeper state, reconnecting.", cause);
+    try {
+      reset();
+    } catch (RuntimeException exc) {
+      log.error("Fatal failure.", exc);
+      this.fatalFailure = true;
+    }
+  }
+
+  private T deserializeMetadata(byte[] bytes) throws IOException {
+    return (T) SerializationUtils.deserializeFromBytes(bytes, Metadata.class);
+  }
+
+  private class MembershipWatcher implements Watcher {
+    @Override
+    public void process(WatchedEvent event) {
+      if (!ZookeeperConsistentHashingLeaderFinder.this.closed) {
+        updateMembers();
+      }
+    }
+  }
+
+  /**
+   * An immutable consistent hashing ring of cluster members.
+   */
+  private static class HashRing<T extends Metadata> {
+    // Member ids are sequential nodes, so they are sorted from the oldest to the newest member
+    private final ImmutableSortedMap<String, T> members;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+    private final String oldestMember;
+
+    HashRing(Map<String, T> members, int virtualNodesPerMember) {
+      this.members = ImmutableSortedMap.copyOf(members);
+      // If a process registered again before its previous node expired, its newest node takes its positions
+      for (Map.Entry<String, T> member : this.members.entrySet()) {
+        for (int i = 0; i < virtualNodesPerMember; i++) {
+          this.ring.put(hash(member.getValue().getShortName() + "#" + i), member.getKey());
+        }
+      }
+      this.oldestMember = this.members.isEmpty() ? null : this.members.firstKey();
+    }
+
+    String getMember(String key) {
+      if (this.ring.isEmpty()) {
+        return null;
+      }
+      Map.Entry<Long, String> entry = this.ring.ceilingEntry(hash(key));
+      return entry == null ? this.ring.firstEntry().getValue() : entry.getValue();
+    }
+
+    String getOldestMember() {
+      return this.oldestMember;
+    }
+
+    T getMetadata(String member) {
+      return member == null ? null : this.members.get(member);
+    }
+
+    private static long hash(String value) {
+      return HASH_FUNCTION.hashString(value, StandardCharsets.UTF_8).asLong();
+    }
+  }
+}
@@ -66,4 +66,24 @@ public class DynamicTokenBucketTest {
     Assert.assertTrue(limiter.getPermits(1, 0, 100) > 4);
   }
 
+  @Test
+  public void testShards() throws Exception {
+    int qps = 100;
+    DynamicTokenBucket limiter = new DynamicTokenBucket(qps, 10, 0, 4);
+    Assert.assertEquals(limiter.getShards(), 4);
+
+    // Each shard gets 25 qps. Requesting 0.2 seconds worth of the total permits reserves the home shard of "requestor"
+    // for 0.8 seconds, so the next request with a short timeout must be served by a different shard.
+    DynamicTokenBucket.PermitsAndDelay permitsAndDelay = limiter.getPermitsAndDelay(20, 20, 1000, "requestor");
+    Assert.assertEquals(permitsAndDelay.getPermits(), 20);
+    Assert.assertTrue(permitsAndDelay.getDelay() > 600 && permitsAndDelay.getDelay() < 1000);
+
+    permitsAndDelay = limiter.getPermitsAndDelay(2, 2, 200, "requestor");
+    Assert.assertEquals(permitsAndDelay.getPermits(), 2);
+    Assert.assertTrue(permitsAndDelay.getDelay() < 200);
+
+    // Number of shards is capped at the qps
+    Assert.assertEquals(new DynamicTokenBucket(2, 10, 0, 4).getShards(), 2);
+  }
+
 }
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.restli.throttling;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.curator.test.TestingServer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.io.Closer;
+import com.linkedin.restli.common.ComplexResourceKey;
+import com.linkedin.restli.common.EmptyRecord;
+import com.linkedin.restli.server.RestLiServiceException;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+
+public class TestPartitionedLeadership {
+
+  private static final int NUM_RESOURCES = 30;
+
+  @Test
+  public void test() throws Exception {
+
+    try(Closer closer = Closer.create()) {
+      Map<String, String> configMap = Maps.newHashMap();
+
+      TestingServer zkTestingServer = closer.register(new TestingServer(-1));
+      configMap.put(ThrottlingGuiceServletConfig.ZK_STRING_KEY, zkTestingServer.getConnectString());
+      configMap.put(ThrottlingGuiceServletConfig.HA_CLUSTER_NAME, TestPartitionedLeadership.class.getSimpleName() + "_cluster");
+      configMap.put(ThrottlingGuiceServletConfig.HA_MODE, ThrottlingGuiceServletConfig.HA_MODE_PARTITIONED);
+      Config config = ConfigFactory.parseMap(configMap);
+
+      Map<ThrottlingGuiceServletConfig, Integer> servers = Maps.newHashMap();
+      ThrottlingGuiceServletConfig server2101 = createServerAtPort(config, 2101, servers);
+      ThrottlingGuiceServletConfig server2102 = createServerAtPort(config, 2102, servers);
+      ThrottlingGuiceServletConfig server2103 = createServerAtPort(config, 2103, servers);
+
+      awaitMembers(servers);
+      Set<Integer> owners = verifySingleOwnerPerResource(servers);
+      // resources are spread across servers
+      Assert.assertTrue(owners.size() > 1, "Owners: " + owners);
+
+      // when a server leaves, its resources are rebalanced to the remaining servers
+      server2102.close();
+      servers.remove(server2102);
+      awaitMembers(servers);
+      owners = verifySingleOwnerPerResource(servers);
+      Assert.assertFalse(owners.contains(2102));
+
+      server2101.close();
+      server2103.close();
+    }
+  }
+
+  /**
+   * Verify each resource is served by exactly one server, and all other servers redirect to it.
+   * @return the ports of the servers owning at least one resource.
+   */
+  private Set<Integer> verifySingleOwnerPerResource(Map<ThrottlingGuiceServletConfig, Integer> servers) throws Exception {
+    Set<Integer> owners = Sets.newHashSet();
+    for (int i = 0; i < NUM_RESOURCES; i++) {
+      String resource = "resource" + i;
+      Integer owner = null;
+      Set<Integer> redirects = Sets.newHashSet();
+      for (Map.Entry<ThrottlingGuiceServletConfig, Integer> server : servers.entrySet()) {
+        try {
+          PermitAllocation allocation = sendRequestToServer(server.getKey(), resource);
+          Assert.assertTrue(allocation.getPermits() >= 1);
+          Assert.assertNull(owner, "Multiple owners for " + resource);
+          owner = server.getValue();
+        } catch (RestLiServiceException exc) {
+          Assert.assertTrue(exc.getErrorDetails().containsKey(LimiterServerResource.LOCATION_301));
+          redirects.add(new URI(exc.getErrorDetails().get(LimiterServerResource.LOCATION_301).toString()).getPort());
+        }
+      }
+      Assert.assertNotNull(owner, "No owner for " + resource);
+      if (!redirects.isEmpty()) {
+        Assert.assertEquals(redirects, Sets.newHashSet(owner));
+      }
+      owners.add(owner);
+    }
+    return owners;
+  }
+
+  /**
+   * Wait until all servers agree on the members of the cluster, i.e. each resource is served by a single server.
+   */
+  private void awaitMembers(Map<ThrottlingGuiceServletConfig, Integer> servers) throws Exception {
+    for (int attempt = 0; attempt < 50; attempt++) {
+      boolean converged = true;
+      for (int i = 0; i < NUM_RESOURCES; i++) {
+        int leaders = 0;
+        for (ThrottlingGuiceServletConfig server : servers.keySet()) {
+          try {
+            sendRequestToServer(server, "resource" + i);
+            leaders++;
+          } catch (RestLiServiceException exc) {
+            // not the leader for this resource
+          }
+        }
+        converged &= leaders == 1;
+      }
+      if (converged) {
+        return;
+      }
+      Thread.sleep(100);
+    }
+    Assert.fail("Cluster membership did not converge.");
+  }
+
+  private ThrottlingGuiceServletConfig createServerAtPort(Config baseConfig, int port,
+      Map<ThrottlingGuiceServletConfig, Integer> servers) {
+    ThrottlingGuiceServletConfig guiceServletConfig = new ThrottlingGuiceServletConfig();
+    guiceServletConfig.initialize(baseConfig.withFallback(ConfigFactory.parseMap(
+        ImmutableMap.of(ThrottlingGuiceServletConfig.LISTENING_PORT, port))));
+    servers.put(guiceServletConfig, port);
+    return guiceServletConfig;
+  }
+
+  private PermitAllocation sendRequestToServer(ThrottlingGuiceServletConfig guiceServletConfig, String resource) {
+    return guiceServletConfig.getLimiterResource()
+        .getSync(new ComplexResourceKey<>(createPermitRequest(resource), new EmptyRecord()));
+  }
+
+  private PermitRequest createPermitRequest(String resource) {
+    PermitRequest request = new PermitRequest();
+    request.setPermits(10);
+    request.setRequestorIdentifier("requestor");
+    request.setResource(resource);
+    return request;
+  }
+
+}
@@ -60,6 +60,20 @@ public class TokenBucketTest {
     Assert.assertTrue(tokenBucket.getTokens(20, 101, TimeUnit.MILLISECONDS));
   }
 
+  @Test
+  public void testReturnTokens() throws Exception {
+    TokenBucket tokenBucket = new TokenBucket(100, 0);
+
+    // Reserve 1 second worth of tokens
+    Assert.assertTrue(tokenBucket.tryReserveTokens(100, 2000) > 900);
+    Assert.assertTrue(tokenBucket.tryReserveTokens(10, 150) < 0);
+
+    // Returning the tokens pays back the reservation, so new tokens are available right away
+    tokenBucket.returnTokens(100);
+    long wait = tokenBucket.tryReserveTokens(10, 150);
+    Assert.assertTrue(wait >= 0 && wait < 150, "Wait: " + wait);
+  }
+
   private void testForQps(long qps) throws Exception {
     ExecutorService executorService = Executors.newFixedThreadPool(10);
 
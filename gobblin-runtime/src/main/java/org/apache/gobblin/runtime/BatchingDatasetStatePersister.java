@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.runtime;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.gobblin.metastore.DatasetStateStore;
+
+
+/**
+ * Groups the dataset states persisted by {@link SafeDatasetCommit}s into batches written with
+ * {@link DatasetStateStore#persistDatasetStates(Map)}.
+ *
+ * <p>
+ *   The commit thread that fills a batch writes it outside of the lock, so the other commit threads keep publishing
+ *   their datasets meanwhile. The last, partial batch is written by {@link #close()}, which must be called before the
+ *   job is considered committed.
+ * </p>
+ *
+ * This class is thread-safe.
+ */
+@Slf4j
+final class BatchingDatasetStatePersister implements Closeable {
+
+  private final DatasetStateStore<JobState.DatasetState> datasetStateStore;
+  private final int batchSize;
+  private final DatasetCommitStageTimings timings;
+
+  private Map<String, JobState.DatasetState> pending = Maps.newLinkedHashMap();
+
+  BatchingDatasetStatePersister(DatasetStateStore<JobState.DatasetState> datasetStateStore, int batchSize,
+      DatasetCommitStageTimings timings) {
+    this.datasetStateStore = datasetStateStore;
+    this.batchSize = batchSize;
+    this.timings = timings;
+  }
+
+  /**
+   * Add the dataset state to the current batch, writing the batch if it is full.
+   *
+   * @throws IOException if the batch completed by this dataset state could not be persisted
+   */
+  void persist(String datasetUrn, JobState.DatasetState datasetState) throws IOException {
+    Map<String, JobState.DatasetState> batch = null;
+    synchronized (this) {
+      this.pending.put(datasetUrn, datasetState);
+      if (this.pending.size() >= this.batchSize) {
+        batch = this.pending;
+        this.pending = Maps.newLinkedHashMap();
+      }
+    }
+
+    if (batch != null) {
+      write(batch);
+    }
+  }
+
+  /**
+   * Write the remaining dataset states.
+   */
+  @Override
+  public void close() throws IOException {
+    Map<String, JobState.DatasetState> batch;
+    synchronized (this) {
+      batch = this.pending;
+      this.pending = Maps.newLinkedHashMap();
+    }
+
+    if (!batch.isEmpty()) {
+      write(batch);
+    }
+  }
+
+  private void write(Map<String, JobState.DatasetState> batch) throws IOException {
+    long startNanos = System.nanoTime();
+    try {
+      log.info("Persisting a batch of {} dataset states", batch.size());
+      this.datasetStateStore.persistDatasetStates(batch);
+    } catch (IOException | RuntimeException e) {
+      throw new IOException("Failed to persist dataset states for datasets " + batch.keySet(), e);
+    } finally {
+      this.timings.record(DatasetCommitStageTimings.Stage.PERSIST, startNanos);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.runtime;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.gobblin.configuration.ConfigurationKeys;
+import org.apache.gobblin.configuration.State;
+
+
+/**
+ * Total time spent in each stage of the dataset commits of a job, summed over all datasets and commit threads.
+ *
+ * This class is thread-safe.
+ */
+final class DatasetCommitStageTimings {
+
+  enum Stage {
+    /** Publishing the data of the dataset */
+    PUBLISH,
+    /** Submitting the failure and lineage events of the dataset */
+    EVENTS,
+    /** Persisting the dataset state */
+    PERSIST
+  }
+
+  private final Map<Stage, LongAdder> nanosByStage = new EnumMap<>(Stage.class);
+
+  DatasetCommitStageTimings() {
+    for (Stage stage : Stage.values()) {
+      this.nanosByStage.put(stage, new LongAdder());
+    }
+  }
+
+  /**
+   * Add the time elapsed since {@code startNanos}, as returned by {@link System#nanoTime()}, to the given stage.
+   */
+  void record(Stage stage, long startNanos) {
+    this.nanosByStage.get(stage).add(System.nanoTime() - startNanos);
+  }
+
+  long getMillis(Stage stage) {
+    return TimeUnit.NANOSECONDS.toMillis(this.nanosByStage.get(stage).sum());
+  }
+
+  /**
+   * Set one {@link ConfigurationKeys#DATASET_COMMIT_STAGE_TIME_PREFIX} property per stage on the given state.
+   */
+  void addToState(State state) {
+    for (Stage stage : Stage.values()) {
+      state.setProp(ConfigurationKeys.DATASET_COMMIT_STAGE_TIME_PREFIX + "." + stage.name().toLowerCase(),
+          getMillis(stage));
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    for (Stage stage : Stage.values()) {
+      builder.append(builder.length() == 0 ? "" : ", ").append(stage.name().toLowerCase()).append(": ")
+          .append(getMillis(stage)).append(" ms");
+    }
+    return builder.toString();
+  }
+}
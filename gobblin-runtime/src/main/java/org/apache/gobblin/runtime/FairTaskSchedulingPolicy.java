@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.runtime;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.google.common.base.Preconditions;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import org.apache.gobblin.annotation.Alias;
+import org.apache.gobblin.annotation.Alpha;
+import org.apache.gobblin.configuration.ConfigurationKeys;
+import org.apache.gobblin.util.ConfigUtils;
+
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * A {@link TaskSchedulingPolicy} sharing the threads of a {@link TaskExecutor} between groups of {@link Task}s.
+ *
+ * <p>
+ *   {@link Task}s are grouped by the value of the task property named by
+ *   {@link ConfigurationKeys#TASK_SCHEDULING_GROUP_KEY}, the job name by default, so that a large job does not starve
+ *   smaller jobs submitted after it. The next {@link Task} to run is:
+ *   <ul>
+ *     <li>a {@link Task} with the highest {@link ConfigurationKeys#TASK_SCHEDULING_PRIORITY_KEY} among the queued ones,</li>
+ *     <li>of the group with the fewest running {@link Task}s relative to its
+ *     {@link ConfigurationKeys#TASK_SCHEDULING_WEIGHT_KEY},</li>
+ *     <li>queued first among those.</li>
+ *   </ul>
+ *   A group with weight 2 thus runs twice as many {@link Task}s at once as a group with weight 1, as long as both have
+ *   queued {@link Task}s.
+ * </p>
+ */
+@Alpha
+@Alias("fair")
+public class FairTaskSchedulingPolicy implements TaskSchedulingPolicy {
+
+  // Higher priority first, then first queued
+  private static final Comparator<Entry> QUEUE_ORDER =
+      Comparator.comparingInt((Entry entry) -> -entry.priority).thenComparingLong(entry -> entry.sequence);
+
+  private final String groupKey;
+  private final Map<String, Group> groups = new HashMap<>();
+  private final Map<Submission, Entry> queued = new HashMap<>();
+  private final Map<Submission, Group> running = new HashMap<>();
+  private long sequence = 0;
+
+  public FairTaskSchedulingPolicy() {
+    this(ConfigFactory.empty());
+  }
+
+  public FairTaskSchedulingPolicy(Config config) {
+    this.groupKey = ConfigUtils.getString(config, ConfigurationKeys.TASK_SCHEDULING_GROUP_KEY,
+        ConfigurationKeys.DEFAULT_TASK_SCHEDULING_GROUP_KEY);
+  }
+
+  @RequiredArgsConstructor
+  private static class Group {
+    private final String name;
+    private final TreeSet<Entry> queue = new TreeSet<>(QUEUE_ORDER);
+    private double weight;
+    private int running;
+
+    private double getShare() {
+      return this.running / this.weight;
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static class Entry {
+    private final Submission submission;
+    private final Group group;
+    private final int priority;
+    private final long sequence;
+  }
+
+  @Override
+  public void add(Submission submission) {
+    TaskState taskState = submission.getTask().getTaskState();
+    double weight = taskState.getPropAsDouble(ConfigurationKeys.TASK_SCHEDULING_WEIGHT_KEY,
+        ConfigurationKeys.DEFAULT_TASK_SCHEDULING_WEIGHT);
+    Preconditions.checkArgument(weight > 0, "Task scheduling weight should be positive");
+
+    Group group = this.groups.computeIfAbsent(taskState.getProp(this.groupKey, ""), Group::new);
+    group.weight = weight;
+    Entry entry = new Entry(submission, group, taskState.getPropAsInt(ConfigurationKeys.TASK_SCHEDULING_PRIORITY_KEY,
+        ConfigurationKeys.DEFAULT_TASK_SCHEDULING_PRIORITY), this.sequence++);
+    group.queue.add(entry);
+    this.queued.put(submission, entry);
+  }
+
+  @Override
+  public Submission poll() {
+    Entry next = null;
+    for (Group group : this.groups.values()) {
+      if (!group.queue.isEmpty() && (next == null || runsBefore(group.queue.first(), next))) {
+        next = group.queue.first();
+      }
+    }
+    if (next == null) {
+      return null;
+    }
+
+    next.group.queue.pollFirst();
+    this.queued.remove(next.submission);
+    next.group.running++;
+    this.running.put(next.submission, next.group);
+    return next.submission;
+  }
+
+  private static boolean runsBefore(Entry entry, Entry other) {
+    if (entry.priority != other.priority) {
+      return entry.priority > other.priority;
+    }
+    int shareComparison = Double.compare(entry.group.getShare(), other.group.getShare());
+    if (shareComparison != 0) {
+      return shareComparison < 0;
+    }
+    return entry.sequence < other.sequence;
+  }
+
+  @Override
+  public boolean remove(Submission submission) {
+    Entry entry = this.queued.remove(submission);
+    if (entry == null) {
+      return false;
+    }
+    entry.group.queue.remove(entry);
+    removeIfIdle(entry.group);
+    return true;
+  }
+
+  @Override
+  public void onCompletion(Submission submission) {
+    Group group = this.running.remove(submission);
+    if (group != null) {
+      group.running--;
+      removeIfIdle(group);
+    }
+  }
+
+  private void removeIfIdle(Group group) {
+    if (group.queue.isEmpty() && group.running == 0) {
+      this.groups.remove(group.name);
+    }
+  }
+
+  @Override
+  public int size() {
+    return this.queued.size();
+  }
+}
@@ -199,6 +199,7 @@ public class GobblinMultiTaskAttempt {
   private void interruptTaskExecution(CountDownLatch countDownLatch)
       throws InterruptedException {
     log.info("Job interrupted. Attempting a graceful shutdown of the job.");
+    preemptQueuedTasks();
     this.tasks.forEach(Task::shutdown);
     if (!countDownLatch.await(5, TimeUnit.SECONDS)) {
       log.warn("Graceful shutdown of job timed out. Killing all outstanding tasks.");
@@ -210,6 +211,19 @@ public class GobblinMultiTaskAttempt {
     }
   }
 
+  /**
+   * Remove the tasks of this attempt which are queued in the {@link TaskExecutor} and have not started, and complete
+   * them as cancelled, so that they do not run after the attempt has been interrupted. Tasks of other attempts sharing
+   * the {@link TaskExecutor} are not affected.
+   */
+  private void preemptQueuedTasks() {
+    for (Task task : this.taskExecutor.preemptQueuedTasks(this.tasks)) {
+      log.info("Task {} removed from the task executor queue.", task.getTaskId());
+      task.getTaskState().setWorkingState(WorkUnitState.WorkingState.CANCELLED);
+      this.taskStateTracker.onTaskRunCompletion(task);
+    }
+  }
+
   /**
    * Commit {@link #tasks} by 1. calling {@link Task#commit()} in parallel; 2. executing any additional {@link CommitStep};
    * 3. persist task statestore.
@@ -264,6 +278,7 @@ public class GobblinMultiTaskAttempt {
   public synchronized void shutdownTasks()
       throws InterruptedException {
     log.info("Shutting down tasks");
+    preemptQueuedTasks();
     for (Task task : this.tasks) {
       task.shutdown();
     }
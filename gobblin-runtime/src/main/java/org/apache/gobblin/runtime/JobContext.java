@@ -130,6 +130,14 @@ public class JobContext implements Closeable {
   // A map from dataset URNs to DatasetStates (optional and maybe absent if not populated)
   private Optional<Map<String, JobState.DatasetState>> datasetStatesByUrns = Optional.absent();
 
+  // Time spent in each stage of the dataset commits
+  @Getter(AccessLevel.PACKAGE)
+  private DatasetCommitStageTimings commitStageTimings = new DatasetCommitStageTimings();
+
+  // Present while committing if dataset states are persisted in batches
+  @Getter(AccessLevel.PACKAGE)
+  private Optional<BatchingDatasetStatePersister> datasetStatePersister = Optional.absent();
+
   public JobContext(Properties jobProps, Logger logger, SharedResourcesBroker<GobblinScopeTypes> instanceBroker)
       throws Exception {
     Preconditions.checkArgument(jobProps.containsKey(ConfigurationKeys.JOB_NAME_KEY),
@@ -449,11 +457,18 @@ public class JobContext implements Closeable {
     final boolean shouldCommitDataInJob = shouldCommitDataInJob(this.jobState);
     final DeliverySemantics deliverySemantics = DeliverySemantics.parse(this.jobState);
     final int numCommitThreads = numCommitThreads();
+    final int persistBatchSize = this.jobState.getPropAsInt(ConfigurationKeys.DATASET_STATE_PERSIST_BATCH_SIZE,
+        ConfigurationKeys.DEFAULT_DATASET_STATE_PERSIST_BATCH_SIZE);
 
     if (!shouldCommitDataInJob) {
       this.logger.info("Job will not commit data since data are committed by tasks.");
     }
 
+    this.commitStageTimings = new DatasetCommitStageTimings();
+    this.datasetStatePersister = persistBatchSize > 1
+        ? Optional.of(new BatchingDatasetStatePersister(this.datasetStateStore, persistBatchSize, this.commitStageTimings))
+        : Optional.<BatchingDatasetStatePersister>absent();
+
     try {
       if (this.datasetStatesByUrns.isPresent()) {
         this.logger.info("Persisting dataset urns.");
@@ -475,7 +490,20 @@ public class JobContext implements Closeable {
 
       IteratorExecutor.logFailures(result, LOG, 10);
 
-      if (!IteratorExecutor.verifyAllSuccessful(result)) {
+      boolean allStatesPersisted = true;
+      if (this.datasetStatePersister.isPresent()) {
+        try {
+          this.datasetStatePersister.get().close();
+        } catch (IOException ioe) {
+          LOG.error("Failed to persist dataset states of job " + this.jobId, ioe);
+          allStatesPersisted = false;
+        }
+      }
+
+      this.commitStageTimings.addToState(this.jobState);
+      this.logger.info("Dataset commit stage times of job {}: {}", this.jobId, this.commitStageTimings);
+
+      if (!allStatesPersisted || !IteratorExecutor.verifyAllSuccessful(result)) {
         this.jobState.setState(JobState.RunningState.FAILED);
         String errMsg = "Failed to commit dataset state for some dataset(s) of job " + this.jobId;
         this.jobState.setJobFailureMessage(errMsg);
@@ -483,6 +511,8 @@ public class JobContext implements Closeable {
       }
     } catch (InterruptedException exc) {
       throw new IOException(exc);
+    } finally {
+      this.datasetStatePersister = Optional.absent();
     }
     this.jobState.setState(JobState.RunningState.COMMITTED);
   }
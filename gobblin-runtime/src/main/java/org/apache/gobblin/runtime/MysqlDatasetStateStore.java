@@ -126,6 +126,33 @@ public class MysqlDatasetStateStore extends MysqlStateStore<JobState.DatasetStat
     createAlias(jobName, tableName, getAliasName(datasetUrn));
   }
 
+  /**
+   * Persist the {@link JobState.DatasetState}s of several datasets, writing each state and its "current" alias in a
+   * single batch per job instead of one upsert, one existence check and one clone per dataset.
+   */
+  @Override
+  public void persistDatasetStates(Map<String, JobState.DatasetState> datasetStatesByUrns) throws IOException {
+    Map<String, Map<String, JobState.DatasetState>> statesByTableNameByJobName = Maps.newHashMap();
+
+    for (Map.Entry<String, JobState.DatasetState> entry : datasetStatesByUrns.entrySet()) {
+      JobState.DatasetState datasetState = entry.getValue();
+      String datasetUrn = CharMatcher.is(':').replaceFrom(entry.getKey(), '.');
+      String tableName = Strings.isNullOrEmpty(datasetUrn) ? datasetState.getJobId() + DATASET_STATE_STORE_TABLE_SUFFIX
+          : datasetUrn + "-" + datasetState.getJobId() + DATASET_STATE_STORE_TABLE_SUFFIX;
+
+      Map<String, JobState.DatasetState> statesByTableName =
+          statesByTableNameByJobName.computeIfAbsent(datasetState.getJobName(), k -> Maps.newLinkedHashMap());
+      statesByTableName.put(tableName, datasetState);
+      statesByTableName.put(getAliasName(datasetUrn), datasetState);
+    }
+
+    for (Map.Entry<String, Map<String, JobState.DatasetState>> entry : statesByTableNameByJobName.entrySet()) {
+      LOGGER.info("Persisting {} dataset states of job {} to the job state store", entry.getValue().size() / 2,
+          entry.getKey());
+      putAll(entry.getKey(), entry.getValue());
+    }
+  }
+
   @Override
   public void persistDatasetURNs(String storeName, Collection<String> datasetUrns)
       throws IOException {
@@ -116,6 +116,8 @@ final class SafeDatasetCommit implements Callable<Void> {
 
     Optional<CommitSequence.Builder> commitSequenceBuilder = Optional.absent();
     boolean canPersistStates = true;
+    DatasetCommitStageTimings timings = this.jobContext.getCommitStageTimings();
+    long publishStartNanos = System.nanoTime();
     try (Closer closer = Closer.create()) {
       if (this.shouldCommitDataInJob) {
         log.info(String.format("Committing dataset %s of job %s with commit policy %s and state %s", this.datasetUrn,
@@ -178,10 +180,13 @@ final class SafeDatasetCommit implements Callable<Void> {
           this.jobContext.getJobId()), throwable);
       throw new RuntimeException(throwable);
     } finally {
+      timings.record(DatasetCommitStageTimings.Stage.PUBLISH, publishStartNanos);
       try {
         finalizeDatasetState(datasetState, datasetUrn);
+        long eventsStartNanos = System.nanoTime();
         maySubmitFailureEvent(datasetState);
         maySubmitLineageEvent(datasetState);
+        timings.record(DatasetCommitStageTimings.Stage.EVENTS, eventsStartNanos);
         if (commitSequenceBuilder.isPresent()) {
           buildAndExecuteCommitSequence(commitSequenceBuilder.get(), datasetState, datasetUrn);
           datasetState.setState(JobState.RunningState.COMMITTED);
@@ -404,12 +409,24 @@ final class SafeDatasetCommit implements Callable<Void> {
   }
 
   /**
-   * Persist dataset state of a given dataset identified by the dataset URN.
+   * Persist dataset state of a given dataset identified by the dataset URN. If the job batches dataset state
+   * persistence, the state is only added to the current batch.
    */
   private void persistDatasetState(String datasetUrn, JobState.DatasetState datasetState)
       throws IOException {
+    Optional<BatchingDatasetStatePersister> persister = this.jobContext.getDatasetStatePersister();
+    if (persister.isPresent()) {
+      persister.get().persist(datasetUrn, datasetState);
+      return;
+    }
+
     log.info("Persisting dataset state for dataset " + datasetUrn);
-    this.jobContext.getDatasetStateStore().persistDatasetState(datasetUrn, datasetState);
+    long startNanos = System.nanoTime();
+    try {
+      this.jobContext.getDatasetStateStore().persistDatasetState(datasetUrn, datasetState);
+    } finally {
+      this.jobContext.getCommitStageTimings().record(DatasetCommitStageTimings.Stage.PERSIST, startNanos);
+    }
   }
 
   /**
@@ -17,16 +17,24 @@
 
 package org.apache.gobblin.runtime;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -45,6 +53,7 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.AbstractIdleService;
+import com.typesafe.config.Config;
 
 import org.apache.hadoop.conf.Configuration;
 import org.slf4j.Logger;
@@ -53,7 +62,13 @@ import org.slf4j.LoggerFactory;
 import org.apache.gobblin.configuration.ConfigurationKeys;
 import org.apache.gobblin.metrics.GobblinMetrics;
 import org.apache.gobblin.runtime.fork.Fork;
+import org.apache.gobblin.runtime.util.MetricGroup;
+import org.apache.gobblin.runtime.util.TaskMetrics;
+import org.apache.gobblin.util.ClassAliasResolver;
+import org.apache.gobblin.util.ConfigUtils;
 import org.apache.gobblin.util.ExecutorsUtils;
+import org.apache.gobblin.util.HadoopUtils;
+import org.apache.gobblin.util.reflection.GobblinConstructorUtils;
 
 import lombok.Getter;
 
@@ -69,9 +84,23 @@ public class TaskExecutor extends AbstractIdleService {
 
   private static final Logger LOG = LoggerFactory.getLogger(TaskExecutor.class);
 
+  // Name of the job-level timer of the time tasks waited to start
+  private static final String QUEUED_TIME = "queuedTime";
+
   // Thread pool executor for running tasks
   private final ScheduledExecutorService taskExecutor;
 
+  private final int taskExecutorThreadPoolSize;
+
+  // Policy choosing the next queued task to run. If absent, tasks are queued in the thread pool in submission order.
+  private final Optional<TaskSchedulingPolicy> schedulingPolicy;
+
+  // Submissions queued in the scheduling policy. This set is also the lock of the scheduling policy.
+  private final Set<ScheduledTask> scheduledTasks = new HashSet<>();
+
+  // Number of tasks handed from the scheduling policy to the thread pool, guarded by scheduledTasks
+  private int dispatchedTaskCount = 0;
+
   // A separate thread pool executor for running forks of tasks
   @Getter
   private final ExecutorService forkExecutor;
@@ -136,6 +165,10 @@ public class TaskExecutor extends AbstractIdleService {
   @Getter
   private final Meter failedTaskCount = new Meter();
 
+  // Count of queued tasks removed before they started.
+  @Getter
+  private final Meter preemptedTaskCount = new Meter();
+
   @Getter
   private final Timer taskCreateAndRunTimer;
 
@@ -146,7 +179,8 @@ public class TaskExecutor extends AbstractIdleService {
    * Constructor used internally.
    */
   private TaskExecutor(int taskExecutorThreadPoolSize, int coreRetryThreadPoolSize, long retryIntervalInSeconds,
-                       int queuedTaskTimeMaxSize, long queuedTaskTimeMaxAge, int timerWindowSize) {
+                       int queuedTaskTimeMaxSize, long queuedTaskTimeMaxAge, int timerWindowSize,
+                       Optional<TaskSchedulingPolicy> schedulingPolicy) {
     Preconditions.checkArgument(taskExecutorThreadPoolSize > 0, "Task executor thread pool size should be positive");
     Preconditions.checkArgument(retryIntervalInSeconds > 0, "Task retry interval should be positive");
     Preconditions.checkArgument(queuedTaskTimeMaxSize > 0, "Queued task time max size should be positive");
@@ -156,6 +190,8 @@ public class TaskExecutor extends AbstractIdleService {
     this.taskExecutor = ExecutorsUtils.loggingDecorator(Executors.newScheduledThreadPool(
         taskExecutorThreadPoolSize,
         ExecutorsUtils.newThreadFactory(Optional.of(LOG), Optional.of("TaskExecutor-%d"))));
+    this.taskExecutorThreadPoolSize = taskExecutorThreadPoolSize;
+    this.schedulingPolicy = schedulingPolicy;
 
     this.retryIntervalInSeconds = retryIntervalInSeconds;
     this.queuedTaskTimeMaxSize = queuedTaskTimeMaxSize;
@@ -195,7 +231,8 @@ public class TaskExecutor extends AbstractIdleService {
         Long.parseLong(properties.getProperty(ConfigurationKeys.QUEUED_TASK_TIME_MAX_AGE,
             Long.toString(ConfigurationKeys.DEFAULT_QUEUED_TASK_TIME_MAX_AGE))),
         Integer.parseInt(properties.getProperty(ConfigurationKeys.METRIC_TIMER_WINDOW_SIZE_IN_MINUTES,
-            Integer.toString(ConfigurationKeys.DEFAULT_METRIC_TIMER_WINDOW_SIZE_IN_MINUTES))));
+            Integer.toString(ConfigurationKeys.DEFAULT_METRIC_TIMER_WINDOW_SIZE_IN_MINUTES))),
+        createSchedulingPolicy(ConfigUtils.propertiesToConfig(properties)));
   }
 
   /**
@@ -213,7 +250,22 @@ public class TaskExecutor extends AbstractIdleService {
         conf.getLong(ConfigurationKeys.QUEUED_TASK_TIME_MAX_AGE,
             ConfigurationKeys.DEFAULT_QUEUED_TASK_TIME_MAX_AGE),
         conf.getInt(ConfigurationKeys.METRIC_TIMER_WINDOW_SIZE_IN_MINUTES,
-            ConfigurationKeys.DEFAULT_METRIC_TIMER_WINDOW_SIZE_IN_MINUTES));
+            ConfigurationKeys.DEFAULT_METRIC_TIMER_WINDOW_SIZE_IN_MINUTES),
+        createSchedulingPolicy(ConfigUtils.propertiesToConfig(HadoopUtils.getStateFromConf(conf).getProperties())));
+  }
+
+  private static Optional<TaskSchedulingPolicy> createSchedulingPolicy(Config config) {
+    if (!config.hasPath(ConfigurationKeys.TASK_EXECUTOR_SCHEDULING_POLICY_KEY)) {
+      return Optional.absent();
+    }
+    String policy = config.getString(ConfigurationKeys.TASK_EXECUTOR_SCHEDULING_POLICY_KEY);
+    try {
+      LOG.info("Using task scheduling policy " + policy);
+      return Optional.<TaskSchedulingPolicy>of(GobblinConstructorUtils.invokeLongestConstructor(
+          new ClassAliasResolver<>(TaskSchedulingPolicy.class).resolveClass(policy), config));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("Failed to create task scheduling policy " + policy, e);
+    }
   }
 
   @Override
@@ -246,7 +298,11 @@ public class TaskExecutor extends AbstractIdleService {
    */
   public void execute(Task task) {
     LOG.info(String.format("Executing task %s", task.getTaskId()));
-    this.taskExecutor.execute(new TrackingTask(task));
+    if (this.schedulingPolicy.isPresent()) {
+      schedule(new TrackingTask(task));
+    } else {
+      this.taskExecutor.execute(new TrackingTask(task));
+    }
   }
 
   /**
@@ -257,9 +313,103 @@ public class TaskExecutor extends AbstractIdleService {
    */
   public Future<?> submit(Task task) {
     LOG.info(String.format("Submitting task %s", task.getTaskId()));
+    if (this.schedulingPolicy.isPresent()) {
+      return schedule(new TrackingTask(task));
+    }
     return this.taskExecutor.submit(new TrackingTask(task));
   }
 
+  /**
+   * Remove the given {@link Task}s which are queued and have not started yet. The futures of the removed
+   * {@link Task}s are cancelled. Other {@link Task}s sharing this executor, including other {@link Task}s of the same
+   * job, are left queued. Only {@link Task}s queued in the scheduling policy can be removed, so nothing is removed if
+   * {@link ConfigurationKeys#TASK_EXECUTOR_SCHEDULING_POLICY_KEY} is not set.
+   *
+   * @param tasks {@link Task}s to remove if they are queued
+   * @return the removed {@link Task}s
+   */
+  public List<Task> preemptQueuedTasks(Collection<Task> tasks) {
+    Set<Task> toPreempt = Collections.newSetFromMap(new IdentityHashMap<>());
+    toPreempt.addAll(tasks);
+    List<ScheduledTask> preempted = new ArrayList<>();
+    synchronized (this.scheduledTasks) {
+      Iterator<ScheduledTask> iterator = this.scheduledTasks.iterator();
+      while (iterator.hasNext()) {
+        ScheduledTask scheduledTask = iterator.next();
+        if (toPreempt.contains(scheduledTask.task)) {
+          iterator.remove();
+          this.schedulingPolicy.get().remove(scheduledTask);
+          preempted.add(scheduledTask);
+        }
+      }
+    }
+
+    List<Task> preemptedTasks = new ArrayList<>(preempted.size());
+    for (ScheduledTask scheduledTask : preempted) {
+      this.queuedTasks.remove(scheduledTask.task.getTaskId());
+      scheduledTask.cancel(false);
+      preemptedTasks.add(scheduledTask.task);
+    }
+    if (!preempted.isEmpty()) {
+      this.preemptedTaskCount.mark(preempted.size());
+      LOG.info(String.format("Removed %d queued tasks", preempted.size()));
+    }
+    return preemptedTasks;
+  }
+
+  private Future<?> schedule(TrackingTask trackingTask) {
+    ScheduledTask scheduledTask = new ScheduledTask(trackingTask);
+    synchronized (this.scheduledTasks) {
+      this.scheduledTasks.add(scheduledTask);
+      this.schedulingPolicy.get().add(scheduledTask);
+      dispatch();
+    }
+    return scheduledTask;
+  }
+
+  /**
+   * Hand queued tasks to the thread pool while it has free threads. Must be called holding the lock of the scheduling
+   * policy.
+   */
+  private void dispatch() {
+    while (this.dispatchedTaskCount < this.taskExecutorThreadPoolSize) {
+      ScheduledTask next = (ScheduledTask) this.schedulingPolicy.get().poll();
+      if (next == null) {
+        return;
+      }
+      this.scheduledTasks.remove(next);
+      this.dispatchedTaskCount++;
+      try {
+        this.taskExecutor.execute(next);
+      } catch (RejectedExecutionException e) {
+        LOG.error(String.format("Task %s was rejected by the task executor", next.task.getTaskId()), e);
+        this.dispatchedTaskCount--;
+        this.schedulingPolicy.get().onCompletion(next);
+        this.queuedTasks.remove(next.task.getTaskId());
+        next.reject(e);
+      }
+    }
+  }
+
+  private boolean unschedule(ScheduledTask scheduledTask) {
+    synchronized (this.scheduledTasks) {
+      if (!this.scheduledTasks.remove(scheduledTask)) {
+        return false;
+      }
+      this.schedulingPolicy.get().remove(scheduledTask);
+    }
+    this.queuedTasks.remove(scheduledTask.task.getTaskId());
+    return true;
+  }
+
+  private void onDispatchedTaskCompletion(ScheduledTask scheduledTask) {
+    synchronized (this.scheduledTasks) {
+      this.dispatchedTaskCount--;
+      this.schedulingPolicy.get().onCompletion(scheduledTask);
+      dispatch();
+    }
+  }
+
   /**
    * Execute a {@link Fork}.
    *
@@ -297,7 +447,14 @@ public class TaskExecutor extends AbstractIdleService {
     // Task retry interval increases linearly with number of retries
     long interval = task.getRetryCount() * this.retryIntervalInSeconds;
     // Schedule the retry of the failed task
-    this.taskExecutor.schedule(new TrackingTask(task, interval, TimeUnit.SECONDS), interval, TimeUnit.SECONDS);
+    TrackingTask trackingTask = new TrackingTask(task, interval, TimeUnit.SECONDS);
+    if (this.schedulingPolicy.isPresent()) {
+      this.taskExecutor.schedule(() -> {
+        schedule(trackingTask);
+      }, interval, TimeUnit.SECONDS);
+    } else {
+      this.taskExecutor.schedule(trackingTask, interval, TimeUnit.SECONDS);
+    }
     LOG.info(String.format("Scheduled retry of failed task %s to run in %d seconds", task.getTaskId(), interval));
     task.incrementRetryCount();
   }
@@ -416,6 +573,15 @@ public class TaskExecutor extends AbstractIdleService {
       metrics.put(name("running", "count"), runningTaskCount);
       metrics.put(name("successful", "count"), successfulTaskCount);
       metrics.put(name("failed", "count"), failedTaskCount);
+      metrics.put(name("preempted", "count"), preemptedTaskCount);
+      metrics.put(name("scheduled", "count"), new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          synchronized (scheduledTasks) {
+            return scheduledTasks.size();
+          }
+        }
+      });
       return Collections.unmodifiableMap(metrics);
     }
   }
@@ -462,6 +628,49 @@ public class TaskExecutor extends AbstractIdleService {
       LOG.debug(String.format("Task %s started. Saving queued time of %d ms to history.", underlyingTask.getTaskId(), timeInQueue));
       queuedTaskTimeHistorical.putIfAbsent(System.currentTimeMillis(), timeInQueue);
       runningTaskCount.inc();
+
+      TaskState taskState = this.underlyingTask.getTaskState();
+      if (GobblinMetrics.isEnabled(taskState)) {
+        TaskMetrics.get(taskState).getTimer(MetricGroup.JOB.name(), this.underlyingTask.getJobId(), QUEUED_TIME)
+            .update(timeInQueue, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  /**
+   * A {@link Future} of a submission of a {@link Task} to the scheduling policy. Cancelling it before the {@link Task}
+   * is handed to the thread pool removes the submission from the scheduling policy.
+   */
+  private class ScheduledTask extends FutureTask<Void> implements TaskSchedulingPolicy.Submission {
+    private final Task task;
+
+    public ScheduledTask(TrackingTask trackingTask) {
+      super(trackingTask, null);
+      this.task = trackingTask.underlyingTask;
+    }
+
+    @Override
+    public Task getTask() {
+      return this.task;
+    }
+
+    @Override
+    public void run() {
+      try {
+        super.run();
+      } finally {
+        onDispatchedTaskCompletion(this);
+      }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      unschedule(this);
+      return super.cancel(mayInterruptIfRunning);
+    }
+
+    private void reject(Throwable cause) {
+      setException(cause);
     }
   }
 }
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.runtime;
+
+import org.apache.gobblin.annotation.Alpha;
+
+
+/**
+ * A policy choosing which queued {@link Task} a {@link TaskExecutor} runs next.
+ *
+ * <p>
+ *   A {@link TaskExecutor} configured with a policy (see
+ *   {@link org.apache.gobblin.configuration.ConfigurationKeys#TASK_EXECUTOR_SCHEDULING_POLICY_KEY}) keeps the submitted
+ *   {@link Task}s in the policy, and only hands a {@link Task} to its thread pool once a thread is free. Implementations
+ *   are called under a lock of the {@link TaskExecutor}, so they do not need to be thread-safe. They should have a
+ *   constructor taking a {@link com.typesafe.config.Config} or a no-arg constructor.
+ * </p>
+ */
+@Alpha
+public interface TaskSchedulingPolicy {
+
+  /**
+   * A submission of a {@link Task} to a {@link TaskExecutor}. A retried {@link Task} is submitted again, possibly before
+   * its previous submission has completed, so policies should keep their state per submission rather than per
+   * {@link Task}.
+   */
+  interface Submission {
+    Task getTask();
+  }
+
+  /**
+   * Queue a {@link Submission} of a {@link Task} which is ready to run.
+   */
+  void add(Submission submission);
+
+  /**
+   * Remove the next {@link Submission} to run from the queue. It is considered running until
+   * {@link #onCompletion(Submission)} is called for it.
+   *
+   * @return the next {@link Submission} to run, or null if the queue is empty
+   */
+  Submission poll();
+
+  /**
+   * Remove a queued {@link Submission} which has not started.
+   *
+   * @return true if the {@link Submission} was queued
+   */
+  boolean remove(Submission submission);
+
+  /**
+   * Called once a {@link Submission} returned by {@link #poll()} has completed.
+   */
+  void onCompletion(Submission submission);
+
+  /**
+   * @return the number of queued {@link Submission}s
+   */
+  int size();
+}
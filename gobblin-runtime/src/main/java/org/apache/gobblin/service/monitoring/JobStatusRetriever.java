@@ -76,6 +76,13 @@ public abstract class JobStatusRetriever implements LatestFlowExecutionIdTracker
    * @return deserialize {@link State} into a {@link JobStatus}.
    */
   protected JobStatus getJobStatus(State jobState) {
+    return convertToJobStatus(jobState);
+  }
+
+  /**
+   * Same as {@link #getJobStatus(State)}, for callers that hold a job status {@link State} without a retriever.
+   */
+  public static JobStatus convertToJobStatus(State jobState) {
     String flowGroup = jobState.getProp(TimingEvent.FlowEventConstants.FLOW_GROUP_FIELD);
     String flowName = jobState.getProp(TimingEvent.FlowEventConstants.FLOW_NAME_FIELD);
     long flowExecutionId = Long.parseLong(jobState.getProp(TimingEvent.FlowEventConstants.FLOW_EXECUTION_ID_FIELD));
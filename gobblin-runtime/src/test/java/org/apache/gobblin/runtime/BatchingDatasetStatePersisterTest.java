@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.runtime;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.gobblin.configuration.ConfigurationKeys;
+import org.apache.gobblin.configuration.State;
+
+
+/**
+ * Unit tests for {@link BatchingDatasetStatePersister}.
+ */
+@Test(groups = { "gobblin.runtime" })
+public class BatchingDatasetStatePersisterTest {
+
+  @Test
+  public void testBatching() throws IOException {
+    RecordingDatasetStateStore datasetStateStore = new RecordingDatasetStateStore(true, false);
+    DatasetCommitStageTimings timings = new DatasetCommitStageTimings();
+    BatchingDatasetStatePersister persister = new BatchingDatasetStatePersister(datasetStateStore, 2, timings);
+    for (String datasetUrn : ImmutableList.of("a", "b", "c", "d", "e")) {
+      persister.persist(datasetUrn, new JobState.DatasetState());
+    }
+    Assert.assertEquals(datasetStateStore.batches, ImmutableList.of(ImmutableList.of("a", "b"), ImmutableList.of("c", "d")));
+
+    persister.close();
+    Assert.assertEquals(datasetStateStore.batches.get(2), ImmutableList.of("e"));
+
+    // Nothing left to write
+    persister.close();
+    Assert.assertEquals(datasetStateStore.batches.size(), 3);
+
+    State state = new State();
+    timings.addToState(state);
+    Assert.assertTrue(state.contains(ConfigurationKeys.DATASET_COMMIT_STAGE_TIME_PREFIX + ".persist"));
+  }
+
+  @Test(expectedExceptions = IOException.class)
+  public void testFailedBatch() throws IOException {
+    BatchingDatasetStatePersister persister = new BatchingDatasetStatePersister(
+        new RecordingDatasetStateStore(true, true), 10, new DatasetCommitStageTimings());
+    persister.persist("a", new JobState.DatasetState());
+    persister.close();
+  }
+
+  @Test
+  public void testDefaultPersistsEachState() throws IOException {
+    RecordingDatasetStateStore datasetStateStore = new RecordingDatasetStateStore(false, false);
+    Map<String, JobState.DatasetState> states = Maps.newLinkedHashMap();
+    states.put("a", new JobState.DatasetState());
+    states.put("b", new JobState.DatasetState());
+
+    datasetStateStore.persistDatasetStates(states);
+
+    Assert.assertEquals(datasetStateStore.batches, ImmutableList.of(ImmutableList.of("a"), ImmutableList.of("b")));
+  }
+
+  private static class RecordingDatasetStateStore extends NoopDatasetStateStore {
+    private final boolean supportsBatches;
+    private final boolean fail;
+    private final List<List<String>> batches = Lists.newArrayList();
+
+    RecordingDatasetStateStore(boolean supportsBatches, boolean fail) throws IOException {
+      super(FileSystem.getLocal(new Configuration()), "");
+      this.supportsBatches = supportsBatches;
+      this.fail = fail;
+    }
+
+    @Override
+    public void persistDatasetState(String datasetUrn, JobState.DatasetState datasetState) throws IOException {
+      this.batches.add(ImmutableList.of(datasetUrn));
+    }
+
+    @Override
+    public void persistDatasetStates(Map<String, JobState.DatasetState> datasetStatesByUrns) throws IOException {
+      if (this.fail) {
+        throw new IOException("test");
+      }
+      if (this.supportsBatches) {
+        this.batches.add(ImmutableList.copyOf(datasetStatesByUrns.keySet()));
+      } else {
+        super.persistDatasetStates(datasetStatesByUrns);
+      }
+    }
+  }
+}
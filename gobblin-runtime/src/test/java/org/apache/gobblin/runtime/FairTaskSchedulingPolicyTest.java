@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.runtime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import org.apache.gobblin.configuration.ConfigurationKeys;
+import org.apache.gobblin.runtime.TaskSchedulingPolicy.Submission;
+
+
+@Test(groups = {"gobblin.runtime"})
+public class FairTaskSchedulingPolicyTest {
+
+  private static Task createTask(String jobName, double weight, int priority) {
+    TaskState taskState = new TaskState();
+    taskState.setProp(ConfigurationKeys.JOB_NAME_KEY, jobName);
+    taskState.setProp(ConfigurationKeys.TASK_SCHEDULING_WEIGHT_KEY, weight);
+    taskState.setProp(ConfigurationKeys.TASK_SCHEDULING_PRIORITY_KEY, priority);
+    taskState.setProp(ConfigurationKeys.METRICS_ENABLED_KEY, false);
+    TaskContext taskContext = Mockito.mock(TaskContext.class);
+    Mockito.when(taskContext.getTaskState()).thenReturn(taskState);
+
+    Task task = Mockito.mock(Task.class);
+    Mockito.when(task.getTaskState()).thenReturn(taskState);
+    Mockito.when(task.getTaskContext()).thenReturn(taskContext);
+    Mockito.when(task.getJobId()).thenReturn(jobName);
+    Mockito.when(task.getTaskId()).thenReturn(jobName + "_" + System.identityHashCode(taskState));
+    return task;
+  }
+
+  private static Submission submit(TaskSchedulingPolicy policy, Task task) {
+    Submission submission = () -> task;
+    policy.add(submission);
+    return submission;
+  }
+
+  private static List<Submission> addTasks(TaskSchedulingPolicy policy, String jobName, double weight, int numTasks) {
+    List<Submission> submissions = new ArrayList<>();
+    for (int i = 0; i < numTasks; i++) {
+      submissions.add(submit(policy, createTask(jobName, weight, 0)));
+    }
+    return submissions;
+  }
+
+  public void testSmallJobIsNotStarved() {
+    FairTaskSchedulingPolicy policy = new FairTaskSchedulingPolicy();
+    List<Submission> largeJob = addTasks(policy, "large", 1.0, 10);
+    Assert.assertEquals(policy.poll(), largeJob.get(0));
+
+    // The small job runs next although it was queued after the large one
+    List<Submission> smallJob = addTasks(policy, "small", 1.0, 1);
+    Assert.assertEquals(policy.poll(), smallJob.get(0));
+    Assert.assertEquals(policy.poll(), largeJob.get(1));
+    Assert.assertEquals(policy.size(), 8);
+  }
+
+  public void testWeightedShare() {
+    FairTaskSchedulingPolicy policy = new FairTaskSchedulingPolicy();
+    List<Submission> heavyJob = addTasks(policy, "heavy", 2.0, 10);
+    List<Submission> lightJob = addTasks(policy, "light", 1.0, 10);
+
+    int heavyRunning = 0;
+    for (int i = 0; i < 6; i++) {
+      if (heavyJob.contains(policy.poll())) {
+        heavyRunning++;
+      }
+    }
+    Assert.assertEquals(heavyRunning, 4);
+
+    // A completed task of the light job is replaced by a task of the light job
+    policy.onCompletion(lightJob.get(0));
+    Assert.assertTrue(lightJob.contains(policy.poll()));
+  }
+
+  public void testPriority() {
+    FairTaskSchedulingPolicy policy = new FairTaskSchedulingPolicy();
+    Submission lowPriority = submit(policy, createTask("job1", 1.0, 0));
+    Submission highPriority = submit(policy, createTask("job2", 1.0, 5));
+    // Already running tasks do not matter across priorities
+    submit(policy, createTask("job2", 1.0, 5));
+
+    Assert.assertEquals(policy.poll(), highPriority);
+    Assert.assertNotEquals(policy.poll(), lowPriority);
+    Assert.assertEquals(policy.poll(), lowPriority);
+    Assert.assertNull(policy.poll());
+  }
+
+  public void testRemove() {
+    FairTaskSchedulingPolicy policy = new FairTaskSchedulingPolicy();
+    List<Submission> tasks = addTasks(policy, "job", 1.0, 2);
+    Assert.assertTrue(policy.remove(tasks.get(0)));
+    Assert.assertFalse(policy.remove(tasks.get(0)));
+    Assert.assertEquals(policy.size(), 1);
+    Assert.assertEquals(policy.poll(), tasks.get(1));
+    Assert.assertFalse(policy.remove(tasks.get(1)));
+    Assert.assertEquals(policy.size(), 0);
+  }
+
+  public void testRetryBeforePreviousSubmissionCompletes() {
+    FairTaskSchedulingPolicy policy = new FairTaskSchedulingPolicy();
+    // A failed task is submitted again for its retry while its first submission is still completing
+    Task task = createTask("job1", 1.0, 0);
+    Submission first = submit(policy, task);
+    Assert.assertEquals(policy.poll(), first);
+    Submission retry = submit(policy, task);
+    Assert.assertEquals(policy.poll(), retry);
+    policy.onCompletion(first);
+    policy.onCompletion(retry);
+
+    // Nothing of job1 is running anymore, so it is not behind job2
+    Submission job1 = submit(policy, createTask("job1", 1.0, 0));
+    submit(policy, createTask("job2", 1.0, 0));
+    Assert.assertEquals(policy.poll(), job1);
+  }
+
+  public void testTaskExecutorPreemptsQueuedTasks() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty(ConfigurationKeys.TASK_EXECUTOR_THREADPOOL_SIZE_KEY, "1");
+    properties.setProperty(ConfigurationKeys.TASK_EXECUTOR_SCHEDULING_POLICY_KEY, "fair");
+    TaskExecutor taskExecutor = new TaskExecutor(properties);
+    taskExecutor.startAsync().awaitRunning();
+
+    // The first task holds the only thread
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Task runningTask = createTask("job1", 1.0, 0);
+    Mockito.doAnswer(invocation -> {
+      started.countDown();
+      release.await();
+      return null;
+    }).when(runningTask).run();
+    Future<?> runningFuture = taskExecutor.submit(runningTask);
+    Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+    Task queuedTask = createTask("job1", 1.0, 0);
+    Future<?> queuedFuture = taskExecutor.submit(queuedTask);
+    Task otherJobTask = createTask("job2", 1.0, 0);
+    Future<?> otherJobFuture = taskExecutor.submit(otherJobTask);
+
+    // Only the given tasks are removed, not the other queued tasks of the same job
+    Task siblingTask = createTask("job1", 1.0, 0);
+    Future<?> siblingFuture = taskExecutor.submit(siblingTask);
+
+    List<Task> preempted = taskExecutor.preemptQueuedTasks(Arrays.asList(runningTask, queuedTask));
+    Assert.assertEquals(preempted.size(), 1);
+    Assert.assertEquals(preempted.get(0), queuedTask);
+    Assert.assertTrue(queuedFuture.isCancelled());
+    Assert.assertEquals(taskExecutor.getPreemptedTaskCount().getCount(), 1);
+
+    release.countDown();
+    runningFuture.get(10, TimeUnit.SECONDS);
+    otherJobFuture.get(10, TimeUnit.SECONDS);
+    siblingFuture.get(10, TimeUnit.SECONDS);
+    Mockito.verify(queuedTask, Mockito.never()).run();
+    Mockito.verify(otherJobTask).run();
+    Mockito.verify(siblingTask).run();
+    taskExecutor.stopAsync().awaitTerminated();
+  }
+}
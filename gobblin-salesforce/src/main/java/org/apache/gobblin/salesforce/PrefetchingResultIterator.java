@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.salesforce;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonElement;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.gobblin.util.ExecutorsUtils;
+
+
+/**
+ * Iterator that fetches several result files of Bulk API concurrently.
+ *
+ * Up to `concurrency` files are downloaded and parsed at the same time, each by its own {@link BulkResultIterator},
+ * which keeps its own retries. Each file fetched ahead of the consumer buffers at most `prefetchRecords` records,
+ * and its fetch thread blocks once the buffer is full.
+ *
+ * If `ordered`, records are emitted file after file in the order of the file list, like {@link ResultChainingIterator}
+ * does sequentially. Otherwise records are emitted as soon as any file produces them, and all files share one
+ * buffer of `concurrency * prefetchRecords` records.
+ *
+ * Fetching starts on the first call to {@link #hasNext()} or {@link #next()}. The threads are stopped when all the
+ * records are emitted, when a fetch fails or on {@link #close()}.
+ */
+@Slf4j
+public class PrefetchingResultIterator implements Iterator<JsonElement>, Closeable {
+  private static final Object END_OF_FILE = new Object();
+
+  private final List<FileIdVO> fileIdList;
+  private final Function<FileIdVO, Iterator<JsonElement>> fileIteratorFactory;
+  private final int concurrency;
+  private final int prefetchRecords;
+  private final boolean ordered;
+
+  private ExecutorService executor;
+  private List<BlockingQueue<Object>> queues;
+  private int currentFile = 0;
+  private int finishedFiles = 0;
+  private JsonElement nextElement;
+  private RuntimeException failure;
+
+  public PrefetchingResultIterator(List<FileIdVO> fileIdList,
+      Function<FileIdVO, Iterator<JsonElement>> fileIteratorFactory, int concurrency, int prefetchRecords,
+      boolean ordered) {
+    Preconditions.checkArgument(concurrency > 0, "concurrency should be a positive number");
+    Preconditions.checkArgument(prefetchRecords > 0, "prefetchRecords should be a positive number");
+    this.fileIdList = fileIdList;
+    this.fileIteratorFactory = fileIteratorFactory;
+    this.concurrency = concurrency;
+    this.prefetchRecords = prefetchRecords;
+    this.ordered = ordered;
+  }
+
+  private void start() {
+    int numThreads = Math.min(this.concurrency, this.fileIdList.size());
+    log.info("Fetching {} result files with {} threads, ordered: {}", this.fileIdList.size(), numThreads, this.ordered);
+    this.queues = new ArrayList<>(this.fileIdList.size());
+    BlockingQueue<Object> sharedQueue =
+        this.ordered ? null : new LinkedBlockingQueue<>(this.concurrency * this.prefetchRecords);
+    for (int i = 0; i < this.fileIdList.size(); i++) {
+      this.queues.add(this.ordered ? new LinkedBlockingQueue<>(this.prefetchRecords) : sharedQueue);
+    }
+    if (numThreads == 0) {
+      return;
+    }
+
+    // Files are submitted in order and the pool runs them first in first out, so the file the consumer waits on in
+    // ordered mode has always been started, even when the files after it are blocked on full buffers.
+    this.executor = Executors.newFixedThreadPool(numThreads,
+        ExecutorsUtils.newDaemonThreadFactory(Optional.of(log), Optional.of("SalesforceBulkFetch-%d")));
+    for (int i = 0; i < this.fileIdList.size(); i++) {
+      FileIdVO fileId = this.fileIdList.get(i);
+      BlockingQueue<Object> queue = this.queues.get(i);
+      this.executor.execute(() -> fetch(fileId, queue));
+    }
+  }
+
+  private void fetch(FileIdVO fileId, BlockingQueue<Object> queue) {
+    try {
+      Object end = END_OF_FILE;
+      try {
+        Iterator<JsonElement> records = this.fileIteratorFactory.apply(fileId);
+        while (records.hasNext()) {
+          queue.put(records.next());
+        }
+      } catch (RuntimeException | Error e) {
+        end = new FetchFailure(fileId, e);
+      }
+      queue.put(end);
+    } catch (InterruptedException e) {
+      log.info("Stopped fetching {}", fileId);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * @return the next record, or null if all files are exhausted
+   */
+  private JsonElement take() {
+    try {
+      while (this.finishedFiles < this.fileIdList.size()) {
+        Object item = this.queues.get(this.currentFile).take();
+        if (item instanceof JsonElement) {
+          return (JsonElement) item;
+        }
+        if (item instanceof FetchFailure) {
+          close();
+          FetchFailure fetchFailure = (FetchFailure) item;
+          this.failure = new RuntimeException("Failed to fetch " + fetchFailure.fileId, fetchFailure.cause);
+          throw this.failure;
+        }
+        this.finishedFiles++;
+        if (this.ordered) {
+          this.currentFile++;
+        }
+      }
+    } catch (InterruptedException e) {
+      close();
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while fetching bulk results", e);
+    }
+    log.info("Fetched all {} result files", this.fileIdList.size());
+    close();
+    return null;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (this.queues == null) {
+      start();
+    }
+    if (this.failure != null) {
+      throw this.failure;
+    }
+    if (this.nextElement == null && this.finishedFiles < this.fileIdList.size()) {
+      this.nextElement = take();
+    }
+    return this.nextElement != null;
+  }
+
+  @Override
+  public JsonElement next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    JsonElement element = this.nextElement;
+    this.nextElement = null;
+    return element;
+  }
+
+  @Override
+  public void close() {
+    if (this.executor != null) {
+      this.executor.shutdownNow();
+      this.executor = null;
+    }
+  }
+
+  private static class FetchFailure {
+    private final FileIdVO fileId;
+    private final Throwable cause;
+
+    FetchFailure(FileIdVO fileId, Throwable cause) {
+      this.fileId = fileId;
+      this.cause = cause;
+    }
+  }
+}
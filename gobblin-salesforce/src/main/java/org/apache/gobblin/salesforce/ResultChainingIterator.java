@@ -18,9 +18,12 @@
 package org.apache.gobblin.salesforce;
 
 import com.google.common.collect.Iterators;
+import com.google.common.io.Closer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.sforce.async.BulkConnection;
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
@@ -30,18 +33,32 @@ import lombok.extern.slf4j.Slf4j;
  * The Iterator to chain all result iterators together.
  * It is to create only one iterator for a list of result files of BulkAPI.
  * Same time it can also be able to add other iterator with function `add` to combine to 1 iterator
+ * With a fetch concurrency greater than 1, the result files are fetched by a {@link PrefetchingResultIterator}.
+ * The iterator should be closed when it is not read until the end, so that the fetch threads are stopped.
  */
 @Slf4j
-public class ResultChainingIterator implements Iterator<JsonElement> {
+public class ResultChainingIterator implements Iterator<JsonElement>, Closeable {
+  private final Closer closer = Closer.create();
   private Iterator<JsonElement> iter;
   private int recordCount = 0;
   private int isDeletedRecordCount = 0;
 
   public ResultChainingIterator(BulkConnection conn, List<FileIdVO> fileIdList, int retryLimit,
       long retryInterval, long retryExceedQuotaInterval) {
-    Iterator<BulkResultIterator> iterOfFiles = fileIdList.stream().map(x ->
-        new BulkResultIterator(conn, x, retryLimit, retryInterval, retryExceedQuotaInterval)).iterator();
-    iter = Iterators.<JsonElement>concat(iterOfFiles);
+    this(conn, fileIdList, retryLimit, retryInterval, retryExceedQuotaInterval, 1, 1, true);
+  }
+
+  public ResultChainingIterator(BulkConnection conn, List<FileIdVO> fileIdList, int retryLimit,
+      long retryInterval, long retryExceedQuotaInterval, int fetchConcurrency, int prefetchRecords, boolean ordered) {
+    if (fetchConcurrency > 1) {
+      iter = closer.register(new PrefetchingResultIterator(fileIdList,
+          x -> new BulkResultIterator(conn, x, retryLimit, retryInterval, retryExceedQuotaInterval),
+          fetchConcurrency, prefetchRecords, ordered));
+    } else {
+      Iterator<BulkResultIterator> iterOfFiles = fileIdList.stream().map(x ->
+          new BulkResultIterator(conn, x, retryLimit, retryInterval, retryExceedQuotaInterval)).iterator();
+      iter = Iterators.<JsonElement>concat(iterOfFiles);
+    }
   }
 
   public Iterator<JsonElement> get() {
@@ -50,6 +67,9 @@ public class ResultChainingIterator implements Iterator<JsonElement> {
 
   public void add(Iterator<JsonElement> iter) {
     if (iter != null) {
+      if (iter instanceof Closeable) {
+        closer.register((Closeable) iter);
+      }
       this.iter = Iterators.concat(this.iter, iter);
     }
   }
@@ -73,4 +93,9 @@ public class ResultChainingIterator implements Iterator<JsonElement> {
     }
     return jsonElement;
   }
+
+  @Override
+  public void close() throws IOException {
+    closer.close();
+  }
 }
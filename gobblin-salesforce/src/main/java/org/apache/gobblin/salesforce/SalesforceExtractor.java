@@ -20,6 +20,7 @@ package org.apache.gobblin.salesforce;
 import com.google.common.collect.Iterators;
 import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.net.URI;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -109,6 +110,8 @@ public class SalesforceExtractor extends RestApiExtractor {
   private List<BatchIdAndResultId> bulkResultIdList;
   private boolean bulkJobFinished = true;
   private boolean newBulkResultSet = true;
+  // Closed with the extractor, since it may be left half read with result files still being fetched
+  private ResultChainingIterator bulkResultIterator;
 
   private final int pkChunkingSize;
   private final SalesforceConnector sfConnector;
@@ -558,7 +561,9 @@ public class SalesforceExtractor extends RestApiExtractor {
     String jobId = workUnit.getProp(PK_CHUNKING_JOB_ID);
     String batchIdResultIdPairString = workUnit.getProp(PK_CHUNKING_BATCH_RESULT_ID_PAIRS);
     List<FileIdVO> fileIdList = this.parseBatchIdResultIdString(jobId, batchIdResultIdPairString);
-    return new ResultChainingIterator(bulkConnection, fileIdList, retryLimit, retryInterval, retryExceedQuotaInterval);
+    this.bulkResultIterator = new ResultChainingIterator(bulkConnection, fileIdList, retryLimit, retryInterval,
+        retryExceedQuotaInterval, conf.bulkFetchConcurrency, conf.bulkPrefetchRecords, conf.bulkOrderedFetch);
+    return this.bulkResultIterator;
   }
 
   private List<FileIdVO> parseBatchIdResultIdString(String jobId, String batchIdResultIdString) {
@@ -588,10 +593,11 @@ public class SalesforceExtractor extends RestApiExtractor {
       List<FileIdVO> fileIdVoList = this.bulkResultIdList.stream()
           .map(x -> new FileIdVO(this.bulkJob.getId(), x.batchId, x.resultId))
           .collect(Collectors.toList());
-      ResultChainingIterator chainingIter = new ResultChainingIterator(
-          bulkConnection, fileIdVoList, retryLimit, retryInterval, retryExceedQuotaInterval);
-      chainingIter.add(getSoftDeletedRecords(schema, entity, workUnit, predicateList));
-      return chainingIter;
+      this.bulkResultIterator = new ResultChainingIterator(
+          bulkConnection, fileIdVoList, retryLimit, retryInterval, retryExceedQuotaInterval,
+          conf.bulkFetchConcurrency, conf.bulkPrefetchRecords, conf.bulkOrderedFetch);
+      this.bulkResultIterator.add(getSoftDeletedRecords(schema, entity, workUnit, predicateList));
+      return this.bulkResultIterator;
     } catch (Exception e) {
       throw new RuntimeException("Failed to get records using bulk api; error - " + e.getMessage(), e);
     }
@@ -879,6 +885,18 @@ public class SalesforceExtractor extends RestApiExtractor {
     }
   }
 
+  @Override
+  public void close() {
+    if (this.bulkResultIterator != null) {
+      try {
+        this.bulkResultIterator.close();
+      } catch (IOException e) {
+        log.error("Failed to close the bulk result iterator", e);
+      }
+    }
+    super.close();
+  }
+
   @Override
   public void closeConnection() throws Exception {
     if (this.bulkConnection != null
@@ -43,6 +43,18 @@ public class SfConfig extends QueryBasedSourceConfig {
   @Key("salesforce.retry.exceedQuotaInterval")@Default("300000")
   public int retryExceedQuotaInterval;
 
+  // number of bulk result files fetched concurrently, 1 fetches them one after another
+  @Key("salesforce.bulk.fetchConcurrency")@Default("1")@IntRange({1, 20})
+  public int bulkFetchConcurrency;
+
+  // records buffered per result file fetched ahead of the extractor
+  @Key("salesforce.bulk.prefetchRecords")@Default("10000")
+  public int bulkPrefetchRecords;
+
+  // if false, records of concurrently fetched result files are interleaved
+  @Key("salesforce.bulk.orderedFetch")@Default("true")
+  public boolean bulkOrderedFetch;
+
   @Key("sf.rest.api.retryLimit")@Default("3")
   public int restApiRetryLimit;
 
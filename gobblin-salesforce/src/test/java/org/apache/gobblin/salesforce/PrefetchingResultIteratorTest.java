@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.salesforce;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.gson.JsonElement;
+import com.sforce.async.BulkConnection;
+import com.sforce.ws.ConnectorConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+
+/**
+ * Fetches bulk result files from a local stub of the Bulk API result endpoint.
+ */
+public class PrefetchingResultIteratorTest {
+  private static final String JOB_ID = "job";
+  private static final int NUM_FILES = 6;
+  private static final int RECORDS_PER_FILE = 50;
+
+  private HttpServer server;
+  private ExecutorService serverExecutor;
+  private BulkConnection bulkConnection;
+
+  @BeforeClass
+  public void setUp() throws Exception {
+    this.serverExecutor = Executors.newFixedThreadPool(4);
+    this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    this.server.createContext("/services/async/42.0/", this::serveResult);
+    this.server.setExecutor(this.serverExecutor);
+    this.server.start();
+
+    ConnectorConfig config = new ConnectorConfig();
+    config.setSessionId("session");
+    config.setCompression(false);
+    config.setRestEndpoint("http://localhost:" + this.server.getAddress().getPort() + "/services/async/42.0/");
+    this.bulkConnection = new BulkConnection(config);
+  }
+
+  @AfterClass
+  public void tearDown() {
+    this.server.stop(0);
+    this.serverExecutor.shutdownNow();
+  }
+
+  /**
+   * Serves `.../batch/batchN/result/resultN` as a CSV file of ids `N * RECORDS_PER_FILE` onwards, and 500 for others.
+   */
+  private void serveResult(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath();
+    String resultId = path.substring(path.lastIndexOf('/') + 1);
+    if (!resultId.startsWith("result")) {
+      exchange.sendResponseHeaders(500, -1);
+      exchange.close();
+      return;
+    }
+
+    int file = Integer.parseInt(resultId.substring("result".length()));
+    StringBuilder csv = new StringBuilder("\"Id\",\"Name\"\n");
+    for (int i = 0; i < RECORDS_PER_FILE; i++) {
+      int id = file * RECORDS_PER_FILE + i;
+      csv.append('"').append(id).append("\",\"name").append(id).append("\"\n");
+    }
+    byte[] body = csv.toString().getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(body);
+    }
+  }
+
+  private List<FileIdVO> getFileIds(int numFiles) {
+    List<FileIdVO> fileIds = new ArrayList<>();
+    for (int i = 0; i < numFiles; i++) {
+      fileIds.add(new FileIdVO(JOB_ID, "batch" + i, "result" + i));
+    }
+    return fileIds;
+  }
+
+  private List<Integer> readIds(ResultChainingIterator iterator) {
+    List<Integer> ids = new ArrayList<>();
+    while (iterator.hasNext()) {
+      JsonElement record = iterator.next();
+      ids.add(record.getAsJsonObject().get("Id").getAsInt());
+    }
+    return ids;
+  }
+
+  private List<Integer> expectedIds() {
+    List<Integer> ids = new ArrayList<>();
+    for (int i = 0; i < NUM_FILES * RECORDS_PER_FILE; i++) {
+      ids.add(i);
+    }
+    return ids;
+  }
+
+  @Test
+  public void testOrderedFetch() {
+    ResultChainingIterator iterator =
+        new ResultChainingIterator(this.bulkConnection, getFileIds(NUM_FILES), 0, 0L, 0L, 3, 10, true);
+    Assert.assertEquals(readIds(iterator), expectedIds());
+  }
+
+  @Test
+  public void testUnorderedFetch() {
+    ResultChainingIterator iterator =
+        new ResultChainingIterator(this.bulkConnection, getFileIds(NUM_FILES), 0, 0L, 0L, 4, 10, false);
+    List<Integer> ids = readIds(iterator);
+    Collections.sort(ids);
+    Assert.assertEquals(ids, expectedIds());
+  }
+
+  @Test
+  public void testSequentialFetch() {
+    ResultChainingIterator iterator =
+        new ResultChainingIterator(this.bulkConnection, getFileIds(NUM_FILES), 0, 0L, 0L);
+    Assert.assertEquals(readIds(iterator), expectedIds());
+  }
+
+  @Test(expectedExceptions = RuntimeException.class)
+  public void testFailedFetch() {
+    List<FileIdVO> fileIds = getFileIds(2);
+    fileIds.add(new FileIdVO(JOB_ID, "batchMissing", "missing"));
+    ResultChainingIterator iterator =
+        new ResultChainingIterator(this.bulkConnection, fileIds, 0, 0L, 0L, 2, 10, true);
+    readIds(iterator);
+  }
+
+  @Test
+  public void testCloseAbandonedIteration() throws Exception {
+    ResultChainingIterator iterator =
+        new ResultChainingIterator(this.bulkConnection, getFileIds(NUM_FILES), 0, 0L, 0L, 3, 5, true);
+    for (int i = 0; i < NUM_FILES * RECORDS_PER_FILE / 2; i++) {
+      Assert.assertEquals(iterator.next().getAsJsonObject().get("Id").getAsInt(), i);
+    }
+    // The files after the current one are blocked on their full buffers
+    Assert.assertFalse(getFetchThreads().isEmpty());
+
+    iterator.close();
+    for (int i = 0; i < 100 && !getFetchThreads().isEmpty(); i++) {
+      Thread.sleep(100);
+    }
+    Assert.assertTrue(getFetchThreads().isEmpty(), "Fetch threads still running: " + getFetchThreads());
+  }
+
+  private static List<Thread> getFetchThreads() {
+    return Thread.getAllStackTraces().keySet().stream()
+        .filter(thread -> thread.getName().startsWith("SalesforceBulkFetch-"))
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.gobblin.service.modules.flowgraph;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+
+import org.apache.gobblin.runtime.api.FlowSpec;
+import org.apache.gobblin.runtime.api.SpecExecutor;
+import org.apache.gobblin.runtime.spec_executorInstance.InMemorySpecExecutor;
+import org.apache.gobblin.service.ServiceConfigKeys;
+import org.apache.gobblin.service.modules.dataset.FSDatasetDescriptor;
+import org.apache.gobblin.service.modules.flow.FlowGraphPath;
+import org.apache.gobblin.service.modules.template.StaticFlowTemplate;
+
+
+/**
+ * Measures path finding in a synthetic {@link BaseFlowGraph} of a few hundred {@link DataNode}s, with and without the
+ * path cache, and the rejection of flows between unreachable {@link DataNode}s.
+ *
+ * The graph is made of {@link #NUM_LAYERS} layers of {@link #LAYER_WIDTH} HDFS nodes, where each node has
+ * {@link #FAN_OUT} copy edges to the next layer. Flows go from the first layer to the last one, so that every
+ * compilation without the cache explores the whole graph.
+ */
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@org.openjdk.jmh.annotations.Fork(value = 3)
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BaseFlowGraphBenchmark {
+  private static final int NUM_LAYERS = 20;
+  private static final int LAYER_WIDTH = 20;
+  private static final int FAN_OUT = 3;
+  private static final String DATASET_PATH = "/data/tracking/PageViewEvent";
+
+  @State(value = Scope.Benchmark)
+  public static class FlowGraphState {
+    @Param({"0", "10000"})
+    private int pathCacheSize;
+
+    private BaseFlowGraph flowGraph;
+    private FlowSpec reachableFlowSpec;
+    private FlowSpec unreachableFlowSpec;
+
+    @Setup
+    public void setup() throws Exception {
+      this.flowGraph = new BaseFlowGraph(this.pathCacheSize);
+      for (int layer = 0; layer < NUM_LAYERS; layer++) {
+        for (int i = 0; i < LAYER_WIDTH; i++) {
+          this.flowGraph.addDataNode(new BaseDataNode(ConfigFactory.empty().withValue(
+              FlowGraphConfigurationKeys.DATA_NODE_ID_KEY, ConfigValueFactory.fromAnyRef(nodeId(layer, i)))));
+        }
+      }
+
+      Config descriptorConfig = ConfigFactory.parseMap(ImmutableMap.of(
+          DatasetDescriptorConfigKeys.CLASS_KEY, FSDatasetDescriptor.class.getName(),
+          DatasetDescriptorConfigKeys.PLATFORM_KEY, "hdfs",
+          DatasetDescriptorConfigKeys.IS_RETENTION_APPLIED_KEY, true));
+      Config templateConfig = descriptorConfig.atPath(DatasetDescriptorConfigKeys.FLOW_EDGE_INPUT_DATASET_DESCRIPTOR_PREFIX + ".0")
+          .withFallback(descriptorConfig.atPath(DatasetDescriptorConfigKeys.FLOW_EDGE_OUTPUT_DATASET_DESCRIPTOR_PREFIX + ".0"));
+      StaticFlowTemplate copyTemplate =
+          new StaticFlowTemplate(new URI("FS:///copy"), "", "", templateConfig, null, Collections.emptyList());
+      List<SpecExecutor> executors =
+          Lists.newArrayList(InMemorySpecExecutor.createDummySpecExecutor(new URI("gobblin-cluster")));
+
+      for (int layer = 0; layer < NUM_LAYERS - 1; layer++) {
+        for (int i = 0; i < LAYER_WIDTH; i++) {
+          for (int j = 0; j < FAN_OUT; j++) {
+            String src = nodeId(layer, i);
+            String dest = nodeId(layer + 1, (i + j) % LAYER_WIDTH);
+            this.flowGraph.addFlowEdge(new BaseFlowEdge(Lists.newArrayList(src, dest), src + "_" + dest + "_copy",
+                copyTemplate, executors, ConfigFactory.empty(), true));
+          }
+        }
+      }
+
+      this.reachableFlowSpec = createFlowSpec(nodeId(0, 0), nodeId(NUM_LAYERS - 1, LAYER_WIDTH / 2), descriptorConfig);
+      this.unreachableFlowSpec = createFlowSpec(nodeId(NUM_LAYERS - 1, 0), nodeId(0, 0), descriptorConfig);
+    }
+
+    private static String nodeId(int layer, int i) {
+      return "HDFS-" + layer + "-" + i;
+    }
+
+    private static FlowSpec createFlowSpec(String src, String dest, Config descriptorConfig) throws Exception {
+      Config datasetConfig = descriptorConfig.withValue(DatasetDescriptorConfigKeys.PATH_KEY,
+          ConfigValueFactory.fromAnyRef(DATASET_PATH));
+      Config flowConfig = datasetConfig.atPath(DatasetDescriptorConfigKeys.FLOW_INPUT_DATASET_DESCRIPTOR_PREFIX)
+          .withFallback(datasetConfig.atPath(DatasetDescriptorConfigKeys.FLOW_OUTPUT_DATASET_DESCRIPTOR_PREFIX))
+          .withValue(ServiceConfigKeys.FLOW_SOURCE_IDENTIFIER_KEY, ConfigValueFactory.fromAnyRef(src))
+          .withValue(ServiceConfigKeys.FLOW_DESTINATION_IDENTIFIER_KEY, ConfigValueFactory.fromAnyRef(dest));
+      return FlowSpec.builder(new URI("gobblin-flow:/benchmarkGroup/" + src + "_" + dest)).withVersion("1")
+          .withConfig(flowConfig).build();
+    }
+  }
+
+  @Benchmark
+  public FlowGraphPath findPath(FlowGraphState state) throws Exception {
+    return state.flowGraph.findPath(state.reachableFlowSpec);
+  }
+
+  @Benchmark
+  public FlowGraphPath findUnreachablePath(FlowGraphState state) throws Exception {
+    return state.flowGraph.findPath(state.unreachableFlowSpec);
+  }
+}
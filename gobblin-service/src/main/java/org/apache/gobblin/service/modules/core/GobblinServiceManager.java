@@ -265,6 +265,9 @@ public class GobblinServiceManager implements ApplicationLauncher, StandardMetri
     if (this.isJobStatusMonitorEnabled) {
       this.jobStatusMonitor = new KafkaJobStatusMonitorFactory().createJobStatusMonitor(config);
       this.serviceLauncher.addService(this.jobStatusMonitor);
+      if (this.isDagManagerEnabled && this.dagManager.isJobStatusPushEnabled()) {
+        this.jobStatusMonitor.setJobStatusEventBus(this.eventBus);
+      }
     }
 
     this.flowStatusGenerator = buildFlowStatusGenerator(this.config);
@@ -17,13 +17,21 @@
 
 package org.apache.gobblin.service.modules.flowgraph;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.gobblin.annotation.Alpha;
@@ -39,6 +47,9 @@ import org.apache.gobblin.util.reflection.GobblinConstructorUtils;
  *   <p>dataNodeMap - the mapping from a node identifier to the {@link DataNode} instance</p>
  *   <p>nodesToEdges - the mapping from each {@link DataNode} to its outgoing {@link FlowEdge}s</p>
  *   <p>flowEdgeMap - the mapping from a edge label to the {@link FlowEdge} instance</p>
+ *   <p>reachabilityIndex - the mapping from a node identifier to the identifiers of all nodes reachable from it, built
+ *   lazily after each change to the graph</p>
+ *   <p>pathCache - the paths found by {@link PathFinder}s since the last change to the graph</p>
  *
  *   Read/Write Access to the {@link FlowGraph} is synchronized via a {@link ReentrantReadWriteLock}.
  */
@@ -50,6 +61,19 @@ public class BaseFlowGraph implements FlowGraph {
   private Map<DataNode, Set<FlowEdge>> nodesToEdges = new HashMap<>();
   private Map<String, DataNode> dataNodeMap = new HashMap<>();
   private Map<String, FlowEdge> flowEdgeMap = new HashMap<>();
+  private volatile Map<String, Set<String>> reachabilityIndex;
+  private final Cache<String, List<String>> pathCache;
+
+  public BaseFlowGraph() {
+    this(FlowGraphConfigurationKeys.DEFAULT_FLOW_GRAPH_PATH_CACHE_SIZE);
+  }
+
+  /**
+   * @param pathCacheSize maximum number of paths to cache; 0 disables the path cache.
+   */
+  public BaseFlowGraph(int pathCacheSize) {
+    this.pathCache = CacheBuilder.newBuilder().maximumSize(pathCacheSize).build();
+  }
 
   /**
    * Lookup a node by its identifier.
@@ -76,6 +100,7 @@ public class BaseFlowGraph implements FlowGraph {
       Set<FlowEdge> edges = this.nodesToEdges.getOrDefault(node, new HashSet<>());
       this.nodesToEdges.put(node, edges);
       this.dataNodeMap.put(node.getId(), node);
+      invalidatePaths();
     } finally {
       rwLock.writeLock().unlock();
     }
@@ -110,6 +135,7 @@ public class BaseFlowGraph implements FlowGraph {
       this.nodesToEdges.put(dataNode, adjacentEdges);
       String edgeId = edge.getId();
       this.flowEdgeMap.put(edgeId, edge);
+      invalidatePaths();
       return true;
     } finally {
       rwLock.writeLock().unlock();
@@ -151,6 +177,7 @@ public class BaseFlowGraph implements FlowGraph {
         flowEdgeMap.remove(edge.getId());
       }
       nodesToEdges.remove(node);
+      invalidatePaths();
       return true;
 
     } finally {
@@ -191,6 +218,7 @@ public class BaseFlowGraph implements FlowGraph {
       }
       this.nodesToEdges.get(node).remove(edge);
       this.flowEdgeMap.remove(edge.getId());
+      invalidatePaths();
       return true;
     } finally {
       rwLock.writeLock().unlock();
@@ -244,4 +272,85 @@ public class BaseFlowGraph implements FlowGraph {
       rwLock.readLock().unlock();
     }
   }
+
+  /**{@inheritDoc}**/
+  @Override
+  public boolean isReachable(String srcNodeId, String destNodeId) {
+    try {
+      rwLock.readLock().lock();
+      if (srcNodeId.equals(destNodeId)) {
+        return this.dataNodeMap.containsKey(srcNodeId);
+      }
+      return getReachabilityIndex().getOrDefault(srcNodeId, Collections.emptySet()).contains(destNodeId);
+    } finally {
+      rwLock.readLock().unlock();
+    }
+  }
+
+  /**{@inheritDoc}**/
+  @Override
+  public List<String> getCachedPath(String pathKey) {
+    return this.pathCache.getIfPresent(pathKey);
+  }
+
+  /**{@inheritDoc}**/
+  @Override
+  public void putCachedPath(String pathKey, List<String> edgeIds) {
+    try {
+      rwLock.readLock().lock();
+      this.pathCache.put(pathKey, ImmutableList.copyOf(edgeIds));
+    } finally {
+      rwLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Discard the reachability index and the cached paths. Must be called with the write lock held.
+   */
+  private void invalidatePaths() {
+    this.reachabilityIndex = null;
+    this.pathCache.invalidateAll();
+  }
+
+  /**
+   * Get the reachability index, building it if the graph changed since it was last built. Must be called with the read
+   * lock held, so that the graph cannot change while the index is being built.
+   */
+  private Map<String, Set<String>> getReachabilityIndex() {
+    Map<String, Set<String>> index = this.reachabilityIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = this.reachabilityIndex;
+        if (index == null) {
+          index = buildReachabilityIndex();
+          this.reachabilityIndex = index;
+        }
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Run a traversal from every {@link DataNode} over active {@link FlowEdge}s leading to active {@link DataNode}s, the
+   * same edges a {@link PathFinder} is allowed to use.
+   */
+  private Map<String, Set<String>> buildReachabilityIndex() {
+    Map<String, Set<String>> index = new HashMap<>();
+    for (DataNode node : this.dataNodeMap.values()) {
+      Set<String> reachableNodes = new HashSet<>();
+      Deque<DataNode> nodesToVisit = new ArrayDeque<>();
+      nodesToVisit.add(node);
+      while (!nodesToVisit.isEmpty()) {
+        for (FlowEdge edge : this.nodesToEdges.getOrDefault(nodesToVisit.poll(), Collections.emptySet())) {
+          DataNode edgeDestination = this.dataNodeMap.get(edge.getDest());
+          if (edge.isActive() && edgeDestination != null && edgeDestination.isActive()
+              && reachableNodes.add(edgeDestination.getId())) {
+            nodesToVisit.add(edgeDestination);
+          }
+        }
+      }
+      index.put(node.getId(), reachableNodes);
+    }
+    return index;
+  }
 }
@@ -18,6 +18,7 @@
 package org.apache.gobblin.service.modules.flowgraph;
 
 import java.util.Collection;
+import java.util.List;
 
 import com.typesafe.config.Config;
 
@@ -99,4 +100,34 @@ public interface FlowGraph {
    * satisfying flowSpec.
    */
   public FlowGraphPath findPath(FlowSpec flowSpec) throws PathFinder.PathFinderException, ReflectiveOperationException;
+
+  /**
+   * Check whether a {@link DataNode} can be reached from another one over active {@link FlowEdge}s. This only considers
+   * the topology of the {@link FlowGraph}, so a reachable node may still have no path satisfying a given flow.
+   * Implementations that do not index reachability always return true.
+   * @param srcNodeId identifier of the source {@link DataNode}
+   * @param destNodeId identifier of the destination {@link DataNode}
+   * @return false if no sequence of active {@link FlowEdge}s leads from the source to the destination.
+   */
+  default boolean isReachable(String srcNodeId, String destNodeId) {
+    return true;
+  }
+
+  /**
+   * Get a path previously found in this {@link FlowGraph} by a {@link PathFinder}.
+   * @param pathKey key describing the path finding request, see {@link #putCachedPath(String, List)}
+   * @return the ids of the {@link FlowEdge}s on the path, or null if no path is cached for the key.
+   */
+  default List<String> getCachedPath(String pathKey) {
+    return null;
+  }
+
+  /**
+   * Cache a path found in this {@link FlowGraph}. Implementations must discard cached paths whenever a
+   * {@link DataNode} or a {@link FlowEdge} is added or removed.
+   * @param pathKey key describing the path finding request
+   * @param edgeIds ids of the {@link FlowEdge}s on the path
+   */
+  default void putCachedPath(String pathKey, List<String> edgeIds) {
+  }
 }
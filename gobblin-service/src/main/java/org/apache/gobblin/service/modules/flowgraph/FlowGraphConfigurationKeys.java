@@ -54,4 +54,10 @@ public class FlowGraphConfigurationKeys {
    */
   public static final String FLOW_GRAPH_PATH_FINDER_CLASS = FLOW_GRAPH_PREFIX + "pathfinder.class";
   public static final String DEFAULT_FLOW_GRAPH_PATH_FINDER_CLASS = "org.apache.gobblin.service.modules.flowgraph.pathfinder.BFSPathFinder";
+
+  /**
+   * Maximum number of paths cached by a {@link BaseFlowGraph}. Set to 0 to disable the path cache.
+   */
+  public static final String FLOW_GRAPH_PATH_CACHE_SIZE = FLOW_GRAPH_PREFIX + "pathCache.size";
+  public static final int DEFAULT_FLOW_GRAPH_PATH_CACHE_SIZE = 10000;
 }
@@ -17,15 +17,20 @@
 
 package org.apache.gobblin.service.modules.flowgraph.pathfinder;
 
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.hash.Hashing;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
 import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigRenderOptions;
 import com.typesafe.config.ConfigValue;
 import com.typesafe.config.ConfigValueFactory;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -60,6 +65,7 @@ import org.apache.gobblin.util.reflection.GobblinConstructorUtils;
 public abstract class AbstractPathFinder implements PathFinder {
   private static final String SOURCE_PREFIX = "source";
   private static final String DESTINATION_PREFIX = "destination";
+  private static final String PATH_KEY_SEPARATOR = "|";
 
   private List<DataNode> destNodes;
 
@@ -190,60 +196,69 @@ public abstract class AbstractPathFinder implements PathFinder {
       if (!edgeIds.isEmpty() && !edgeIds.contains(flowEdge.getId())) {
         continue;
       }
-      try {
-        DataNode edgeDestination = this.flowGraph.getNode(flowEdge.getDest());
-        //Base condition: Skip this FLowEdge, if it is inactive or if the destination of this edge is inactive.
-        if (!edgeDestination.isActive() || !flowEdge.isActive()) {
-          continue;
-        }
+      addEdgeContexts(flowEdge, currentDatasetDescriptor, destDatasetDescriptor, prioritizedEdgeList);
+    }
+    return prioritizedEdgeList;
+  }
 
-        boolean foundExecutor = false;
-        //Iterate over all executors for this edge. Find the first one that resolves the underlying flow template.
-        for (SpecExecutor specExecutor : flowEdge.getExecutors()) {
-          Config mergedConfig = getMergedConfig(flowEdge);
-          List<Pair<DatasetDescriptor, DatasetDescriptor>> datasetDescriptorPairs =
-              flowEdge.getFlowTemplate().getDatasetDescriptors(mergedConfig, false);
-          for (Pair<DatasetDescriptor, DatasetDescriptor> datasetDescriptorPair : datasetDescriptorPairs) {
-            DatasetDescriptor inputDatasetDescriptor = datasetDescriptorPair.getLeft();
-            DatasetDescriptor outputDatasetDescriptor = datasetDescriptorPair.getRight();
-
-            try {
-              flowEdge.getFlowTemplate().tryResolving(mergedConfig, datasetDescriptorPair.getLeft(), datasetDescriptorPair.getRight());
-            } catch (JobTemplate.TemplateException | ConfigException | SpecNotFoundException e) {
-              this.flowSpec.getCompilationErrors().add(e.toString());
-              continue;
-            }
+  /**
+   * Add a {@link FlowEdgeContext} to prioritizedEdgeList for each way the {@link FlowEdge} can be traversed with the
+   * current {@link DatasetDescriptor}, using the first {@link SpecExecutor} of the edge that resolves its template.
+   */
+  private void addEdgeContexts(FlowEdge flowEdge, DatasetDescriptor currentDatasetDescriptor,
+      DatasetDescriptor destDatasetDescriptor, List<FlowEdgeContext> prioritizedEdgeList) {
+    try {
+      DataNode edgeDestination = this.flowGraph.getNode(flowEdge.getDest());
+      //Base condition: Skip this FLowEdge, if it is inactive or if the destination of this edge is inactive.
+      if (!edgeDestination.isActive() || !flowEdge.isActive()) {
+        return;
+      }
 
-            if (inputDatasetDescriptor.contains(currentDatasetDescriptor)) {
-              DatasetDescriptor edgeOutputDescriptor = makeOutputDescriptorSpecific(currentDatasetDescriptor, outputDatasetDescriptor);
-              FlowEdgeContext flowEdgeContext = new FlowEdgeContext(flowEdge, currentDatasetDescriptor, edgeOutputDescriptor, mergedConfig,
-                  specExecutor);
-
-              if (destDatasetDescriptor.getFormatConfig().contains(outputDatasetDescriptor.getFormatConfig())) {
-                /*
-                Add to the front of the edge list if platform-independent properties of the output descriptor is compatible
-                with those of destination dataset descriptor.
-                In other words, we prioritize edges that perform data transformations as close to the source as possible.
-                */
-                prioritizedEdgeList.add(0, flowEdgeContext);
-              } else {
-                prioritizedEdgeList.add(flowEdgeContext);
-              }
-              foundExecutor = true;
-            }
+      boolean foundExecutor = false;
+      //Iterate over all executors for this edge. Find the first one that resolves the underlying flow template.
+      for (SpecExecutor specExecutor : flowEdge.getExecutors()) {
+        Config mergedConfig = getMergedConfig(flowEdge);
+        List<Pair<DatasetDescriptor, DatasetDescriptor>> datasetDescriptorPairs =
+            flowEdge.getFlowTemplate().getDatasetDescriptors(mergedConfig, false);
+        for (Pair<DatasetDescriptor, DatasetDescriptor> datasetDescriptorPair : datasetDescriptorPairs) {
+          DatasetDescriptor inputDatasetDescriptor = datasetDescriptorPair.getLeft();
+          DatasetDescriptor outputDatasetDescriptor = datasetDescriptorPair.getRight();
+
+          try {
+            flowEdge.getFlowTemplate().tryResolving(mergedConfig, datasetDescriptorPair.getLeft(), datasetDescriptorPair.getRight());
+          } catch (JobTemplate.TemplateException | ConfigException | SpecNotFoundException e) {
+            this.flowSpec.getCompilationErrors().add(e.toString());
+            continue;
           }
-          // Found a SpecExecutor. Proceed to the next FlowEdge.
-          // TODO: Choose the min-cost executor for the FlowEdge as opposed to the first one that resolves.
-          if (foundExecutor) {
-            break;
+
+          if (inputDatasetDescriptor.contains(currentDatasetDescriptor)) {
+            DatasetDescriptor edgeOutputDescriptor = makeOutputDescriptorSpecific(currentDatasetDescriptor, outputDatasetDescriptor);
+            FlowEdgeContext flowEdgeContext = new FlowEdgeContext(flowEdge, currentDatasetDescriptor, edgeOutputDescriptor, mergedConfig,
+                specExecutor);
+
+            if (destDatasetDescriptor.getFormatConfig().contains(outputDatasetDescriptor.getFormatConfig())) {
+              /*
+              Add to the front of the edge list if platform-independent properties of the output descriptor is compatible
+              with those of destination dataset descriptor.
+              In other words, we prioritize edges that perform data transformations as close to the source as possible.
+              */
+              prioritizedEdgeList.add(0, flowEdgeContext);
+            } else {
+              prioritizedEdgeList.add(flowEdgeContext);
+            }
+            foundExecutor = true;
           }
         }
-      } catch (IOException | ReflectiveOperationException | SpecNotFoundException | JobTemplate.TemplateException e) {
-        //Skip the edge; and continue
-        log.warn("Skipping edge {} with config {} due to exception: {}", flowEdge.getId(), flowConfig.toString(), e);
+        // Found a SpecExecutor. Proceed to the next FlowEdge.
+        // TODO: Choose the min-cost executor for the FlowEdge as opposed to the first one that resolves.
+        if (foundExecutor) {
+          break;
+        }
       }
+    } catch (IOException | ReflectiveOperationException | SpecNotFoundException | JobTemplate.TemplateException e) {
+      //Skip the edge; and continue
+      log.warn("Skipping edge {} with config {} due to exception: {}", flowEdge.getId(), flowConfig.toString(), e);
     }
-    return prioritizedEdgeList;
   }
 
   /**
@@ -347,7 +362,12 @@ public abstract class AbstractPathFinder implements PathFinder {
     // Path computation must be thread-safe to guarantee read consistency. In other words, we prevent concurrent read/write access to the
     // flow graph.
     for (DataNode destNode : this.destNodes) {
-      List<FlowEdgeContext> path = findPathUnicast(destNode);
+      if (!this.flowGraph.isReachable(this.srcNode.getId(), destNode.getId())) {
+        log.error("Destination node {} is not reachable from source node {} for flow {}.", destNode.getId(),
+            this.srcNode.getId(), flowSpec.getUri());
+        return null;
+      }
+      List<FlowEdgeContext> path = findCachedPathOrUnicast(destNode);
       if (path != null) {
         log.info("Path to destination node {} found for flow {}. Path - {}", destNode.getId(), flowSpec.getUri(), path);
         flowGraphPath.addPath(path);
@@ -360,5 +380,94 @@ public abstract class AbstractPathFinder implements PathFinder {
     return flowGraphPath;
   }
 
+  /**
+   * Reuse the path cached in the {@link FlowGraph} for the same source and destination {@link DataNode}s and
+   * {@link DatasetDescriptor}s if it is still valid for this flow, or compute a new one with
+   * {@link #findPathUnicast(DataNode)} and cache it. Paths between a node and itself are not cached, since they are
+   * empty whenever the source dataset already satisfies the destination dataset.
+   */
+  private List<FlowEdgeContext> findCachedPathOrUnicast(DataNode destNode) throws PathFinderException {
+    if (this.srcNode.equals(destNode)) {
+      return findPathUnicast(destNode);
+    }
+    String pathKey = getPathKey(destNode);
+    List<String> cachedEdgeIds = this.flowGraph.getCachedPath(pathKey);
+    if (cachedEdgeIds != null) {
+      List<FlowEdgeContext> path = resolvePath(destNode, cachedEdgeIds);
+      if (path != null) {
+        return path;
+      }
+      log.info("Cached path {} to destination node {} is not valid for flow {}.", cachedEdgeIds, destNode.getId(),
+          flowSpec.getUri());
+    }
+
+    List<FlowEdgeContext> path = findPathUnicast(destNode);
+    if (path != null && !path.isEmpty()) {
+      this.flowGraph.putCachedPath(pathKey,
+          path.stream().map(flowEdgeContext -> flowEdgeContext.getEdge().getId()).collect(Collectors.toList()));
+    }
+    return path;
+  }
+
+  /**
+   * The key of a path in the path cache. It is made of the path finding algorithm, the source and destination
+   * {@link DataNode}s, the shape of the source and destination {@link DatasetDescriptor}s (i.e. their configs without
+   * the dataset paths) and a hash of the rest of the flow config, which the edge templates are resolved against (see
+   * {@link #getMergedConfig(FlowEdge)}). Only flows that would find the same path with a full search thus share a
+   * cached path; it is still validated before being reused, since the dataset paths may not resolve.
+   */
+  private String getPathKey(DataNode destNode) {
+    Config resolutionConfig = this.flowConfig.withoutPath(ConfigurationKeys.FLOW_EXECUTION_ID_KEY)
+        .withoutPath(DatasetDescriptorConfigKeys.FLOW_INPUT_DATASET_DESCRIPTOR_PREFIX)
+        .withoutPath(DatasetDescriptorConfigKeys.FLOW_OUTPUT_DATASET_DESCRIPTOR_PREFIX);
+    return Joiner.on(PATH_KEY_SEPARATOR).join(getClass().getName(), this.srcNode.getId(), destNode.getId(),
+        getDatasetDescriptorShape(this.srcDatasetDescriptor), getDatasetDescriptorShape(this.destDatasetDescriptor),
+        Hashing.sha256().hashString(resolutionConfig.root().render(ConfigRenderOptions.concise()), Charsets.UTF_8));
+  }
+
+  private static String getDatasetDescriptorShape(DatasetDescriptor datasetDescriptor) {
+    return datasetDescriptor.getRawConfig().withoutPath(DatasetDescriptorConfigKeys.PATH_KEY)
+        .withoutPath(DatasetDescriptorConfigKeys.SUBPATHS_KEY).root().render(ConfigRenderOptions.concise());
+  }
+
+  /**
+   * Rebuild a path given as the ids of its {@link FlowEdge}s for this flow, checking along the way that each edge
+   * resolves its template and accepts the {@link DatasetDescriptor} produced by the previous edge.
+   * @return the path, or null if it does not lead to the destination {@link DatasetDescriptor} for this flow.
+   */
+  List<FlowEdgeContext> resolvePath(DataNode destNode, List<String> edgeIds) {
+    if (!this.srcNode.isActive() || !destNode.isActive()) {
+      return null;
+    }
+    LinkedList<FlowEdgeContext> path = new LinkedList<>();
+    return resolvePath(destNode, edgeIds, this.srcNode, this.srcDatasetDescriptor, path) ? path : null;
+  }
+
+  private boolean resolvePath(DataNode destNode, List<String> edgeIds, DataNode currentNode,
+      DatasetDescriptor currentDatasetDescriptor, LinkedList<FlowEdgeContext> path) {
+    if (path.size() == edgeIds.size()) {
+      return isPathFound(currentNode, destNode, currentDatasetDescriptor, this.destDatasetDescriptor);
+    }
+    String edgeId = edgeIds.get(path.size());
+    Collection<FlowEdge> edges = this.flowGraph.getEdges(currentNode);
+    FlowEdge flowEdge = edges == null ? null
+        : edges.stream().filter(edge -> edge.getId().equals(edgeId)).findFirst().orElse(null);
+    if (flowEdge == null || this.flowGraph.getNode(flowEdge.getDest()) == null) {
+      return false;
+    }
+    // An edge may accept the current dataset in several ways; backtrack until one of them leads to the destination.
+    List<FlowEdgeContext> edgeContexts = new LinkedList<>();
+    addEdgeContexts(flowEdge, currentDatasetDescriptor, this.destDatasetDescriptor, edgeContexts);
+    DataNode nextNode = this.flowGraph.getNode(flowEdge.getDest());
+    for (FlowEdgeContext edgeContext : edgeContexts) {
+      path.addLast(edgeContext);
+      if (resolvePath(destNode, edgeIds, nextNode, edgeContext.getOutputDatasetDescriptor(), path)) {
+        return true;
+      }
+      path.removeLast();
+    }
+    return false;
+  }
+
   public abstract List<FlowEdgeContext> findPathUnicast(DataNode destNode) throws PathFinderException;
 }
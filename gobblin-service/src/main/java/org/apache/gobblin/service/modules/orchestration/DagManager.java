@@ -75,6 +75,7 @@ import org.apache.gobblin.service.modules.flowgraph.Dag.DagNode;
 import org.apache.gobblin.service.modules.spec.JobExecutionPlan;
 import org.apache.gobblin.service.monitoring.FsJobStatusRetriever;
 import org.apache.gobblin.service.monitoring.JobStatus;
+import org.apache.gobblin.service.monitoring.JobStatusEvent;
 import org.apache.gobblin.service.monitoring.JobStatusRetriever;
 import org.apache.gobblin.service.monitoring.KafkaJobStatusMonitor;
 import org.apache.gobblin.service.monitoring.KafkaJobStatusMonitorFactory;
@@ -123,6 +124,13 @@ public class DagManager extends AbstractIdleService {
   private static final Integer TERMINATION_TIMEOUT = 30;
   public static final String NUM_THREADS_KEY = DAG_MANAGER_PREFIX + "numThreads";
   public static final String JOB_STATUS_POLLING_INTERVAL_KEY = DAG_MANAGER_PREFIX + "pollingInterval";
+  // When enabled, job statuses are pushed to the DagManagerThreads by the KafkaJobStatusMonitor and the job status
+  // store is only polled every pollingInterval seconds as a fallback, in bulk per flow execution.
+  public static final String JOB_STATUS_PUSH_ENABLED_KEY = DAG_MANAGER_PREFIX + "jobStatusPush.enabled";
+  private static final boolean DEFAULT_JOB_STATUS_PUSH_ENABLED = false;
+  // Interval at which the DagManagerThreads consume pushed job statuses
+  public static final String JOB_STATUS_PUSH_INTERVAL_MILLIS_KEY = DAG_MANAGER_PREFIX + "jobStatusPush.intervalMillis";
+  private static final long DEFAULT_JOB_STATUS_PUSH_INTERVAL_MILLIS = 1000L;
   private static final String JOB_STATUS_RETRIEVER_CLASS_KEY = JOB_STATUS_RETRIEVER_KEY + ".class";
   private static final String DEFAULT_JOB_STATUS_RETRIEVER_CLASS = FsJobStatusRetriever.class.getName();
   private static final String DAG_STATESTORE_CLASS_KEY = DAG_MANAGER_PREFIX + "dagStateStoreClass";
@@ -167,6 +175,7 @@ public class DagManager extends AbstractIdleService {
   private BlockingQueue<Dag<JobExecutionPlan>>[] queue;
   private BlockingQueue<String>[] cancelQueue;
   private BlockingQueue<String>[] resumeQueue;
+  private BlockingQueue<JobStatus>[] jobStatusQueue;
   DagManagerThread[] dagManagerThreads;
 
   private ScheduledExecutorService scheduledExecutorPool;
@@ -180,6 +189,9 @@ public class DagManager extends AbstractIdleService {
   private final Integer pollingInterval;
   private final Integer retentionPollingInterval;
   @Getter
+  private final boolean jobStatusPushEnabled;
+  private final long jobStatusPushIntervalMillis;
+  @Getter
   private final JobStatusRetriever jobStatusRetriever;
   private final Config config;
   private final Optional<EventSubmitter> eventSubmitter;
@@ -196,9 +208,12 @@ public class DagManager extends AbstractIdleService {
     this.queue = initializeDagQueue(this.numThreads);
     this.cancelQueue = initializeDagQueue(this.numThreads);
     this.resumeQueue = initializeDagQueue(this.numThreads);
+    this.jobStatusQueue = initializeDagQueue(this.numThreads);
     this.scheduledExecutorPool = Executors.newScheduledThreadPool(numThreads);
     this.pollingInterval = ConfigUtils.getInt(config, JOB_STATUS_POLLING_INTERVAL_KEY, DEFAULT_JOB_STATUS_POLLING_INTERVAL);
     this.retentionPollingInterval = ConfigUtils.getInt(config, FAILED_DAG_POLLING_INTERVAL, DEFAULT_FAILED_DAG_POLLING_INTERVAL);
+    this.jobStatusPushEnabled = ConfigUtils.getBoolean(config, JOB_STATUS_PUSH_ENABLED_KEY, DEFAULT_JOB_STATUS_PUSH_ENABLED);
+    this.jobStatusPushIntervalMillis = ConfigUtils.getLong(config, JOB_STATUS_PUSH_INTERVAL_MILLIS_KEY, DEFAULT_JOB_STATUS_PUSH_INTERVAL_MILLIS);
     this.instrumentationEnabled = instrumentationEnabled;
     if (instrumentationEnabled) {
       MetricContext metricContext = Instrumented.getMetricContext(ConfigUtils.configToState(ConfigFactory.empty()), getClass());
@@ -347,6 +362,23 @@ public class DagManager extends AbstractIdleService {
     }
   }
 
+  /**
+   * Hand a pushed {@link JobStatus} to the {@link DagManagerThread} owning its flow execution. Flow level statuses are
+   * ignored, since {@link DagManagerThread}s only track job statuses.
+   */
+  @Subscribe
+  public void handleJobStatusEvent(JobStatusEvent jobStatusEvent) {
+    JobStatus jobStatus = jobStatusEvent.getJobStatus();
+    if (!this.jobStatusPushEnabled || !this.isActive || JobStatusRetriever.isFlowStatus(jobStatus)) {
+      return;
+    }
+    int queueId = DagManagerUtils.getDagQueueId(jobStatus.getFlowExecutionId(), this.numThreads);
+    if (!this.jobStatusQueue[queueId].offer(jobStatus)) {
+      log.warn("Could not add status of job {} to job status queue, it will be picked up by the next poll",
+          jobStatus.getJobName());
+    }
+  }
+
   public synchronized void setTopologySpecMap(Map<URI, TopologySpec> topologySpecMap) {
     this.topologySpecMap = topologySpecMap;
   }
@@ -374,10 +406,19 @@ public class DagManager extends AbstractIdleService {
         //On startup, the service creates DagManagerThreads that are scheduled at a fixed rate.
         this.dagManagerThreads = new DagManagerThread[numThreads];
         for (int i = 0; i < numThreads; i++) {
-          DagManagerThread dagManagerThread = new DagManagerThread(jobStatusRetriever, dagStateStore, failedDagStateStore,
-              queue[i], cancelQueue[i], resumeQueue[i], instrumentationEnabled, defaultQuota, perUserQuota, failedDags);
-          this.dagManagerThreads[i] = dagManagerThread;
-          this.scheduledExecutorPool.scheduleAtFixedRate(dagManagerThread, 0, this.pollingInterval, TimeUnit.SECONDS);
+          if (this.jobStatusPushEnabled) {
+            DagManagerThread dagManagerThread = new DagManagerThread(jobStatusRetriever, dagStateStore, failedDagStateStore,
+                queue[i], cancelQueue[i], resumeQueue[i], instrumentationEnabled, defaultQuota, perUserQuota, failedDags,
+                jobStatusQueue[i], TimeUnit.SECONDS.toMillis(this.pollingInterval));
+            this.dagManagerThreads[i] = dagManagerThread;
+            this.scheduledExecutorPool.scheduleAtFixedRate(dagManagerThread, 0, this.jobStatusPushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+          } else {
+            DagManagerThread dagManagerThread = new DagManagerThread(jobStatusRetriever, dagStateStore, failedDagStateStore,
+                queue[i], cancelQueue[i], resumeQueue[i], instrumentationEnabled, defaultQuota, perUserQuota, failedDags);
+            this.dagManagerThreads[i] = dagManagerThread;
+            this.scheduledExecutorPool.scheduleAtFixedRate(dagManagerThread, 0, this.pollingInterval, TimeUnit.SECONDS);
+          }
         }
         FailedDagRetentionThread failedDagRetentionThread = new FailedDagRetentionThread(failedDagStateStore, failedDags, failedDagRetentionTime);
         this.scheduledExecutorPool.scheduleAtFixedRate(failedDagRetentionThread, 0, retentionPollingInterval, TimeUnit.MINUTES);
@@ -434,6 +475,10 @@ public class DagManager extends AbstractIdleService {
     private BlockingQueue<Dag<JobExecutionPlan>> queue;
     private BlockingQueue<String> cancelQueue;
     private BlockingQueue<String> resumeQueue;
+    // Pushed job statuses; null if every run polls the job status of each running job
+    private final BlockingQueue<JobStatus> jobStatusQueue;
+    private final long fallbackPollingIntervalMillis;
+    private long lastFallbackPollTime = 0L;
 
     /**
      * Constructor.
@@ -441,6 +486,20 @@ public class DagManager extends AbstractIdleService {
     DagManagerThread(JobStatusRetriever jobStatusRetriever, DagStateStore dagStateStore, DagStateStore failedDagStateStore,
         BlockingQueue<Dag<JobExecutionPlan>> queue, BlockingQueue<String> cancelQueue, BlockingQueue<String> resumeQueue,
         boolean instrumentationEnabled, int defaultQuota, Map<String, Integer> perUserQuota, Map<String, Dag<JobExecutionPlan>> failedDags) {
+      this(jobStatusRetriever, dagStateStore, failedDagStateStore, queue, cancelQueue, resumeQueue, instrumentationEnabled,
+          defaultQuota, perUserQuota, failedDags, null, 0L);
+    }
+
+    /**
+     * Constructor for a {@link DagManagerThread} which advances its dags on the job statuses pushed to jobStatusQueue,
+     * and falls back to polling the statuses of all running jobs every fallbackPollingIntervalMillis.
+     */
+    DagManagerThread(JobStatusRetriever jobStatusRetriever, DagStateStore dagStateStore, DagStateStore failedDagStateStore,
+        BlockingQueue<Dag<JobExecutionPlan>> queue, BlockingQueue<String> cancelQueue, BlockingQueue<String> resumeQueue,
+        boolean instrumentationEnabled, int defaultQuota, Map<String, Integer> perUserQuota, Map<String, Dag<JobExecutionPlan>> failedDags,
+        BlockingQueue<JobStatus> jobStatusQueue, long fallbackPollingIntervalMillis) {
+      this.jobStatusQueue = jobStatusQueue;
+      this.fallbackPollingIntervalMillis = fallbackPollingIntervalMillis;
       this.jobStatusRetriever = jobStatusRetriever;
       this.dagStateStore = dagStateStore;
       this.failedDagStateStore = failedDagStateStore;
@@ -677,11 +736,22 @@ public class DagManager extends AbstractIdleService {
       this.failedDagIdsFinishRunning.clear();
       Map<String, Set<DagNode<JobExecutionPlan>>> nextSubmitted = Maps.newHashMap();
       List<DagNode<JobExecutionPlan>> nodesToCleanUp = Lists.newArrayList();
+      Map<String, JobStatus> updatedJobStatuses = getUpdatedJobStatuses();
 
       for (DagNode<JobExecutionPlan> node : this.jobToDag.keySet()) {
         boolean slaKilled = slaKillIfNeeded(node);
 
-        JobStatus jobStatus = pollJobStatus(node);
+        JobStatus jobStatus;
+        if (updatedJobStatuses == null) {
+          jobStatus = pollJobStatus(node);
+        } else {
+          String jobStatusKey = DagManagerUtils.generateJobStatusKey(node);
+          if (!slaKilled && !updatedJobStatuses.containsKey(jobStatusKey)) {
+            // No news about this job since the last run
+            continue;
+          }
+          jobStatus = updatedJobStatuses.get(jobStatusKey);
+        }
 
         boolean killOrphanFlow = killJobIfOrphaned(node, jobStatus);
 
@@ -737,6 +807,62 @@ public class DagManager extends AbstractIdleService {
       }
     }
 
+    /**
+     * Collect the job statuses pushed since the last run and, once every fallbackPollingIntervalMillis, the statuses of
+     * all running jobs from the job status store.
+     * @return the updated job statuses keyed by {@link DagManagerUtils#generateJobStatusKey(JobStatus)}, with a null
+     * value for running jobs without a status in the store; or null if job statuses are not pushed to this thread.
+     */
+    private Map<String, JobStatus> getUpdatedJobStatuses() {
+      if (this.jobStatusQueue == null) {
+        return null;
+      }
+      Map<String, JobStatus> jobStatuses = new HashMap<>();
+      JobStatus pushedJobStatus;
+      while ((pushedJobStatus = this.jobStatusQueue.poll()) != null) {
+        jobStatuses.put(DagManagerUtils.generateJobStatusKey(pushedJobStatus), pushedJobStatus);
+      }
+
+      long currentTime = System.currentTimeMillis();
+      if (currentTime - this.lastFallbackPollTime >= this.fallbackPollingIntervalMillis) {
+        this.lastFallbackPollTime = currentTime;
+        bulkPollJobStatuses(jobStatuses);
+      }
+      return jobStatuses;
+    }
+
+    /**
+     * Poll the statuses of all running jobs with a single {@link JobStatusRetriever} call per running flow execution,
+     * instead of one call per job. Statuses read from the store override pushed ones, since they can only be newer.
+     */
+    private void bulkPollJobStatuses(Map<String, JobStatus> jobStatuses) {
+      for (LinkedList<DagNode<JobExecutionPlan>> dagNodes : this.dagToJobs.values()) {
+        if (dagNodes.isEmpty()) {
+          continue;
+        }
+        for (DagNode<JobExecutionPlan> dagNode : dagNodes) {
+          jobStatuses.putIfAbsent(DagManagerUtils.generateJobStatusKey(dagNode), null);
+        }
+        Config jobConfig = dagNodes.getFirst().getValue().getJobSpec().getConfig();
+        String flowGroup = jobConfig.getString(ConfigurationKeys.FLOW_GROUP_KEY);
+        String flowName = jobConfig.getString(ConfigurationKeys.FLOW_NAME_KEY);
+        long flowExecutionId = jobConfig.getLong(ConfigurationKeys.FLOW_EXECUTION_ID_KEY);
+
+        long pollStartTime = System.nanoTime();
+        Iterator<JobStatus> jobStatusIterator =
+            this.jobStatusRetriever.getJobStatusesForFlowExecution(flowName, flowGroup, flowExecutionId);
+        Instrumented.updateTimer(this.jobStatusPolledTimer, System.nanoTime() - pollStartTime, TimeUnit.NANOSECONDS);
+
+        while (jobStatusIterator.hasNext()) {
+          JobStatus jobStatus = jobStatusIterator.next();
+          String jobStatusKey = DagManagerUtils.generateJobStatusKey(jobStatus);
+          if (jobStatuses.containsKey(jobStatusKey)) {
+            jobStatuses.put(jobStatusKey, jobStatus);
+          }
+        }
+      }
+    }
+
     /**
      * Cancel the job if the job has been "orphaned". A job is orphaned if has been in ORCHESTRATED
      * {@link ExecutionStatus} for some specific amount of time.
@@ -41,6 +41,7 @@ import org.apache.gobblin.service.modules.flowgraph.Dag;
 import org.apache.gobblin.service.modules.flowgraph.Dag.DagNode;
 import org.apache.gobblin.service.modules.orchestration.DagManager.FailureOption;
 import org.apache.gobblin.service.modules.spec.JobExecutionPlan;
+import org.apache.gobblin.service.monitoring.JobStatus;
 import org.apache.gobblin.util.ConfigUtils;
 
 
@@ -96,6 +97,24 @@ public class DagManagerUtils {
     return Joiner.on("_").join(flowGroup, flowName, flowExecutionId);
   }
 
+  /**
+   * Generate a key identifying a single job of a flow execution, used to match {@link JobStatus}es to {@link DagNode}s.
+   */
+  static String generateJobStatusKey(DagNode<JobExecutionPlan> dagNode) {
+    Config jobConfig = dagNode.getValue().getJobSpec().getConfig();
+    return generateJobStatusKey(generateDagId(jobConfig), jobConfig.getString(ConfigurationKeys.JOB_GROUP_KEY),
+        jobConfig.getString(ConfigurationKeys.JOB_NAME_KEY));
+  }
+
+  static String generateJobStatusKey(JobStatus jobStatus) {
+    return generateJobStatusKey(generateDagId(jobStatus.getFlowGroup(), jobStatus.getFlowName(), jobStatus.getFlowExecutionId()),
+        jobStatus.getJobGroup(), jobStatus.getJobName());
+  }
+
+  private static String generateJobStatusKey(String dagId, String jobGroup, String jobName) {
+    return Joiner.on("_").join(dagId, jobGroup, jobName);
+  }
+
   /**
    * Generate a FlowId from the given {@link Dag} instance.
    * FlowId, comparing to DagId, doesn't contain FlowExecutionId so different {@link Dag} could possibly have same
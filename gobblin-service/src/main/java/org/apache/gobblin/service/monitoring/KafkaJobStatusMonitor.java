@@ -31,11 +31,13 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.eventbus.EventBus;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 
 import avro.shaded.com.google.common.annotations.VisibleForTesting;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.gobblin.configuration.ConfigurationKeys;
@@ -80,6 +82,12 @@ public abstract class KafkaJobStatusMonitor extends HighLevelConsumer<byte[], by
   @Getter
   private final StateStore<org.apache.gobblin.configuration.State> stateStore;
   private final ScheduledExecutorService scheduledExecutorService;
+  /**
+   * When set, every persisted job status is also posted as a {@link JobStatusEvent} to this {@link EventBus}, so that
+   * the {@link org.apache.gobblin.service.modules.orchestration.DagManager} does not have to wait for its next poll.
+   */
+  @Setter
+  private volatile EventBus jobStatusEventBus;
   private static final Config DEFAULTS = ConfigFactory.parseMap(ImmutableMap.of(
       KAFKA_AUTO_OFFSET_RESET_KEY, KAFKA_AUTO_OFFSET_RESET_SMALLEST));
 
@@ -133,7 +141,11 @@ public abstract class KafkaJobStatusMonitor extends HighLevelConsumer<byte[], by
       org.apache.gobblin.configuration.State jobStatus = parseJobStatus(message);
       if (jobStatus != null) {
         try(Timer.Context context = getMetricContext().timer(GET_AND_SET_JOB_STATUS).time()) {
-          addJobStatusToStateStore(jobStatus, this.stateStore);
+          jobStatus = addJobStatusToStateStore(jobStatus, this.stateStore);
+        }
+        EventBus eventBus = this.jobStatusEventBus;
+        if (eventBus != null) {
+          eventBus.post(new JobStatusEvent(JobStatusRetriever.convertToJobStatus(jobStatus)));
         }
       }
     } catch (IOException ioe) {
@@ -148,10 +160,11 @@ public abstract class KafkaJobStatusMonitor extends HighLevelConsumer<byte[], by
    * existing job status in the state store. Merging is required because we
    * do not want to lose the information sent by other GobblinTrackingEvents.
    * @param jobStatus
+   * @return the merged job status that was persisted
    * @throws IOException
    */
   @VisibleForTesting
-  static void addJobStatusToStateStore(org.apache.gobblin.configuration.State jobStatus, StateStore stateStore)
+  static org.apache.gobblin.configuration.State addJobStatusToStateStore(org.apache.gobblin.configuration.State jobStatus, StateStore stateStore)
       throws IOException {
     if (!jobStatus.contains(TimingEvent.FlowEventConstants.JOB_NAME_FIELD)) {
       jobStatus.setProp(TimingEvent.FlowEventConstants.JOB_NAME_FIELD, JobStatusRetriever.NA_KEY);
@@ -187,6 +200,7 @@ public abstract class KafkaJobStatusMonitor extends HighLevelConsumer<byte[], by
     modifyStateIfRetryRequired(jobStatus);
 
     stateStore.put(storeName, tableName, jobStatus);
+    return jobStatus;
   }
 
   private static void modifyStateIfRetryRequired(org.apache.gobblin.configuration.State state) {
@@ -33,6 +33,7 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.SystemUtils;
@@ -47,6 +48,7 @@ import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.RepositoryCache;
 import org.eclipse.jgit.transport.RefSpec;
 import org.eclipse.jgit.util.FS;
+import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -61,6 +63,7 @@ import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigParseOptions;
 import com.typesafe.config.ConfigSyntax;
+import com.typesafe.config.ConfigValueFactory;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -398,6 +401,45 @@ public class MultiHopFlowCompilerTest {
   }
 
   @Test (dependsOnMethods = "testCompileFlowWithRetention")
+  public void testFindPathWithPathCache() throws Exception {
+    BaseFlowGraph graph = Mockito.spy((BaseFlowGraph) this.flowGraph);
+    //Adding an existing node back leaves the graph as is, but discards the cached paths
+    Assert.assertTrue(graph.addDataNode(graph.getNode("LocalFS-1")));
+
+    FlowSpec spec = createFlowSpec("flow/flow1.conf", "LocalFS-1", "ADLS-1", false, false);
+    List<String> edgeIds = getEdgeIds(graph.findPath(spec));
+    Assert.assertEquals(edgeIds.size(), 4);
+    Mockito.verify(graph, Mockito.times(1)).putCachedPath(Mockito.anyString(), Mockito.eq(edgeIds));
+
+    //The same flow reuses the cached path without searching the graph
+    spec = createFlowSpec("flow/flow1.conf", "LocalFS-1", "ADLS-1", false, false);
+    Assert.assertEquals(getEdgeIds(graph.findPath(spec)), edgeIds);
+    Mockito.verify(graph, Mockito.times(1)).putCachedPath(Mockito.anyString(), Mockito.anyListOf(String.class));
+
+    //A flow whose config resolves the edge templates differently does not share the cached path
+    FlowSpec otherUserSpec = FlowSpec.builder(spec.getUri())
+        .withConfig(spec.getConfig().withValue(AzkabanProjectConfig.USER_TO_PROXY, ConfigValueFactory.fromAnyRef("otherUser")))
+        .withDescription("dummy description")
+        .withVersion(FlowSpec.Builder.DEFAULT_VERSION)
+        .build();
+    Assert.assertEquals(getEdgeIds(graph.findPath(otherUserSpec)), edgeIds);
+    Mockito.verify(graph, Mockito.times(2)).putCachedPath(Mockito.anyString(), Mockito.anyListOf(String.class));
+
+    //Any change to the graph discards the cached paths
+    Assert.assertTrue(graph.addFlowEdge(graph.getEdges("LocalFS-1").iterator().next()));
+    spec = createFlowSpec("flow/flow1.conf", "LocalFS-1", "ADLS-1", false, false);
+    Assert.assertEquals(getEdgeIds(graph.findPath(spec)), edgeIds);
+    Mockito.verify(graph, Mockito.times(3)).putCachedPath(Mockito.anyString(), Mockito.anyListOf(String.class));
+  }
+
+  private static List<String> getEdgeIds(FlowGraphPath flowGraphPath) {
+    Assert.assertNotNull(flowGraphPath);
+    Assert.assertEquals(flowGraphPath.getPaths().size(), 1);
+    return flowGraphPath.getPaths().get(0).stream().map(flowEdgeContext -> flowEdgeContext.getEdge().getId())
+        .collect(Collectors.toList());
+  }
+
+  @Test (dependsOnMethods = "testFindPathWithPathCache")
   public void testCompileFlowAfterFirstEdgeDeletion() throws URISyntaxException, IOException {
     //Delete the self edge on HDFS-1 that performs convert-to-json-and-encrypt.
     this.flowGraph.deleteFlowEdge("HDFS-1_HDFS-1_hdfsConvertToJsonAndEncrypt");
@@ -230,4 +230,29 @@ public class BaseFlowGraphTest {
     Assert.assertTrue(!graph.deleteFlowEdge(edgeId2));
     Assert.assertTrue(!graph.deleteFlowEdge(edgeId3));
   }
-}
\ No newline at end of file
+
+  @Test (dependsOnMethods = "testDeleteFlowEdgeById")
+  public void testReachabilityAndPathCache() throws Exception {
+    //No edges left in the graph
+    Assert.assertTrue(graph.isReachable("node1", "node1"));
+    Assert.assertFalse(graph.isReachable("node1", "node2"));
+    Assert.assertFalse(graph.isReachable("node1", "node4"));
+
+    graph.putCachedPath("node1|node3", Lists.newArrayList(edgeId1, edgeId2));
+    Assert.assertEquals(graph.getCachedPath("node1|node3"), Lists.newArrayList(edgeId1, edgeId2));
+
+    //Any change to the graph rebuilds the index and discards cached paths
+    Assert.assertTrue(graph.addFlowEdge(edge1));
+    Assert.assertNull(graph.getCachedPath("node1|node3"));
+    Assert.assertTrue(graph.isReachable("node1", "node2"));
+    Assert.assertFalse(graph.isReachable("node1", "node3"));
+    Assert.assertFalse(graph.isReachable("node2", "node1"));
+
+    Assert.assertTrue(graph.addFlowEdge(edge2));
+    Assert.assertTrue(graph.isReachable("node1", "node3"));
+    Assert.assertFalse(graph.isReachable("node3", "node1"));
+
+    Assert.assertTrue(graph.deleteDataNode("node2"));
+    Assert.assertFalse(graph.isReachable("node1", "node3"));
+  }
+}
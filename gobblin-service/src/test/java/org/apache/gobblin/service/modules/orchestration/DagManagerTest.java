@@ -553,6 +553,41 @@ public class DagManagerTest {
     Assert.assertEquals(this._dagStateStore.getDags().size(), 0);
   }
 
+  @Test
+  public void testPushedJobStatus() throws Exception {
+    long flowExecutionId = System.currentTimeMillis();
+    String flowGroupId = "9";
+    String flowGroup = "group" + flowGroupId;
+    String flowName = "flow" + flowGroupId;
+    JobStatusRetriever jobStatusRetriever = Mockito.mock(JobStatusRetriever.class);
+    LinkedBlockingQueue<Dag<JobExecutionPlan>> dagQueue = new LinkedBlockingQueue<>();
+    LinkedBlockingQueue<JobStatus> jobStatusQueue = new LinkedBlockingQueue<>();
+    // Never fall back to polling the job status store
+    DagManager.DagManagerThread dagManagerThread = new DagManager.DagManagerThread(jobStatusRetriever, _dagStateStore,
+        _dagStateStore, dagQueue, new LinkedBlockingQueue<>(), new LinkedBlockingQueue<>(), true, 5, new HashMap<>(),
+        new ConcurrentHashMap<>(), jobStatusQueue, Long.MAX_VALUE);
+    Field dagsField = DagManager.DagManagerThread.class.getDeclaredField("dags");
+    dagsField.setAccessible(true);
+    Map<String, Dag<JobExecutionPlan>> runningDags = (Map<String, Dag<JobExecutionPlan>>) dagsField.get(dagManagerThread);
+
+    Dag<JobExecutionPlan> dag = buildDag(flowGroupId, flowExecutionId, "FINISH_RUNNING", 1);
+    String dagId = DagManagerUtils.generateDagId(dag);
+    dagQueue.offer(dag);
+
+    //Run the thread twice without any pushed status. The job keeps running and the store is never polled.
+    dagManagerThread.run();
+    dagManagerThread.run();
+    Assert.assertTrue(runningDags.containsKey(dagId));
+    Assert.assertEquals(DagManagerUtils.getExecutionStatus(dag.getStartNodes().get(0)), ExecutionStatus.RUNNING);
+
+    //Push the completion of the job. The next run finishes the dag.
+    jobStatusQueue.offer(getMockJobStatus(flowName, flowGroup, flowExecutionId, flowGroup, "job0",
+        String.valueOf(ExecutionStatus.COMPLETE)).next());
+    dagManagerThread.run();
+    Assert.assertFalse(runningDags.containsKey(dagId));
+    Mockito.verifyZeroInteractions(jobStatusRetriever);
+  }
+
   @AfterClass
   public void cleanUp() throws Exception {
     FileUtils.deleteDirectory(new File(this.dagStateStoreDir));
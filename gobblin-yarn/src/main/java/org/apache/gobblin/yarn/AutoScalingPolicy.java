@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gobblin.yarn;
+
+/**
+ * Decides how many containers the cluster should have, given the current {@link AutoScalingSignals}. A policy is
+ * called once per polling interval by {@link YarnAutoScalingManager} and may keep state across calls.
+ *
+ * <p>
+ *   Implementations are built by {@link YarnAutoScalingManager} with the longest constructor accepting a prefix of
+ *   ({@link com.typesafe.config.Config}, partitionsPerContainer, minContainers, maxContainers, overProvisionFactor,
+ *   {@link YarnAutoScalingManager.SlidingWindowReservoir}).
+ * </p>
+ */
+public interface AutoScalingPolicy {
+
+  /**
+   * @return the number of containers to request, between the configured minimum and maximum.
+   */
+  int getTargetNumberOfContainers(AutoScalingSignals signals);
+
+  /**
+   * @return true if the policy uses the {@link org.apache.gobblin.cluster.ContainerWorkloadMetrics} of the containers.
+   */
+  default boolean isWorkloadAware() {
+    return false;
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gobblin.yarn;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import org.apache.gobblin.cluster.ContainerWorkloadMetrics;
+
+
+/**
+ * What an {@link AutoScalingPolicy} knows about the cluster at a given time.
+ */
+@Getter
+@AllArgsConstructor
+public class AutoScalingSignals {
+  private final long timestampMillis;
+  /** Number of Helix partitions of the active workflows */
+  private final int numPartitions;
+  /** Number of containers that joined the cluster */
+  private final int numContainers;
+  /** Latest workload snapshots of the containers that published one recently */
+  private final List<ContainerWorkloadMetrics> containerWorkloadMetrics;
+
+  public boolean hasWorkloadMetrics() {
+    return !this.containerWorkloadMetrics.isEmpty();
+  }
+
+  public double getTotalRecordsPerSecond() {
+    double total = 0;
+    for (ContainerWorkloadMetrics metrics : this.containerWorkloadMetrics) {
+      total += metrics.getRecordsPerSecond();
+    }
+    return total;
+  }
+
+  public long getTotalBacklogRecords() {
+    long total = 0;
+    for (ContainerWorkloadMetrics metrics : this.containerWorkloadMetrics) {
+      total += metrics.getBacklogRecords();
+    }
+    return total;
+  }
+
+  public double getAverageCpuLoad() {
+    if (this.containerWorkloadMetrics.isEmpty()) {
+      return 0;
+    }
+    double total = 0;
+    for (ContainerWorkloadMetrics metrics : this.containerWorkloadMetrics) {
+      total += metrics.getProcessCpuLoad();
+    }
+    return total / this.containerWorkloadMetrics.size();
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gobblin.yarn;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+
+import org.apache.gobblin.cluster.ContainerWorkloadMetrics;
+
+
+/**
+ * Replays a recorded workload against {@link AutoScalingPolicy}s offline, to compare how many containers they use
+ * and how far behind they let the workload fall.
+ *
+ * <p>
+ *   A workload is a sequence of polling intervals, each with the number of Helix partitions and the rate at which
+ *   records arrive. Every container processes up to a fixed number of records per second, containers requested by a
+ *   policy become available after a provisioning delay, and containers released by a policy go away immediately.
+ *   Records that cannot be processed in an interval are carried over as backlog. The policies see the same signals
+ *   as in a real cluster: the partitions, and the throughput, CPU load and backlog of every container.
+ * </p>
+ *
+ * <p>
+ *   Usage: {@code AutoScalingSimulator <workload file> <records per second per container> <polling interval seconds>
+ *   [policy ...]}, where the workload file has one {@code numPartitions,recordsPerSecond} line per polling interval
+ *   and policies are class names or aliases (by default partitionBased and predictive). Policies are configured from
+ *   the system properties, with the same keys as in the application master.
+ * </p>
+ */
+public class AutoScalingSimulator {
+  private static final Splitter COMMA_SPLITTER = Splitter.on(',').trimResults();
+
+  private final double recordsPerSecondPerContainer;
+  private final long pollingIntervalSeconds;
+  private final int provisioningDelayRounds;
+  private final int initialContainers;
+
+  public AutoScalingSimulator(double recordsPerSecondPerContainer, long pollingIntervalSeconds,
+      int provisioningDelayRounds, int initialContainers) {
+    Preconditions.checkArgument(recordsPerSecondPerContainer > 0, "recordsPerSecondPerContainer needs to be greater than 0");
+    Preconditions.checkArgument(pollingIntervalSeconds > 0, "pollingIntervalSeconds needs to be greater than 0");
+    Preconditions.checkArgument(provisioningDelayRounds >= 0, "provisioningDelayRounds needs to be at least 0");
+    this.recordsPerSecondPerContainer = recordsPerSecondPerContainer;
+    this.pollingIntervalSeconds = pollingIntervalSeconds;
+    this.provisioningDelayRounds = provisioningDelayRounds;
+    this.initialContainers = initialContainers;
+  }
+
+  /**
+   * Workload of one polling interval.
+   */
+  @Getter
+  @AllArgsConstructor
+  public static class WorkloadInterval {
+    private final int numPartitions;
+    private final double recordsPerSecond;
+  }
+
+  /**
+   * Outcome of replaying a workload against a policy.
+   */
+  @Data
+  public static class SimulationResult {
+    /** Sum over the intervals of the number of running containers */
+    private long containerIntervals;
+    private int maxContainers;
+    private long maxBacklogRecords;
+    private long finalBacklogRecords;
+    /** Intervals at the end of which the backlog was more than one interval worth of records */
+    private int intervalsBehind;
+    private int scaleEvents;
+  }
+
+  public SimulationResult simulate(AutoScalingPolicy policy, List<WorkloadInterval> workload) {
+    SimulationResult result = new SimulationResult();
+    // Target sizes requested by the policy, applied after the provisioning delay
+    Deque<Integer> pendingTargets = new ArrayDeque<>(Collections.nCopies(this.provisioningDelayRounds,
+        this.initialContainers));
+    int runningContainers = this.initialContainers;
+    int lastTarget = this.initialContainers;
+    double backlog = 0;
+
+    for (int round = 0; round < workload.size(); round++) {
+      WorkloadInterval interval = workload.get(round);
+
+      double arrivingRecords = interval.getRecordsPerSecond() * this.pollingIntervalSeconds;
+      double capacity = runningContainers * this.recordsPerSecondPerContainer * this.pollingIntervalSeconds;
+      double processedRecords = Math.min(backlog + arrivingRecords, capacity);
+      backlog = backlog + arrivingRecords - processedRecords;
+
+      result.setContainerIntervals(result.getContainerIntervals() + runningContainers);
+      result.setMaxContainers(Math.max(result.getMaxContainers(), runningContainers));
+      result.setMaxBacklogRecords(Math.max(result.getMaxBacklogRecords(), (long) backlog));
+      if (backlog > arrivingRecords) {
+        result.setIntervalsBehind(result.getIntervalsBehind() + 1);
+      }
+
+      int target = policy.getTargetNumberOfContainers(new AutoScalingSignals(round * this.pollingIntervalSeconds * 1000,
+          interval.getNumPartitions(), runningContainers,
+          getWorkloadMetrics(round, runningContainers, processedRecords, capacity, backlog)));
+      if (target != lastTarget) {
+        result.setScaleEvents(result.getScaleEvents() + 1);
+        lastTarget = target;
+      }
+
+      // Releasing containers is immediate, getting new ones takes the provisioning delay
+      pendingTargets.addLast(target);
+      int nextContainers = pendingTargets.removeFirst();
+      runningContainers = Math.min(target, nextContainers);
+    }
+
+    result.setFinalBacklogRecords((long) backlog);
+    return result;
+  }
+
+  private List<ContainerWorkloadMetrics> getWorkloadMetrics(int round, int runningContainers, double processedRecords,
+      double capacity, double backlog) {
+    List<ContainerWorkloadMetrics> workloadMetrics = new ArrayList<>(runningContainers);
+    for (int i = 0; i < runningContainers; i++) {
+      workloadMetrics.add(new ContainerWorkloadMetrics("container-" + i, round * this.pollingIntervalSeconds * 1000,
+          processedRecords / capacity, processedRecords / this.pollingIntervalSeconds / runningContainers,
+          (long) (backlog / runningContainers)));
+    }
+    return workloadMetrics;
+  }
+
+  /**
+   * Read a workload with one {@code numPartitions,recordsPerSecond} line per polling interval. Empty lines and lines
+   * starting with {@code #} are skipped.
+   */
+  public static List<WorkloadInterval> readWorkload(BufferedReader reader) throws IOException {
+    List<WorkloadInterval> workload = new ArrayList<>();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      List<String> fields = COMMA_SPLITTER.splitToList(line);
+      Preconditions.checkArgument(fields.size() == 2, "Invalid workload line: " + line);
+      workload.add(new WorkloadInterval(Integer.parseInt(fields.get(0)), Double.parseDouble(fields.get(1))));
+    }
+    return workload;
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 3) {
+      System.err.println("Usage: AutoScalingSimulator <workload file> <records per second per container> "
+          + "<polling interval seconds> [policy ...]");
+      System.exit(1);
+    }
+
+    List<WorkloadInterval> workload;
+    try (BufferedReader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+      workload = readWorkload(reader);
+    }
+    double recordsPerSecondPerContainer = Double.parseDouble(args[1]);
+    long pollingIntervalSeconds = Long.parseLong(args[2]);
+    List<String> policies = new ArrayList<>();
+    for (int i = 3; i < args.length; i++) {
+      policies.add(args[i]);
+    }
+    if (policies.isEmpty()) {
+      policies.add("partitionBased");
+      policies.add("predictive");
+    }
+
+    Config config = ConfigFactory.systemProperties();
+    int partitionsPerContainer = Integer.getInteger("partitionsPerContainer", 1);
+    int minContainers = Integer.getInteger("minContainers", 1);
+    int maxContainers = Integer.getInteger("maxContainers", 1000);
+    int provisioningDelayRounds = Integer.getInteger("provisioningDelayRounds", 1);
+    AutoScalingSimulator simulator =
+        new AutoScalingSimulator(recordsPerSecondPerContainer, pollingIntervalSeconds, provisioningDelayRounds,
+            minContainers);
+
+    System.out.println(String.format("%-20s %20s %15s %20s %15s %15s", "policy", "container-intervals",
+        "max containers", "max backlog", "intervals behind", "scale events"));
+    for (String policyName : policies) {
+      AutoScalingPolicy policy = YarnAutoScalingManager.createAutoScalingPolicy(policyName, config,
+          partitionsPerContainer, minContainers, maxContainers, 1.0,
+          new YarnAutoScalingManager.SlidingWindowReservoir(maxContainers));
+      SimulationResult result = simulator.simulate(policy, workload);
+      System.out.println(String.format("%-20s %20d %15d %20d %15d %15d", policyName, result.getContainerIntervals(),
+          result.getMaxContainers(), result.getMaxBacklogRecords(), result.getIntervalsBehind(),
+          result.getScaleEvents()));
+    }
+  }
+}
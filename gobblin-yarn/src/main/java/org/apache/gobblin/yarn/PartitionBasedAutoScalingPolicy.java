@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gobblin.yarn;
+
+import com.typesafe.config.Config;
+
+import org.apache.gobblin.annotation.Alias;
+
+
+/**
+ * The default {@link AutoScalingPolicy}: one container for every partitionsPerContainer Helix partitions, scaled by
+ * a constant overprovision factor, and the maximum of that value over a sliding window to avoid scaling down on
+ * temporary drops of the number of partitions.
+ */
+@Alias(value = "partitionBased")
+public class PartitionBasedAutoScalingPolicy implements AutoScalingPolicy {
+  private final int partitionsPerContainer;
+  private final int minContainers;
+  private final int maxContainers;
+  private final double overProvisionFactor;
+  private final YarnAutoScalingManager.SlidingWindowReservoir slidingWindowReservoir;
+
+  public PartitionBasedAutoScalingPolicy(Config config, int partitionsPerContainer, int minContainers,
+      int maxContainers, double overProvisionFactor, YarnAutoScalingManager.SlidingWindowReservoir slidingWindowReservoir) {
+    this(partitionsPerContainer, minContainers, maxContainers, overProvisionFactor, slidingWindowReservoir);
+  }
+
+  public PartitionBasedAutoScalingPolicy(int partitionsPerContainer, int minContainers, int maxContainers,
+      double overProvisionFactor, YarnAutoScalingManager.SlidingWindowReservoir slidingWindowReservoir) {
+    this.partitionsPerContainer = partitionsPerContainer;
+    this.minContainers = minContainers;
+    this.maxContainers = maxContainers;
+    this.overProvisionFactor = overProvisionFactor;
+    this.slidingWindowReservoir = slidingWindowReservoir;
+  }
+
+  @Override
+  public int getTargetNumberOfContainers(AutoScalingSignals signals) {
+    // compute the target containers as a ceiling of number of partitions divided by the number of containers
+    // per partition. Scale the result by a constant overprovision factor.
+    int numTargetContainers = (int) Math.ceil(((double) signals.getNumPartitions() / this.partitionsPerContainer)
+        * this.overProvisionFactor);
+
+    // adjust the number of target containers based on the configured min and max container values.
+    numTargetContainers = Math.max(this.minContainers, Math.min(this.maxContainers, numTargetContainers));
+
+    this.slidingWindowReservoir.add(numTargetContainers);
+
+    return this.slidingWindowReservoir.getMax();
+  }
+}
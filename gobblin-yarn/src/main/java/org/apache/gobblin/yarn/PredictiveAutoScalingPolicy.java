@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gobblin.yarn;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.typesafe.config.Config;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.gobblin.annotation.Alias;
+import org.apache.gobblin.util.ConfigUtils;
+
+
+/**
+ * An {@link AutoScalingPolicy} that sizes the cluster from the throughput, backlog and CPU load reported by the
+ * containers, forecasts the demand a few polling intervals ahead, and applies hysteresis before changing the size.
+ *
+ * <p>
+ *   The demand of a polling interval, in containers, is the rate needed to keep up with the observed throughput and
+ *   to drain the reported backlog within {@link #BACKLOG_CATCH_UP_SECONDS} seconds, divided by the throughput of a
+ *   single container. That throughput is {@link #RECORDS_PER_SECOND_PER_CONTAINER} if set, and is otherwise estimated
+ *   from the observed throughput and CPU load, assuming containers should run at {@link #TARGET_CPU_UTILIZATION}.
+ *   It never exceeds the number of partitions, since a partition runs in a single container, and falls back to
+ *   one container per partitionsPerContainer partitions when no container reported metrics.
+ * </p>
+ *
+ * <p>
+ *   The demand is smoothed with Holt's double exponential smoothing (level {@link #LEVEL_SMOOTHING}, trend
+ *   {@link #TREND_SMOOTHING}) and forecast {@link #FORECAST_HORIZON_ROUNDS} polling intervals ahead, to cover the time
+ *   it takes to get new containers. The cluster is scaled up as soon as the forecast exceeds the current size by
+ *   {@link #SCALE_UP_THRESHOLD}, and scaled down only after the forecast stayed below the current size by
+ *   {@link #SCALE_DOWN_THRESHOLD} for {@link #SCALE_DOWN_STABLE_ROUNDS} consecutive intervals, by at most
+ *   {@link #MAX_SCALE_DOWN_FRACTION} of the containers at a time.
+ * </p>
+ */
+@Slf4j
+@Alias(value = "predictive")
+public class PredictiveAutoScalingPolicy implements AutoScalingPolicy {
+  public static final String PREDICTIVE_AUTO_SCALING_PREFIX =
+      GobblinYarnConfigurationKeys.GOBBLIN_YARN_PREFIX + "autoScaling.predictive.";
+  public static final String RECORDS_PER_SECOND_PER_CONTAINER =
+      PREDICTIVE_AUTO_SCALING_PREFIX + "recordsPerSecondPerContainer";
+  public static final double DEFAULT_RECORDS_PER_SECOND_PER_CONTAINER = 0;
+  public static final String TARGET_CPU_UTILIZATION = PREDICTIVE_AUTO_SCALING_PREFIX + "targetCpuUtilization";
+  public static final double DEFAULT_TARGET_CPU_UTILIZATION = 0.7;
+  public static final String BACKLOG_CATCH_UP_SECONDS = PREDICTIVE_AUTO_SCALING_PREFIX + "backlogCatchUpSeconds";
+  public static final long DEFAULT_BACKLOG_CATCH_UP_SECONDS = 600;
+  public static final String LEVEL_SMOOTHING = PREDICTIVE_AUTO_SCALING_PREFIX + "levelSmoothing";
+  public static final double DEFAULT_LEVEL_SMOOTHING = 0.5;
+  public static final String TREND_SMOOTHING = PREDICTIVE_AUTO_SCALING_PREFIX + "trendSmoothing";
+  public static final double DEFAULT_TREND_SMOOTHING = 0.3;
+  public static final String FORECAST_HORIZON_ROUNDS = PREDICTIVE_AUTO_SCALING_PREFIX + "forecastHorizonRounds";
+  public static final int DEFAULT_FORECAST_HORIZON_ROUNDS = 2;
+  public static final String SCALE_UP_THRESHOLD = PREDICTIVE_AUTO_SCALING_PREFIX + "scaleUpThreshold";
+  public static final double DEFAULT_SCALE_UP_THRESHOLD = 0.1;
+  public static final String SCALE_DOWN_THRESHOLD = PREDICTIVE_AUTO_SCALING_PREFIX + "scaleDownThreshold";
+  public static final double DEFAULT_SCALE_DOWN_THRESHOLD = 0.2;
+  public static final String SCALE_DOWN_STABLE_ROUNDS = PREDICTIVE_AUTO_SCALING_PREFIX + "scaleDownStableRounds";
+  public static final int DEFAULT_SCALE_DOWN_STABLE_ROUNDS = 5;
+  public static final String MAX_SCALE_DOWN_FRACTION = PREDICTIVE_AUTO_SCALING_PREFIX + "maxScaleDownFraction";
+  public static final double DEFAULT_MAX_SCALE_DOWN_FRACTION = 0.5;
+
+  private final int partitionsPerContainer;
+  private final int minContainers;
+  private final int maxContainers;
+  private final double recordsPerSecondPerContainer;
+  private final double targetCpuUtilization;
+  private final long backlogCatchUpSeconds;
+  private final double levelSmoothing;
+  private final double trendSmoothing;
+  private final int forecastHorizonRounds;
+  private final double scaleUpThreshold;
+  private final double scaleDownThreshold;
+  private final int scaleDownStableRounds;
+  private final double maxScaleDownFraction;
+
+  private boolean initialized = false;
+  private double level;
+  private double trend;
+  private int scaleDownRounds = 0;
+  @Getter
+  private int currentTarget;
+
+  public PredictiveAutoScalingPolicy(Config config, int partitionsPerContainer, int minContainers, int maxContainers) {
+    this.partitionsPerContainer = partitionsPerContainer;
+    this.minContainers = minContainers;
+    this.maxContainers = maxContainers;
+    this.recordsPerSecondPerContainer = ConfigUtils.getDouble(config, RECORDS_PER_SECOND_PER_CONTAINER,
+        DEFAULT_RECORDS_PER_SECOND_PER_CONTAINER);
+    this.targetCpuUtilization = ConfigUtils.getDouble(config, TARGET_CPU_UTILIZATION, DEFAULT_TARGET_CPU_UTILIZATION);
+    this.backlogCatchUpSeconds = ConfigUtils.getLong(config, BACKLOG_CATCH_UP_SECONDS, DEFAULT_BACKLOG_CATCH_UP_SECONDS);
+    this.levelSmoothing = ConfigUtils.getDouble(config, LEVEL_SMOOTHING, DEFAULT_LEVEL_SMOOTHING);
+    this.trendSmoothing = ConfigUtils.getDouble(config, TREND_SMOOTHING, DEFAULT_TREND_SMOOTHING);
+    this.forecastHorizonRounds = ConfigUtils.getInt(config, FORECAST_HORIZON_ROUNDS, DEFAULT_FORECAST_HORIZON_ROUNDS);
+    this.scaleUpThreshold = ConfigUtils.getDouble(config, SCALE_UP_THRESHOLD, DEFAULT_SCALE_UP_THRESHOLD);
+    this.scaleDownThreshold = ConfigUtils.getDouble(config, SCALE_DOWN_THRESHOLD, DEFAULT_SCALE_DOWN_THRESHOLD);
+    this.scaleDownStableRounds = ConfigUtils.getInt(config, SCALE_DOWN_STABLE_ROUNDS, DEFAULT_SCALE_DOWN_STABLE_ROUNDS);
+    this.maxScaleDownFraction = ConfigUtils.getDouble(config, MAX_SCALE_DOWN_FRACTION, DEFAULT_MAX_SCALE_DOWN_FRACTION);
+
+    Preconditions.checkArgument(this.targetCpuUtilization > 0 && this.targetCpuUtilization <= 1,
+        TARGET_CPU_UTILIZATION + " needs to be in (0, 1]");
+    Preconditions.checkArgument(this.backlogCatchUpSeconds > 0, BACKLOG_CATCH_UP_SECONDS + " needs to be greater than 0");
+    Preconditions.checkArgument(this.levelSmoothing > 0 && this.levelSmoothing <= 1, LEVEL_SMOOTHING + " needs to be in (0, 1]");
+    Preconditions.checkArgument(this.trendSmoothing >= 0 && this.trendSmoothing <= 1, TREND_SMOOTHING + " needs to be in [0, 1]");
+    Preconditions.checkArgument(this.forecastHorizonRounds >= 0, FORECAST_HORIZON_ROUNDS + " needs to be at least 0");
+    Preconditions.checkArgument(this.maxScaleDownFraction > 0 && this.maxScaleDownFraction <= 1,
+        MAX_SCALE_DOWN_FRACTION + " needs to be in (0, 1]");
+
+    this.currentTarget = minContainers;
+  }
+
+  @Override
+  public synchronized int getTargetNumberOfContainers(AutoScalingSignals signals) {
+    double demand = computeDemand(signals);
+    // a partition runs in a single container, so more containers than partitions would be idle
+    double forecast = Math.min(forecast(demand), signals.getNumPartitions());
+    int desired = bound((int) Math.ceil(forecast));
+
+    if (desired > this.currentTarget) {
+      this.scaleDownRounds = 0;
+      if (desired >= this.currentTarget * (1 + this.scaleUpThreshold)) {
+        log.info("Scaling up from {} to {} containers, demand {}, forecast {}", this.currentTarget, desired, demand,
+            forecast);
+        this.currentTarget = desired;
+      }
+    } else if (desired <= this.currentTarget * (1 - this.scaleDownThreshold)) {
+      this.scaleDownRounds++;
+      if (this.scaleDownRounds >= this.scaleDownStableRounds) {
+        int floor = (int) Math.ceil(this.currentTarget * (1 - this.maxScaleDownFraction));
+        int newTarget = bound(Math.max(desired, floor));
+        log.info("Scaling down from {} to {} containers, demand {}, forecast {}", this.currentTarget, newTarget, demand,
+            forecast);
+        this.currentTarget = newTarget;
+        this.scaleDownRounds = 0;
+      }
+    } else {
+      this.scaleDownRounds = 0;
+    }
+
+    this.currentTarget = bound(this.currentTarget);
+    return this.currentTarget;
+  }
+
+  @Override
+  public boolean isWorkloadAware() {
+    return true;
+  }
+
+  /**
+   * @return the number of containers needed for the current workload.
+   */
+  @VisibleForTesting
+  double computeDemand(AutoScalingSignals signals) {
+    int numPartitions = signals.getNumPartitions();
+    if (numPartitions == 0) {
+      return 0;
+    }
+    double partitionDemand = Math.ceil((double) numPartitions / this.partitionsPerContainer);
+    if (!signals.hasWorkloadMetrics()) {
+      return partitionDemand;
+    }
+
+    int reportingContainers = signals.getContainerWorkloadMetrics().size();
+    double recordsPerSecond = signals.getTotalRecordsPerSecond();
+    double averageCpuLoad = signals.getAverageCpuLoad();
+    double requiredRecordsPerSecond = recordsPerSecond
+        + (double) signals.getTotalBacklogRecords() / this.backlogCatchUpSeconds;
+
+    double demand;
+    if (this.recordsPerSecondPerContainer > 0) {
+      demand = requiredRecordsPerSecond / this.recordsPerSecondPerContainer;
+    } else if (recordsPerSecond > 0 && averageCpuLoad > 0) {
+      double containerRecordsPerSecond = recordsPerSecond / reportingContainers * this.targetCpuUtilization / averageCpuLoad;
+      demand = requiredRecordsPerSecond / containerRecordsPerSecond;
+    } else if (averageCpuLoad > 0) {
+      demand = reportingContainers * averageCpuLoad / this.targetCpuUtilization;
+    } else {
+      return partitionDemand;
+    }
+    return Math.min(demand, numPartitions);
+  }
+
+  /**
+   * Update the smoothed level and trend with the latest demand and return the forecast demand.
+   */
+  private double forecast(double demand) {
+    if (!this.initialized) {
+      this.level = demand;
+      this.trend = 0;
+      this.initialized = true;
+    } else {
+      double previousLevel = this.level;
+      this.level = this.levelSmoothing * demand + (1 - this.levelSmoothing) * (this.level + this.trend);
+      this.trend = this.trendSmoothing * (this.level - previousLevel) + (1 - this.trendSmoothing) * this.trend;
+    }
+    return Math.max(0, this.level + this.trend * this.forecastHorizonRounds);
+  }
+
+  private int bound(int numContainers) {
+    return Math.max(this.minContainers, Math.min(this.maxContainers, numContainers));
+  }
+}
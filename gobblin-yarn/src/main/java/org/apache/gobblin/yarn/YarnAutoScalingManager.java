@@ -18,9 +18,12 @@
 package org.apache.gobblin.yarn;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
@@ -29,9 +32,12 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import org.apache.helix.AccessOption;
 import org.apache.helix.HelixDataAccessor;
 import org.apache.helix.HelixManager;
 import org.apache.helix.PropertyKey;
+import org.apache.helix.ZNRecord;
+import org.apache.helix.store.HelixPropertyStore;
 import org.apache.helix.task.JobContext;
 import org.apache.helix.task.JobDag;
 import org.apache.helix.task.TaskDriver;
@@ -48,8 +54,11 @@ import com.typesafe.config.Config;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.apache.gobblin.cluster.ContainerWorkloadMetrics;
+import org.apache.gobblin.util.ClassAliasResolver;
 import org.apache.gobblin.util.ConfigUtils;
 import org.apache.gobblin.util.ExecutorsUtils;
+import org.apache.gobblin.util.reflection.GobblinConstructorUtils;
 
 import static org.apache.gobblin.yarn.GobblinYarnTaskRunner.HELIX_YARN_INSTANCE_NAME_PREFIX;
 
@@ -57,6 +66,12 @@ import static org.apache.gobblin.yarn.GobblinYarnTaskRunner.HELIX_YARN_INSTANCE_
 /**
  * The autoscaling manager is responsible for figuring out how many containers are required for the workload and
  * requesting the {@link YarnService} to request that many containers.
+ *
+ * <p>
+ *   The number of containers is decided by the {@link AutoScalingPolicy} set with {@link #AUTO_SCALING_POLICY}, which
+ *   defaults to the {@link PartitionBasedAutoScalingPolicy}. Workload-aware policies also get the
+ *   {@link ContainerWorkloadMetrics} that containers publish to the Helix property store.
+ * </p>
  */
 @Slf4j
 public class YarnAutoScalingManager extends AbstractIdleService {
@@ -80,6 +95,14 @@ public class YarnAutoScalingManager extends AbstractIdleService {
 
   private final String AUTO_SCALING_WINDOW_SIZE = AUTO_SCALING_PREFIX + "windowSize";
 
+  // Name or alias of the AutoScalingPolicy class
+  public static final String AUTO_SCALING_POLICY = GobblinYarnConfigurationKeys.GOBBLIN_YARN_PREFIX + "autoScaling.policy";
+  public static final String DEFAULT_AUTO_SCALING_POLICY = PartitionBasedAutoScalingPolicy.class.getName();
+  // Workload metrics older than this are ignored, e.g. for containers that stopped publishing them
+  public static final String AUTO_SCALING_WORKLOAD_METRICS_MAX_AGE_SECS =
+      GobblinYarnConfigurationKeys.GOBBLIN_YARN_PREFIX + "autoScaling.workloadMetricsMaxAgeSeconds";
+  public static final long DEFAULT_AUTO_SCALING_WORKLOAD_METRICS_MAX_AGE_SECS = 300;
+
   private final static int DEFAULT_MAX_IDLE_TIME_BEFORE_SCALING_DOWN_MINUTES = 10;
 
   private final Config config;
@@ -91,6 +114,7 @@ public class YarnAutoScalingManager extends AbstractIdleService {
   private final int maxContainers;
   private final double overProvisionFactor;
   private final SlidingWindowReservoir slidingFixedSizeWindow;
+  private final AutoScalingPolicy autoScalingPolicy;
   private static int maxIdleTimeInMinutesBeforeScalingDown = DEFAULT_MAX_IDLE_TIME_BEFORE_SCALING_DOWN_MINUTES;
 
   public YarnAutoScalingManager(GobblinApplicationMaster appMaster) {
@@ -126,6 +150,10 @@ public class YarnAutoScalingManager extends AbstractIdleService {
         ? new SlidingWindowReservoir(maxContainers, config.getInt(AUTO_SCALING_WINDOW_SIZE))
         : new SlidingWindowReservoir(maxContainers);
 
+    this.autoScalingPolicy = createAutoScalingPolicy(ConfigUtils.getString(this.config, AUTO_SCALING_POLICY,
+        DEFAULT_AUTO_SCALING_POLICY), this.config, this.partitionsPerContainer, this.minContainers, this.maxContainers,
+        this.overProvisionFactor, this.slidingFixedSizeWindow);
+
     this.autoScalingExecutor = Executors.newSingleThreadScheduledExecutor(
         ExecutorsUtils.newThreadFactory(Optional.of(log), Optional.of("AutoScalingExecutor")));
   }
@@ -139,10 +167,32 @@ public class YarnAutoScalingManager extends AbstractIdleService {
     log.info("Starting the " + YarnAutoScalingManager.class.getSimpleName());
     log.info("Scheduling the auto scaling task with an interval of {} seconds", scheduleInterval);
 
+    log.info("Using auto scaling policy {}", this.autoScalingPolicy.getClass().getName());
+
+    Optional<HelixPropertyStore<ZNRecord>> workloadMetricsStore = this.autoScalingPolicy.isWorkloadAware()
+        ? Optional.<HelixPropertyStore<ZNRecord>>of(this.helixManager.getHelixPropertyStore())
+        : Optional.<HelixPropertyStore<ZNRecord>>absent();
+    long workloadMetricsMaxAgeMillis = TimeUnit.SECONDS.toMillis(ConfigUtils.getLong(this.config,
+        AUTO_SCALING_WORKLOAD_METRICS_MAX_AGE_SECS, DEFAULT_AUTO_SCALING_WORKLOAD_METRICS_MAX_AGE_SECS));
+
     this.autoScalingExecutor.scheduleAtFixedRate(new YarnAutoScalingRunnable(new TaskDriver(this.helixManager),
-            this.yarnService, this.partitionsPerContainer, this.minContainers, this.maxContainers, this.overProvisionFactor,
-            this.slidingFixedSizeWindow, this.helixManager.getHelixDataAccessor()), initialDelay, scheduleInterval,
-        TimeUnit.SECONDS);
+            this.yarnService, this.autoScalingPolicy, this.helixManager.getHelixDataAccessor(), workloadMetricsStore,
+            workloadMetricsMaxAgeMillis), initialDelay, scheduleInterval, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Build an {@link AutoScalingPolicy} from its class name or alias, with its longest constructor accepting a prefix
+   * of the other arguments.
+   */
+  static AutoScalingPolicy createAutoScalingPolicy(String policy, Config config, int partitionsPerContainer,
+      int minContainers, int maxContainers, double overProvisionFactor, SlidingWindowReservoir slidingWindowReservoir) {
+    try {
+      ClassAliasResolver<AutoScalingPolicy> aliasResolver = new ClassAliasResolver<>(AutoScalingPolicy.class);
+      return GobblinConstructorUtils.invokeLongestConstructor(aliasResolver.resolveClass(policy), config,
+          partitionsPerContainer, minContainers, maxContainers, overProvisionFactor, slidingWindowReservoir);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("Could not create auto scaling policy " + policy, e);
+    }
   }
 
   @Override
@@ -161,18 +211,23 @@ public class YarnAutoScalingManager extends AbstractIdleService {
   static class YarnAutoScalingRunnable implements Runnable {
     private final TaskDriver taskDriver;
     private final YarnService yarnService;
-    private final int partitionsPerContainer;
-    private final int minContainers;
-    private final int maxContainers;
-    private final double overProvisionFactor;
-    private final SlidingWindowReservoir slidingWindowReservoir;
+    private final AutoScalingPolicy autoScalingPolicy;
     private final HelixDataAccessor helixDataAccessor;
+    private final Optional<HelixPropertyStore<ZNRecord>> workloadMetricsStore;
+    private final long workloadMetricsMaxAgeMillis;
     /**
      * A static map that keep track of an idle instance and its latest beginning idle time.
      * If an instance is no longer idle when inspected, it will be dropped from this map.
      */
     private static final Map<String, Long> instanceIdleSince = new HashMap<>();
 
+    YarnAutoScalingRunnable(TaskDriver taskDriver, YarnService yarnService, int partitionsPerContainer,
+        int minContainers, int maxContainers, double overProvisionFactor, SlidingWindowReservoir slidingWindowReservoir,
+        HelixDataAccessor helixDataAccessor) {
+      this(taskDriver, yarnService, new PartitionBasedAutoScalingPolicy(partitionsPerContainer, minContainers,
+          maxContainers, overProvisionFactor, slidingWindowReservoir), helixDataAccessor,
+          Optional.<HelixPropertyStore<ZNRecord>>absent(), 0L);
+    }
 
     @Override
     public void run() {
@@ -195,6 +250,29 @@ public class YarnAutoScalingManager extends AbstractIdleService {
           .keySet().stream().filter(x -> filterString.isEmpty() || x.contains(filterString)).collect(Collectors.toSet());
     }
 
+    /**
+     * Get the recent {@link ContainerWorkloadMetrics} published by the given participants, if the policy uses them.
+     */
+    private List<ContainerWorkloadMetrics> getWorkloadMetrics(Set<String> participants) {
+      if (!this.workloadMetricsStore.isPresent()) {
+        return Collections.emptyList();
+      }
+
+      long now = System.currentTimeMillis();
+      List<ContainerWorkloadMetrics> workloadMetrics = new ArrayList<>();
+      for (String participant : participants) {
+        ZNRecord record = this.workloadMetricsStore.get()
+            .get(ContainerWorkloadMetrics.getPropertyStorePath(participant), null, AccessOption.PERSISTENT);
+        if (record != null) {
+          ContainerWorkloadMetrics metrics = ContainerWorkloadMetrics.fromZNRecord(record);
+          if (now - metrics.getTimestampMillis() <= this.workloadMetricsMaxAgeMillis) {
+            workloadMetrics.add(metrics);
+          }
+        }
+      }
+      return workloadMetrics;
+    }
+
     /**
      * Iterate through the workflows configured in Helix to figure out the number of required partitions
      * and request the {@link YarnService} to scale to the desired number of containers.
@@ -254,18 +332,13 @@ public class YarnAutoScalingManager extends AbstractIdleService {
         }
       }
 
-      // compute the target containers as a ceiling of number of partitions divided by the number of containers
-      // per partition. Scale the result by a constant overprovision factor.
-      int numTargetContainers = (int) Math.ceil(((double)numPartitions / this.partitionsPerContainer) * this.overProvisionFactor);
-
-      // adjust the number of target containers based on the configured min and max container values.
-      numTargetContainers = Math.max(this.minContainers, Math.min(this.maxContainers, numTargetContainers));
-
-      slidingWindowReservoir.add(numTargetContainers);
+      AutoScalingSignals signals = new AutoScalingSignals(System.currentTimeMillis(), numPartitions,
+          allParticipants.size(), getWorkloadMetrics(allParticipants));
+      int numTargetContainers = this.autoScalingPolicy.getTargetNumberOfContainers(signals);
 
       log.info("There are {} containers being requested", numTargetContainers);
 
-      this.yarnService.requestTargetNumberOfContainers(slidingWindowReservoir.getMax(), inUseInstances);
+      this.yarnService.requestTargetNumberOfContainers(numTargetContainers, inUseInstances);
     }
 
     @VisibleForTesting
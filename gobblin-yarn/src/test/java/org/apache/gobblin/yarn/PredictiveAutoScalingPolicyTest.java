@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.gobblin.yarn;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import org.apache.gobblin.cluster.ContainerWorkloadMetrics;
+
+
+/**
+ * Unit tests for {@link PredictiveAutoScalingPolicy} and {@link AutoScalingSimulator}
+ */
+public class PredictiveAutoScalingPolicyTest {
+
+  @Test
+  public void testHysteresis() {
+    // No smoothing, trend or forecast horizon, so that the desired size is the current demand
+    Config config = ConfigFactory.parseMap(ImmutableMap.<String, Object>builder()
+        .put(PredictiveAutoScalingPolicy.RECORDS_PER_SECOND_PER_CONTAINER, 100)
+        .put(PredictiveAutoScalingPolicy.LEVEL_SMOOTHING, 1.0)
+        .put(PredictiveAutoScalingPolicy.TREND_SMOOTHING, 0.0)
+        .put(PredictiveAutoScalingPolicy.FORECAST_HORIZON_ROUNDS, 0)
+        .put(PredictiveAutoScalingPolicy.SCALE_DOWN_STABLE_ROUNDS, 3)
+        .build());
+    PredictiveAutoScalingPolicy policy = new PredictiveAutoScalingPolicy(config, 1, 1, 1000);
+
+    Assert.assertEquals(policy.getTargetNumberOfContainers(signals(1000, 10000)), 100);
+    // Within the scale up threshold
+    Assert.assertEquals(policy.getTargetNumberOfContainers(signals(1000, 10500)), 100);
+    Assert.assertEquals(policy.getTargetNumberOfContainers(signals(1000, 12000)), 120);
+
+    // Scaling down needs 3 consecutive rounds below the scale down threshold
+    Assert.assertEquals(policy.getTargetNumberOfContainers(signals(1000, 9000)), 120);
+    Assert.assertEquals(policy.getTargetNumberOfContainers(signals(1000, 9000)), 120);
+    Assert.assertEquals(policy.getTargetNumberOfContainers(signals(1000, 10000)), 120);
+    Assert.assertEquals(policy.getTargetNumberOfContainers(signals(1000, 9000)), 120);
+    Assert.assertEquals(policy.getTargetNumberOfContainers(signals(1000, 9000)), 120);
+    Assert.assertEquals(policy.getTargetNumberOfContainers(signals(1000, 9000)), 90);
+
+    // Never more containers than partitions, never less than the minimum
+    Assert.assertEquals(policy.getTargetNumberOfContainers(signals(100, 50000)), 100);
+    Assert.assertEquals(policy.computeDemand(signals(0, 0)), 0.0);
+  }
+
+  @Test
+  public void testDemandWithoutWorkloadMetrics() {
+    PredictiveAutoScalingPolicy policy = new PredictiveAutoScalingPolicy(ConfigFactory.empty(), 4, 1, 1000);
+    Assert.assertEquals(policy.computeDemand(new AutoScalingSignals(0, 10, 0,
+        Collections.<ContainerWorkloadMetrics>emptyList())), 3.0);
+  }
+
+  @Test
+  public void testSimulator() {
+    // A steady workload with a spike, which the partition based policy handles by always provisioning for the spike
+    List<AutoScalingSimulator.WorkloadInterval> workload = new ArrayList<>();
+    for (int i = 0; i < 70; i++) {
+      workload.add(new AutoScalingSimulator.WorkloadInterval(50, i >= 30 && i < 40 ? 4000 : 1000));
+    }
+    AutoScalingSimulator simulator = new AutoScalingSimulator(100, 60, 1, 1);
+
+    AutoScalingSimulator.SimulationResult partitionBased = simulator.simulate(
+        new PartitionBasedAutoScalingPolicy(1, 1, 1000, 1.0, new YarnAutoScalingManager.SlidingWindowReservoir(1000)),
+        workload);
+    AutoScalingSimulator.SimulationResult predictive =
+        simulator.simulate(new PredictiveAutoScalingPolicy(ConfigFactory.empty(), 1, 1, 1000), workload);
+
+    Assert.assertEquals(partitionBased.getMaxContainers(), 50);
+    Assert.assertTrue(predictive.getMaxContainers() <= 50);
+    Assert.assertTrue(predictive.getContainerIntervals() < partitionBased.getContainerIntervals());
+    Assert.assertEquals(predictive.getFinalBacklogRecords(), 0L);
+  }
+
+  private static AutoScalingSignals signals(int numPartitions, double recordsPerSecond) {
+    return new AutoScalingSignals(0, numPartitions, 1, Collections.singletonList(
+        new ContainerWorkloadMetrics("container", 0, 0.5, recordsPerSecond, 0)));
+  }
+}